@@ -20,5 +20,21 @@ interface ModelServerPathParametersV1 {
    String ELEMENT_NAME = "elementname";
    String SCHEMA_NAME = "schemaname";
    String TIMEOUT = "timeout";
+   String REVISION = "revision";
+   String OVERWRITE = "overwrite";
+   String PREFIX = "prefix";
+   String TYPE = "type";
+   String FILTER = "filter";
+   String OFFSET = "offset";
+   String LIMIT = "limit";
+   String CURSOR = "cursor";
+   String SEARCH_QUERY = "q";
+   String FIELDS = "fields";
+   String DEPTH = "depth";
+   String FEATURE = "feature";
+   String WITH_MODEL_URI = "with";
+   String NS_URI = "nsuri";
+   String ECLASS = "eclass";
+   String DEFINITIONS = "definitions";
 
 }
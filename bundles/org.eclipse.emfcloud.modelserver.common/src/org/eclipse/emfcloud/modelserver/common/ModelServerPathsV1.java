@@ -12,10 +12,20 @@ package org.eclipse.emfcloud.modelserver.common;
 
 interface ModelServerPathsV1 {
 
-   String MODEL_BASE_PATH = "models"; // accepts query parameter "modeluri"
-   String MODEL_ELEMENT = "modelelement"; // accepts query parameters "modeluri" and either "elementId" or "elementname"
+   String MODEL_BASE_PATH = "models"; // accepts query parameters "modeluri", "format", "revision", "fields", "depth"
+   String MODEL_ELEMENT = "modelelement"; // accepts "modeluri", "elementid" or "elementname", "format", "revision",
+                                          // "fields" and "depth"
+   String QUERY = "query"; // accepts "modeluri", "type", "filter" (repeatable), "offset", "limit", "cursor", "format"
+   String REFERENCES = "references"; // accepts query parameters "modeluri" and "elementid"
+   String SLICE = "slice"; // accepts "modeluri", "elementid", "feature", "offset", "limit", "format", "fields", "depth"
+   String DIFF = "diff"; // accepts query parameters "modeluri" and "with"
+   String HASHES = "hashes"; // accepts query parameters "modeluri", "elementid" and "depth"
+   String SEARCH = "search"; // accepts query parameters "q", "modeluri" and "limit"
+   String STATISTICS = "statistics"; // accepts query parameter "modeluri"
 
-   String MODEL_URIS = "modeluris";
+   String MODEL_URIS = "modeluris"; // accepts query parameters "prefix", "limit" and "cursor"
+   String IMPORT = "import"; // accepts query parameter "overwrite"
+   String EXPORT = "export"; // accepts query parameters "prefix" and "format"
 
    String SUBSCRIPTION = "subscribe"; // accepts query parameter "modeluri"
    String EDIT = "edit"; // accepts query parameter "modeluri"
@@ -24,10 +34,11 @@ interface ModelServerPathsV1 {
    String UNDO = "undo"; // accepts query parameter "modeluri"
    String REDO = "redo"; // accepts query parameter "modeluri"
 
-   String TYPE_SCHEMA = "typeschema"; // accepts query parameter "modeluri"
+   String TYPE_SCHEMA = "typeschema"; // accepts query parameters "modeluri" or "nsuri" and "eclass", and "definitions"
    String UI_SCHEMA = "uischema"; // accepts query parameter "schemaname"
 
    String SERVER_CONFIGURE = "server/configure";
    String SERVER_PING = "server/ping";
+   String SERVER_ADMISSION = "server/admission";
 
 }
@@ -35,9 +35,9 @@ public class DefaultJsonCodec implements Codec {
       // cross-references are serialized as IDREFs (e.g., "//@objectsToAdd.0") instead
       // of HREFs (e.g., "#//@objectsToAdd.0") which will not resolve in the Model
       // Server on account of the resource with URI "" not existing. And copy the
-      // object to ensure isolation of the user's model
+      // object to ensure isolation of the user's model, unless it is a copy already
       JsonResource resource = new JsonResource(URI.createURI("$marshall.res"), getObjectMapper());
-      resource.getContents().add(EcoreUtil.copy(obj));
+      resource.getContents().add(DetachedCopy.isDetachedCopy(obj) ? obj : EcoreUtil.copy(obj));
 
       return encode(resource.getContents().get(0), getObjectMapper());
    }
@@ -0,0 +1,51 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.common.codecs;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Marks the resource of a detached copy of a model that was made for a single encoding and that nobody else refers
+ * to. Codecs take over the roots of such a copy instead of copying them again to isolate the encoding from the model.
+ */
+public final class DetachedCopy extends AdapterImpl {
+
+   private DetachedCopy() {}
+
+   /**
+    * Mark a resource as holding a detached copy that codecs may take over.
+    *
+    * @param resource the resource of the copy
+    */
+   public static void mark(final Resource resource) {
+      resource.eAdapters().add(new DetachedCopy());
+   }
+
+   /**
+    * Whether an object is a root of a detached copy that codecs may take over.
+    *
+    * @param eObject the object to encode
+    * @return {@code true} if the object may be encoded without copying it
+    */
+   public static boolean isDetachedCopy(final EObject eObject) {
+      Resource resource = eObject.eResource();
+      return eObject.eContainer() == null && resource != null
+         && EcoreUtil.getExistingAdapter(resource, DetachedCopy.class) != null;
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == DetachedCopy.class;
+   }
+}
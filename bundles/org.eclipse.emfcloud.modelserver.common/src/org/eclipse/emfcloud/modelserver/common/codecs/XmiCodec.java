@@ -35,7 +35,7 @@ public class XmiCodec implements Codec {
    @Override
    public JsonNode encode(final EObject eObject) throws EncodingException {
       final Resource resource = createResource();
-      resource.getContents().add(EcoreUtil.copy(eObject));
+      resource.getContents().add(DetachedCopy.isDetachedCopy(eObject) ? eObject : EcoreUtil.copy(eObject));
       ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
       try {
          resource.save(outputStream, null);
@@ -10,9 +10,18 @@
  ********************************************************************************/
 package org.eclipse.emfcloud.modelserver.jsonschema;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.eclipse.emf.common.util.EList;
@@ -34,10 +43,20 @@ import com.fasterxml.jackson.databind.node.TextNode;
 
 /**
  * Injectable singleton class that represents a converter from either EPackages or EClasses to valid Json type schemas.
- *
+ * <p>
+ * The schema of an EClass created by {@link #from(EClass)} inlines the schemas of the EClasses of its multi-valued
+ * references, which makes it grow quickly with the depth of the containment tree. The schemas created by
+ * {@link #withDefinitions(EClass)} instead define every EClass and EEnum exactly once under {@code definitions} and
+ * refer to these definitions with {@code $ref}, so that their size is linear in the number of types involved. As
+ * these schemas may cover the types of several EPackages, their definitions are named by the qualified name of the
+ * type, e.g. {@code ecore.eclass}.
+ * </p>
  */
 public class JsonSchemaConverter {
 
+   private static final String JSON_SCHEMA_DRAFT = "http://json-schema.org/draft-07/schema#";
+   private static final String DEFINITIONS_PREFIX = "#/definitions/";
+
    public JsonNode from(final EClass eClass) {
       return createJsonSchemaFromEClass(eClass);
    }
@@ -49,29 +68,131 @@ public class JsonSchemaConverter {
       return createJsonSchemaFromEClass(eObject.eClass());
    }
 
+   /**
+    * Create a self-contained schema of an EClass. The EClass itself and every EClass and EEnum that it depends on,
+    * directly or transitively, are defined once under {@code definitions}, and the schema refers to the definition of
+    * the EClass.
+    *
+    * @param eClass the EClass
+    * @return the schema of the EClass with the definitions of all types it depends on
+    */
+   public JsonNode withDefinitions(final EClass eClass) {
+      Set<EClassifier> dependencies = collectDependencies(Collections.singleton(eClass));
+      Function<EClassifier, String> names = getQualifiedNames(dependencies)::get;
+      final ObjectNode schemaNode = Json.object();
+      schemaNode.set("$schema", TextNode.valueOf(JSON_SCHEMA_DRAFT));
+      schemaNode.set("$ref", Json.text(getRef(eClass, names)));
+      schemaNode.set("definitions", createDefinitions(dependencies, names));
+      return schemaNode;
+   }
+
+   /**
+    * Create a self-contained schema of an EPackage or of the EClass of an object. In addition to the classifiers of
+    * an EPackage, the schema defines the EClasses and EEnums of other EPackages that they depend on.
+    *
+    * @param eObject an EPackage or an instance of the EClass
+    * @return the schema with the definitions of all types it depends on
+    * @see #withDefinitions(EClass)
+    */
+   public JsonNode withDefinitions(final EObject eObject) {
+      if (!(eObject instanceof EPackage)) {
+         return withDefinitions(eObject.eClass());
+      }
+      EPackage ePackage = (EPackage) eObject;
+      Set<EClassifier> dependencies = collectDependencies(ePackage.getEClassifiers());
+      return createJsonSchemaFromEPackage(ePackage, dependencies, getQualifiedNames(dependencies)::get);
+   }
+
+   /**
+    * Collect the given classifiers and all EClasses and EEnums that are the types of their features, transitively.
+    * Every classifier is visited once, so cyclic containments are no problem.
+    */
+   private static Set<EClassifier> collectDependencies(final Collection<? extends EClassifier> eClassifiers) {
+      Set<EClassifier> result = new LinkedHashSet<>(eClassifiers);
+      Deque<EClassifier> toVisit = new ArrayDeque<>(eClassifiers);
+      while (!toVisit.isEmpty()) {
+         EClassifier next = toVisit.removeFirst();
+         if (!(next instanceof EClass)) {
+            continue;
+         }
+         for (EStructuralFeature feature : ((EClass) next).getEAllStructuralFeatures()) {
+            EClassifier type = feature.getEType();
+            if ((type instanceof EClass || Types.isEnum(type)) && result.add(type)) {
+               toVisit.addLast(type);
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Name the definitions of classifiers by their qualified name. Should different EPackages still have the same
+    * qualified name, the definitions of their classifiers are told apart by a numeric suffix.
+    */
+   private static Map<EClassifier, String> getQualifiedNames(final Collection<EClassifier> eClassifiers) {
+      Map<EClassifier, String> result = new HashMap<>();
+      Set<String> names = new HashSet<>();
+      for (EClassifier eClassifier : eClassifiers) {
+         String name = getQualifiedName(eClassifier);
+         String unique = name;
+         for (int i = 2; !names.add(unique); i++) {
+            unique = name + "_" + i;
+         }
+         result.put(eClassifier, unique);
+      }
+      return result;
+   }
+
+   private static String getQualifiedName(final EClassifier eClassifier) {
+      StringBuilder result = new StringBuilder(eClassifier.getName().trim());
+      for (EPackage ePackage = eClassifier.getEPackage(); ePackage != null; ePackage = ePackage.getESuperPackage()) {
+         result.insert(0, '.').insert(0, ePackage.getName().trim());
+      }
+      return result.toString().toLowerCase();
+   }
+
+   private ObjectNode createDefinitions(final Collection<? extends EClassifier> eClassifiers,
+      final Function<EClassifier, String> names) {
+      final ObjectNode definitionsNode = Json.object();
+      eClassifiers.forEach(eClassifier -> {
+         definitionsNode.set(names.apply(eClassifier), createDefinitionFromEClassifier(eClassifier, names));
+      });
+      return definitionsNode;
+   }
+
+   private static String getDefinitionName(final EClassifier eClassifier) {
+      return eClassifier.getName().trim().toLowerCase();
+   }
+
+   private static String getRef(final EClassifier eClassifier, final Function<EClassifier, String> names) {
+      return DEFINITIONS_PREFIX + names.apply(eClassifier);
+   }
+
    private JsonNode createJsonSchemaFromEPackage(final EPackage ePackage) {
+      return createJsonSchemaFromEPackage(ePackage, ePackage.getEClassifiers(),
+         JsonSchemaConverter::getDefinitionName);
+   }
+
+   private JsonNode createJsonSchemaFromEPackage(final EPackage ePackage,
+      final Collection<? extends EClassifier> eClassifiers, final Function<EClassifier, String> names) {
       final ObjectNode schemaNode = Json.object();
-      schemaNode.set("$schema", TextNode.valueOf("http://json-schema.org/draft-07/schema#"));
+      schemaNode.set("$schema", TextNode.valueOf(JSON_SCHEMA_DRAFT));
       schemaNode.set("$id", TextNode.valueOf(ePackage.getNsURI()));
       schemaNode.set("title", TextNode.valueOf("JSON type schema for \'" + ePackage.getName() + "\'"));
       schemaNode.set("type", Json.text("object"));
 
-      final ObjectNode definitionsNode = Json.object();
-      ePackage.getEClassifiers().forEach(eClassifier -> {
-         definitionsNode.set(eClassifier.getName().trim().toLowerCase(), createDefinitionFromEClassifier(eClassifier));
-      });
-
-      schemaNode.set("definitions", definitionsNode);
+      schemaNode.set("definitions", createDefinitions(eClassifiers, names));
       return schemaNode;
    }
 
-   private JsonNode createDefinitionFromEClassifier(final EClassifier eClassifier) {
+   private JsonNode createDefinitionFromEClassifier(final EClassifier eClassifier,
+      final Function<EClassifier, String> names) {
       final ObjectNode objectNode = Json.object();
-      objectNode.set("$id", Json.text("#" + eClassifier.getName().trim().toLowerCase()));
+      objectNode.set("$id", Json.text("#" + names.apply(eClassifier)));
       if (eClassifier instanceof EClass) {
          objectNode.set("title", Json.text(eClassifier.getName()));
          objectNode.set("type", Json.text("object"));
-         objectNode.set("properties", createPropertiesFromEClassifier(eClassifier));
+         objectNode.set("properties", createPropertiesFromEClassifier(eClassifier, names));
          objectNode.set("additionalProperties", Json.bool(false));
          createRequiredProperties(((EClass) eClassifier)).ifPresent(node -> objectNode.set("required", node));
       } else if (eClassifier instanceof EEnum) {
@@ -95,109 +216,122 @@ public class JsonSchemaConverter {
    }
 
    private JsonNode createJsonSchemaFromEClass(final EClass eClass) {
-      return createJsonSchema(eClass, false);
+      return createJsonSchema(eClass, false, new HashSet<>(), JsonSchemaConverter::getDefinitionName);
    }
 
-   private JsonNode createJsonSchema(final EClass eClass, final boolean eClassAsAttribute) {
+   /**
+    * @param inlined the EClasses whose schemas are being inlined by enclosing schemas; these are referred to instead
+    *                   of being inlined again, as the schema would not end on cyclic containments otherwise
+    * @param names   the names of the definitions of classifiers
+    */
+   private JsonNode createJsonSchema(final EClass eClass, final boolean eClassAsAttribute,
+      final Set<EClass> inlined, final Function<EClassifier, String> names) {
       final ObjectNode objectNode = Json.object();
-      if (!eClassAsAttribute) {
-         objectNode.set("$id", Json.text("#" + eClass.getName().trim().toLowerCase()));
+      if (!eClassAsAttribute && inlined.add(eClass)) {
+         objectNode.set("$id", Json.text("#" + names.apply(eClass)));
          objectNode.set("title", Json.text(eClass.getName()));
          objectNode.set("type", Json.text("object"));
-         objectNode.set("properties", createPropertiesFromEStructuralFeatures(eClass.getEStructuralFeatures()));
+         objectNode.set("properties",
+            createPropertiesFromEStructuralFeatures(eClass.getEStructuralFeatures(), inlined, names));
          objectNode.set("additionalProperties", Json.bool(false));
          createRequiredProperties(eClass).ifPresent(node -> objectNode.set("required", node));
+         inlined.remove(eClass);
       } else {
-         objectNode.set("$ref", TextNode.valueOf("#/definitions/" + eClass.getName().trim().toLowerCase()));
+         objectNode.set("$ref", TextNode.valueOf(getRef(eClass, names)));
       }
       return objectNode;
    }
 
    private JsonNode createJsonSchemaFromEStructuralFeature(final EStructuralFeature feature,
-      final boolean featureAsAttribute) {
+      final boolean featureAsAttribute, final Set<EClass> inlined, final Function<EClassifier, String> names) {
       if (feature instanceof EReference) {
-         return createJsonSchema((EReference) feature, featureAsAttribute);
+         return createJsonSchema((EReference) feature, featureAsAttribute, inlined, names);
       }
-      return createJsonSchema((EAttribute) feature);
+      return createJsonSchema((EAttribute) feature, names);
    }
 
-   private JsonNode createJsonSchemaFromEStructuralFeature(final EStructuralFeature feature) {
-      return createJsonSchemaFromEStructuralFeature(feature, false);
+   private JsonNode createJsonSchemaFromEStructuralFeature(final EStructuralFeature feature,
+      final boolean featureAsAttribute, final Function<EClassifier, String> names) {
+      return createJsonSchemaFromEStructuralFeature(feature, featureAsAttribute, Collections.emptySet(), names);
    }
 
-   private JsonNode createJsonSchema(final EReference eReference, final boolean featureAsAttribute) {
+   private JsonNode createJsonSchema(final EReference eReference, final boolean featureAsAttribute,
+      final Set<EClass> inlined, final Function<EClassifier, String> names) {
       final ObjectNode objectNode = Json.object();
       if (eReference.getUpperBound() > 1 || eReference.getUpperBound() == -1) {
          objectNode.set("type", Json.text("array"));
          JsonNode feature = Json.object();
          if (!featureAsAttribute) {
-            feature = createJsonSchemaFromEClass(eReference.getEReferenceType());
+            feature = createJsonSchema(eReference.getEReferenceType(), false, inlined, names);
          } else {
-            feature = Json.object().set("$ref",
-               TextNode.valueOf("#/definitions/" + eReference.getEType().getName().trim().toLowerCase()));
+            feature = Json.object().set("$ref", TextNode.valueOf(getRef(eReference.getEType(), names)));
          }
          objectNode.set("items", feature);
          return objectNode;
       }
-      return createJsonSchema(eReference.getEReferenceType(), true);
+      return createJsonSchema(eReference.getEReferenceType(), true, inlined, names);
    }
 
-   private ObjectNode createJsonSchema(final EAttribute eAttribute) {
-      return deriveType(eAttribute, eAttribute.getUpperBound());
+   private ObjectNode createJsonSchema(final EAttribute eAttribute, final Function<EClassifier, String> names) {
+      return deriveType(eAttribute, eAttribute.getUpperBound(), names);
    }
 
-   private ObjectNode createPropertiesFromEStructuralFeatures(final Collection<? extends EStructuralFeature> features) {
+   private ObjectNode createPropertiesFromEStructuralFeatures(final Collection<? extends EStructuralFeature> features,
+      final Set<EClass> inlined, final Function<EClassifier, String> names) {
       ObjectNode properties = Json.object();
       for (EStructuralFeature feature : features) {
-         JsonNode jsonNode = createJsonSchemaFromEStructuralFeature(feature);
+         JsonNode jsonNode = createJsonSchemaFromEStructuralFeature(feature, false, inlined, names);
          properties.set(feature.getName(), jsonNode);
       }
       return properties;
    }
 
-   private ObjectNode createPropertiesFromEClassifier(final EClassifier eClassifier) {
+   private ObjectNode createPropertiesFromEClassifier(final EClassifier eClassifier,
+      final Function<EClassifier, String> names) {
       final Collection<? extends EStructuralFeature> features = ((EClass) eClassifier).getEStructuralFeatures();
       ObjectNode properties = Json.object();
       properties.set("eClass",
          Json.object().set("const",
             TextNode.valueOf(eClassifier.getEPackage().getNsURI() + "#//" + eClassifier.getName())));
 
-      fetchPropertiesFromEAllSuperTypes(((EClass) eClassifier).getEAllSuperTypes(), properties);
+      fetchPropertiesFromEAllSuperTypes(((EClass) eClassifier).getEAllSuperTypes(), properties, names);
 
       for (EStructuralFeature feature : features) {
-         JsonNode jsonNode = createJsonSchemaFromEStructuralFeature(feature, true);
+         JsonNode jsonNode = createJsonSchemaFromEStructuralFeature(feature, true, names);
          properties.set(feature.getName(), jsonNode);
       }
       return properties;
    }
 
-   private void fetchPropertiesFromEAllSuperTypes(final EList<EClass> eSuperTypes, final ObjectNode properties) {
+   private void fetchPropertiesFromEAllSuperTypes(final EList<EClass> eSuperTypes, final ObjectNode properties,
+      final Function<EClassifier, String> names) {
       eSuperTypes.forEach(eSuperType -> {
          for (EStructuralFeature feature : eSuperType.getEStructuralFeatures()) {
             if (!(feature.getName().equals("eClass"))) {
-               JsonNode jsonNode = createJsonSchemaFromEStructuralFeature(feature, true);
+               JsonNode jsonNode = createJsonSchemaFromEStructuralFeature(feature, true, names);
                properties.set(feature.getName(), jsonNode);
             }
          }
       });
    }
 
-   private static ObjectNode deriveType(final EAttribute eAttribute, final int upperBound) {
+   private static ObjectNode deriveType(final EAttribute eAttribute, final int upperBound,
+      final Function<EClassifier, String> names) {
       if (upperBound > 1 || upperBound == -1) {
          final ObjectNode obj = Json.object();
          obj.set("type", TextNode.valueOf("array"));
          final ObjectNode items = Json.object();
-         items.set("type", deriveType(eAttribute));
+         items.set("type", deriveType(eAttribute, names));
          obj.set("items", items);
          return obj;
       }
-      return deriveType(eAttribute);
+      return deriveType(eAttribute, names);
    }
 
-   private static ObjectNode deriveType(final EAttribute eAttribute) {
+   private static ObjectNode deriveType(final EAttribute eAttribute, final Function<EClassifier, String> names) {
       final ObjectNode objectNode = Json.object();
       if (Types.isEnum(eAttribute.getEType())) {
-         objectNode.set("$ref", Json.text("#/definitions/" + eAttribute.getEType().getName().trim().toLowerCase()));
+         objectNode.set("$ref", Json.text(getRef(eAttribute.getEType(), names)));
       } else {
          objectNode.set("type", TextNode.valueOf(toJsonSchemaType(eAttribute.getEType())));
          if (Types.isDate(eAttribute.getEType())) {
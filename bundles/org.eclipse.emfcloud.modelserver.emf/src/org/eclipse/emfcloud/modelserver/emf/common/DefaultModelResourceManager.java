@@ -18,6 +18,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
@@ -28,13 +31,25 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
-import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
 import org.eclipse.emfcloud.modelserver.command.CCommand;
 import org.eclipse.emfcloud.modelserver.common.codecs.DecodingException;
 import org.eclipse.emfcloud.modelserver.common.codecs.EMFJsonConverter;
 import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
 import org.eclipse.emfcloud.modelserver.edit.CommandCodec;
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ModelHashes;
+import org.eclipse.emfcloud.modelserver.emf.common.history.ModelHistory;
+import org.eclipse.emfcloud.modelserver.emf.common.index.CrossReferenceIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.index.EPackageIndexConfiguration;
+import org.eclipse.emfcloud.modelserver.emf.common.index.IndexedResourceSet;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelIndexConfiguration;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelURIIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.search.FullTextIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.snapshot.ModelSnapshot;
+import org.eclipse.emfcloud.modelserver.emf.common.snapshot.ModelSnapshots;
+import org.eclipse.emfcloud.modelserver.emf.common.statistics.WorkspaceStatistics;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.ModelValidation;
 import org.eclipse.emfcloud.modelserver.emf.configuration.EPackageConfiguration;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 import org.emfjson.jackson.resource.JsonResourceFactory;
@@ -54,8 +69,18 @@ public class DefaultModelResourceManager implements ModelResourceManager {
 
    protected final Set<EPackageConfiguration> configurations;
    protected final AdapterFactory adapterFactory;
+   protected final ModelIndexConfiguration indexConfiguration;
+   protected final CrossReferenceIndex crossReferenceIndex = new CrossReferenceIndex();
+   protected final FullTextIndex fullTextIndex = new FullTextIndex();
+   protected final WorkspaceStatistics workspaceStatistics = new WorkspaceStatistics();
+   protected final ModelURIIndex modelURIIndex;
    protected final Map<URI, ResourceSet> resourceSets = Maps.newLinkedHashMap();
    protected final Map<ResourceSet, ModelServerEditingDomain> editingDomains = Maps.newLinkedHashMap();
+   protected final ExecutorService validationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Model validation");
+      thread.setDaemon(true);
+      return thread;
+   });
 
    @Inject
    public DefaultModelResourceManager(final Set<EPackageConfiguration> configurations,
@@ -64,6 +89,8 @@ public class DefaultModelResourceManager implements ModelResourceManager {
       this.configurations = configurations;
       this.adapterFactory = adapterFactory;
       this.serverConfiguration = serverConfiguration;
+      this.modelURIIndex = new ModelURIIndex(serverConfiguration::getWorkspaceRootURI);
+      this.indexConfiguration = createIndexConfiguration(configurations);
       initialize();
    }
 
@@ -75,7 +102,11 @@ public class DefaultModelResourceManager implements ModelResourceManager {
       String workspacePath = this.serverConfiguration.getWorkspaceRootURI().toFileString();
       if (workspacePath != null) {
          resourceSets.clear();
+         modelURIIndex.clear();
          editingDomains.clear();
+         crossReferenceIndex.clear();
+         fullTextIndex.clear();
+         workspaceStatistics.clear();
          loadSourceResources(workspacePath);
          removeErroneousResources();
          initializeEditingDomains();
@@ -100,6 +131,32 @@ public class DefaultModelResourceManager implements ModelResourceManager {
       return map;
    }
 
+   protected ModelIndexConfiguration createIndexConfiguration(final Set<EPackageConfiguration> configurations) {
+      return new EPackageIndexConfiguration(configurations);
+   }
+
+   /**
+    * Create the resource set for a model.
+    *
+    * @return a new resource set
+    */
+   protected ResourceSet createResourceSet() {
+      return new IndexedResourceSet();
+   }
+
+   /**
+    * Register the resource set of a model.
+    *
+    * @param modelURI    the URI of the model
+    * @param resourceSet the resource set that loads the model
+    * @return the resource set that was registered for the model before, or {@code null}
+    */
+   protected ResourceSet putResourceSet(final URI modelURI, final ResourceSet resourceSet) {
+      ResourceSet result = resourceSets.put(modelURI, resourceSet);
+      modelURIIndex.add(modelURI);
+      return result;
+   }
+
    @Override
    public ResourceSet getResourceSet(final String modeluri) {
       return resourceSets.get(createURI(modeluri));
@@ -119,7 +176,7 @@ public class DefaultModelResourceManager implements ModelResourceManager {
          if (isSourceDirectory(file)) {
             loadSourceResources(file.getAbsolutePath());
          } else if (file.isFile()) {
-            resourceSets.put(createURI(file.getAbsolutePath()), new ResourceSetImpl());
+            putResourceSet(createURI(file.getAbsolutePath()), createResourceSet());
             loadResource(file.getAbsolutePath(), false /* do not remove unloadable resources on workspace startup */);
          }
       }
@@ -130,25 +187,119 @@ public class DefaultModelResourceManager implements ModelResourceManager {
    }
 
    protected void removeErroneousResources() {
-      resourceSets.values().forEach(resourceSet -> {
+      resourceSets.forEach((modelURI, resourceSet) -> {
          // any resources loaded with errors are probably not resources in the first place
          final List<Resource> resourcesWithErrors = resourceSet.getResources().stream()
             .filter(resource -> !resource.getErrors().isEmpty())
             .collect(Collectors.toList());
          for (Resource resource : resourcesWithErrors) {
             resourceSet.getResources().remove(resource);
+            if (modelURI.equals(resource.getURI())) {
+               modelURIIndex.remove(modelURI);
+            }
          }
       });
    }
 
    protected void initializeEditingDomains() {
-      resourceSets.values().forEach(resourceSet -> createEditingDomain(resourceSet));
+      resourceSets.forEach(this::createEditingDomain);
+   }
+
+   protected void createEditingDomain(final URI modelURI, final ResourceSet resourceSet) {
+      editingDomains.put(resourceSet,
+         new ModelServerEditingDomain(adapterFactory, resourceSet, createModelHistory(modelURI), crossReferenceIndex));
+      // build the indexes up-front, so that the first lookups do not have to wait for them
+      Resource resource = resourceSet.getResource(modelURI, false);
+      if (resource != null) {
+         attachIndexes(resource);
+      }
    }
 
-   protected void createEditingDomain(final ResourceSet resourceSet) {
-      editingDomains.put(resourceSet, new ModelServerEditingDomain(adapterFactory, resourceSet));
+   /**
+    * Build the indexes of a model resource and add it to the workspace indexes.
+    *
+    * @param resource the model resource
+    */
+   protected void attachIndexes(final Resource resource) {
+      getModelIndex(resource);
+      crossReferenceIndex.attach(resource);
+      fullTextIndex.attach(resource);
+      workspaceStatistics.attach(resource);
    }
 
+   /**
+    * Remove a model resource that is no longer part of the workspace from the workspace indexes.
+    *
+    * @param resource the model resource
+    */
+   protected void detachIndexes(final Resource resource) {
+      crossReferenceIndex.detach(resource);
+      fullTextIndex.detach(resource);
+      workspaceStatistics.detach(resource);
+   }
+
+   /**
+    * Create the history that records the commands executed on a model.
+    *
+    * @param modelURI the URI of the model
+    * @return the model history, or {@code null} if no history shall be recorded
+    */
+   protected ModelHistory createModelHistory(final URI modelURI) {
+      int historySize = serverConfiguration.getHistorySize();
+      return historySize > 0 ? new ModelHistory(modelURI, historySize) : null;
+   }
+
+   @Override
+   public Optional<ModelIndex> getModelIndex(final Resource resource) {
+      return Optional.of(ModelIndex.getOrCreate(resource, indexConfiguration));
+   }
+
+   @Override
+   public Optional<ModelHashes> getModelHashes(final Resource resource) {
+      return Optional.of(ModelHashes.getOrCreate(resource, this::getElementId));
+   }
+
+   @Override
+   public Optional<ModelValidation> getModelValidation(final Resource resource) {
+      ModelServerEditingDomain domain = getEditingDomain(resource.getResourceSet());
+      if (domain == null) {
+         return Optional.empty();
+      }
+      return Optional.of(
+         ModelValidation.getOrCreate(resource, domain.getLock(), this::getElementId, validationExecutor));
+   }
+
+   @Override
+   public Optional<ModelSnapshot> getModelSnapshot(final Resource resource) {
+      ModelServerEditingDomain domain = getEditingDomain(resource.getResourceSet());
+      if (domain == null) {
+         return Optional.empty();
+      }
+      return Optional.of(ModelSnapshots.getOrCreate(resource, domain.getLock(), this::getElementId).getSnapshot());
+   }
+
+   @Override
+   public String getElementId(final EObject element) {
+      Resource resource = element.eResource();
+      // do not index resources that are not indexed yet, like the copies of snapshots
+      String id = ModelIndex.get(resource)
+         .map(index -> index.getId(element))
+         .orElseGet(() -> ModelIndex.getId(element, indexConfiguration));
+      return id != null ? id : resource.getURIFragment(element);
+   }
+
+   @Override
+   public Optional<CrossReferenceIndex> getCrossReferenceIndex() { return Optional.of(crossReferenceIndex); }
+
+   @Override
+   public Optional<FullTextIndex> getFullTextIndex() { return Optional.of(fullTextIndex); }
+
+   @Override
+   public Optional<WorkspaceStatistics> getWorkspaceStatistics() { return Optional.of(workspaceStatistics); }
+
+   @Override
+   public Optional<ModelURIIndex> getModelURIIndex() { return Optional.of(modelURIIndex); }
+
    protected boolean hasModel(final String modeluri) {
       final URI uri = createURI(modeluri);
       return getResourceSet(modeluri).getResource(uri, false) != null;
@@ -181,6 +332,19 @@ public class DefaultModelResourceManager implements ModelResourceManager {
       }
    }
 
+   @Override
+   public Optional<Resource> loadResource(final String modeluri, final long revision) {
+      return loadResource(modeluri)
+         .flatMap(resource -> getEditingDomain(getResourceSet(modeluri)).getHistory())
+         .flatMap(history -> history.getResource(revision));
+   }
+
+   @Override
+   public Optional<Resource> loadPersistedResource(final String modeluri) {
+      URI uri = createURI(modeluri);
+      return loadInNewResourceSet(uri).map(resourceSet -> resourceSet.getResource(uri, false));
+   }
+
    protected void removeResourceSafe(final String modeluri) {
       try {
          removeResource(modeluri);
@@ -191,8 +355,11 @@ public class DefaultModelResourceManager implements ModelResourceManager {
 
    @Override
    public void removeResource(final String modeluri) throws IOException {
+      // also called to clean up models that failed to load, which may not have a resource
+      modelURIIndex.remove(createURI(modeluri));
       Resource resource = getResourceSet(modeluri).getResource(createURI(modeluri), false);
       if (resource != null) {
+         detachIndexes(resource);
          resource.delete(null);
       }
    }
@@ -224,13 +391,52 @@ public class DefaultModelResourceManager implements ModelResourceManager {
 
    @Override
    public void addResource(final String modeluri, final EObject model) throws IOException {
-      resourceSets.put(createURI(modeluri), new ResourceSetImpl());
+      putResourceSet(createURI(modeluri), createResourceSet());
       ResourceSet newResourceSet = getResourceSet(modeluri);
       final Resource resource = newResourceSet.createResource(createURI(modeluri));
       newResourceSet.getResources().add(resource);
       resource.getContents().add(model);
       resource.save(null);
-      createEditingDomain(newResourceSet);
+      createEditingDomain(createURI(modeluri), newResourceSet);
+   }
+
+   @Override
+   public Map<URI, Resource> loadResources(final Collection<URI> modelURIs) {
+      // resource sets are independent of each other, so only the registration has to happen sequentially
+      Map<URI, ResourceSet> loaded = new ConcurrentHashMap<>();
+      modelURIs.parallelStream()
+         .distinct()
+         .forEach(uri -> loadInNewResourceSet(uri).ifPresent(resourceSet -> loaded.put(uri, resourceSet)));
+
+      Map<URI, Resource> result = Maps.newLinkedHashMap();
+      for (URI uri : modelURIs) {
+         ResourceSet resourceSet = loaded.remove(uri);
+         if (resourceSet != null) {
+            ResourceSet replaced = putResourceSet(uri, resourceSet);
+            if (replaced != null) {
+               editingDomains.remove(replaced);
+               Optional.ofNullable(replaced.getResource(uri, false)).ifPresent(this::detachIndexes);
+            }
+            createEditingDomain(uri, resourceSet);
+            result.put(uri, resourceSet.getResource(uri, false));
+         }
+      }
+      return result;
+   }
+
+   @SuppressWarnings("checkstyle:IllegalCatch")
+   protected Optional<ResourceSet> loadInNewResourceSet(final URI modelURI) {
+      ResourceSet resourceSet = createResourceSet();
+      try {
+         Resource resource = resourceSet.getResource(modelURI, true);
+         if (resource.getErrors().isEmpty()) {
+            return Optional.of(resourceSet);
+         }
+         LOG.error("Resource with URI was loaded with errors: " + modelURI);
+      } catch (final Throwable e) {
+         LOG.error("Could not load resource with URI: " + modelURI);
+      }
+      return Optional.empty();
    }
 
    /**
@@ -244,7 +450,8 @@ public class DefaultModelResourceManager implements ModelResourceManager {
    @Override
    public Optional<Resource> updateResource(final String modeluri, final EObject updatedModel) {
       return loadResource(modeluri).map(res -> {
-         ECollections.setEList(res.getContents(), ECollections.singletonEList(updatedModel));
+         getEditingDomain(getResourceSet(modeluri)).runExclusive(
+            () -> ECollections.setEList(res.getContents(), ECollections.singletonEList(updatedModel)));
          return res;
       });
    }
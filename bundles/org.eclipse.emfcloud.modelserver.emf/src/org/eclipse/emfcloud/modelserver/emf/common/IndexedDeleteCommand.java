@@ -0,0 +1,91 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.eclipse.emf.common.command.Command;
+import org.eclipse.emf.common.command.CompoundCommand;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.edit.command.RemoveCommand;
+import org.eclipse.emf.edit.command.SetCommand;
+import org.eclipse.emf.edit.domain.EditingDomain;
+import org.eclipse.emfcloud.modelserver.emf.common.index.CrossReference;
+import org.eclipse.emfcloud.modelserver.emf.common.index.CrossReferenceIndex;
+
+/**
+ * Removes elements from their containment and then removes all references of the model to the elements that were
+ * thereby deleted from the model, including their contents, so that no dangling references are left behind. The
+ * references are looked up in the {@link CrossReferenceIndex} instead of scanning the model.
+ * <p>
+ * Like the {@link org.eclipse.emf.edit.command.DeleteCommand DeleteCommand} of EMF.Edit, the removal of the
+ * references is appended to this compound command when it is executed, so that it is undone and redone with it.
+ * </p>
+ */
+public class IndexedDeleteCommand extends CompoundCommand {
+
+   private final EditingDomain domain;
+   private final CrossReferenceIndex crossReferences;
+
+   /**
+    * Initializes me.
+    *
+    * @param domain          the editing domain
+    * @param removeCommand   the command that removes the elements from their containment
+    * @param crossReferences the index of the references to the elements
+    */
+   public IndexedDeleteCommand(final EditingDomain domain, final Command removeCommand,
+      final CrossReferenceIndex crossReferences) {
+      super(0, removeCommand.getLabel(), removeCommand.getDescription());
+      this.domain = domain;
+      this.crossReferences = crossReferences;
+      append(removeCommand);
+   }
+
+   @Override
+   public void execute() {
+      Command removeCommand = commandList.get(0);
+      super.execute();
+
+      List<EObject> deleted = new ArrayList<>();
+      for (Object next : removeCommand.getResult()) {
+         if (next instanceof EObject && ((EObject) next).eResource() == null) {
+            deleted.add((EObject) next);
+         }
+      }
+      for (EObject root : deleted) {
+         removeReferences(root, deleted);
+         for (TreeIterator<EObject> iter = EcoreUtil.getAllContents(root, false); iter.hasNext();) {
+            removeReferences(iter.next(), deleted);
+         }
+      }
+   }
+
+   protected void removeReferences(final EObject target, final Collection<EObject> deleted) {
+      for (CrossReference crossReference : new ArrayList<>(crossReferences.getLocalReferences(target))) {
+         EObject source = crossReference.getSource();
+         // references among the deleted elements are kept, so that they are restored intact by an undo
+         if (source.eResource() == null || EcoreUtil.isAncestor(deleted, source)) {
+            continue;
+         }
+         if (crossReference.getReference().isMany()) {
+            appendAndExecute(RemoveCommand.create(domain, source, crossReference.getReference(), target));
+         } else {
+            appendAndExecute(SetCommand.create(domain, source, crossReference.getReference(), null));
+         }
+      }
+   }
+
+}
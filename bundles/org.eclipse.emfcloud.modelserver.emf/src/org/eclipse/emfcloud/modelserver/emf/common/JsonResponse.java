@@ -86,6 +86,14 @@ public final class JsonResponse {
       return Json.merge(type(JsonResponseType.DIRTYSTATE), data(isDirty));
    }
 
+   public static JsonNode queryUpdate(final JsonNode jsonNode) {
+      return Json.merge(type(JsonResponseType.QUERYUPDATE), data(jsonNode));
+   }
+
+   public static JsonNode validationUpdate(final JsonNode jsonNode) {
+      return Json.merge(type(JsonResponseType.VALIDATIONUPDATE), data(jsonNode));
+   }
+
    public static JsonNode keepAlive(final String message) {
       return Json.merge(type(JsonResponseType.KEEPALIVE), data(message));
    }
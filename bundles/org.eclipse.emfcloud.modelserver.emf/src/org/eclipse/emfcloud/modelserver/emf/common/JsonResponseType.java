@@ -19,5 +19,11 @@ public interface JsonResponseType {
    String INCREMENTALUPDATE = "incrementalUpdate";
    String DIRTYSTATE = "dirtyState";
    String KEEPALIVE = "keepAlive";
+   String SUBSCRIBEQUERY = "subscribeQuery";
+   String UNSUBSCRIBEQUERY = "unsubscribeQuery";
+   String QUERYUPDATE = "queryUpdate";
+   String SUBSCRIBEVALIDATION = "subscribeValidation";
+   String UNSUBSCRIBEVALIDATION = "unsubscribeValidation";
+   String VALIDATIONUPDATE = "validationUpdate";
 
 }
@@ -11,24 +11,56 @@
 package org.eclipse.emfcloud.modelserver.emf.common;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emfcloud.modelserver.command.CCommand;
+import org.eclipse.emfcloud.modelserver.common.ModelServerPathParameters;
 import org.eclipse.emfcloud.modelserver.common.codecs.DecodingException;
 import org.eclipse.emfcloud.modelserver.common.codecs.EMFJsonConverter;
 import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
+import org.eclipse.emfcloud.modelserver.emf.common.admission.AdmissionControl;
+import org.eclipse.emfcloud.modelserver.emf.common.archive.ArchiveEntryResult;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.CodecsManager;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.JsonCodec;
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ContentHasher;
+import org.eclipse.emfcloud.modelserver.emf.common.index.CrossReference;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelURIIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.query.ElementQuery;
+import org.eclipse.emfcloud.modelserver.emf.common.query.ElementQueryEngine;
+import org.eclipse.emfcloud.modelserver.emf.common.query.ElementQueryResult;
+import org.eclipse.emfcloud.modelserver.emf.common.search.FullTextIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.search.SearchHit;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.PayloadValidator;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+import org.jetbrains.annotations.Nullable;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 
@@ -37,22 +69,40 @@ import io.javalin.plugin.json.JavalinJackson;
 
 public class ModelController {
 
+   /** The default number of elements in a slice of a containment list. */
+   public static final int DEFAULT_SLICE_LIMIT = 100;
+
+   /** The number of elements from which a model is read asynchronously by {@link #getOneAsync(Context, String)}. */
+   public static final int ASYNC_ELEMENT_THRESHOLD = 10_000;
+
+   /** The number of threads that handle asynchronous requests. */
+   public static final int ASYNC_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+   /** The number of asynchronous requests that can wait for a thread before further ones are rejected. */
+   public static final int ASYNC_QUEUE_CAPACITY = 100;
+
    private static final Logger LOG = Logger.getLogger(ModelController.class.getSimpleName());
 
+   // heavy requests run on a bounded pool of their own, so that a few of them cannot occupy all request threads
+   protected final ExecutorService asyncExecutor = createAsyncExecutor();
+
    private final ModelRepository modelRepository;
    private final SessionController sessionController;
    private final ServerConfiguration serverConfiguration;
    private final CodecsManager codecs;
+   private final PayloadValidator payloadValidator;
 
    @Inject
    public ModelController(final ModelRepository modelRepository, final SessionController sessionController,
-      final ServerConfiguration serverConfiguration, final CodecsManager codecs) {
+      final ServerConfiguration serverConfiguration, final CodecsManager codecs,
+      final PayloadValidator payloadValidator) {
 
       JavalinJackson.configure(EMFJsonConverter.setupDefaultMapper());
       this.modelRepository = modelRepository;
       this.sessionController = sessionController;
       this.serverConfiguration = serverConfiguration;
       this.codecs = codecs;
+      this.payloadValidator = payloadValidator;
    }
 
    public void create(final Context ctx, final String modeluri) {
@@ -88,13 +138,7 @@ public class ModelController {
 
    public void getAll(final Context ctx) {
       try {
-         final Map<URI, EObject> allModels = this.modelRepository.getAllModels();
-         Map<URI, JsonNode> encodedEntries = Maps.newLinkedHashMap();
-         for (Map.Entry<URI, EObject> entry : allModels.entrySet()) {
-            final JsonNode encoded = codecs.encode(ctx, entry.getValue());
-            encodedEntries.put(entry.getKey(), encoded);
-         }
-         ctx.json(JsonResponse.success(JsonCodec.encode(encodedEntries)));
+         ctx.json(JsonResponse.success(encodeAllModels(ctx)));
       } catch (EncodingException ex) {
          handleEncodingError(ctx, ex);
       } catch (IOException e) {
@@ -102,8 +146,35 @@ public class ModelController {
       }
    }
 
+   /**
+    * Like {@link #getAll(Context)}, but the models are encoded on the pool of asynchronous requests.
+    *
+    * @param ctx the request context
+    */
+   public void getAllAsync(final Context ctx) {
+      respondAsync(ctx, () -> {
+         try {
+            return JsonResponse.success(encodeAllModels(ctx));
+         } catch (EncodingException ex) {
+            return encodingErrorResponse(ctx, ex);
+         } catch (IOException e) {
+            return errorResponse(ctx, 404, "Could not load all models");
+         }
+      });
+   }
+
+   private JsonNode encodeAllModels(final Context ctx) throws EncodingException, IOException {
+      final Map<URI, EObject> allModels = this.modelRepository.getAllModels();
+      Map<URI, JsonNode> encodedEntries = Maps.newLinkedHashMap();
+      for (Map.Entry<URI, EObject> entry : allModels.entrySet()) {
+         final JsonNode encoded = codecs.encode(ctx, entry.getValue());
+         encodedEntries.put(entry.getKey(), encoded);
+      }
+      return JsonCodec.encode(encodedEntries);
+   }
+
    public void getOne(final Context ctx, final String modeluri) {
-      this.modelRepository.getModel(modeluri).ifPresentOrElse(
+      this.modelRepository.getModelSnapshot(modeluri).ifPresentOrElse(
          model -> {
             if (model == null) {
                ctx.json(JsonResponse.error(""));
@@ -118,8 +189,31 @@ public class ModelController {
          () -> handleError(ctx, 404, "Model '" + modeluri + "' not found!"));
    }
 
+   /**
+    * Like {@link #getOne(Context, String)}, but models that are not known to be small are encoded on the pool of
+    * asynchronous requests.
+    *
+    * @param ctx      the request context
+    * @param modeluri the URI of the model
+    */
+   public void getOneAsync(final Context ctx, final String modeluri) {
+      if (this.modelRepository.getElementCount(modeluri).filter(count -> count < ASYNC_ELEMENT_THRESHOLD).isPresent()) {
+         getOne(ctx, modeluri);
+         return;
+      }
+      respondAsync(ctx, () -> this.modelRepository.getModelSnapshot(modeluri)
+         .map(model -> {
+            try {
+               return JsonResponse.success(codecs.encode(ctx, model));
+            } catch (EncodingException ex) {
+               return encodingErrorResponse(ctx, ex);
+            }
+         })
+         .orElseGet(() -> errorResponse(ctx, 404, "Model '" + modeluri + "' not found!")));
+   }
+
    public void getModelElementById(final Context ctx, final String modeluri, final String elementid) {
-      this.modelRepository.getModelElementById(modeluri, elementid).ifPresentOrElse(
+      this.modelRepository.getModelElementSnapshotById(modeluri, elementid).ifPresentOrElse(
          modelElement -> {
             try {
                ctx.json(JsonResponse.success(codecs.encode(ctx, modelElement)));
@@ -132,7 +226,7 @@ public class ModelController {
    }
 
    public void getModelElementByName(final Context ctx, final String modeluri, final String elementname) {
-      this.modelRepository.getModelElementByName(modeluri, elementname).ifPresentOrElse(
+      this.modelRepository.getModelElementSnapshotByName(modeluri, elementname).ifPresentOrElse(
          modelElement -> {
             if (modelElement == null) {
                ctx.json(JsonResponse.error(""));
@@ -148,6 +242,260 @@ public class ModelController {
             "Element by elementname '" + elementname + "' of model '" + modeluri + "' not found!"));
    }
 
+   public void getOne(final Context ctx, final String modeluri, final long revision) {
+      encodeElement(ctx, this.modelRepository.getModel(modeluri, revision),
+         String.format("Model '%s' not found at revision %d!", modeluri, revision));
+   }
+
+   public void getModelElementById(final Context ctx, final String modeluri, final String elementid,
+      final long revision) {
+      encodeElement(ctx, this.modelRepository.getModelElementById(modeluri, elementid, revision),
+         String.format("Element by elementid '%s' of model '%s' not found at revision %d!", elementid, modeluri,
+            revision));
+   }
+
+   public void getModelElementByName(final Context ctx, final String modeluri, final String elementname,
+      final long revision) {
+      encodeElement(ctx, this.modelRepository.getModelElementByName(modeluri, elementname, revision),
+         String.format("Element by elementname '%s' of model '%s' not found at revision %d!", elementname, modeluri,
+            revision));
+   }
+
+   private void encodeElement(final Context ctx, final Optional<EObject> element, final String notFoundMsg) {
+      element.ifPresentOrElse(
+         modelElement -> {
+            try {
+               ctx.json(JsonResponse.success(codecs.encode(ctx, modelElement)));
+            } catch (EncodingException ex) {
+               handleEncodingError(ctx, ex);
+            }
+         },
+         () -> handleError(ctx, 404, notFoundMsg));
+   }
+
+   public void query(final Context ctx, @Nullable final String modeluri) {
+      Map<String, String> predicates = new LinkedHashMap<>();
+      for (String filter : ctx.queryParamMap().getOrDefault(ModelServerPathParameters.FILTER, List.of())) {
+         int separator = filter.indexOf('=');
+         if (separator <= 0) {
+            handleError(ctx, 400, "Invalid parameter 'filter', expected 'attribute=value': " + filter);
+            return;
+         }
+         predicates.put(filter.substring(0, separator), filter.substring(separator + 1));
+      }
+      Optional<Integer> offset = getIntParam(ctx, ModelServerPathParameters.OFFSET, 0, 0);
+      Optional<Integer> limit = getIntParam(ctx, ModelServerPathParameters.LIMIT, ElementQueryEngine.DEFAULT_LIMIT, 1);
+      if (offset.isEmpty() || limit.isEmpty()) {
+         return;
+      }
+      ElementQuery query = new ElementQuery(ctx.queryParam(ModelServerPathParameters.TYPE), predicates);
+
+      // the matches are live elements, which must not change while they are encoded
+      this.modelRepository.readLocked(modeluri, () -> {
+         Optional<ElementQueryResult> result;
+         try {
+            result = this.modelRepository.queryModelElements(modeluri, query, offset.get(), limit.get(),
+               ctx.queryParam(ModelServerPathParameters.CURSOR));
+         } catch (IllegalArgumentException e) {
+            handleError(ctx, 400, "Invalid parameter 'cursor': " + e.getMessage());
+            return;
+         }
+         if (result.isEmpty()) {
+            handleError(ctx, 404, "Model '" + modeluri + "' not found!");
+            return;
+         }
+
+         try {
+            ArrayNode elements = Json.array();
+            List<EObject> matches = result.get().getElements();
+            for (int i = 0; i < matches.size(); i++) {
+               EObject element = matches.get(i);
+               URI modelURI = element.eResource().getURI();
+               elements.add(Json.object(
+                  Json.prop(ModelServerPathParameters.MODEL_URI,
+                     Json.text(modelURI.deresolve(serverConfiguration.getWorkspaceRootURI()).toString())),
+                  Json.prop("id", Json.text(result.get().getIds().get(i))),
+                  Json.prop("element", codecs.encode(ctx, element))));
+            }
+            ObjectNode page = Json.object(Json.prop("elements", elements));
+            if (result.get().getNextCursor() != null) {
+               page.set("nextCursor", Json.text(result.get().getNextCursor()));
+            }
+            ctx.json(JsonResponse.success(page));
+         } catch (EncodingException ex) {
+            handleEncodingError(ctx, ex);
+         }
+      });
+   }
+
+   public void getReferences(final Context ctx, final String modeluri, final String elementid) {
+      // the referencing elements are live elements of any model
+      this.modelRepository.readLocked(null, () -> {
+         this.modelRepository.getReferences(modeluri, elementid).ifPresentOrElse(
+            references -> {
+               ArrayNode encoded = Json.array();
+               for (CrossReference reference : references) {
+                  EObject source = reference.getSource();
+                  encoded.add(Json.object(
+                     Json.prop(ModelServerPathParameters.MODEL_URI, Json.text(source.eResource().getURI()
+                        .deresolve(serverConfiguration.getWorkspaceRootURI()).toString())),
+                     Json.prop("id", Json.text(this.modelRepository.getElementId(source))),
+                     Json.prop("feature", Json.text(reference.getReference().getName()))));
+               }
+               ctx.json(JsonResponse.success(encoded));
+            },
+            () -> handleError(ctx, 404,
+               "Element by elementid '" + elementid + "' of model '" + modeluri + "' not found!"));
+      });
+   }
+
+   @SuppressWarnings("unchecked")
+   public void getContainmentSlice(final Context ctx, final String modeluri, final String elementid,
+      final String featureName) {
+      // the slice is encoded from the live model, which must not change meanwhile
+      this.modelRepository.readLocked(modeluri, () -> {
+         Optional<EObject> element = this.modelRepository.getModelElementById(modeluri, elementid);
+         if (element.isEmpty()) {
+            handleError(ctx, 404,
+               "Element by elementid '" + elementid + "' of model '" + modeluri + "' not found!");
+            return;
+         }
+         EStructuralFeature feature = element.get().eClass().getEStructuralFeature(featureName);
+         if (!(feature instanceof EReference) || !((EReference) feature).isContainment() || !feature.isMany()) {
+            handleError(ctx, 400, "Invalid parameter 'feature', expected a multi-valued containment of '"
+               + element.get().eClass().getName() + "': " + featureName);
+            return;
+         }
+         Optional<Integer> offset = getIntParam(ctx, ModelServerPathParameters.OFFSET, 0, 0);
+         Optional<Integer> limit = getIntParam(ctx, ModelServerPathParameters.LIMIT, DEFAULT_SLICE_LIMIT, 1);
+         if (offset.isEmpty() || limit.isEmpty()) {
+            return;
+         }
+
+         // the containment lists are array-backed, so the slice costs its own size only
+         List<EObject> contents = (List<EObject>) element.get().eGet(feature);
+         int from = Math.min(offset.get(), contents.size());
+         int to = (int) Math.min((long) from + limit.get(), contents.size());
+         try {
+            ArrayNode elements = Json.array();
+            for (EObject child : contents.subList(from, to)) {
+               elements.add(Json.object(
+                  Json.prop("id", Json.text(this.modelRepository.getElementId(child))),
+                  Json.prop("element", codecs.encode(ctx, child))));
+            }
+            ObjectNode slice = Json.object(Json.prop("elements", elements));
+            slice.put("feature", feature.getName());
+            slice.put("offset", from);
+            slice.put("total", contents.size());
+            ctx.json(JsonResponse.success(slice));
+         } catch (EncodingException ex) {
+            handleEncodingError(ctx, ex);
+         }
+      });
+   }
+
+   public void diff(final Context ctx, final String modeluri, @Nullable final String othermodeluri) {
+      try {
+         this.modelRepository.diff(modeluri, othermodeluri).ifPresentOrElse(
+            patch -> ctx.json(JsonResponse.success(patch)),
+            () -> handleError(ctx, 404, othermodeluri != null
+               ? "Model '" + modeluri + "' or '" + othermodeluri + "' not found!"
+               : "Model '" + modeluri + "' not found!"));
+      } catch (EncodingException ex) {
+         handleEncodingError(ctx, ex);
+      }
+   }
+
+   public void getHashes(final Context ctx, final String modeluri, @Nullable final String elementid) {
+      Optional<Integer> depth = getIntParam(ctx, ModelServerPathParameters.DEPTH, 1, 0);
+      if (depth.isEmpty()) {
+         return;
+      }
+      // the hashes are computed from the live model, which must not change meanwhile
+      this.modelRepository.readLocked(modeluri, () -> {
+         Optional<Function<EObject, byte[]>> hashes = this.modelRepository.getContentHashes(modeluri);
+         Optional<EObject> root = elementid != null ? this.modelRepository.getModelElementById(modeluri, elementid)
+            : this.modelRepository.getModel(modeluri);
+         if (hashes.isEmpty() || root.isEmpty()) {
+            handleError(ctx, 404, elementid != null
+               ? "Element by elementid '" + elementid + "' of model '" + modeluri + "' not found!"
+               : "Model '" + modeluri + "' not found!");
+            return;
+         }
+         ctx.json(JsonResponse.success(encodeHashes(root.get(), hashes.get(), depth.get())));
+      });
+   }
+
+   private ObjectNode encodeHashes(final EObject element, final Function<EObject, byte[]> hashes, final int depth) {
+      ObjectNode encoded = Json.object(
+         Json.prop("id", Json.text(this.modelRepository.getElementId(element))),
+         Json.prop("hash", Json.text(ContentHasher.toHex(hashes.apply(element)))));
+      if (element.eContainmentFeature() != null) {
+         encoded.put("feature", element.eContainmentFeature().getName());
+      }
+      if (depth > 0 && !element.eContents().isEmpty()) {
+         ArrayNode children = encoded.putArray("children");
+         element.eContents().forEach(child -> children.add(encodeHashes(child, hashes, depth - 1)));
+      }
+      return encoded;
+   }
+
+   public void search(final Context ctx, final String query, @Nullable final String modeluri) {
+      getIntParam(ctx, ModelServerPathParameters.LIMIT, FullTextIndex.DEFAULT_LIMIT, 1).ifPresent(limit -> {
+         // the hits are live elements, which must not change while they are encoded
+         this.modelRepository.readLocked(modeluri, () -> {
+            ArrayNode encoded = Json.array();
+            for (SearchHit hit : this.modelRepository.search(query, modeluri, limit)) {
+               EObject element = hit.getElement();
+               ObjectNode encodedHit = Json.object(
+                  Json.prop(ModelServerPathParameters.MODEL_URI, Json.text(element.eResource().getURI()
+                     .deresolve(serverConfiguration.getWorkspaceRootURI()).toString())),
+                  Json.prop("id", Json.text(this.modelRepository.getElementId(element))),
+                  Json.prop("eClass", Json.text(EcoreUtil.getURI(element.eClass()).toString())));
+               encodedHit.put("score", hit.getScore());
+               encoded.add(encodedHit);
+            }
+            ctx.json(JsonResponse.success(encoded));
+         });
+      });
+   }
+
+   public void getStatistics(final Context ctx, @Nullable final String modeluri) {
+      this.modelRepository.getStatistics(modeluri).ifPresentOrElse(
+         statistics -> {
+            ObjectNode instanceCounts = Json.object();
+            statistics.getInstanceCounts().forEach(
+               (eClass, count) -> instanceCounts.put(EcoreUtil.getURI(eClass).toString(), count));
+            ObjectNode encoded = Json.object();
+            encoded.put("models", statistics.getModelCount());
+            encoded.put("elements", statistics.getElementCount());
+            encoded.put("maxDepth", statistics.getMaxDepth());
+            encoded.put("references", statistics.getReferenceCount());
+            encoded.put("estimatedSize", statistics.getEstimatedSize());
+            encoded.set("instances", instanceCounts);
+            ctx.json(JsonResponse.success(encoded));
+         },
+         () -> handleError(ctx, 404, "Model '" + modeluri + "' not found!"));
+   }
+
+   private Optional<Integer> getIntParam(final Context ctx, final String name, final int defaultValue,
+      final int minValue) {
+      String param = ctx.queryParam(name);
+      if (param == null) {
+         return Optional.of(defaultValue);
+      }
+      try {
+         int value = Integer.parseInt(param);
+         if (value >= minValue) {
+            return Optional.of(value);
+         }
+      } catch (NumberFormatException e) {
+         // reported below
+      }
+      handleError(ctx, 400, String.format("Invalid parameter '%s': %s", name, param));
+      return Optional.empty();
+   }
+
    public void update(final Context ctx, final String modeluri) {
       readPayload(ctx).ifPresentOrElse(
          eObject -> modelRepository.updateModel(modeluri, eObject)
@@ -181,6 +529,68 @@ public class ModelController {
       }
    }
 
+   /**
+    * Like {@link #save(Context, String)}, but the model is saved on the pool of asynchronous requests.
+    *
+    * @param ctx      the request context
+    * @param modeluri the URI of the model
+    */
+   public void saveAsync(final Context ctx, final String modeluri) {
+      respondAsync(ctx, () -> {
+         if (this.modelRepository.saveModel(modeluri)) {
+            sessionController.modelSaved(modeluri);
+            return JsonResponse.success("Model '" + modeluri + "' successfully saved");
+         }
+         return errorResponse(ctx, 500, "Saving model '" + modeluri + "' failed!");
+      });
+   }
+
+   /**
+    * Like {@link #saveAll(Context)}, but the models are saved on the pool of asynchronous requests.
+    *
+    * @param ctx the request context
+    */
+   public void saveAllAsync(final Context ctx) {
+      respondAsync(ctx, () -> {
+         if (this.modelRepository.saveAllModels()) {
+            sessionController.allModelSaved();
+            return JsonResponse.success("All models successfully saved");
+         }
+         return errorResponse(ctx, 500, "Saving all models failed!");
+      });
+   }
+
+   /**
+    * Produce the JSON response to a request on the pool of asynchronous requests, so that the request thread is free
+    * meanwhile. The response must not be set on the context by the producer, but only its status. If the pool is
+    * saturated, the request is rejected right away.
+    *
+    * @param ctx      the request context
+    * @param response the producer of the response
+    */
+   protected void respondAsync(final Context ctx, final Supplier<JsonNode> response) {
+      CompletableFuture<JsonNode> future;
+      try {
+         future = CompletableFuture.supplyAsync(response, asyncExecutor);
+      } catch (RejectedExecutionException e) {
+         ctx.header(AdmissionControl.RETRY_AFTER_HEADER, String.valueOf(AdmissionControl.SATURATED_RETRY_AFTER));
+         handleError(ctx, 503, "Too many pending requests, try again later");
+         return;
+      }
+      ctx.json(future);
+   }
+
+   private static ExecutorService createAsyncExecutor() {
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS, 60, TimeUnit.SECONDS,
+         new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "Model server async request");
+            thread.setDaemon(true);
+            return thread;
+         });
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+   }
+
    public void undo(final Context ctx, final String modeluri) {
       CCommand undoCommand = modelRepository.getUndoCommand(modeluri);
       if (undoCommand != null) {
@@ -219,12 +629,97 @@ public class ModelController {
       handleWarning(ctx, 202, "Cannot redo");
    }
 
+   public void importArchive(final Context ctx, final boolean overwrite) {
+      List<ArchiveEntryResult> results;
+      try (InputStream archive = ctx.req.getInputStream()) {
+         results = this.modelRepository.importModels(archive, overwrite);
+      } catch (IOException e) {
+         handleError(ctx, 400, "Could not read model archive", e);
+         return;
+      }
+
+      ArrayNode encoded = Json.array();
+      for (ArchiveEntryResult result : results) {
+         ObjectNode entry = Json.object(
+            Json.prop("entry", Json.text(result.getEntry())),
+            Json.prop("status", Json.text(result.getStatus().name().toLowerCase())));
+         if (result.getModelURI() != null) {
+            entry.set(ModelServerPathParameters.MODEL_URI,
+               Json.text(result.getModelURI().deresolve(serverConfiguration.getWorkspaceRootURI()).toString()));
+         }
+         if (result.getMessage() != null) {
+            entry.set("message", Json.text(result.getMessage()));
+         }
+         encoded.add(entry);
+      }
+      ctx.json(JsonResponse.success(encoded));
+
+      results.stream()
+         .filter(result -> result.getStatus() == ArchiveEntryResult.Status.LOADED)
+         .forEach(result -> sessionController.modelChanged(result.getModelURI().toString()));
+   }
+
+   public void exportArchive(final Context ctx, final String prefix) {
+      String format = ctx.queryParam(ModelServerPathParameters.FORMAT);
+      if (format != null && !format.equals(ModelServerPathParameters.FORMAT_JSON)
+         && !format.equals(ModelServerPathParameters.FORMAT_XMI)) {
+         handleError(ctx, 400, "Unsupported export format '" + format + "'");
+         return;
+      }
+
+      // the archive is streamed, so the headers have to be sent before its first entry
+      ctx.status(200)
+         .contentType("application/zip")
+         .header("Content-Disposition", "attachment; filename=\"workspace.zip\"");
+      try (OutputStream output = ctx.res.getOutputStream()) {
+         int entries = this.modelRepository.exportModels(output, prefix, format);
+         LOG.debug(String.format("Exported %d workspace entries with prefix '%s'", entries, prefix));
+      } catch (IOException e) {
+         // the response is already committed, so the client can only notice the incomplete archive
+         LOG.error("Could not export workspace", e);
+      }
+   }
+
    public void getModelUris(final Context ctx) {
-      try {
-         ctx.json(JsonResponse.success(JsonCodec.encode(this.modelRepository.getAllModelUris())));
-      } catch (EncodingException ex) {
-         handleEncodingError(ctx, ex);
+      String prefix = ctx.queryParam(ModelServerPathParameters.PREFIX);
+      String cursor = ctx.queryParam(ModelServerPathParameters.CURSOR);
+      if (ctx.queryParam(ModelServerPathParameters.LIMIT) == null && cursor == null) {
+         try {
+            ctx.json(JsonResponse.success(
+               JsonCodec.encode(this.modelRepository.getModelUris(prefix, null, Integer.MAX_VALUE))));
+         } catch (EncodingException ex) {
+            handleEncodingError(ctx, ex);
+         }
+         return;
+      }
+
+      Optional<Integer> limit = getIntParam(ctx, ModelServerPathParameters.LIMIT, ModelURIIndex.DEFAULT_LIMIT, 1);
+      if (limit.isEmpty()) {
+         return;
+      }
+      String after = null;
+      if (cursor != null) {
+         try {
+            after = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+         } catch (IllegalArgumentException e) {
+            handleError(ctx, 400, "Invalid parameter 'cursor': " + cursor);
+            return;
+         }
       }
+      // look one URI ahead to know whether there is a next page
+      List<String> modeluris = this.modelRepository.getModelUris(prefix, after,
+         Math.min(limit.get(), Integer.MAX_VALUE - 1) + 1);
+      boolean hasNextPage = modeluris.size() > limit.get();
+      if (hasNextPage) {
+         modeluris = modeluris.subList(0, limit.get());
+      }
+      ObjectNode page = Json.object(Json.prop("modeluris", Json.array(modeluris)));
+      if (hasNextPage) {
+         String last = modeluris.get(modeluris.size() - 1);
+         page.set("nextCursor", Json.text(
+            Base64.getUrlEncoder().withoutPadding().encodeToString(last.getBytes(StandardCharsets.UTF_8))));
+      }
+      ctx.json(JsonResponse.success(page));
    }
 
    private Optional<EObject> readPayload(final Context ctx) {
@@ -235,6 +730,13 @@ public class ModelController {
             return Optional.empty();
          }
          JsonNode jsonDataNode = json.get(JsonResponseMember.DATA);
+         if (jsonDataNode.isObject() && serverConfiguration.isValidatePayloads()) {
+            Optional<String> problem = payloadValidator.validate(jsonDataNode);
+            if (problem.isPresent()) {
+               handleError(ctx, 400, "Invalid payload at " + problem.get());
+               return Optional.empty();
+            }
+         }
          String jsonData = !jsonDataNode.asText().isEmpty() ? jsonDataNode.asText() : jsonDataNode.toString();
          if (jsonData.equals("{}")) {
             handleError(ctx, 400, "Empty JSON");
@@ -314,4 +816,16 @@ public class ModelController {
       LOG.error(errorMsg, e);
       ctx.status(statusCode).json(JsonResponse.error(errorMsg));
    }
+
+   private JsonNode encodingErrorResponse(final Context ctx, final EncodingException ex) {
+      LOG.error("An error occurred during data encoding", ex);
+      ctx.status(500);
+      return JsonResponse.error("An error occurred during data encoding");
+   }
+
+   private JsonNode errorResponse(final Context ctx, final int statusCode, final String errorMsg) {
+      LOG.error(errorMsg);
+      ctx.status(statusCode);
+      return JsonResponse.error(errorMsg);
+   }
 }
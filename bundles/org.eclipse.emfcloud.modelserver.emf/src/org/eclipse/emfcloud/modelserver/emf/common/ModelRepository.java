@@ -11,23 +11,65 @@
 package org.eclipse.emfcloud.modelserver.emf.common;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emfcloud.modelserver.command.CCommand;
 import org.eclipse.emfcloud.modelserver.common.codecs.DecodingException;
+import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
+import org.eclipse.emfcloud.modelserver.emf.common.archive.ArchiveEntryResult;
+import org.eclipse.emfcloud.modelserver.emf.common.archive.ModelArchiveExporter;
+import org.eclipse.emfcloud.modelserver.emf.common.archive.ModelArchiveImporter;
+import org.eclipse.emfcloud.modelserver.emf.common.codecs.JsonCodec;
+import org.eclipse.emfcloud.modelserver.emf.common.diff.ModelDiff;
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ContentHasher;
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ModelHashes;
+import org.eclipse.emfcloud.modelserver.emf.common.index.CrossReference;
+import org.eclipse.emfcloud.modelserver.emf.common.index.DocumentOrder;
+import org.eclipse.emfcloud.modelserver.emf.common.query.ElementQuery;
+import org.eclipse.emfcloud.modelserver.emf.common.query.ElementQueryEngine;
+import org.eclipse.emfcloud.modelserver.emf.common.query.ElementQueryResult;
+import org.eclipse.emfcloud.modelserver.emf.common.query.LiveQuery;
+import org.eclipse.emfcloud.modelserver.emf.common.search.FullTextIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.search.SearchHit;
+import org.eclipse.emfcloud.modelserver.emf.common.snapshot.ModelSnapshot;
+import org.eclipse.emfcloud.modelserver.emf.common.statistics.ModelStatistics;
+import org.eclipse.emfcloud.modelserver.emf.common.statistics.WorkspaceStatistics;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.ModelValidation;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+import org.jetbrains.annotations.Nullable;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.inject.Inject;
 
 /**
@@ -56,42 +98,425 @@ public class ModelRepository {
    }
 
    public Optional<EObject> getModel(final String modeluri) {
-      return modelResourceManager.loadResource(modeluri)
-         .flatMap(res -> {
-            List<EObject> contents = res.getContents();
-            return contents.isEmpty() ? Optional.empty() : Optional.of(contents.get(0));
-         });
+      return getModel(modelResourceManager.loadResource(modeluri));
+   }
+
+   /**
+    * Get a model in the state that it had at a past revision. The current revision is read from a snapshot of the
+    * model.
+    *
+    * @param modeluri the URI of the model
+    * @param revision the revision number
+    * @return the model at the given {@code revision}, or an empty optional if it is not available
+    */
+   public Optional<EObject> getModel(final String modeluri, final long revision) {
+      return readRevision(modeluri, revision, () -> getModelSnapshot(modeluri), this::getModel);
+   }
+
+   protected Optional<EObject> getModel(final Optional<Resource> resource) {
+      return resource.flatMap(res -> {
+         List<EObject> contents = res.getContents();
+         return contents.isEmpty() ? Optional.empty() : Optional.of(contents.get(0));
+      });
    }
 
-   @SuppressWarnings("checkstyle:IllegalCatch")
    public Optional<EObject> getModelElementById(final String modeluri, final String elementid) {
-      return modelResourceManager.loadResource(modeluri)
-         .flatMap(res -> {
-            try {
-               EObject modelElement = res.getEObject(elementid);
-               return Optional.ofNullable(modelElement);
-            } catch (Exception e) {
-               LOG.error("Could not load element with URI fragment: " + elementid);
-               return Optional.empty();
-            }
-         });
+      return getModelElementById(modelResourceManager.loadResource(modeluri), elementid);
+   }
+
+   public Optional<EObject> getModelElementById(final String modeluri, final String elementid, final long revision) {
+      return readRevision(modeluri, revision, () -> getModelElementSnapshotById(modeluri, elementid),
+         resource -> getModelElementById(resource, elementid));
+   }
+
+   @SuppressWarnings("checkstyle:IllegalCatch")
+   protected Optional<EObject> getModelElementById(final Optional<Resource> resource, final String elementid) {
+      return resource.flatMap(res -> {
+         Optional<EObject> indexed = modelResourceManager.getModelIndex(res)
+            .flatMap(index -> index.getElement(elementid));
+         if (indexed.isPresent()) {
+            return indexed;
+         }
+         // fall back to URI fragments, e.g. containment paths
+         try {
+            EObject modelElement = res.getEObject(elementid);
+            return Optional.ofNullable(modelElement);
+         } catch (Exception e) {
+            LOG.error("Could not load element with URI fragment: " + elementid);
+            return Optional.empty();
+         }
+      });
    }
 
    public Optional<EObject> getModelElementByName(final String modeluri, final String elementname) {
-      return modelResourceManager.loadResource(modeluri)
-         .flatMap(res -> {
-            TreeIterator<EObject> contentIterator = res.getAllContents();
-            while (contentIterator.hasNext()) {
-               EObject type = contentIterator.next();
-               EStructuralFeature name = type.eClass().getEStructuralFeature("name");
-               if (name != null) {
-                  if (type.eGet(name).equals(elementname)) {
-                     return Optional.of(type);
-                  }
+      return getModelElementByName(modelResourceManager.loadResource(modeluri), elementname);
+   }
+
+   public Optional<EObject> getModelElementByName(final String modeluri, final String elementname,
+      final long revision) {
+      return readRevision(modeluri, revision, () -> getModelElementSnapshotByName(modeluri, elementname),
+         resource -> getModelElementByName(resource, elementname));
+   }
+
+   protected Optional<EObject> getModelElementByName(final Optional<Resource> resource, final String elementname) {
+      return resource.flatMap(res -> {
+         Optional<List<EObject>> indexed = modelResourceManager.getModelIndex(res)
+            .flatMap(index -> index.getElements("name", elementname));
+         if (indexed.isPresent()) {
+            return indexed.get().stream().findFirst();
+         }
+         TreeIterator<EObject> contentIterator = res.getAllContents();
+         while (contentIterator.hasNext()) {
+            EObject type = contentIterator.next();
+            EStructuralFeature name = type.eClass().getEStructuralFeature("name");
+            if (name != null) {
+               if (type.eGet(name).equals(elementname)) {
+                  return Optional.of(type);
                }
             }
+         }
+         return Optional.empty();
+      });
+   }
+
+   /**
+    * Get the current state of a model as a snapshot, which is not changed by commands executed meanwhile. Unlike the
+    * live model, a snapshot can be encoded while other threads change the model.
+    *
+    * @param modeluri the URI of the model
+    * @return the root of the snapshot, or an empty optional if the model is not found
+    */
+   public Optional<EObject> getModelSnapshot(final String modeluri) {
+      return readSnapshot(modeluri, ModelSnapshot::getModel, this::getModel);
+   }
+
+   /**
+    * Get the current state of a model element as part of a snapshot of its model.
+    *
+    * @param modeluri  the URI of the model
+    * @param elementid the ID or URI fragment of the element
+    * @return the element in the snapshot, or an empty optional if it is not found
+    * @see #getModelSnapshot(String)
+    */
+   public Optional<EObject> getModelElementSnapshotById(final String modeluri, final String elementid) {
+      return readSnapshot(modeluri, snapshot -> snapshot.getElement(elementid),
+         resource -> getModelElementById(resource, elementid));
+   }
+
+   /**
+    * Get the current state of the first model element with a name as part of a snapshot of its model.
+    *
+    * @param modeluri    the URI of the model
+    * @param elementname the name of the element
+    * @return the element in the snapshot, or an empty optional if it is not found
+    * @see #getModelSnapshot(String)
+    */
+   public Optional<EObject> getModelElementSnapshotByName(final String modeluri, final String elementname) {
+      return readSnapshot(modeluri, snapshot -> snapshot.getElementByName(elementname),
+         resource -> getModelElementByName(resource, elementname));
+   }
+
+   /**
+    * Read an element from the current snapshot of a model, or from the live model if the model has no snapshots.
+    */
+   protected Optional<EObject> readSnapshot(final String modeluri,
+      final Function<ModelSnapshot, Optional<EObject>> read,
+      final Function<Optional<Resource>, Optional<EObject>> readLive) {
+      Optional<Resource> resource = modelResourceManager.loadResource(modeluri);
+      Optional<ModelSnapshot> snapshot = resource.flatMap(modelResourceManager::getModelSnapshot);
+      return snapshot.isPresent() ? read.apply(snapshot.get()) : readLive.apply(resource);
+   }
+
+   /**
+    * Read an element from a model at a revision. The current revision is read from a snapshot, past revisions from
+    * the copy that the model's history rebuilds. The copy is rebuilt under the read lock, so that it neither contains
+    * nor misses part of a command that is applied meanwhile.
+    */
+   protected Optional<EObject> readRevision(final String modeluri, final long revision,
+      final Supplier<Optional<EObject>> readCurrent, final Function<Optional<Resource>, Optional<EObject>> readPast) {
+      return readLocked(modeluri, () -> {
+         boolean current = modelResourceManager.loadResource(modeluri)
+            .map(resource -> modelResourceManager.getEditingDomain(resource.getResourceSet()))
+            .flatMap(ModelServerEditingDomain::getHistory)
+            .filter(history -> history.getRevision() == revision)
+            .isPresent();
+         return current ? readCurrent.get() : readPast.apply(modelResourceManager.loadResource(modeluri, revision));
+      });
+   }
+
+   /**
+    * Read the live state of a model, or of all loaded models, under the read lock of their editing domains, so that
+    * the read neither observes a command that is only partially applied nor races with one. Reads that only need
+    * the state of a model, rather than its live elements, should rather use a {@linkplain #getModelSnapshot(String)
+    * snapshot}.
+    *
+    * @param modeluri the URI of the model to read, or {@code null} to read all loaded models
+    * @param read     the read
+    * @return the result of the read
+    */
+   public <T> T readLocked(@Nullable final String modeluri, final Supplier<T> read) {
+      List<Lock> locks = lockForReading(modeluri);
+      try {
+         return read.get();
+      } finally {
+         locks.forEach(Lock::unlock);
+      }
+   }
+
+   /**
+    * Read the live state of a model, or of all loaded models, under the read lock of their editing domains.
+    *
+    * @param modeluri the URI of the model to read, or {@code null} to read all loaded models
+    * @param read     the read
+    * @see #readLocked(String, Supplier)
+    */
+   public void readLocked(@Nullable final String modeluri, final Runnable read) {
+      readLocked(modeluri, () -> {
+         read.run();
+         return null;
+      });
+   }
+
+   /**
+    * Acquire the read locks of the editing domains of a model, or of all loaded models.
+    *
+    * @param modeluri the URI of the model, or {@code null} for all loaded models
+    * @return the acquired locks, which the caller must release
+    */
+   protected List<Lock> lockForReading(@Nullable final String modeluri) {
+      List<Lock> locks = new ArrayList<>();
+      Collection<ResourceSet> resourceSets = modeluri != null
+         ? Collections.singleton(modelResourceManager.getResourceSet(modeluri))
+         : new ArrayList<>(modelResourceManager.getAllLoadedResourceSets());
+      for (ResourceSet resourceSet : resourceSets) {
+         ModelServerEditingDomain domain = resourceSet != null ? modelResourceManager.getEditingDomain(resourceSet)
+            : null;
+         if (domain != null) {
+            Lock lock = domain.getLock().readLock();
+            lock.lock();
+            locks.add(lock);
+         }
+      }
+      return locks;
+   }
+
+   /**
+    * Query the elements of a model, or of all loaded models, and get one page of the matches.
+    *
+    * @param modeluri the URI of the model to query, or {@code null} to query all loaded models
+    * @param query    the query
+    * @param offset   the number of matches to skip, ignored if a {@code cursor} is given
+    * @param limit    the maximal number of matches to return
+    * @param cursor   the cursor returned with the previous page, or {@code null}
+    * @return the page of matches, or an empty optional if the model to query is not found
+    * @throws IllegalArgumentException if the cursor is invalid
+    */
+   public Optional<ElementQueryResult> queryModelElements(@Nullable final String modeluri, final ElementQuery query,
+      final int offset, final int limit, @Nullable final String cursor) {
+
+      List<Resource> resources = new ArrayList<>();
+      if (modeluri != null) {
+         Optional<Resource> resource = modelResourceManager.loadResource(modeluri);
+         if (resource.isEmpty()) {
             return Optional.empty();
-         });
+         }
+         resources.add(resource.get());
+      } else {
+         modelResourceManager.getAllLoadedModelURIs()
+            .forEach(uri -> modelResourceManager.loadResource(uri.toString()).ifPresent(resources::add));
+      }
+      ElementQueryEngine engine = new ElementQueryEngine(modelResourceManager::getModelIndex);
+      return Optional.of(readLocked(modeluri, () -> engine.execute(resources, query, offset, limit, cursor)));
+   }
+
+   /**
+    * Start maintaining the matches of a query on a model incrementally.
+    *
+    * @param modeluri the URI of the model to query
+    * @param query    the query
+    * @return the live query, or an empty optional if the model is not found
+    */
+   public Optional<LiveQuery> createLiveQuery(final String modeluri, final ElementQuery query) {
+      return modelResourceManager.loadResource(modeluri).map(resource -> {
+         LiveQuery result = new LiveQuery(query, this::getElementId);
+         result.attach(resource);
+         return result;
+      });
+   }
+
+   /**
+    * Move a live query to the current resource of its model, in case the model has been reloaded since.
+    *
+    * @param modeluri  the URI of the queried model
+    * @param liveQuery the live query
+    */
+   public void refreshLiveQuery(final String modeluri, final LiveQuery liveQuery) {
+      modelResourceManager.loadResource(modeluri).ifPresent(liveQuery::attach);
+   }
+
+   /**
+    * Get the incremental validation of the current resource of a model.
+    *
+    * @param modeluri the URI of the model
+    * @return the validation, or an empty optional if the model is not found or models are not validated
+    */
+   public Optional<ModelValidation> getModelValidation(final String modeluri) {
+      return modelResourceManager.loadResource(modeluri).flatMap(modelResourceManager::getModelValidation);
+   }
+
+   /**
+    * Get the references to an element from all models of the workspace.
+    *
+    * @param modeluri  the URI of the model that contains the element
+    * @param elementid the ID or URI fragment of the element
+    * @return the references ordered by model URI and by the position of the referencing element in its model, or an
+    *         empty optional if the element is not found
+    */
+   public Optional<List<CrossReference>> getReferences(final String modeluri, final String elementid) {
+      // the referencing elements may be in any model
+      return readLocked(null, () -> getModelElementById(modeluri, elementid).map(element -> {
+         List<CrossReference> references = modelResourceManager.getCrossReferenceIndex()
+            .map(index -> new ArrayList<>(index.getReferences(element)))
+            .orElseGet(() -> findReferences(element));
+         references.sort(Comparator
+            .comparing((CrossReference reference) -> reference.getSource().eResource().getURI().toString())
+            .thenComparing(CrossReference::getSource, DocumentOrder.caching()));
+         return references;
+      }));
+   }
+
+   /**
+    * Find the references to an element by scanning its model, if references are not indexed.
+    */
+   protected List<CrossReference> findReferences(final EObject element) {
+      return EcoreUtil.UsageCrossReferencer.find(element, element.eResource()).stream()
+         .map(setting -> new CrossReference(setting.getEObject(), (EReference) setting.getEStructuralFeature()))
+         .collect(Collectors.toList());
+   }
+
+   /**
+    * Search the string attributes of the elements of a model, or of all loaded models.
+    *
+    * @param query    the search query, whose last term is also matched as a prefix
+    * @param modeluri the URI of the model to search, or {@code null} to search all loaded models
+    * @param limit    the maximal number of results
+    * @return the best matching elements, ordered by descending score
+    */
+   public List<SearchHit> search(final String query, @Nullable final String modeluri, final int limit) {
+      URI modelURI = modeluri != null ? URI.createURI(modeluri) : null;
+      Predicate<EObject> filter = element -> modelURI == null
+         || element.eResource() != null && modelURI.equals(element.eResource().getURI());
+      return readLocked(modeluri, () -> modelResourceManager.getFullTextIndex()
+         .orElseGet(() -> createTemporaryIndex(modeluri))
+         .search(query, filter, limit));
+   }
+
+   /**
+    * Index the loaded models on the fly if the models are not indexed for search.
+    */
+   protected FullTextIndex createTemporaryIndex(@Nullable final String modeluri) {
+      FullTextIndex index = new FullTextIndex();
+      Collection<URI> modelURIs = modeluri != null ? List.of(URI.createURI(modeluri))
+         : modelResourceManager.getAllLoadedModelURIs();
+      for (URI uri : modelURIs) {
+         modelResourceManager.loadResource(uri.toString())
+            .ifPresent(resource -> resource.getAllContents().forEachRemaining(index::update));
+      }
+      return index;
+   }
+
+   /**
+    * Compute the structural difference between two models as a JSON Patch that transforms the JSON encoding of the
+    * source model into that of the target model.
+    *
+    * @param modeluri      the URI of the source model
+    * @param othermodeluri the URI of the target model, or {@code null} to compare the persisted state of the source
+    *                         model with its current, possibly unsaved state
+    * @return the patch, or an empty optional if a model is not found
+    * @throws EncodingException if an added element cannot be encoded
+    */
+   public Optional<ArrayNode> diff(final String modeluri, @Nullable final String othermodeluri)
+      throws EncodingException {
+      List<Lock> locks = lockForReading(modeluri);
+      if (othermodeluri != null) {
+         locks.addAll(lockForReading(othermodeluri));
+      }
+      try {
+         Optional<EObject> target = getModel(othermodeluri != null ? othermodeluri : modeluri);
+         if (target.isEmpty()) {
+            return Optional.empty();
+         }
+         if (othermodeluri == null && !getDirtyState(modeluri)) {
+            return Optional.of(Json.array());
+         }
+         Optional<EObject> source = othermodeluri != null ? getModel(modeluri)
+            : getModel(modelResourceManager.loadPersistedResource(modeluri));
+         if (source.isEmpty()) {
+            return Optional.empty();
+         }
+         // the current state of a model is hashed incrementally if its hashes are maintained
+         ModelDiff diff = new ModelDiff(ModelHashes.createHasher(this::getElementId), new JsonCodec());
+         return Optional.of(diff.diff(source.get(), target.get()));
+      } finally {
+         locks.forEach(Lock::unlock);
+      }
+   }
+
+   /**
+    * Get the content hashes of the subtrees of a model, from the Merkle tree of the model if it is maintained.
+    *
+    * @param modeluri the URI of the model
+    * @return the hash of the subtree of an element, or an empty optional if the model is not found
+    */
+   public Optional<Function<EObject, byte[]>> getContentHashes(final String modeluri) {
+      return modelResourceManager.loadResource(modeluri).map(resource -> modelResourceManager
+         .getModelHashes(resource)
+         .<Function<EObject, byte[]>> map(hashes -> hashes::getHash)
+         .orElseGet(() -> new ContentHasher(this::getElementId)::hash));
+   }
+
+   /**
+    * Get the statistics of a model, or the totals of all loaded models.
+    *
+    * @param modeluri the URI of the model, or {@code null} for the totals
+    * @return the statistics, or an empty optional if the model is not found
+    */
+   public Optional<ModelStatistics> getStatistics(@Nullable final String modeluri) {
+      Optional<WorkspaceStatistics> workspaceStatistics = modelResourceManager.getWorkspaceStatistics();
+      if (modeluri != null) {
+         return modelResourceManager.loadResource(modeluri).map(resource -> workspaceStatistics
+            .flatMap(statistics -> statistics.getStatistics(resource))
+            .orElseGet(() -> readLocked(modeluri, () -> WorkspaceStatistics.compute(resource))));
+      }
+      return Optional.of(workspaceStatistics.map(WorkspaceStatistics::getTotals).orElseGet(
+         () -> readLocked(null, () -> ModelStatistics.sum(modelResourceManager.getAllLoadedModelURIs().stream()
+            .flatMap(uri -> modelResourceManager.loadResource(uri.toString()).stream())
+            .map(WorkspaceStatistics::compute)
+            .collect(Collectors.toList())))));
+   }
+
+   /**
+    * Get the number of elements of a model, if it is kept up to date, so that it is known without walking the model.
+    *
+    * @param modeluri the URI of the model
+    * @return the number of elements, or an empty optional if it is not known or the model is not found
+    */
+   public Optional<Integer> getElementCount(final String modeluri) {
+      return modelResourceManager.loadResource(modeluri)
+         .flatMap(resource -> modelResourceManager.getWorkspaceStatistics()
+            .flatMap(statistics -> statistics.getStatistics(resource)))
+         .map(ModelStatistics::getElementCount);
+   }
+
+   /**
+    * Get the ID of an element within its model, by which it can be {@linkplain #getModelElementById(String, String)
+    * looked up}.
+    *
+    * @param element an element of a model
+    * @return the ID of the element
+    */
+   public String getElementId(final EObject element) {
+      return modelResourceManager.getElementId(element);
    }
 
    public Map<URI, EObject> getAllModels() throws IOException {
@@ -99,7 +524,9 @@ public class ModelRepository {
       modelResourceManager.getAllLoadedResourceSets().forEach(resourceSet -> {
          resourceSet.getResources().forEach(resource -> {
             if (!resource.getContents().isEmpty()) {
-               models.put(resource.getURI(), resource.getContents().get(0));
+               models.put(resource.getURI(), modelResourceManager.getModelSnapshot(resource)
+                  .flatMap(ModelSnapshot::getModel)
+                  .orElseGet(() -> resource.getContents().get(0)));
             } else {
                LOG.warn("Could not retrieve empty resource with URI: " + resource.getURI());
             }
@@ -112,6 +539,93 @@ public class ModelRepository {
       modelResourceManager.addResource(modeluri, model);
    }
 
+   /**
+    * Import all models of a streamed zip or tar archive into the workspace. The entries are written relative to the
+    * workspace root and then loaded in parallel.
+    *
+    * @param archive   the archive stream
+    * @param overwrite whether existing files in the workspace may be replaced
+    * @return the results of all archive entries, in archive order
+    * @throws IOException if the archive cannot be read
+    */
+   public List<ArchiveEntryResult> importModels(final InputStream archive, final boolean overwrite)
+      throws IOException {
+      URI workspaceRootURI = serverConfiguration.getWorkspaceRootURI();
+      if (!workspaceRootURI.isFile()) {
+         throw new IOException("Workspace root is not a directory: " + workspaceRootURI);
+      }
+      Path workspaceRoot = Paths.get(workspaceRootURI.toFileString());
+      List<ArchiveEntryResult> written = new ModelArchiveImporter(workspaceRoot, overwrite).importEntries(archive);
+
+      Set<URI> modelURIs = written.stream()
+         .filter(result -> result.getStatus() == ArchiveEntryResult.Status.WRITTEN)
+         .map(ArchiveEntryResult::getModelURI)
+         .filter(uri -> !serverConfiguration.isUiSchemaFolder(uri.trimSegments(1).toFileString()))
+         .collect(Collectors.toCollection(LinkedHashSet::new));
+      Map<URI, Resource> loaded = modelResourceManager.loadResources(modelURIs);
+
+      return written.stream().map(result -> {
+         if (result.getStatus() != ArchiveEntryResult.Status.WRITTEN) {
+            return result;
+         }
+         if (loaded.containsKey(result.getModelURI())) {
+            return ArchiveEntryResult.loaded(result.getEntry(), result.getModelURI());
+         }
+         return modelURIs.contains(result.getModelURI())
+            ? ArchiveEntryResult.failed(result.getEntry(), result.getModelURI(),
+               "File written, but could not be loaded as a model")
+            : ArchiveEntryResult.written(result.getEntry(), result.getModelURI(), "Written to UI schema folder");
+      }).collect(Collectors.toList());
+   }
+
+   /**
+    * Stream the workspace, or everything in it under a path prefix, as a zip archive. Loaded models are serialized
+    * from their in-memory state, including unsaved changes, each under the read lock of its editing domain; all other
+    * files are copied as they are.
+    *
+    * @param output the stream to write the archive to
+    * @param prefix the workspace-relative path prefix of the entries to export, or an empty string for all
+    * @param format the format to serialize models in, or {@code null} to keep the format of each model
+    * @return the number of exported entries
+    * @throws IOException if the archive cannot be written
+    */
+   public int exportModels(final OutputStream output, final String prefix, @Nullable final String format)
+      throws IOException {
+      URI workspaceRootURI = serverConfiguration.getWorkspaceRootURI();
+      // sort the entries by their archive path and let loaded models take precedence over their files
+      Set<URI> loadedModelURIs = modelResourceManager.getAllLoadedModelURIs();
+      Map<String, URI> entries = new TreeMap<>();
+      serverConfiguration.getWorkspaceEntries()
+         .forEach(path -> entries.put(path, URI.createFileURI(path)));
+      loadedModelURIs
+         .forEach(uri -> entries.put(uri.isFile() ? uri.toFileString() : uri.toString(), uri));
+
+      try (ModelArchiveExporter exporter = new ModelArchiveExporter(output, format)) {
+         for (URI uri : entries.values()) {
+            URI relativeURI = uri.deresolve(workspaceRootURI);
+            String name = URI.decode(relativeURI.toString());
+            if (!relativeURI.isRelative() || name.startsWith("../") || !name.startsWith(prefix)) {
+               continue;
+            }
+            Resource resource = loadedModelURIs.contains(uri)
+               ? modelResourceManager.getResourceSet(uri.toString()).getResource(uri, false)
+               : null;
+            if (resource != null) {
+               // serialize the model under the read lock, so that no command changes it while it is written
+               List<Lock> locks = lockForReading(uri.toString());
+               try {
+                  exporter.addModel(name, resource);
+               } finally {
+                  locks.forEach(Lock::unlock);
+               }
+            } else if (uri.isFile() && Files.isRegularFile(Paths.get(uri.toFileString()))) {
+               exporter.addFile(name, Paths.get(uri.toFileString()));
+            }
+         }
+         return exporter.getEntryCount();
+      }
+   }
+
    /**
     * Replace a model with an update.
     *
@@ -161,11 +675,27 @@ public class ModelRepository {
    }
 
    public Set<String> getAllModelUris() {
-      Set<String> modeluris = new HashSet<>();
-      for (URI uri : modelResourceManager.getAllLoadedModelURIs()) {
-         modeluris.add(uri.deresolve(serverConfiguration.getWorkspaceRootURI()).toString());
-      }
-      return modeluris;
+      return new LinkedHashSet<>(getModelUris(null, null, Integer.MAX_VALUE));
+   }
+
+   /**
+    * List the URIs of the models of the workspace, relative to the workspace root, in lexicographical order.
+    *
+    * @param prefix the prefix of the listed URIs, or {@code null} to list all URIs
+    * @param after  the URI after which to start listing, or {@code null} to start with the first URI
+    * @param limit  the maximal number of URIs to list
+    * @return the relative model URIs
+    */
+   public List<String> getModelUris(@Nullable final String prefix, @Nullable final String after, final int limit) {
+      return modelResourceManager.getModelURIIndex()
+         .map(index -> index.list(prefix, after, limit))
+         .orElseGet(() -> modelResourceManager.getAllLoadedModelURIs().stream()
+            .map(uri -> uri.deresolve(serverConfiguration.getWorkspaceRootURI()).toString())
+            .filter(uri -> prefix == null || uri.startsWith(prefix))
+            .filter(uri -> after == null || uri.compareTo(after) > 0)
+            .sorted()
+            .limit(limit)
+            .collect(Collectors.toList()));
    }
 
    public Set<String> getAbsoluteModelUris() {
@@ -12,6 +12,7 @@ package org.eclipse.emfcloud.modelserver.emf.common;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -21,6 +22,14 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emfcloud.modelserver.command.CCommand;
 import org.eclipse.emfcloud.modelserver.common.codecs.DecodingException;
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ModelHashes;
+import org.eclipse.emfcloud.modelserver.emf.common.index.CrossReferenceIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelURIIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.search.FullTextIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.snapshot.ModelSnapshot;
+import org.eclipse.emfcloud.modelserver.emf.common.statistics.WorkspaceStatistics;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.ModelValidation;
 
 public interface ModelResourceManager {
 
@@ -28,6 +37,94 @@ public interface ModelResourceManager {
 
    Optional<Resource> loadResource(String modeluri);
 
+   /**
+    * Load a model resource in the state that it had at a past revision. Callers must hold the read lock of the
+    * model's editing domain.
+    *
+    * @param modeluri the URI of the model
+    * @param revision the revision number
+    * @return the resource at the given {@code revision}, or an empty optional if the model or the revision is not
+    *         available
+    */
+   Optional<Resource> loadResource(String modeluri, long revision);
+
+   /**
+    * Load the persisted state of a model into a new resource set, regardless of unsaved changes to the loaded model.
+    *
+    * @param modeluri the URI of the model
+    * @return the detached resource, or an empty optional if the model cannot be loaded from its file
+    */
+   Optional<Resource> loadPersistedResource(String modeluri);
+
+   /**
+    * Get the index of a model resource, which looks up the elements of the model by their ID in constant time.
+    *
+    * @param resource the model resource
+    * @return the index of the resource, or an empty optional if models are not indexed
+    */
+   Optional<ModelIndex> getModelIndex(Resource resource);
+
+   /**
+    * Get the ID of an element within its model, by which clients identify it.
+    *
+    * @param element an element of a model, or of a snapshot of a model
+    * @return the ID assigned by the index of the model, or else the URI fragment of the element
+    */
+   String getElementId(EObject element);
+
+   /**
+    * Get the Merkle tree of a model resource, which keeps the content hashes of its subtrees up to date.
+    *
+    * @param resource the model resource
+    * @return the hashes of the resource, or an empty optional if the hashes of models are not maintained
+    */
+   Optional<ModelHashes> getModelHashes(Resource resource);
+
+   /**
+    * Get the incremental validation of a model resource, which validates the changed elements in the background.
+    *
+    * @param resource the model resource
+    * @return the validation of the resource, or an empty optional if models are not validated or the resource has no
+    *         editing domain
+    */
+   Optional<ModelValidation> getModelValidation(Resource resource);
+
+   /**
+    * Get a snapshot of the current state of a model resource, which commands executed meanwhile do not change.
+    *
+    * @param resource the model resource
+    * @return the snapshot of the resource, or an empty optional if readers use the live model
+    */
+   Optional<ModelSnapshot> getModelSnapshot(Resource resource);
+
+   /**
+    * Get the inverse index of the references among all models of the workspace.
+    *
+    * @return the cross-reference index, or an empty optional if references are not indexed
+    */
+   Optional<CrossReferenceIndex> getCrossReferenceIndex();
+
+   /**
+    * Get the full-text index of the string attributes of all models of the workspace.
+    *
+    * @return the full-text index, or an empty optional if models are not indexed for search
+    */
+   Optional<FullTextIndex> getFullTextIndex();
+
+   /**
+    * Get the statistics of all models of the workspace.
+    *
+    * @return the statistics, or an empty optional if they are not maintained
+    */
+   Optional<WorkspaceStatistics> getWorkspaceStatistics();
+
+   /**
+    * Get the sorted index of the URIs of all models of the workspace.
+    *
+    * @return the index, or an empty optional if model URIs are not indexed
+    */
+   Optional<ModelURIIndex> getModelURIIndex();
+
    <T extends EObject> Optional<T> loadModel(String modeluri, Class<T> clazz);
 
    boolean isResourceLoaded(String modeluri);
@@ -42,6 +139,15 @@ public interface ModelResourceManager {
 
    void addResource(String modeluri, EObject model) throws IOException;
 
+   /**
+    * Load models that were added to the workspace outside of the model server, e.g. by a bulk import. The models are
+    * loaded in parallel, each into its own resource set. Models that are already loaded are replaced.
+    *
+    * @param modelURIs the file URIs of the models to load
+    * @return the loaded resources by model URI; models that could not be loaded are not contained
+    */
+   Map<URI, Resource> loadResources(Collection<URI> modelURIs);
+
    Optional<Resource> updateResource(String modeluri, EObject updatedModel);
 
    void updateResource(String modeluri, CCommand command) throws DecodingException;
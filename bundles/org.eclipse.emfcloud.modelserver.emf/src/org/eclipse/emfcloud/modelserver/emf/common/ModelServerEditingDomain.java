@@ -10,31 +10,123 @@
  ********************************************************************************/
 package org.eclipse.emfcloud.modelserver.emf.common;
 
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.command.CompoundCommand;
 import org.eclipse.emf.common.notify.AdapterFactory;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.edit.command.AddCommand;
+import org.eclipse.emf.edit.command.CommandParameter;
+import org.eclipse.emf.edit.command.DeleteCommand;
 import org.eclipse.emf.edit.command.MoveCommand;
 import org.eclipse.emf.edit.command.RemoveCommand;
 import org.eclipse.emf.edit.command.ReplaceCommand;
 import org.eclipse.emf.edit.command.SetCommand;
 import org.eclipse.emf.edit.domain.AdapterFactoryEditingDomain;
+import org.eclipse.emfcloud.modelserver.emf.common.history.ModelHistory;
+import org.eclipse.emfcloud.modelserver.emf.common.index.CrossReferenceIndex;
+import org.jetbrains.annotations.Nullable;
 
 public class ModelServerEditingDomain extends AdapterFactoryEditingDomain {
 
+   private final ModelHistory history;
+   private final CrossReferenceIndex crossReferences;
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
    public ModelServerEditingDomain(final AdapterFactory adapterFactory, final ResourceSet resourceSet) {
+      this(adapterFactory, resourceSet, null);
+   }
+
+   public ModelServerEditingDomain(final AdapterFactory adapterFactory, final ResourceSet resourceSet,
+      @Nullable final ModelHistory history) {
+      this(adapterFactory, resourceSet, history, null);
+   }
+
+   public ModelServerEditingDomain(final AdapterFactory adapterFactory, final ResourceSet resourceSet,
+      @Nullable final ModelHistory history, @Nullable final CrossReferenceIndex crossReferences) {
       super(adapterFactory, new ModelServerCommandStack(), resourceSet);
+      this.history = history;
+      this.crossReferences = crossReferences;
+      if (history != null) {
+         resourceSet.eAdapters().add(history);
+      }
    }
 
    @Override
    public ModelServerCommandStack getCommandStack() { return (ModelServerCommandStack) commandStack; }
 
+   /**
+    * Get the history of the commands executed in this editing domain, if it is recorded.
+    *
+    * @return the model history
+    */
+   public Optional<ModelHistory> getHistory() { return Optional.ofNullable(history); }
+
+   /**
+    * Get the lock of the models of this editing domain. Commands, undo and redo hold its write lock, so readers that
+    * hold its read lock see no half-applied command.
+    *
+    * @return the read-write lock
+    */
+   public ReadWriteLock getLock() { return lock; }
+
+   /**
+    * Change the models while holding the write lock, without recording a revision.
+    *
+    * @param change the change to apply
+    */
+   public void runExclusive(final Runnable change) {
+      lock.writeLock().lock();
+      try {
+         change.run();
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Deletions of elements remove the references to the deleted elements that are {@linkplain CrossReferenceIndex
+    * indexed} instead of searching the resource set for them. Plain removals, e.g. the first half of a move, keep the
+    * references.
+    */
+   @Override
+   public Command createCommand(final Class<? extends Command> commandClass, final CommandParameter commandParameter) {
+      if (crossReferences != null && commandClass == DeleteCommand.class) {
+         Command removeCommand = RemoveCommand.create(this, commandParameter.getOwner(),
+            commandParameter.getFeature(), commandParameter.getCollection());
+         return new IndexedDeleteCommand(this, removeCommand, crossReferences);
+      }
+      return super.createCommand(commandClass, commandParameter);
+   }
+
    public void execute(final Command command) {
       if (commandStack == null) {
          return;
       }
-      commandStack.execute(command);
+      recordRevision(() -> commandStack.execute(command));
+   }
+
+   /**
+    * Apply a change to the model as a new revision of the {@linkplain #getHistory() history}.
+    *
+    * @param change the change to apply
+    */
+   protected void recordRevision(final Runnable change) {
+      if (history == null) {
+         runExclusive(change);
+         return;
+      }
+      runExclusive(() -> {
+         history.beginRevision();
+         try {
+            change.run();
+         } finally {
+            history.endRevision();
+         }
+      });
    }
 
    protected boolean canUndo() {
@@ -67,7 +159,7 @@ public class ModelServerEditingDomain extends AdapterFactoryEditingDomain {
 
    public boolean undo() {
       if (canUndo()) {
-         commandStack.undo();
+         recordRevision(commandStack::undo);
          return true;
       }
       return false;
@@ -87,7 +179,7 @@ public class ModelServerEditingDomain extends AdapterFactoryEditingDomain {
 
    public boolean redo() {
       if (canRedo()) {
-         commandStack.redo();
+         recordRevision(commandStack::redo);
          return true;
       }
       return false;
@@ -27,6 +27,7 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emfcloud.modelserver.common.ModelServerPathParameters;
 import org.eclipse.emfcloud.modelserver.common.ModelServerPaths;
 import org.eclipse.emfcloud.modelserver.common.Routing;
+import org.eclipse.emfcloud.modelserver.emf.common.admission.AdmissionControl;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 
 import com.google.inject.Inject;
@@ -51,6 +52,7 @@ public class ModelServerRouting extends Routing {
    @Override
    @SuppressWarnings("checkstyle:MethodLength")
    public void bindRoutes() {
+      getController(AdmissionControl.class).install(javalin);
       javalin.routes(() -> {
          path("api/v1", () -> {
             // CREATE
@@ -64,32 +66,110 @@ public class ModelServerRouting extends Routing {
 
             // GET ONE MODEL/GET ALL MODELS
             get(ModelServerPaths.MODEL_BASE_PATH, ctx -> {
+               if (!hasValidDepth(ctx)) {
+                  return;
+               }
                getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
                   .map(this::adaptModelUri)
                   .ifPresentOrElse(
-                     param -> getController(ModelController.class).getOne(ctx, param),
-                     () -> getController(ModelController.class).getAll(ctx));
+                     param -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.REVISION)
+                        .ifPresentOrElse(
+                           revisionParam -> parseRevision(ctx, revisionParam).ifPresent(
+                              revision -> getController(ModelController.class).getOne(ctx, param, revision)),
+                           () -> getController(ModelController.class).getOneAsync(ctx, param)),
+                     () -> getController(ModelController.class).getAllAsync(ctx));
             });
 
             // GET MODEL ELEMENT
             get(ModelServerPaths.MODEL_ELEMENT, ctx -> {
+               if (!hasValidDepth(ctx)) {
+                  return;
+               }
                getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
                   .map(this::adaptModelUri)
                   .ifPresentOrElse(
-                     modelUriParam -> {
-                        getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_ID).ifPresentOrElse(
-                           elementIdParam -> getController(ModelController.class).getModelElementById(ctx,
-                              modelUriParam,
-                              elementIdParam),
-                           () -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_NAME)
+                     modelUriParam -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.REVISION)
+                        .ifPresentOrElse(
+                           revisionParam -> parseRevision(ctx, revisionParam).ifPresent(
+                              revision -> getModelElement(ctx, modelUriParam, revision)),
+                           () -> getModelElement(ctx, modelUriParam)),
+                     () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
+            });
+
+            // QUERY MODEL ELEMENTS
+            get(ModelServerPaths.QUERY, ctx -> getController(ModelController.class).query(ctx,
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
+                  .map(this::adaptModelUri)
+                  .orElse(null)));
+
+            // GET SLICE OF CONTAINMENT LIST
+            get(ModelServerPaths.SLICE, ctx -> {
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
+                  .map(this::adaptModelUri)
+                  .ifPresentOrElse(
+                     modelUriParam -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_ID)
+                        .ifPresentOrElse(
+                           elementIdParam -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.FEATURE)
                               .ifPresentOrElse(
-                                 elementnameParam -> getController(ModelController.class).getModelElementByName(ctx,
-                                    modelUriParam, elementnameParam),
-                                 () -> handleHttpError(ctx, 400, "Missing parameter 'elementid' or 'elementname'")));
-                     },
+                                 featureParam -> getController(ModelController.class).getContainmentSlice(ctx,
+                                    modelUriParam, elementIdParam, featureParam),
+                                 () -> handleHttpError(ctx, 400, "Missing parameter 'feature'!")),
+                           () -> handleHttpError(ctx, 400, "Missing parameter 'elementid'!")),
+                     () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
+            });
+
+            // GET DIFF BETWEEN MODELS
+            get(ModelServerPaths.DIFF, ctx -> {
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
+                  .map(this::adaptModelUri)
+                  .ifPresentOrElse(
+                     modelUriParam -> getController(ModelController.class).diff(ctx, modelUriParam,
+                        getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.WITH_MODEL_URI)
+                           .map(this::adaptModelUri)
+                           .orElse(null)),
+                     () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
+            });
+
+            // GET CONTENT HASHES OF MODEL
+            get(ModelServerPaths.HASHES, ctx -> {
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
+                  .map(this::adaptModelUri)
+                  .ifPresentOrElse(
+                     modelUriParam -> getController(ModelController.class).getHashes(ctx, modelUriParam,
+                        getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_ID).orElse(null)),
+                     () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
+            });
+
+            // GET REFERENCES TO MODEL ELEMENT
+            get(ModelServerPaths.REFERENCES, ctx -> {
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
+                  .map(this::adaptModelUri)
+                  .ifPresentOrElse(
+                     modelUriParam -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_ID)
+                        .ifPresentOrElse(
+                           elementIdParam -> getController(ModelController.class).getReferences(ctx, modelUriParam,
+                              elementIdParam),
+                           () -> handleHttpError(ctx, 400, "Missing parameter 'elementid'!")),
                      () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
             });
 
+            // SEARCH MODEL ELEMENTS
+            get(ModelServerPaths.SEARCH, ctx -> {
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.SEARCH_QUERY)
+                  .ifPresentOrElse(
+                     query -> getController(ModelController.class).search(ctx, query,
+                        getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
+                           .map(this::adaptModelUri)
+                           .orElse(null)),
+                     () -> handleHttpError(ctx, 400, "Missing parameter 'q'!"));
+            });
+
+            // GET MODEL STATISTICS
+            get(ModelServerPaths.STATISTICS, ctx -> getController(ModelController.class).getStatistics(ctx,
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
+                  .map(this::adaptModelUri)
+                  .orElse(null)));
+
             // UPDATE
             patch(ModelServerPaths.MODEL_BASE_PATH, ctx -> {
                getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
@@ -122,12 +202,12 @@ public class ModelServerRouting extends Routing {
                getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
                   .map(this::adaptModelUri)
                   .ifPresentOrElse(
-                     param -> getController(ModelController.class).save(ctx, param),
+                     param -> getController(ModelController.class).saveAsync(ctx, param),
                      () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
             });
 
             // SAVE ALL
-            get(ModelServerPaths.SAVE_ALL, ctx -> getController(ModelController.class).saveAll(ctx));
+            get(ModelServerPaths.SAVE_ALL, ctx -> getController(ModelController.class).saveAllAsync(ctx));
 
             // UNDO
             get(ModelServerPaths.UNDO, ctx -> {
@@ -147,16 +227,33 @@ public class ModelServerRouting extends Routing {
                      () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
             });
 
+            // IMPORT MODEL ARCHIVE
+            post(ModelServerPaths.IMPORT, ctx -> getController(ModelController.class).importArchive(ctx,
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.OVERWRITE)
+                  .map(Boolean::parseBoolean)
+                  .orElse(false)));
+
+            // EXPORT WORKSPACE ARCHIVE
+            get(ModelServerPaths.EXPORT, ctx -> getController(ModelController.class).exportArchive(ctx,
+               getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.PREFIX).orElse("")));
+
             // GET MODELURIS
             get(ModelServerPaths.MODEL_URIS, ctx -> getController(ModelController.class).getModelUris(ctx));
 
             // GET JSON TYPE SCHEMA
             get(ModelServerPaths.TYPE_SCHEMA, ctx -> {
+               boolean withDefinitions = getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.DEFINITIONS)
+                  .map(Boolean::parseBoolean)
+                  .orElse(false);
                getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.MODEL_URI)
                   .map(this::adaptModelUri)
                   .ifPresentOrElse(
-                     param -> getController(SchemaController.class).getTypeSchema(ctx, param),
-                     () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri'!"));
+                     param -> getController(SchemaController.class).getTypeSchema(ctx, param, withDefinitions),
+                     () -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.NS_URI).ifPresentOrElse(
+                        nsUriParam -> getController(SchemaController.class).getTypeSchema(ctx, nsUriParam,
+                           getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ECLASS).orElse(null),
+                           withDefinitions),
+                        () -> handleHttpError(ctx, 400, "Missing parameter 'modeluri' or 'nsuri'!")));
             });
 
             // GET JSONFORMS UI SCHEMA
@@ -173,6 +270,9 @@ public class ModelServerRouting extends Routing {
             // PING SERVER
             get(ModelServerPaths.SERVER_PING, getController(ServerController.class).getPingHandler());
 
+            // GET ADMISSION STATISTICS
+            get(ModelServerPaths.SERVER_ADMISSION, getController(ServerController.class).getAdmissionHandler());
+
             // WEBSOCKET
             ws(ModelServerPaths.SUBSCRIPTION, wsHandler -> {
                wsHandler.onConnect(ctx -> {
@@ -218,6 +318,47 @@ public class ModelServerRouting extends Routing {
       });
    }
 
+   private void getModelElement(final Context ctx, final String modeluri) {
+      getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_ID).ifPresentOrElse(
+         elementIdParam -> getController(ModelController.class).getModelElementById(ctx, modeluri, elementIdParam),
+         () -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_NAME).ifPresentOrElse(
+            elementnameParam -> getController(ModelController.class).getModelElementByName(ctx, modeluri,
+               elementnameParam),
+            () -> handleHttpError(ctx, 400, "Missing parameter 'elementid' or 'elementname'")));
+   }
+
+   private void getModelElement(final Context ctx, final String modeluri, final long revision) {
+      getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_ID).ifPresentOrElse(
+         elementIdParam -> getController(ModelController.class).getModelElementById(ctx, modeluri, elementIdParam,
+            revision),
+         () -> getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.ELEMENT_NAME).ifPresentOrElse(
+            elementnameParam -> getController(ModelController.class).getModelElementByName(ctx, modeluri,
+               elementnameParam, revision),
+            () -> handleHttpError(ctx, 400, "Missing parameter 'elementid' or 'elementname'")));
+   }
+
+   private Optional<Long> parseRevision(final Context ctx, final String revision) {
+      try {
+         return Optional.of(Long.parseLong(revision));
+      } catch (NumberFormatException e) {
+         handleHttpError(ctx, 400, "Invalid parameter 'revision': " + revision);
+         return Optional.empty();
+      }
+   }
+
+   private boolean hasValidDepth(final Context ctx) {
+      Optional<String> depth = getQueryParam(ctx.queryParamMap(), ModelServerPathParameters.DEPTH);
+      try {
+         if (depth.isEmpty() || Integer.parseInt(depth.get()) >= 0) {
+            return true;
+         }
+      } catch (NumberFormatException e) {
+         // reported below
+      }
+      handleHttpError(ctx, 400, "Invalid parameter 'depth': " + depth.get());
+      return false;
+   }
+
    private Optional<String> getQueryParam(final Map<String, List<String>> queryParams, final String paramKey) {
       if (queryParams.containsKey(paramKey)) {
          return Optional.of(queryParams.get(paramKey).get(0));
@@ -11,7 +11,9 @@
 package org.eclipse.emfcloud.modelserver.emf.common;
 
 import org.eclipse.emfcloud.modelserver.common.ModelServerPathParameters;
-import org.eclipse.emfcloud.modelserver.jsonschema.JsonSchemaConverter;
+import org.eclipse.emfcloud.modelserver.emf.common.schema.CachedSchema;
+import org.eclipse.emfcloud.modelserver.emf.common.schema.TypeSchemaCache;
+import org.jetbrains.annotations.Nullable;
 
 import com.google.inject.Inject;
 
@@ -19,21 +21,28 @@ import io.javalin.http.Context;
 
 public class SchemaController {
 
+   // schemas rarely change, but clients shall revalidate them with their entity tag
+   private static final String CACHE_CONTROL = "no-cache";
+
    private final ModelRepository modelRepository;
    private final SchemaRepository schemaRepository;
-   private final JsonSchemaConverter jsonSchemaconverter;
+   private final TypeSchemaCache typeSchemaCache;
 
    @Inject
    public SchemaController(final ModelRepository modelRepository, final SchemaRepository schemaRepository,
-      final JsonSchemaConverter jsonSchemaCreator) {
+      final TypeSchemaCache typeSchemaCache) {
       this.modelRepository = modelRepository;
       this.schemaRepository = schemaRepository;
-      this.jsonSchemaconverter = jsonSchemaCreator;
+      this.typeSchemaCache = typeSchemaCache;
    }
 
    public void getTypeSchema(final Context ctx, final String modeluri) {
+      getTypeSchema(ctx, modeluri, false);
+   }
+
+   public void getTypeSchema(final Context ctx, final String modeluri, final boolean withDefinitions) {
       this.modelRepository.getModel(modeluri).ifPresentOrElse(
-         instance -> ctx.json(JsonResponse.success(this.jsonSchemaconverter.from(instance))),
+         instance -> respond(ctx, this.typeSchemaCache.getSchema(instance, withDefinitions)),
          () -> {
             ctx.status(404);
             ctx.json(JsonResponse.error(
@@ -41,9 +50,38 @@ public class SchemaController {
          });
    }
 
+   public void getTypeSchema(final Context ctx, final String nsURI, @Nullable final String eClassName) {
+      getTypeSchema(ctx, nsURI, eClassName, false);
+   }
+
+   public void getTypeSchema(final Context ctx, final String nsURI, @Nullable final String eClassName,
+      final boolean withDefinitions) {
+      this.typeSchemaCache.getSchema(nsURI, eClassName, withDefinitions).ifPresentOrElse(
+         schema -> respond(ctx, schema),
+         () -> {
+            ctx.status(404);
+            ctx.json(JsonResponse.error(eClassName != null
+               ? String.format("Type schema for EClass '%s' of '%s' not found!", eClassName, nsURI)
+               : String.format("Type schema for '%s' not found!", nsURI)));
+         });
+   }
+
+   /**
+    * Send a schema with its entity tag, or just the status {@code 304} if the client already has it.
+    */
+   protected void respond(final Context ctx, final CachedSchema schema) {
+      ctx.header("ETag", schema.getETag());
+      ctx.header("Cache-Control", CACHE_CONTROL);
+      if (schema.matches(ctx.header("If-None-Match"))) {
+         ctx.status(304);
+         return;
+      }
+      ctx.json(JsonResponse.success(schema.getSchema()));
+   }
+
    public void getUiSchema(final Context ctx, final String schemaname) {
-      this.schemaRepository.loadUiSchema(schemaname).ifPresentOrElse(
-         jsonNode -> ctx.json(JsonResponse.success(jsonNode)),
+      this.schemaRepository.getUiSchema(schemaname).ifPresentOrElse(
+         schema -> respond(ctx, schema),
          () -> {
             ctx.status(404);
             ctx.json(JsonResponse.error(
@@ -10,12 +10,26 @@
  ********************************************************************************/
 package org.eclipse.emfcloud.modelserver.emf.common;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emfcloud.modelserver.emf.common.schema.CachedSchema;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 
 import com.fasterxml.jackson.core.JsonParseException;
@@ -26,29 +40,196 @@ import com.google.inject.Inject;
 
 /**
  * Injectable singleton class represents a repository to load UI schemas from the currently set path.
- *
+ * <p>
+ * Parsed UI schemas are kept in a bounded in-memory cache. The UI schema folder is watched for changes, and a UI
+ * schema is read again from disk after its file was changed or deleted. If the folder cannot be watched, UI schemas
+ * are read from disk on every request.
+ * </p>
  */
 public class SchemaRepository {
+   /** The maximal number of parsed UI schemas kept in memory. */
+   public static final int MAX_CACHED_UI_SCHEMAS = 64;
+
+   private static final String UI_SCHEMA_EXTENSION = ".json";
+
    private static Logger LOG = Logger.getLogger(SchemaRepository.class.getSimpleName());
 
-   private final URI schemaRepositoryPath;
+   private final ServerConfiguration serverConfiguration;
+   private final ObjectMapper mapper = new ObjectMapper();
+   private final Map<String, CachedSchema> cache = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, CachedSchema> eldest) {
+         return size() > MAX_CACHED_UI_SCHEMAS;
+      }
+   };
+
+   private Path watchedFolder;
+   private WatchService watchService;
+   // counts the invalidations, so that a schema read concurrently to a change of its file is not cached
+   private long invalidations;
 
    @Inject
    public SchemaRepository(final ServerConfiguration serverConfiguration) {
-      this.schemaRepositoryPath = serverConfiguration.getUiSchemaFolderURI();
+      this.serverConfiguration = serverConfiguration;
    }
 
    public Optional<JsonNode> loadUiSchema(final String schemaname) {
-      String schemaFilePath = this.schemaRepositoryPath.toFileString().concat(schemaname + ".json");
-      ObjectMapper mapper = new ObjectMapper();
-      JsonNode jsonNode = null;
+      return getUiSchema(schemaname).map(CachedSchema::getSchema);
+   }
+
+   /**
+    * Get a UI schema together with its entity tag. The schema is read from disk only if it is not cached yet, or if its
+    * file changed since it was cached.
+    *
+    * @param schemaname the name of the UI schema file without extension
+    * @return the UI schema, or an empty optional if it cannot be read
+    */
+   public Optional<CachedSchema> getUiSchema(final String schemaname) {
+      Optional<Path> folder = getUiSchemaFolder();
+      if (folder.isEmpty()) {
+         return Optional.empty();
+      }
+      Path schemaFile;
+      try {
+         schemaFile = folder.get().resolve(schemaname + UI_SCHEMA_EXTENSION).normalize();
+      } catch (InvalidPathException e) {
+         return Optional.empty();
+      }
+      // only the files directly within the folder are watched
+      boolean cacheable = folder.get().equals(schemaFile.getParent());
+
+      long generation;
+      synchronized (this) {
+         cacheable = watch(folder.get()) && cacheable;
+         CachedSchema cached = cacheable ? cache.get(schemaname) : null;
+         if (cached != null) {
+            return Optional.of(cached);
+         }
+         generation = invalidations;
+      }
+
+      Optional<CachedSchema> result = readUiSchema(schemaFile).map(CachedSchema::new);
+      if (cacheable && result.isPresent()) {
+         synchronized (this) {
+            if (generation == invalidations && folder.get().equals(watchedFolder)) {
+               cache.put(schemaname, result.get());
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Stop watching the UI schema folder and forget all cached UI schemas.
+    */
+   public synchronized void dispose() {
+      stopWatching();
+      watchedFolder = null;
+   }
+
+   protected Optional<JsonNode> readUiSchema(final Path schemaFile) {
       try {
-         jsonNode = mapper.readValue(Paths.get(schemaFilePath).toFile(), JsonNode.class);
+         return Optional.ofNullable(mapper.readValue(schemaFile.toFile(), JsonNode.class));
       } catch (JsonParseException e) {} catch (JsonMappingException e) {
-         LOG.error(String.format("Error while parsing UI schema from \'%s'", schemaFilePath));
+         LOG.error(String.format("Error while parsing UI schema from \'%s'", schemaFile));
       } catch (IOException e) {
-         LOG.error(String.format("Error while reading UI schema from \'%s'", schemaFilePath));
+         LOG.error(String.format("Error while reading UI schema from \'%s'", schemaFile));
       }
-      return Optional.ofNullable(jsonNode);
+      return Optional.empty();
+   }
+
+   protected Optional<Path> getUiSchemaFolder() {
+      URI folderURI = serverConfiguration.getUiSchemaFolderURI();
+      String folder = folderURI != null ? folderURI.toFileString() : null;
+      if (folder == null) {
+         return Optional.empty();
+      }
+      try {
+         return Optional.of(Paths.get(folder).toAbsolutePath().normalize());
+      } catch (InvalidPathException e) {
+         return Optional.empty();
+      }
+   }
+
+   /**
+    * Make sure that the given folder is watched. Watching another folder than before discards the cached UI schemas.
+    *
+    * @return {@code true} if the folder is watched, so that UI schemas from it can be cached
+    */
+   private boolean watch(final Path folder) {
+      if (folder.equals(watchedFolder)) {
+         return watchService != null;
+      }
+      stopWatching();
+      watchedFolder = folder;
+      try {
+         WatchService newWatchService = folder.getFileSystem().newWatchService();
+         folder.register(newWatchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+         watchService = newWatchService;
+      } catch (IOException | UnsupportedOperationException e) {
+         LOG.warn(String.format("Cannot watch UI schema folder '%s', UI schemas are not cached", folder));
+         return false;
+      }
+      WatchService service = watchService;
+      Thread watcher = new Thread(() -> processEvents(service), "UI schema watcher");
+      watcher.setDaemon(true);
+      watcher.start();
+      return true;
+   }
+
+   private void stopWatching() {
+      cache.clear();
+      invalidations++;
+      if (watchService != null) {
+         try {
+            watchService.close();
+         } catch (IOException e) {
+            LOG.warn("Error while closing the UI schema watcher: " + e.getMessage());
+         }
+         watchService = null;
+      }
+   }
+
+   private void processEvents(final WatchService service) {
+      try {
+         while (true) {
+            WatchKey key = service.take();
+            for (WatchEvent<?> event : key.pollEvents()) {
+               invalidate(event);
+            }
+            if (!key.reset()) {
+               // the folder was deleted, watch it again once it is requested again
+               synchronized (this) {
+                  if (watchService == service) {
+                     dispose();
+                  }
+               }
+               return;
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } catch (ClosedWatchServiceException e) {
+         // stopped watching
+      }
+   }
+
+   private synchronized void invalidate(final WatchEvent<?> event) {
+      invalidations++;
+      if (event.kind() == OVERFLOW || !(event.context() instanceof Path)) {
+         cache.clear();
+         return;
+      }
+      String fileName = ((Path) event.context()).getFileName().toString();
+      if (fileName.endsWith(UI_SCHEMA_EXTENSION)) {
+         cache.remove(fileName.substring(0, fileName.length() - UI_SCHEMA_EXTENSION.length()));
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "SchemaRepository [watchedFolder=" + watchedFolder + ", cached=" + cache.size() + "]";
    }
 }
@@ -12,6 +12,7 @@ package org.eclipse.emfcloud.modelserver.emf.common;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emfcloud.modelserver.emf.common.admission.AdmissionControl;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 
 import com.google.inject.Inject;
@@ -25,11 +26,17 @@ public class ServerController {
    private ServerConfiguration serverConfiguration;
    @Inject
    private ModelRepository modelRepository;
+   @Inject
+   private AdmissionControl admissionControl;
 
    protected void ping(final Context ctx) {
       ctx.json(JsonResponse.success());
    }
 
+   protected void admission(final Context ctx) {
+      ctx.json(JsonResponse.success(admissionControl.getStatistics()));
+   }
+
    protected void configure(final Context ctx) {
       ServerConfiguration newConf = ctx.bodyAsClass(ServerConfiguration.class);
       try {
@@ -72,4 +79,6 @@ public class ServerController {
 
    public Handler getConfigureHandler() { return this::configure; }
 
+   public Handler getAdmissionHandler() { return this::admission; }
+
 }
@@ -10,14 +10,20 @@
  ********************************************************************************/
 package org.eclipse.emfcloud.modelserver.emf.common;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.apache.log4j.Logger;
@@ -25,10 +31,20 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emfcloud.modelserver.command.CCommand;
 import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.CodecsManager;
+import org.eclipse.emfcloud.modelserver.emf.common.query.ElementQuery;
+import org.eclipse.emfcloud.modelserver.emf.common.query.LiveQuery;
+import org.eclipse.emfcloud.modelserver.emf.common.query.LiveQueryDelta;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.ElementDiagnostic;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.ModelValidation;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.ValidationDelta;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
 import org.jetbrains.annotations.Nullable;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 
@@ -42,6 +58,8 @@ public class SessionController extends WsHandler {
    private static Logger LOG = Logger.getLogger(SessionController.class.getSimpleName());
 
    private final Map<String, Set<WsContext>> modelUrisToClients = Maps.newConcurrentMap();
+   private final Map<WsContext, Map<String, LiveQuery>> clientsToLiveQueries = Maps.newConcurrentMap();
+   private final Map<WsContext, ValidationSubscriber> clientsToValidations = Maps.newConcurrentMap();
 
    @Inject
    private ModelRepository modelRepository;
@@ -69,6 +87,15 @@ public class SessionController extends WsHandler {
          return false;
       }
 
+      Map<String, LiveQuery> liveQueries = clientsToLiveQueries.remove(ctx);
+      if (liveQueries != null) {
+         liveQueries.values().forEach(LiveQuery::dispose);
+      }
+      ValidationSubscriber validationSubscriber = clientsToValidations.remove(ctx);
+      if (validationSubscriber != null) {
+         validationSubscriber.dispose();
+      }
+
       Iterator<Map.Entry<String, Set<WsContext>>> it = modelUrisToClients.entrySet().iterator();
 
       while (it.hasNext()) {
@@ -88,12 +115,124 @@ public class SessionController extends WsHandler {
          return false;
       }
 
-      if (readMessageType(ctx).equals(JsonResponseType.KEEPALIVE)) {
-         ctx.send(JsonResponse.keepAlive(ctx.getSessionId() + " stayin' alive!"));
-         return true;
+      switch (readMessageType(ctx)) {
+         case JsonResponseType.KEEPALIVE:
+            ctx.send(JsonResponse.keepAlive(ctx.getSessionId() + " stayin' alive!"));
+            return true;
+         case JsonResponseType.SUBSCRIBEQUERY:
+            return subscribeQuery(ctx);
+         case JsonResponseType.UNSUBSCRIBEQUERY:
+            return unsubscribeQuery(ctx);
+         case JsonResponseType.SUBSCRIBEVALIDATION:
+            return subscribeValidation(ctx);
+         case JsonResponseType.UNSUBSCRIBEVALIDATION:
+            return unsubscribeValidation(ctx);
+         default:
+            return false;
       }
+   }
 
-      return false;
+   /**
+    * Subscribe a client to the matches of a query on its model. The initial matches are sent as added right away,
+    * later only the changes of the matches. A query with the ID of an earlier query of the client replaces it.
+    *
+    * @param ctx the message of the client, with the {@code id}, {@code type} and {@code filter} of the query
+    * @return {@code true} if the message could be handled
+    */
+   protected boolean subscribeQuery(final WsMessageContext ctx) {
+      JsonNode data = readMessageData(ctx);
+      String id = data.path("id").asText();
+      Optional<String> modeluri = getSubscribedModelUri(ctx);
+      if (id.isEmpty() || modeluri.isEmpty()) {
+         return false;
+      }
+      String type = data.hasNonNull("type") ? data.get("type").asText() : null;
+      Map<String, String> predicates = new LinkedHashMap<>();
+      data.path("filter").fields()
+         .forEachRemaining(predicate -> predicates.put(predicate.getKey(), predicate.getValue().asText()));
+
+      Optional<LiveQuery> liveQuery = modelRepository.createLiveQuery(modeluri.get(),
+         new ElementQuery(type, predicates));
+      if (liveQuery.isEmpty()) {
+         return false;
+      }
+      LiveQuery replaced = clientsToLiveQueries.computeIfAbsent(ctx, client -> new ConcurrentHashMap<>())
+         .put(id, liveQuery.get());
+      if (replaced != null) {
+         replaced.dispose();
+      }
+      sendQueryUpdate(ctx, id, liveQuery.get().drainDelta());
+      return true;
+   }
+
+   /**
+    * Unsubscribe a client from the matches of a query.
+    *
+    * @param ctx the message of the client, with the ID of the query as data
+    * @return {@code true} if the client had subscribed to the query
+    */
+   protected boolean unsubscribeQuery(final WsMessageContext ctx) {
+      String id = readMessageData(ctx).asText();
+      LiveQuery liveQuery = clientsToLiveQueries.getOrDefault(ctx, Collections.emptyMap()).remove(id);
+      if (liveQuery == null) {
+         return false;
+      }
+      liveQuery.dispose();
+      ctx.send(JsonResponse.success(id));
+      return true;
+   }
+
+   /**
+    * Subscribe a client to the diagnostics of its model. All current diagnostics are sent once they are known, later
+    * only the diagnostics of the elements whose diagnostics changed. The model is validated incrementally in the
+    * background, so the updates arrive asynchronously.
+    *
+    * @param ctx the message of the client
+    * @return {@code true} if the message could be handled
+    */
+   protected boolean subscribeValidation(final WsMessageContext ctx) {
+      Optional<ModelValidation> validation = getSubscribedModelUri(ctx).flatMap(modelRepository::getModelValidation);
+      if (validation.isEmpty()) {
+         return false;
+      }
+      ValidationSubscriber subscriber = new ValidationSubscriber(ctx, validation.get());
+      ValidationSubscriber replaced = clientsToValidations.put(ctx, subscriber);
+      if (replaced != null) {
+         replaced.dispose();
+      }
+      validation.get().subscribe(subscriber);
+      return true;
+   }
+
+   /**
+    * Unsubscribe a client from the diagnostics of its model.
+    *
+    * @param ctx the message of the client
+    * @return {@code true} if the client had subscribed to the diagnostics
+    */
+   protected boolean unsubscribeValidation(final WsMessageContext ctx) {
+      ValidationSubscriber subscriber = clientsToValidations.remove(ctx);
+      if (subscriber == null) {
+         return false;
+      }
+      subscriber.dispose();
+      ctx.send(JsonResponse.success());
+      return true;
+   }
+
+   private JsonNode readMessageData(final WsMessageContext ctx) {
+      try {
+         return JavalinJackson.getObjectMapper().readTree(ctx.message()).path(JsonResponseMember.DATA);
+      } catch (IOException e) {
+         return MissingNode.getInstance();
+      }
+   }
+
+   private Optional<String> getSubscribedModelUri(final WsContext ctx) {
+      return modelUrisToClients.entrySet().stream()
+         .filter(entry -> entry.getValue().contains(ctx))
+         .map(Map.Entry::getKey)
+         .findFirst();
    }
 
    private String readMessageType(final WsMessageContext ctx) {
@@ -117,9 +256,11 @@ public class SessionController extends WsHandler {
    }
 
    public void modelChanged(final String modeluri) {
-      modelRepository.getModel(modeluri).ifPresentOrElse(
+      modelRepository.getModelSnapshot(modeluri).ifPresentOrElse(
          eObject -> {
             broadcastFullUpdate(modeluri, eObject);
+            broadcastQueryUpdates(modeluri);
+            broadcastValidationUpdates(modeluri);
             broadcastDirtyState(modeluri, modelRepository.getDirtyState(modeluri));
          },
          () -> broadcastError(modeluri, "Could not load changed object"));
@@ -129,6 +270,8 @@ public class SessionController extends WsHandler {
       modelRepository.getModel(modeluri).ifPresentOrElse(
          eObject -> {
             broadcastIncrementalUpdates(modeluri, encodings);
+            broadcastQueryUpdates(modeluri);
+            broadcastValidationUpdates(modeluri);
             broadcastDirtyState(modeluri, modelRepository.getDirtyState(modeluri));
          },
          () -> broadcastError(modeluri, "Could not load changed object"));
@@ -136,6 +279,7 @@ public class SessionController extends WsHandler {
 
    public void modelDeleted(final String modeluri) {
       broadcastFullUpdate(modeluri, null);
+      broadcastQueryUpdates(modeluri);
    }
 
    public void modelSaved(final String modeluri) {
@@ -193,6 +337,80 @@ public class SessionController extends WsHandler {
       }
    }
 
+   private void broadcastQueryUpdates(final String modeluri) {
+      getOpenSessions(modeluri)
+         .forEach(session -> clientsToLiveQueries.getOrDefault(session, Collections.emptyMap())
+            .forEach((id, liveQuery) -> {
+               modelRepository.refreshLiveQuery(modeluri, liveQuery);
+               LiveQueryDelta delta = liveQuery.drainDelta();
+               if (!delta.isEmpty()) {
+                  sendQueryUpdate(session, id, delta);
+               }
+            }));
+   }
+
+   private void sendQueryUpdate(final WsContext session, final String id, final LiveQueryDelta delta) {
+      try {
+         session.send(JsonResponse.queryUpdate(Json.object(
+            Json.prop("id", Json.text(id)),
+            Json.prop("added", encodeMatches(session, delta.getAdded(), true)),
+            Json.prop("removed", encodeMatches(session, delta.getRemoved(), false)),
+            Json.prop("changed", encodeMatches(session, delta.getChanged(), true)))));
+      } catch (EncodingException e) {
+         LOG.error("Sending update of query " + id + " failed", e);
+      }
+   }
+
+   private ArrayNode encodeMatches(final WsContext session, final Map<EObject, String> matches,
+      final boolean withElements) throws EncodingException {
+      ArrayNode result = Json.array();
+      for (Map.Entry<EObject, String> match : matches.entrySet()) {
+         ObjectNode encoded = Json.object(Json.prop("id", Json.text(match.getValue())));
+         if (withElements) {
+            encoded.set("element", encoder.encode(session, match.getKey()));
+         }
+         result.add(encoded);
+      }
+      return result;
+   }
+
+   private void broadcastValidationUpdates(final String modeluri) {
+      List<ValidationSubscriber> subscribers = getOpenSessions(modeluri)
+         .map(clientsToValidations::get)
+         .filter(Objects::nonNull)
+         .collect(toList());
+      if (subscribers.isEmpty()) {
+         return;
+      }
+      modelRepository.getModelValidation(modeluri).ifPresent(validation -> {
+         subscribers.forEach(subscriber -> subscriber.moveTo(validation));
+         // the deltas are delivered to the subscribers once the background validation is done
+         validation.validate();
+      });
+   }
+
+   private void sendValidationUpdate(final WsContext session, final ValidationDelta delta) {
+      if (!session.session.isOpen()) {
+         return;
+      }
+      ArrayNode elements = Json.array();
+      for (Map.Entry<String, List<ElementDiagnostic>> element : delta.getDiagnostics().entrySet()) {
+         ArrayNode diagnostics = Json.array();
+         for (ElementDiagnostic diagnostic : element.getValue()) {
+            ObjectNode encoded = Json.object(
+               Json.prop("severity", Json.text(diagnostic.getSeverityName())),
+               Json.prop("message", Json.text(diagnostic.getMessage())));
+            encoded.put("source", diagnostic.getSource());
+            encoded.put("code", diagnostic.getCode());
+            diagnostics.add(encoded);
+         }
+         elements.add(Json.object(
+            Json.prop("id", Json.text(element.getKey())),
+            Json.prop("diagnostics", diagnostics)));
+      }
+      session.send(JsonResponse.validationUpdate(elements));
+   }
+
    private void broadcastDirtyState(final String modeluri, final Boolean isDirty) {
       getOpenSessions(modeluri)
          .forEach(session -> session.send(JsonResponse.dirtyState(isDirty)));
@@ -213,4 +431,46 @@ public class SessionController extends WsHandler {
       ctx.send(JsonResponse.error(errorMsg));
    }
 
+   /**
+    * Forwards the validation deltas of a model to a client.
+    */
+   private final class ValidationSubscriber implements Consumer<ValidationDelta> {
+      private final WsContext session;
+      private ModelValidation validation;
+      private volatile boolean disposed;
+
+      ValidationSubscriber(final WsContext session, final ModelValidation validation) {
+         this.session = session;
+         this.validation = validation;
+      }
+
+      @Override
+      public void accept(final ValidationDelta delta) {
+         if (disposed) {
+            // unsubscribed before the subscription completed in the background
+            validation.unsubscribe(this);
+            return;
+         }
+         sendValidationUpdate(session, delta);
+      }
+
+      /**
+       * Follow the model to the validation of its current resource, in case the model has been reloaded.
+       */
+      synchronized void moveTo(final ModelValidation current) {
+         if (current == validation || disposed) {
+            return;
+         }
+         validation.unsubscribe(this);
+         accept(ValidationDelta.cleared(validation.getDiagnostics().keySet()));
+         validation = current;
+         current.subscribe(this);
+      }
+
+      synchronized void dispose() {
+         disposed = true;
+         validation.unsubscribe(this);
+      }
+   }
+
 }
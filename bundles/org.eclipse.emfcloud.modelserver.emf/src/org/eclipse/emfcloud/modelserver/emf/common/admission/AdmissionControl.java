@@ -0,0 +1,243 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.admission;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emfcloud.modelserver.common.ModelServerPaths;
+import org.eclipse.emfcloud.modelserver.emf.common.JsonResponse;
+import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
+import org.eclipse.emfcloud.modelserver.emf.launch.ModelServerThreadPool;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.inject.Inject;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.HandlerType;
+import io.javalin.http.PathMatcher;
+
+/**
+ * Admission control in front of the HTTP routes of the model server. Before a request is handled, it must pass
+ * <ul>
+ * <li>the {@link ClientRateLimiter rate limit} of its client, or else it is rejected with status {@code 429},</li>
+ * <li>the limit of requests in the whole server, or else it is rejected with status {@code 503} right away, and</li>
+ * <li>the {@link RouteLimiter concurrency limit} of its route, or else it is rejected with status {@code 503} once the
+ * queue of the route is full or its wait times out.</li>
+ * </ul>
+ * Requests that wait in the queue of a route block their request thread, so the limit of the whole server, which
+ * counts waiting requests as well, is kept below the size of the thread pool. A route is an endpoint of the server,
+ * such that requests to paths without an endpoint are left to the server to reject. Rejected requests carry a
+ * {@code Retry-After} header and are counted per route. Asynchronous requests keep their permits until their
+ * response is complete. Websocket messages are not subject to admission control.
+ */
+public class AdmissionControl {
+
+   /** The default number of requests per route that are handled at the same time. */
+   public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 32;
+
+   /** The default number of requests per route that wait to be handled. */
+   public static final int DEFAULT_MAX_QUEUED_REQUESTS = 64;
+
+   /**
+    * The default number of requests that are handled or wait to be handled in the whole server, which leaves some
+    * request threads to the websockets and to the routes that are not subject to admission control.
+    */
+   public static final int DEFAULT_MAX_REQUESTS = ModelServerThreadPool.DEFAULT_MAX_THREADS - 50;
+
+   /** The default time in milliseconds that a request waits to be handled. */
+   public static final long DEFAULT_QUEUE_TIMEOUT = 10_000;
+
+   /** The number of seconds after which a client may retry a request that was rejected by a saturated route. */
+   public static final long SATURATED_RETRY_AFTER = 1;
+
+   public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+   private static final Logger LOG = Logger.getLogger(AdmissionControl.class.getSimpleName());
+
+   private static final String API_PATH = "/api/v1/";
+   private static final String PERMIT_ATTRIBUTE = AdmissionControl.class.getName() + ".permit";
+   private static final String SERVER_PERMIT_ATTRIBUTE = AdmissionControl.class.getName() + ".serverPermit";
+   private static final Set<String> EXEMPT_PATHS = Set.of(API_PATH + ModelServerPaths.SERVER_PING,
+      API_PATH + ModelServerPaths.SERVER_ADMISSION);
+
+   private final ServerConfiguration serverConfiguration;
+   private final Map<String, RouteLimiter> routeLimiters = new ConcurrentHashMap<>();
+   private ClientRateLimiter clientRateLimiter;
+   private RouteLimiter serverLimiter;
+   private PathMatcher endpoints;
+
+   @Inject
+   public AdmissionControl(final ServerConfiguration serverConfiguration) {
+      this.serverConfiguration = serverConfiguration;
+   }
+
+   /**
+    * Install admission control in front of all HTTP routes of a server, with the limits of the server configuration.
+    *
+    * @param javalin the server
+    */
+   public void install(final Javalin javalin) {
+      if (serverConfiguration.getClientRequestRate() > 0) {
+         clientRateLimiter = new ClientRateLimiter(serverConfiguration.getClientRequestRate());
+      }
+      if (serverConfiguration.getMaxRequests() > 0) {
+         // requests never wait for the server, only for their route
+         serverLimiter = new RouteLimiter("*", serverConfiguration.getMaxRequests(), 0);
+      }
+      endpoints = javalin.servlet().getMatcher();
+      javalin.before(this::admit);
+      javalin.after(this::release);
+      javalin.exception(AdmissionRejectedException.class, (exception, ctx) -> {
+         ctx.header(RETRY_AFTER_HEADER, String.valueOf(exception.getRetryAfter()));
+         ctx.status(exception.getStatusCode()).json(JsonResponse.error(exception.getMessage()));
+      });
+   }
+
+   /**
+    * Admit a request or reject it by throwing an {@link AdmissionRejectedException}.
+    *
+    * @param ctx the request context
+    */
+   protected void admit(final Context ctx) {
+      if (!isSubjectToAdmission(ctx)) {
+         return;
+      }
+      Optional<String> route = getRoute(ctx);
+      if (route.isEmpty()) {
+         return;
+      }
+      RouteLimiter limiter = getRouteLimiter(route.get());
+      if (clientRateLimiter != null) {
+         long wait = clientRateLimiter.tryAcquire(ctx.ip());
+         if (wait > 0) {
+            limiter.countRateLimited();
+            LOG.debug(String.format("Rate limit of client %s exceeded on %s", ctx.ip(), limiter.getRoute()));
+            throw new AdmissionRejectedException(429, TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1,
+               "Too many requests, try again later");
+         }
+      }
+      if (serverLimiter != null) {
+         if (!tryAcquire(serverLimiter, 0)) {
+            LOG.debug(String.format("Server is saturated, rejected %s", limiter.getRoute()));
+            throw new AdmissionRejectedException(503, SATURATED_RETRY_AFTER, "Server is busy, try again later");
+         }
+         ctx.attribute(SERVER_PERMIT_ATTRIBUTE, serverLimiter);
+      }
+      if (limiter.getMaxConcurrent() <= 0) {
+         return;
+      }
+      if (!tryAcquire(limiter, serverConfiguration.getQueueTimeout())) {
+         release(ctx);
+         LOG.debug(String.format("Route %s is saturated", limiter.getRoute()));
+         throw new AdmissionRejectedException(503, SATURATED_RETRY_AFTER, "Server is busy, try again later");
+      }
+      ctx.attribute(PERMIT_ATTRIBUTE, limiter);
+   }
+
+   private boolean tryAcquire(final RouteLimiter limiter, final long timeout) {
+      try {
+         return limiter.acquire(timeout, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      }
+   }
+
+   /**
+    * Release the permits of an admitted request when its response is complete.
+    *
+    * @param ctx the request context
+    */
+   protected void release(final Context ctx) {
+      for (String attribute : new String[] { PERMIT_ATTRIBUTE, SERVER_PERMIT_ATTRIBUTE }) {
+         RouteLimiter limiter = ctx.attribute(attribute);
+         if (limiter != null) {
+            ctx.attribute(attribute, null);
+            limiter.release();
+         }
+      }
+   }
+
+   protected boolean isSubjectToAdmission(final Context ctx) {
+      String path = ctx.path();
+      return path.startsWith(API_PATH) && !EXEMPT_PATHS.contains(path) && !"OPTIONS".equals(ctx.method());
+   }
+
+   /**
+    * Get the route of a request, i.e. its method and the path of the endpoint that handles it, so that the requests
+    * to an endpoint share one limiter whatever their path parameters.
+    *
+    * @param ctx the request context
+    * @return the route, or an empty optional if no endpoint handles the request
+    */
+   protected Optional<String> getRoute(final Context ctx) {
+      HandlerType type = HandlerType.Companion.fromServletRequest(ctx.req);
+      return endpoints.findEntries(type, ctx.path()).stream()
+         .findFirst()
+         .map(endpoint -> type + " " + endpoint.getPath());
+   }
+
+   /**
+    * Get the limiter of a route, creating it on first use.
+    *
+    * @param route the route, i.e. the method and endpoint path of a request
+    * @return the limiter of the route
+    */
+   protected RouteLimiter getRouteLimiter(final String route) {
+      return routeLimiters.computeIfAbsent(route, key -> new RouteLimiter(key,
+         serverConfiguration.getMaxConcurrentRequests(), serverConfiguration.getMaxQueuedRequests()));
+   }
+
+   /**
+    * Get the current load and the counts of admitted and rejected requests of every route.
+    *
+    * @return the admission statistics
+    */
+   public JsonNode getStatistics() {
+      ObjectNode routes = Json.object();
+      long admitted = 0;
+      long rateLimited = 0;
+      long saturated = 0;
+      for (RouteLimiter limiter : routeLimiters.values()) {
+         ObjectNode route = Json.object();
+         route.put("active", limiter.getActive());
+         route.put("queued", limiter.getQueued());
+         route.put("admitted", limiter.getAdmitted());
+         route.put("admittedAfterWaiting", limiter.getAdmittedAfterWaiting());
+         route.put("rejectedRateLimited", limiter.getRejectedRateLimited());
+         route.put("rejectedSaturated", limiter.getRejectedSaturated());
+         routes.set(limiter.getRoute(), route);
+         admitted += limiter.getAdmitted();
+         rateLimited += limiter.getRejectedRateLimited();
+         saturated += limiter.getRejectedSaturated();
+      }
+      if (serverLimiter != null) {
+         saturated += serverLimiter.getRejectedSaturated();
+      }
+      ObjectNode result = Json.object();
+      result.put("pending", serverLimiter != null ? serverLimiter.getActive() : 0);
+      result.put("admitted", admitted);
+      result.put("rejectedRateLimited", rateLimited);
+      result.put("rejectedSaturated", saturated);
+      result.put("trackedClients", clientRateLimiter != null ? clientRateLimiter.getTrackedClients() : 0);
+      result.set("routes", routes);
+      return result;
+   }
+
+}
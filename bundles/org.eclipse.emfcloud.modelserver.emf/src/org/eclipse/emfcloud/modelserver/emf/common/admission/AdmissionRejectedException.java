@@ -0,0 +1,40 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.admission;
+
+/**
+ * Thrown before a request is handled, to reject it with a status code and the number of seconds after which the
+ * client may try again.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+   private static final long serialVersionUID = 1L;
+
+   private final int statusCode;
+   private final long retryAfter;
+
+   /**
+    * Initializes me.
+    *
+    * @param statusCode the status code of the response, {@code 429} or {@code 503}
+    * @param retryAfter the number of seconds after which the client may try again
+    * @param message    the error message
+    */
+   public AdmissionRejectedException(final int statusCode, final long retryAfter, final String message) {
+      super(message);
+      this.statusCode = statusCode;
+      this.retryAfter = retryAfter;
+   }
+
+   public int getStatusCode() { return statusCode; }
+
+   public long getRetryAfter() { return retryAfter; }
+}
@@ -0,0 +1,108 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate of requests of every client with a token bucket per client. A client may send a burst of up to one
+ * second's worth of requests at once, and then as many requests per second as the rate allows.
+ */
+public class ClientRateLimiter {
+
+   /** The number of clients from which the buckets of idle clients are dropped. */
+   public static final int MAX_TRACKED_CLIENTS = 10_000;
+
+   private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+   private final double rate;
+   private final double burst;
+   private final LongSupplier nanoTime;
+   private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+   /**
+    * Initializes me.
+    *
+    * @param requestsPerSecond the number of requests per second allowed for every client
+    */
+   public ClientRateLimiter(final double requestsPerSecond) {
+      this(requestsPerSecond, System::nanoTime);
+   }
+
+   /**
+    * Initializes me.
+    *
+    * @param requestsPerSecond the number of requests per second allowed for every client
+    * @param nanoTime          the clock, in nanoseconds
+    */
+   public ClientRateLimiter(final double requestsPerSecond, final LongSupplier nanoTime) {
+      this.rate = requestsPerSecond;
+      this.burst = Math.max(1, requestsPerSecond);
+      this.nanoTime = nanoTime;
+   }
+
+   public double getRate() { return rate; }
+
+   /**
+    * Admit a request of a client, if the client did not exceed its rate.
+    *
+    * @param client the client, e.g. its address
+    * @return {@code 0} if the request is admitted, otherwise the number of nanoseconds until the client may send its
+    *         next request
+    */
+   public long tryAcquire(final String client) {
+      long now = nanoTime.getAsLong();
+      if (buckets.size() >= MAX_TRACKED_CLIENTS && !buckets.containsKey(client)) {
+         // a full bucket is the same as no bucket, so forget the clients that were idle long enough
+         buckets.values().removeIf(bucket -> bucket.isFull(now));
+      }
+      return buckets.computeIfAbsent(client, key -> new Bucket(now)).tryAcquire(now);
+   }
+
+   /**
+    * Get the number of clients whose rate is tracked.
+    *
+    * @return the number of clients
+    */
+   public int getTrackedClients() { return buckets.size(); }
+
+   private final class Bucket {
+      private double tokens;
+      private long lastRefill;
+
+      Bucket(final long now) {
+         this.tokens = burst;
+         this.lastRefill = now;
+      }
+
+      synchronized long tryAcquire(final long now) {
+         refill(now);
+         if (tokens >= 1) {
+            tokens--;
+            return 0;
+         }
+         return Math.max(1, (long) Math.ceil((1 - tokens) / rate * NANOS_PER_SECOND));
+      }
+
+      synchronized boolean isFull(final long now) {
+         refill(now);
+         return tokens >= burst;
+      }
+
+      private void refill(final long now) {
+         tokens = Math.min(burst, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+         lastRefill = now;
+      }
+   }
+}
@@ -0,0 +1,129 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of requests to a route that are handled at the same time. Requests beyond the limit wait in a
+ * queue of bounded depth, in the order of their arrival, for at most a timeout; requests beyond the queue depth are
+ * rejected right away, so that a burst cannot tie up all request threads of the server.
+ */
+public class RouteLimiter {
+
+   private final String route;
+   private final int maxConcurrent;
+   private final int maxQueued;
+   private final Semaphore permits;
+   private final AtomicInteger queued = new AtomicInteger();
+   private final AtomicLong admitted = new AtomicLong();
+   private final AtomicLong admittedAfterWaiting = new AtomicLong();
+   private final AtomicLong rejectedSaturated = new AtomicLong();
+   private final AtomicLong rejectedRateLimited = new AtomicLong();
+
+   /**
+    * Initializes me.
+    *
+    * @param route         the route that I limit, for reporting
+    * @param maxConcurrent the maximal number of requests handled at the same time
+    * @param maxQueued     the maximal number of requests waiting to be handled
+    */
+   public RouteLimiter(final String route, final int maxConcurrent, final int maxQueued) {
+      this.route = route;
+      this.maxConcurrent = maxConcurrent;
+      this.maxQueued = maxQueued;
+      this.permits = new Semaphore(maxConcurrent, true);
+   }
+
+   public String getRoute() { return route; }
+
+   /**
+    * Admit a request, waiting in the queue if the route is at its limit.
+    *
+    * @param timeout the maximal time to wait in the queue
+    * @param unit    the unit of the timeout
+    * @return {@code true} if the request is admitted and must {@link #release() release} its permit when it is done,
+    *         {@code false} if the route is saturated
+    * @throws InterruptedException if the request thread is interrupted while waiting
+    */
+   public boolean acquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+      if (permits.tryAcquire()) {
+         admitted.incrementAndGet();
+         return true;
+      }
+      if (queued.incrementAndGet() > maxQueued) {
+         queued.decrementAndGet();
+         rejectedSaturated.incrementAndGet();
+         return false;
+      }
+      try {
+         if (permits.tryAcquire(timeout, unit)) {
+            admitted.incrementAndGet();
+            admittedAfterWaiting.incrementAndGet();
+            return true;
+         }
+         rejectedSaturated.incrementAndGet();
+         return false;
+      } finally {
+         queued.decrementAndGet();
+      }
+   }
+
+   /**
+    * Release the permit of an admitted request when it is done.
+    */
+   public void release() {
+      permits.release();
+   }
+
+   /**
+    * Count a request to the route that was rejected because its client exceeded its rate limit.
+    */
+   public void countRateLimited() {
+      rejectedRateLimited.incrementAndGet();
+   }
+
+   public int getMaxConcurrent() { return maxConcurrent; }
+
+   public int getMaxQueued() { return maxQueued; }
+
+   /**
+    * Get the number of requests that are handled now.
+    *
+    * @return the number of active requests
+    */
+   public int getActive() { return maxConcurrent - permits.availablePermits(); }
+
+   /**
+    * Get the number of requests that wait to be handled now.
+    *
+    * @return the number of queued requests
+    */
+   public int getQueued() { return queued.get(); }
+
+   public long getAdmitted() { return admitted.get(); }
+
+   public long getAdmittedAfterWaiting() { return admittedAfterWaiting.get(); }
+
+   public long getRejectedSaturated() { return rejectedSaturated.get(); }
+
+   public long getRejectedRateLimited() { return rejectedRateLimited.get(); }
+
+   @Override
+   public String toString() {
+      return "RouteLimiter [route=" + route + ", active=" + getActive() + ", queued=" + getQueued() + ", admitted="
+         + getAdmitted() + ", rejectedSaturated=" + getRejectedSaturated() + ", rejectedRateLimited="
+         + getRejectedRateLimited() + "]";
+   }
+}
@@ -0,0 +1,32 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Handles the file entries of a model archive while the archive is streamed.
+ */
+@FunctionalInterface
+public interface ArchiveEntryHandler {
+
+   /**
+    * Handle a file entry of an archive. The {@code content} stream is only valid during this call and must not be
+    * closed by the handler.
+    *
+    * @param name    the path of the entry within the archive
+    * @param content the content of the entry
+    * @throws IOException if the content cannot be read
+    */
+   void handle(String name, InputStream content) throws IOException;
+
+}
@@ -0,0 +1,83 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.archive;
+
+import org.eclipse.emf.common.util.URI;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The outcome of importing a single entry of a model archive.
+ */
+public final class ArchiveEntryResult {
+
+   /**
+    * The state that an archive entry reached during the import.
+    */
+   public enum Status {
+      /** The entry was written to the workspace and loaded as a model. */
+      LOADED,
+      /** The entry was written to the workspace, but is not loaded as a model. */
+      WRITTEN,
+      /** The entry was not imported. */
+      FAILED
+   }
+
+   private final String entry;
+   private final URI modelURI;
+   private final Status status;
+   private final String message;
+
+   private ArchiveEntryResult(final String entry, @Nullable final URI modelURI, final Status status,
+      @Nullable final String message) {
+      this.entry = entry;
+      this.modelURI = modelURI;
+      this.status = status;
+      this.message = message;
+   }
+
+   public static ArchiveEntryResult loaded(final String entry, final URI modelURI) {
+      return new ArchiveEntryResult(entry, modelURI, Status.LOADED, null);
+   }
+
+   public static ArchiveEntryResult written(final String entry, final URI modelURI, @Nullable final String message) {
+      return new ArchiveEntryResult(entry, modelURI, Status.WRITTEN, message);
+   }
+
+   public static ArchiveEntryResult failed(final String entry, @Nullable final URI modelURI, final String message) {
+      return new ArchiveEntryResult(entry, modelURI, Status.FAILED, message);
+   }
+
+   /**
+    * Get the path of the entry within the archive.
+    *
+    * @return the entry path
+    */
+   public String getEntry() { return entry; }
+
+   /**
+    * Get the file URI that the entry was written to.
+    *
+    * @return the file URI, or {@code null} if the entry could not be mapped into the workspace
+    */
+   @Nullable
+   public URI getModelURI() { return modelURI; }
+
+   public Status getStatus() { return status; }
+
+   @Nullable
+   public String getMessage() { return message; }
+
+   @Override
+   public String toString() {
+      return "ArchiveEntryResult [entry=" + entry + ", status=" + status
+         + (message != null ? ", message=" + message : "") + "]";
+   }
+}
@@ -0,0 +1,146 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.archive;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMIResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emfcloud.modelserver.common.ModelServerPathParameters;
+import org.eclipse.emfcloud.modelserver.common.codecs.EMFJsonConverter;
+import org.emfjson.jackson.databind.EMFContext;
+import org.emfjson.jackson.resource.JsonResource;
+import org.jetbrains.annotations.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams models and files as a zip archive. Every entry is written to the target stream as soon as it is added, so
+ * the archive is never held in memory.
+ * <p>
+ * Models are serialized from their in-memory state, including unsaved changes. Without an explicit format, each model
+ * is serialized by its own resource; with the <tt>json</tt> or <tt>xmi</tt> format, models of other formats are
+ * converted and their entry names get the format as an additional file extension.
+ * </p>
+ */
+public class ModelArchiveExporter implements AutoCloseable {
+
+   private final ZipOutputStream zip;
+   private final OutputStream entryStream;
+   private final String format;
+   private ObjectMapper mapper;
+   private int entryCount;
+
+   /**
+    * Initializes me.
+    *
+    * @param output the stream to write the archive to, which is not closed by the exporter
+    * @param format the format to serialize models in, or {@code null} to keep the format of each model
+    */
+   public ModelArchiveExporter(final OutputStream output, @Nullable final String format) {
+      this.zip = new ZipOutputStream(new NonClosingOutputStream(output));
+      this.entryStream = new NonClosingOutputStream(zip);
+      this.format = format;
+   }
+
+   /**
+    * Add a model to the archive, serialized from its in-memory state. The caller must ensure that the model is not
+    * changed meanwhile.
+    *
+    * @param name     the path of the model within the archive
+    * @param resource the model resource
+    * @throws IOException if the model cannot be serialized or the archive cannot be written
+    */
+   public void addModel(final String name, final Resource resource) throws IOException {
+      if (ModelServerPathParameters.FORMAT_JSON.equals(format) && !(resource instanceof JsonResource)) {
+         putNextEntry(name + "." + format);
+         getMapper().writer()
+            .withAttribute(EMFContext.Attributes.RESOURCE, resource)
+            .writeValue(entryStream, resource);
+      } else if (ModelServerPathParameters.FORMAT_XMI.equals(format) && !(resource instanceof XMIResource)) {
+         putNextEntry(name + "." + format);
+         // the XMI serializer needs an XMI resource, so convert a copy of the contents
+         XMIResource xmiResource = new XMIResourceImpl(resource.getURI());
+         xmiResource.getContents().addAll(EcoreUtil.copyAll(resource.getContents()));
+         xmiResource.save(entryStream, null);
+         xmiResource.unload();
+      } else {
+         putNextEntry(name);
+         resource.save(entryStream, null);
+      }
+      zip.closeEntry();
+   }
+
+   /**
+    * Add a file to the archive as is.
+    *
+    * @param name the path of the file within the archive
+    * @param file the file
+    * @throws IOException if the file cannot be read or the archive cannot be written
+    */
+   public void addFile(final String name, final Path file) throws IOException {
+      putNextEntry(name);
+      Files.copy(file, entryStream);
+      zip.closeEntry();
+   }
+
+   private void putNextEntry(final String name) throws IOException {
+      zip.putNextEntry(new ZipEntry(name));
+      entryCount++;
+   }
+
+   private ObjectMapper getMapper() {
+      if (mapper == null) {
+         mapper = EMFJsonConverter.setupDefaultMapper();
+      }
+      return mapper;
+   }
+
+   public int getEntryCount() { return entryCount; }
+
+   /**
+    * Finish the archive. The target stream is flushed but stays open.
+    */
+   @Override
+   public void close() throws IOException {
+      zip.finish();
+      zip.flush();
+   }
+
+   /**
+    * Serializers close the streams they write to, which must close neither the entry nor the archive.
+    */
+   private static final class NonClosingOutputStream extends FilterOutputStream {
+
+      NonClosingOutputStream(final OutputStream out) {
+         super(out);
+      }
+
+      @Override
+      public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+         out.write(buffer, offset, length);
+      }
+
+      @Override
+      public void close() throws IOException {
+         flush();
+      }
+   }
+
+}
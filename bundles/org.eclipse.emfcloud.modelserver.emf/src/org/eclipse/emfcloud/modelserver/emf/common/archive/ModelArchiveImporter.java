@@ -0,0 +1,98 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+
+/**
+ * Writes the file entries of a streamed model archive into a target directory, typically the workspace root. Each
+ * entry is first streamed into a temporary file next to its target, so that a broken archive never leaves partially
+ * written models behind.
+ */
+public class ModelArchiveImporter {
+
+   private static Logger LOG = Logger.getLogger(ModelArchiveImporter.class.getSimpleName());
+
+   private final Path targetDirectory;
+   private final boolean overwrite;
+
+   /**
+    * Initializes me.
+    *
+    * @param targetDirectory the directory that archive entries are resolved against
+    * @param overwrite       whether existing files may be replaced by archive entries
+    */
+   public ModelArchiveImporter(final Path targetDirectory, final boolean overwrite) {
+      this.targetDirectory = targetDirectory.toAbsolutePath().normalize();
+      this.overwrite = overwrite;
+   }
+
+   /**
+    * Write all file entries of an archive into the target directory.
+    *
+    * @param archive the archive stream, which is not closed by this method
+    * @return the results of all file entries, in archive order; entries that were written successfully have the
+    *         status {@link ArchiveEntryResult.Status#WRITTEN WRITTEN}
+    * @throws IOException if the archive itself cannot be read
+    */
+   public List<ArchiveEntryResult> importEntries(final InputStream archive) throws IOException {
+      List<ArchiveEntryResult> results = new ArrayList<>();
+      ModelArchives.readEntries(archive, (name, content) -> results.add(importEntry(name, content)));
+      return results;
+   }
+
+   protected ArchiveEntryResult importEntry(final String name, final InputStream content) throws IOException {
+      Path target;
+      try {
+         target = targetDirectory.resolve(name).normalize();
+      } catch (InvalidPathException e) {
+         return ArchiveEntryResult.failed(name, null, "Invalid entry name");
+      }
+      if (!target.startsWith(targetDirectory) || target.equals(targetDirectory)) {
+         return ArchiveEntryResult.failed(name, null, "Entry is outside of the workspace");
+      }
+      URI modelURI = URI.createFileURI(target.toString());
+      if (!overwrite && Files.exists(target)) {
+         return ArchiveEntryResult.failed(name, modelURI, "File already exists");
+      }
+
+      Path parent = target.getParent();
+      Path temp = null;
+      try {
+         Files.createDirectories(parent);
+         temp = Files.createTempFile(parent, ".import-", ".tmp");
+         Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+         Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+         return ArchiveEntryResult.written(name, modelURI, null);
+      } catch (IOException e) {
+         LOG.error("Could not write archive entry: " + name, e);
+         if (temp != null) {
+            Files.deleteIfExists(temp);
+         }
+         return ArchiveEntryResult.failed(name, modelURI, "Could not write file: " + e.getMessage());
+      }
+   }
+
+   public Path getTargetDirectory() { return targetDirectory; }
+
+   public boolean isOverwrite() { return overwrite; }
+
+}
@@ -0,0 +1,100 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.archive;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streaming access to model archives. Zip archives, tar archives and gzip compressed tar archives are supported; the
+ * format is detected from the first bytes of the stream, so the archive is never buffered as a whole.
+ */
+public final class ModelArchives {
+
+   private static final int MAGIC_LENGTH = 4;
+
+   private ModelArchives() {}
+
+   /**
+    * Read all file entries of an archive, in the order in which they appear in the stream. Directory entries are
+    * skipped.
+    *
+    * @param input   the archive stream, which is not closed by this method
+    * @param handler the handler invoked for each file entry
+    * @throws IOException if the archive cannot be read or the handler fails
+    */
+   public static void readEntries(final InputStream input, final ArchiveEntryHandler handler) throws IOException {
+      InputStream in = input.markSupported() ? input : new BufferedInputStream(input);
+      byte[] magic = peek(in);
+      if (isZip(magic)) {
+         readZipEntries(new ZipInputStream(new NonClosingInputStream(in)), handler);
+      } else if (isGzip(magic)) {
+         new TarReader(new GZIPInputStream(new NonClosingInputStream(in))).readEntries(handler);
+      } else {
+         new TarReader(in).readEntries(handler);
+      }
+   }
+
+   private static void readZipEntries(final ZipInputStream zip, final ArchiveEntryHandler handler)
+      throws IOException {
+      InputStream content = new NonClosingInputStream(zip);
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+         if (!entry.isDirectory()) {
+            handler.handle(entry.getName(), content);
+         }
+         zip.closeEntry();
+      }
+   }
+
+   private static byte[] peek(final InputStream in) throws IOException {
+      byte[] magic = new byte[MAGIC_LENGTH];
+      in.mark(MAGIC_LENGTH);
+      int read = 0;
+      while (read < MAGIC_LENGTH) {
+         int count = in.read(magic, read, MAGIC_LENGTH - read);
+         if (count < 0) {
+            break;
+         }
+         read += count;
+      }
+      in.reset();
+      return magic;
+   }
+
+   private static boolean isZip(final byte[] magic) {
+      return magic[0] == 'P' && magic[1] == 'K' && magic[2] == 3 && magic[3] == 4;
+   }
+
+   private static boolean isGzip(final byte[] magic) {
+      return (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b;
+   }
+
+   /**
+    * Protects the archive stream from handlers that close the entry stream they were given.
+    */
+   private static final class NonClosingInputStream extends FilterInputStream {
+
+      NonClosingInputStream(final InputStream in) {
+         super(in);
+      }
+
+      @Override
+      public void close() throws IOException {
+         // the archive stream is owned by the caller
+      }
+   }
+
+}
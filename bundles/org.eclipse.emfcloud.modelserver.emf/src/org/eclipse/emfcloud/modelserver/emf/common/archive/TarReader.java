@@ -0,0 +1,236 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A minimal streaming reader for POSIX (ustar) tar archives, including the GNU and pax extensions for long file
+ * names.
+ */
+class TarReader {
+
+   static final int BLOCK_SIZE = 512;
+
+   private static final int NAME_OFFSET = 0;
+   private static final int NAME_LENGTH = 100;
+   private static final int SIZE_OFFSET = 124;
+   private static final int SIZE_LENGTH = 12;
+   private static final int TYPE_OFFSET = 156;
+   private static final int MAGIC_OFFSET = 257;
+   private static final int PREFIX_OFFSET = 345;
+   private static final int PREFIX_LENGTH = 155;
+
+   private static final byte TYPE_FILE = '0';
+   private static final byte TYPE_FILE_OLD = 0;
+   private static final byte TYPE_GNU_LONG_NAME = 'L';
+   private static final byte TYPE_PAX_HEADER = 'x';
+
+   private static final int MAX_EXTENDED_HEADER_SIZE = 1 << 20;
+
+   private final InputStream in;
+   private final byte[] header = new byte[BLOCK_SIZE];
+
+   TarReader(final InputStream in) {
+      this.in = in;
+   }
+
+   void readEntries(final ArchiveEntryHandler handler) throws IOException {
+      String longName = null;
+      while (readBlock(header)) {
+         if (isEndOfArchive(header)) {
+            return;
+         }
+         long size = parseSize(header);
+         byte type = header[TYPE_OFFSET];
+         if (type == TYPE_GNU_LONG_NAME) {
+            longName = trim(readExtendedHeader(size));
+         } else if (type == TYPE_PAX_HEADER) {
+            String paxName = parsePaxPath(readExtendedHeader(size));
+            longName = paxName != null ? paxName : longName;
+         } else if (type == TYPE_FILE || type == TYPE_FILE_OLD) {
+            String name = longName != null ? longName : parseName(header);
+            longName = null;
+            EntryInputStream content = new EntryInputStream(in, size);
+            handler.handle(name, content);
+            content.skipRemaining();
+            skipPadding(size);
+         } else {
+            // directories, links and other special entries carry no model content
+            longName = null;
+            skipFully(size);
+            skipPadding(size);
+         }
+      }
+   }
+
+   private boolean readBlock(final byte[] block) throws IOException {
+      int read = 0;
+      while (read < block.length) {
+         int count = in.read(block, read, block.length - read);
+         if (count < 0) {
+            if (read == 0) {
+               return false;
+            }
+            throw new IOException("Unexpected end of tar archive");
+         }
+         read += count;
+      }
+      return true;
+   }
+
+   private static boolean isEndOfArchive(final byte[] block) {
+      for (byte next : block) {
+         if (next != 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private String parseName(final byte[] block) {
+      String name = parseString(block, NAME_OFFSET, NAME_LENGTH);
+      if (parseString(block, MAGIC_OFFSET, 5).equals("ustar")) {
+         String prefix = parseString(block, PREFIX_OFFSET, PREFIX_LENGTH);
+         if (!prefix.isEmpty()) {
+            return prefix + "/" + name;
+         }
+      }
+      return name;
+   }
+
+   private static String parseString(final byte[] block, final int offset, final int length) {
+      int end = offset;
+      while (end < offset + length && block[end] != 0) {
+         end++;
+      }
+      return new String(block, offset, end - offset, StandardCharsets.UTF_8);
+   }
+
+   private static long parseSize(final byte[] block) throws IOException {
+      if ((block[SIZE_OFFSET] & 0x80) != 0) {
+         // GNU base-256 encoding for sizes that do not fit into the octal field
+         long size = 0;
+         for (int i = SIZE_OFFSET + 1; i < SIZE_OFFSET + SIZE_LENGTH; i++) {
+            size = size << 8 | block[i] & 0xff;
+         }
+         return size;
+      }
+      String octal = parseString(block, SIZE_OFFSET, SIZE_LENGTH).trim();
+      try {
+         return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+      } catch (NumberFormatException e) {
+         throw new IOException("Invalid entry size in tar archive: " + octal, e);
+      }
+   }
+
+   private String readExtendedHeader(final long size) throws IOException {
+      if (size > MAX_EXTENDED_HEADER_SIZE) {
+         throw new IOException("Extended tar header too large: " + size);
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) size);
+      new EntryInputStream(in, size).transferTo(bytes);
+      skipPadding(size);
+      return bytes.toString(StandardCharsets.UTF_8);
+   }
+
+   /**
+    * Pax records have the form {@code "<length> <key>=<value>\n"}.
+    */
+   private static String parsePaxPath(final String records) {
+      String path = null;
+      for (String record : records.split("\n")) {
+         int space = record.indexOf(' ');
+         int equals = record.indexOf('=', space + 1);
+         if (space > 0 && equals > space && record.substring(space + 1, equals).equals("path")) {
+            path = record.substring(equals + 1);
+         }
+      }
+      return path;
+   }
+
+   private static String trim(final String name) {
+      int end = name.indexOf(0);
+      return end >= 0 ? name.substring(0, end) : name;
+   }
+
+   private void skipPadding(final long size) throws IOException {
+      long remainder = size % BLOCK_SIZE;
+      if (remainder != 0) {
+         skipFully(BLOCK_SIZE - remainder);
+      }
+   }
+
+   private void skipFully(final long count) throws IOException {
+      new EntryInputStream(in, count).skipRemaining();
+   }
+
+   /**
+    * Exposes the content of a single entry and never reads beyond it.
+    */
+   private static final class EntryInputStream extends InputStream {
+
+      private final InputStream in;
+      private long remaining;
+
+      EntryInputStream(final InputStream in, final long size) {
+         this.in = in;
+         this.remaining = size;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (remaining <= 0) {
+            return -1;
+         }
+         int result = in.read();
+         if (result < 0) {
+            throw new IOException("Unexpected end of tar archive");
+         }
+         remaining--;
+         return result;
+      }
+
+      @Override
+      public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+         if (remaining <= 0) {
+            return -1;
+         }
+         int count = in.read(buffer, offset, (int) Math.min(length, remaining));
+         if (count < 0) {
+            throw new IOException("Unexpected end of tar archive");
+         }
+         remaining -= count;
+         return count;
+      }
+
+      @Override
+      public int available() throws IOException {
+         return (int) Math.min(in.available(), remaining);
+      }
+
+      void skipRemaining() throws IOException {
+         byte[] buffer = new byte[BLOCK_SIZE];
+         while (read(buffer, 0, buffer.length) >= 0) {
+            // discard
+         }
+      }
+
+      @Override
+      public void close() {
+         // the archive stream is owned by the reader
+      }
+   }
+
+}
@@ -22,6 +22,8 @@ import org.eclipse.emfcloud.modelserver.common.codecs.Codec;
 import org.eclipse.emfcloud.modelserver.common.codecs.DecodingException;
 import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
 import org.eclipse.emfcloud.modelserver.common.codecs.XmiCodec;
+import org.eclipse.emfcloud.modelserver.emf.common.ModelResourceManager;
+import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.google.inject.Inject;
@@ -46,6 +48,13 @@ public class Codecs implements CodecsManager {
    @Override
    public String getPreferredFormat() { return preferredFormat; }
 
+   /** The resource manager, which provides the IDs of the elements that projections refer to. */
+   @Inject(optional = true)
+   private ModelResourceManager modelResourceManager;
+
+   @Inject(optional = true)
+   private ServerConfiguration serverConfiguration;
+
    private final Map<String, Codec> formatToCodec = new LinkedHashMap<>();
 
    /**
@@ -93,7 +102,17 @@ public class Codecs implements CodecsManager {
 
    @Override
    public JsonNode encode(final Context context, final EObject eObject) throws EncodingException {
-      return findFormat(context.queryParamMap()).encode(eObject);
+      Codec codec = findFormat(context.queryParamMap());
+      Optional<Projection> projection = Projection.of(context.queryParamMap()).map(this::withIds);
+      return projection.isPresent() ? projection.get().encode(codec, eObject) : codec.encode(eObject);
+   }
+
+   private Projection withIds(final Projection projection) {
+      if (modelResourceManager == null) {
+         return projection;
+      }
+      return projection.withIds(modelResourceManager::getElementId,
+         serverConfiguration != null ? serverConfiguration.getWorkspaceRootURI() : null);
    }
 
    @Override
@@ -0,0 +1,273 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.codecs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emfcloud.modelserver.common.ModelServerPathParameters;
+import org.eclipse.emfcloud.modelserver.common.codecs.Codec;
+import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
+import org.jetbrains.annotations.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Restricts the encoding of a model element to a selection of its features and to a maximal depth of its containment
+ * tree. Only the projected part of the element is copied for the codec, so that clients fetching the first levels of
+ * a large model do not pay for encoding all of it.
+ * <p>
+ * In the JSON format, the containments of the elements at the maximal depth are encoded as references to the
+ * contained elements, in the form <code>{"eClass": ..., "modeluri": ..., "id": ...}</code> by which other routes
+ * identify elements, so that clients can fetch the next levels by their ID when they need them. Other formats just
+ * omit the deeper elements.
+ * </p>
+ */
+public final class Projection {
+
+   /** The depth of a projection that does not limit the containment tree. */
+   public static final int UNLIMITED_DEPTH = -1;
+
+   private final Set<String> fields;
+   private final int depth;
+   private final Function<EObject, String> idProvider;
+   private final URI workspaceRoot;
+
+   /**
+    * Initializes me.
+    *
+    * @param fields the names of the features to encode, or {@code null} to encode all features
+    * @param depth  the number of containment levels below the element to encode, or {@link #UNLIMITED_DEPTH}
+    */
+   public Projection(final Set<String> fields, final int depth) {
+      this(fields, depth, element -> EcoreUtil.getURI(element).fragment(), null);
+   }
+
+   private Projection(final Set<String> fields, final int depth, final Function<EObject, String> idProvider,
+      final URI workspaceRoot) {
+      this.fields = fields != null ? Collections.unmodifiableSet(new LinkedHashSet<>(fields)) : null;
+      this.depth = depth;
+      this.idProvider = idProvider;
+      this.workspaceRoot = workspaceRoot;
+   }
+
+   /**
+    * Get a projection like this one that refers to the elements beyond its depth by the IDs that clients know them
+    * by, instead of their URI fragments.
+    *
+    * @param idProvider    the ID of an element within its model
+    * @param workspaceRoot the URI of the workspace root, relative to which model URIs are written, or {@code null}
+    * @return the projection
+    */
+   public Projection withIds(final Function<EObject, String> idProvider, @Nullable final URI workspaceRoot) {
+      return new Projection(fields, depth, idProvider, workspaceRoot);
+   }
+
+   /**
+    * Get the projection requested by the {@link ModelServerPathParameters#FIELDS fields} and
+    * {@link ModelServerPathParameters#DEPTH depth} parameters of a request. Fields may be given as a comma-separated
+    * list, as repeated parameters or both. A depth that is not a non-negative integer is ignored.
+    *
+    * @param queryParams the query parameters of the request
+    * @return the projection, or an empty optional if the request does not restrict the encoding
+    */
+   public static Optional<Projection> of(final Map<String, List<String>> queryParams) {
+      Set<String> fields = null;
+      List<String> fieldParams = queryParams.get(ModelServerPathParameters.FIELDS);
+      if (fieldParams != null && !fieldParams.isEmpty()) {
+         fields = new LinkedHashSet<>();
+         for (String param : fieldParams) {
+            Arrays.stream(param.split(",")).map(String::trim).filter(field -> !field.isEmpty())
+               .forEach(fields::add);
+         }
+      }
+      int depth = parseDepth(queryParams.get(ModelServerPathParameters.DEPTH));
+      if (fields == null && depth == UNLIMITED_DEPTH) {
+         return Optional.empty();
+      }
+      return Optional.of(new Projection(fields, depth));
+   }
+
+   private static int parseDepth(final List<String> depthParams) {
+      if (depthParams == null || depthParams.isEmpty()) {
+         return UNLIMITED_DEPTH;
+      }
+      try {
+         return Math.max(Integer.parseInt(depthParams.get(0)), UNLIMITED_DEPTH);
+      } catch (NumberFormatException e) {
+         return UNLIMITED_DEPTH;
+      }
+   }
+
+   /**
+    * Get the names of the projected features.
+    *
+    * @return the feature names, or {@code null} if all features are projected
+    */
+   public Set<String> getFields() { return fields; }
+
+   public int getDepth() { return depth; }
+
+   /**
+    * Whether a feature is part of the projection. The ID attribute of an element is always projected, so that the
+    * encoded element can still be identified.
+    *
+    * @param feature the feature
+    * @return {@code true} if the feature is encoded
+    */
+   public boolean includes(final EStructuralFeature feature) {
+      return fields == null || fields.contains(feature.getName())
+         || feature instanceof EAttribute && ((EAttribute) feature).isID();
+   }
+
+   /**
+    * Encode the projection of an element.
+    *
+    * @param codec   the codec of the requested format
+    * @param element the element to encode
+    * @return the encoded projection
+    * @throws EncodingException if the codec fails to encode the projection
+    */
+   public JsonNode encode(final Codec codec, final EObject element) throws EncodingException {
+      JsonNode result = codec.encode(copy(element));
+      if (depth != UNLIMITED_DEPTH && result instanceof ObjectNode) {
+         writeReferences(element, (ObjectNode) result, 0);
+      }
+      return result;
+   }
+
+   /**
+    * Copy the projected part of an element. References to elements outside of the projection refer to the original
+    * elements.
+    *
+    * @param element the element to copy
+    * @return the detached copy
+    */
+   public EObject copy(final EObject element) {
+      ProjectionCopier copier = new ProjectionCopier(element);
+      EObject result = copier.copy(element);
+      copier.copyReferences();
+      return result;
+   }
+
+   @SuppressWarnings("unchecked")
+   private void writeReferences(final EObject element, final ObjectNode node, final int level) {
+      for (EReference containment : element.eClass().getEAllContainments()) {
+         if (!isCopied(containment) || !element.eIsSet(containment)) {
+            continue;
+         }
+         List<EObject> children = containment.isMany() ? (List<EObject>) element.eGet(containment)
+            : List.of((EObject) element.eGet(containment));
+         if (level >= depth) {
+            if (containment.isMany()) {
+               ArrayNode references = node.putArray(containment.getName());
+               children.forEach(child -> references.add(createReference(child)));
+            } else {
+               node.set(containment.getName(), createReference(children.get(0)));
+            }
+            continue;
+         }
+         JsonNode value = node.get(containment.getName());
+         if (containment.isMany() && value instanceof ArrayNode) {
+            for (int i = 0; i < children.size() && i < value.size(); i++) {
+               if (value.get(i) instanceof ObjectNode) {
+                  writeReferences(children.get(i), (ObjectNode) value.get(i), level + 1);
+               }
+            }
+         } else if (value instanceof ObjectNode) {
+            writeReferences(children.get(0), (ObjectNode) value, level + 1);
+         }
+      }
+   }
+
+   private boolean isCopied(final EStructuralFeature feature) {
+      return feature.isChangeable() && !feature.isDerived() && includes(feature);
+   }
+
+   private ObjectNode createReference(final EObject element) {
+      ObjectNode reference = JsonNodeFactory.instance.objectNode();
+      reference.put("eClass", EcoreUtil.getURI(element.eClass()).toString());
+      if (element.eResource() != null) {
+         URI modelURI = element.eResource().getURI();
+         reference.put(ModelServerPathParameters.MODEL_URI,
+            (workspaceRoot != null ? modelURI.deresolve(workspaceRoot) : modelURI).toString());
+         reference.put("id", idProvider.apply(element));
+      } else {
+         reference.put("id", EcoreUtil.getURI(element).fragment());
+      }
+      return reference;
+   }
+
+   @Override
+   public String toString() {
+      return "Projection [fields=" + fields + ", depth=" + depth + "]";
+   }
+
+   /**
+    * Copies only the projected features and stops at the maximal depth.
+    */
+   private final class ProjectionCopier extends EcoreUtil.Copier {
+
+      private static final long serialVersionUID = 1L;
+
+      private final transient EObject root;
+
+      ProjectionCopier(final EObject root) {
+         this.root = root;
+      }
+
+      @Override
+      protected void copyAttribute(final EAttribute eAttribute, final EObject eObject, final EObject copyEObject) {
+         if (includes(eAttribute)) {
+            super.copyAttribute(eAttribute, eObject, copyEObject);
+         }
+      }
+
+      @Override
+      protected void copyContainment(final EReference eReference, final EObject eObject,
+         final EObject copyEObject) {
+         if (includes(eReference) && (depth == UNLIMITED_DEPTH || getLevel(eObject) < depth)) {
+            super.copyContainment(eReference, eObject, copyEObject);
+         }
+      }
+
+      @Override
+      protected void copyReference(final EReference eReference, final EObject eObject, final EObject copyEObject) {
+         if (includes(eReference)) {
+            super.copyReference(eReference, eObject, copyEObject);
+         }
+      }
+
+      private int getLevel(final EObject eObject) {
+         int level = 0;
+         for (EObject next = eObject; next != root && next != null; next = next.eContainer()) {
+            level++;
+         }
+         return level;
+      }
+   }
+
+}
@@ -0,0 +1,388 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.diff;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emfcloud.modelserver.common.codecs.Codec;
+import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ContentHasher;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Computes the structural difference between two versions of a model as a JSON Patch (RFC 6902) that transforms the
+ * JSON encoding of the source model into the JSON encoding of the target model.
+ * <p>
+ * Elements of containment lists are matched by their ID, so that moved elements are patched with a {@code move} and
+ * not re-encoded. IDs that are derived from the position of an element, like the default URI fragments of EMF, do not
+ * identify an element across versions, so elements that have no other ID are matched by their content hash instead.
+ * Subtrees with the same {@linkplain ContentHasher content hash} are skipped without comparing them,
+ * so the cost of a diff depends on the size of the changes rather than on the size of the model.
+ * </p>
+ */
+public class ModelDiff {
+
+   private final ContentHasher hasher;
+   private final Codec codec;
+   private final ArrayNode patch = Json.array();
+
+   /**
+    * Initializes me.
+    *
+    * @param hasher the content hasher of both models, which also provides the IDs of their elements
+    * @param codec  the JSON codec that encodes added elements
+    */
+   public ModelDiff(final ContentHasher hasher, final Codec codec) {
+      this.hasher = hasher;
+      this.codec = codec;
+   }
+
+   /**
+    * Compute the patch from a source model to a target model.
+    *
+    * @param source the root of the source model
+    * @param target the root of the target model
+    * @return the JSON Patch operations, which are empty if the models are equal
+    * @throws EncodingException if an added element cannot be encoded
+    */
+   public ArrayNode diff(final EObject source, final EObject target) throws EncodingException {
+      patch.removeAll();
+      diffElement(source, target, "");
+      return patch;
+   }
+
+   protected void diffElement(final EObject source, final EObject target, final String path)
+      throws EncodingException {
+      if (Arrays.equals(hasher.hash(source), hasher.hash(target))) {
+         return;
+      }
+      if (source.eClass() != target.eClass()) {
+         addOperation("replace", path, codec.encode(target));
+         return;
+      }
+      for (EStructuralFeature feature : target.eClass().getEAllStructuralFeatures()) {
+         if (!ContentHasher.isHashed(feature)) {
+            continue;
+         }
+         String featurePath = path + "/" + escape(feature.getName());
+         if (feature instanceof EAttribute) {
+            diffAttribute(source, target, (EAttribute) feature, featurePath);
+         } else if (!((EReference) feature).isContainment()) {
+            diffReference(source, target, (EReference) feature, featurePath);
+         } else if (feature.isMany()) {
+            diffContainmentList(source, target, (EReference) feature, featurePath);
+         } else {
+            diffContainment(source, target, (EReference) feature, featurePath);
+         }
+      }
+   }
+
+   protected void diffAttribute(final EObject source, final EObject target, final EAttribute attribute,
+      final String path) {
+      if (!Objects.equals(source.eGet(attribute), target.eGet(attribute))) {
+         diffValue(source, target, attribute, path, () -> encodeAttribute(target, attribute));
+      }
+   }
+
+   protected void diffReference(final EObject source, final EObject target, final EReference reference,
+      final String path) {
+      if (!getReferenceKeys(source, reference).equals(getReferenceKeys(target, reference))) {
+         diffValue(source, target, reference, path, () -> encodeReference(target, reference));
+      }
+   }
+
+   private void diffValue(final EObject source, final EObject target, final EStructuralFeature feature,
+      final String path, final ValueEncoder value) {
+      boolean wasSet = source.eIsSet(feature);
+      boolean isSet = target.eIsSet(feature);
+      if (!isSet) {
+         if (wasSet) {
+            addOperation("remove", path, null);
+         }
+      } else {
+         addOperation(wasSet ? "replace" : "add", path, value.encode());
+      }
+   }
+
+   protected void diffContainment(final EObject source, final EObject target, final EReference containment,
+      final String path) throws EncodingException {
+      EObject sourceChild = (EObject) source.eGet(containment);
+      EObject targetChild = (EObject) target.eGet(containment);
+      if (targetChild == null) {
+         if (sourceChild != null) {
+            addOperation("remove", path, null);
+         }
+      } else if (sourceChild == null) {
+         addOperation("add", path, codec.encode(targetChild));
+      } else if (Objects.equals(getId(sourceChild), getId(targetChild))) {
+         diffElement(sourceChild, targetChild, path);
+      } else {
+         addOperation("replace", path, codec.encode(targetChild));
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   protected void diffContainmentList(final EObject source, final EObject target, final EReference containment,
+      final String path) throws EncodingException {
+      List<EObject> sources = (List<EObject>) source.eGet(containment);
+      List<EObject> targets = (List<EObject>) target.eGet(containment);
+      // empty lists are not encoded, so they are added and removed as a whole
+      if (targets.isEmpty()) {
+         if (!sources.isEmpty()) {
+            addOperation("remove", path, null);
+         }
+         return;
+      }
+      if (sources.isEmpty()) {
+         ArrayNode values = Json.array();
+         for (EObject next : targets) {
+            values.add(codec.encode(next));
+         }
+         addOperation("add", path, values);
+         return;
+      }
+
+      int[] matches = match(sources, targets);
+      boolean[] matched = new boolean[sources.size()];
+      for (int match : matches) {
+         if (match >= 0) {
+            matched[match] = true;
+         }
+      }
+
+      // remove the unmatched elements first, so that they do not have to be moved out of the way
+      int[] workingIndex = new int[sources.size()];
+      int remaining = 0;
+      for (int i = 0; i < sources.size(); i++) {
+         if (matched[i]) {
+            workingIndex[i] = remaining++;
+         }
+      }
+      for (int i = sources.size() - 1; i >= 0; i--) {
+         if (!matched[i]) {
+            addOperation("remove", path + "/" + i, null);
+         }
+      }
+
+      // then move the matched elements into place and add the new ones: the elements before position i are in place,
+      // so an element that is not is at i plus the number of elements before it that are not in place either
+      PendingElements pending = new PendingElements(remaining);
+      for (int i = 0; i < targets.size(); i++) {
+         if (matches[i] < 0) {
+            addOperation("add", path + "/" + i, codec.encode(targets.get(i)));
+            continue;
+         }
+         int index = workingIndex[matches[i]];
+         int before = pending.countBefore(index);
+         if (before > 0) {
+            addMove(path + "/" + (i + before), path + "/" + i);
+         }
+         pending.remove(index);
+      }
+
+      // finally compare the matched elements at their new positions
+      for (int i = 0; i < targets.size(); i++) {
+         if (matches[i] >= 0) {
+            diffElement(sources.get(matches[i]), targets.get(i), path + "/" + i);
+         }
+      }
+   }
+
+   /**
+    * Match the elements of two lists by their {@linkplain #getMatchKey(EObject) match keys}, in order of their
+    * positions if several elements have the same key.
+    *
+    * @return for each target element, the index of the matching source element, or {@code -1} if there is none
+    */
+   private int[] match(final List<EObject> sources, final List<EObject> targets) {
+      Map<String, Deque<Integer>> positions = new HashMap<>();
+      for (int i = 0; i < sources.size(); i++) {
+         positions.computeIfAbsent(getMatchKey(sources.get(i)), key -> new ArrayDeque<>()).addLast(i);
+      }
+      int[] result = new int[targets.size()];
+      for (int i = 0; i < targets.size(); i++) {
+         Deque<Integer> candidates = positions.get(getMatchKey(targets.get(i)));
+         result[i] = candidates != null && !candidates.isEmpty() ? candidates.removeFirst() : -1;
+      }
+      return result;
+   }
+
+   /**
+    * Get the key by which an element is matched with its other version: its ID, or its content hash if it has none.
+    */
+   protected String getMatchKey(final EObject element) {
+      String id = getId(element);
+      return id != null ? "#" + id : ContentHasher.toHex(hasher.hash(element));
+   }
+
+   /**
+    * Get the ID of an element, unless it is derived from the position of the element.
+    *
+    * @param element the element
+    * @return the ID, or {@code null} if the element has no ID that identifies it across versions
+    */
+   protected String getId(final EObject element) {
+      String id = hasher.getIdProvider().apply(element);
+      return id != null && !isPositional(element, id) ? id : null;
+   }
+
+   private static boolean isPositional(final EObject element, final String id) {
+      InternalEObject container = (InternalEObject) element.eContainer();
+      if (container == null) {
+         return false;
+      }
+      // e.g. "//@children.2", unless the container names the segments of its contents otherwise
+      String segment = container.eURIFragmentSegment(element.eContainingFeature(), element);
+      return segment.startsWith("@") && id.endsWith("/" + segment);
+   }
+
+   private List<String> getReferenceKeys(final EObject element, final EReference reference) {
+      return ContentHasher.getValues(element, reference).stream()
+         .map(target -> hasher.getReferenceKey(element, (EObject) target))
+         .collect(Collectors.toList());
+   }
+
+   protected JsonNode encodeAttribute(final EObject element, final EAttribute attribute) {
+      if (!attribute.isMany()) {
+         return encodeValue(attribute, element.eGet(attribute));
+      }
+      ArrayNode values = Json.array();
+      ContentHasher.getValues(element, attribute).forEach(value -> values.add(encodeValue(attribute, value)));
+      return values;
+   }
+
+   @SuppressWarnings("checkstyle:CyclomaticComplexity")
+   private static JsonNode encodeValue(final EAttribute attribute, final Object value) {
+      JsonNodeFactory factory = JsonNodeFactory.instance;
+      if (value == null) {
+         return factory.nullNode();
+      }
+      if (value instanceof Boolean) {
+         return factory.booleanNode((Boolean) value);
+      }
+      if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+         return factory.numberNode(((Number) value).longValue());
+      }
+      if (value instanceof Float || value instanceof Double) {
+         return factory.numberNode(((Number) value).doubleValue());
+      }
+      if (value instanceof BigDecimal) {
+         return factory.numberNode((BigDecimal) value);
+      }
+      if (value instanceof BigInteger) {
+         return factory.numberNode((BigInteger) value);
+      }
+      return factory.textNode(EcoreUtil.convertToString(attribute.getEAttributeType(), value));
+   }
+
+   protected JsonNode encodeReference(final EObject element, final EReference reference) {
+      if (!reference.isMany()) {
+         return encodeReferenceTarget(element, (EObject) element.eGet(reference, false));
+      }
+      ArrayNode values = Json.array();
+      ContentHasher.getValues(element, reference)
+         .forEach(target -> values.add(encodeReferenceTarget(element, (EObject) target)));
+      return values;
+   }
+
+   private static JsonNode encodeReferenceTarget(final EObject element, final EObject target) {
+      if (target == null) {
+         return JsonNodeFactory.instance.nullNode();
+      }
+      String ref = !target.eIsProxy() && target.eResource() != null && target.eResource() == element.eResource()
+         ? target.eResource().getURIFragment(target)
+         : EcoreUtil.getURI(target).toString();
+      return Json.object(
+         Json.prop("eClass", Json.text(EcoreUtil.getURI(target.eClass()).toString())),
+         Json.prop("$ref", Json.text(ref)));
+   }
+
+   private void addOperation(final String op, final String path, final JsonNode value) {
+      ObjectNode operation = Json.object(Json.prop("op", Json.text(op)), Json.prop("path", Json.text(path)));
+      if (value != null) {
+         operation.set("value", value);
+      }
+      patch.add(operation);
+   }
+
+   private void addMove(final String from, final String path) {
+      patch.add(Json.object(
+         Json.prop("op", Json.text("move")),
+         Json.prop("from", Json.text(from)),
+         Json.prop("path", Json.text(path))));
+   }
+
+   /**
+    * Escape a reference token of a JSON Pointer (RFC 6901).
+    */
+   private static String escape(final String token) {
+      return token.replace("~", "~0").replace("/", "~1");
+   }
+
+   @FunctionalInterface
+   private interface ValueEncoder {
+      JsonNode encode();
+   }
+
+   /**
+    * The elements of a list that are not yet moved into place, in a Fenwick tree that counts the ones before an
+    * element in logarithmic time.
+    */
+   private static final class PendingElements {
+      private final int[] tree;
+
+      PendingElements(final int size) {
+         tree = new int[size + 1];
+         for (int i = 1; i <= size; i++) {
+            tree[i]++;
+            int parent = i + (i & -i);
+            if (parent <= size) {
+               tree[parent] += tree[i];
+            }
+         }
+      }
+
+      int countBefore(final int index) {
+         int result = 0;
+         for (int i = index; i > 0; i -= i & -i) {
+            result += tree[i];
+         }
+         return result;
+      }
+
+      void remove(final int index) {
+         for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+         }
+      }
+   }
+
+}
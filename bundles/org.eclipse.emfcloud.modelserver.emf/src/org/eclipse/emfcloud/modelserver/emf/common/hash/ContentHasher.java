@@ -0,0 +1,198 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.hash;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+
+/**
+ * Computes content hashes of the containment subtrees of model elements. The hash of an element covers its EClass,
+ * the values of its persisted attributes and non-containment references and the hashes of its contained elements, so
+ * two subtrees with the same hash can be considered equal without comparing them.
+ * <p>
+ * References are hashed by the {@linkplain #getReferenceKey(EObject, EObject) key} of their target, which is the ID
+ * of the target within the same model and its URI otherwise, so that a model and a copy of it in another resource
+ * set have the same hashes. The hashes of a hasher are cached, so a hasher must not outlive changes to the model
+ * unless the changed elements are {@linkplain #invalidate(EObject) invalidated}.
+ * </p>
+ */
+public class ContentHasher {
+
+   /** The digest algorithm of the hashes. */
+   public static final String ALGORITHM = "SHA-256";
+
+   private static final byte[] NULL_VALUE = { -1 };
+
+   private final Function<EObject, String> idProvider;
+   private final Map<EObject, byte[]> hashes = new IdentityHashMap<>();
+
+   /**
+    * Initializes me.
+    *
+    * @param idProvider the ID of an element within its model
+    */
+   public ContentHasher(final Function<EObject, String> idProvider) {
+      this.idProvider = idProvider;
+   }
+
+   public Function<EObject, String> getIdProvider() { return idProvider; }
+
+   /**
+    * Get the content hash of the containment subtree of an element.
+    *
+    * @param element the root of the subtree
+    * @return the hash of the subtree
+    */
+   public byte[] hash(final EObject element) {
+      byte[] result = hashes.get(element);
+      if (result == null) {
+         result = computeHash(element);
+         hashes.put(element, result);
+      }
+      return result;
+   }
+
+   /**
+    * Forget the cached hash of an element, but not those of its container or contents.
+    *
+    * @param element the element
+    * @return {@code true} if the hash of the element was cached
+    */
+   public boolean invalidate(final EObject element) {
+      return hashes.remove(element) != null;
+   }
+
+   /**
+    * Forget all cached hashes.
+    */
+   public void clear() {
+      hashes.clear();
+   }
+
+   protected byte[] computeHash(final EObject element) {
+      MessageDigest digest = createDigest();
+      update(digest, EcoreUtil.getURI(element.eClass()).toString());
+      for (EStructuralFeature feature : element.eClass().getEAllStructuralFeatures()) {
+         if (!isHashed(feature) || !element.eIsSet(feature)) {
+            continue;
+         }
+         update(digest, feature.getName());
+         for (Object value : getValues(element, feature)) {
+            if (feature instanceof EAttribute) {
+               update(digest, EcoreUtil.convertToString(((EAttribute) feature).getEAttributeType(), value));
+            } else if (((EReference) feature).isContainment()) {
+               digest.update(hash((EObject) value));
+            } else {
+               update(digest, getReferenceKey(element, (EObject) value));
+            }
+         }
+      }
+      return digest.digest();
+   }
+
+   /**
+    * Whether a feature is part of the content of an element, i.e. it is persisted and not derived from other
+    * features.
+    *
+    * @param feature the feature
+    * @return {@code true} if the feature is hashed
+    */
+   public static boolean isHashed(final EStructuralFeature feature) {
+      if (feature.isDerived() || feature.isTransient() || FeatureMapUtil.isFeatureMap(feature)) {
+         return false;
+      }
+      return !(feature instanceof EReference) || !((EReference) feature).isContainer();
+   }
+
+   /**
+    * Get the values of a feature of an element without resolving proxies.
+    *
+    * @param element the element
+    * @param feature a feature of the element
+    * @return the values, in order
+    */
+   public static List<?> getValues(final EObject element, final EStructuralFeature feature) {
+      Object value = element.eGet(feature, false);
+      if (!feature.isMany()) {
+         return Collections.singletonList(value);
+      }
+      return value instanceof InternalEList<?> ? ((InternalEList<?>) value).basicList() : (List<?>) value;
+   }
+
+   /**
+    * Get the key of the target of a reference, by which references of a model and its copies can be compared.
+    *
+    * @param source the source of the reference
+    * @param target the target of the reference
+    * @return the ID of the {@code target} if it is in the same model as the {@code source}, otherwise its URI
+    */
+   public String getReferenceKey(final EObject source, final EObject target) {
+      if (target == null) {
+         return null;
+      }
+      if (!target.eIsProxy() && target.eResource() != null && target.eResource() == source.eResource()) {
+         return "#" + idProvider.apply(target);
+      }
+      return EcoreUtil.getURI(target).toString();
+   }
+
+   /**
+    * Format a hash as a lowercase hexadecimal string.
+    *
+    * @param hash the hash
+    * @return the hexadecimal string
+    */
+   public static String toHex(final byte[] hash) {
+      StringBuilder result = new StringBuilder(hash.length * 2);
+      for (byte next : hash) {
+         result.append(Character.forDigit((next >> 4) & 0xF, 16)).append(Character.forDigit(next & 0xF, 16));
+      }
+      return result.toString();
+   }
+
+   protected static MessageDigest createDigest() {
+      try {
+         return MessageDigest.getInstance(ALGORITHM);
+      } catch (NoSuchAlgorithmException e) {
+         // every Java platform is required to support SHA-256
+         throw new IllegalStateException(e);
+      }
+   }
+
+   protected static void update(final MessageDigest digest, final String value) {
+      if (value == null) {
+         digest.update(NULL_VALUE);
+         return;
+      }
+      // prefix the length so that adjacent values cannot run into each other
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      digest.update((byte) (bytes.length >>> 24));
+      digest.update((byte) (bytes.length >>> 16));
+      digest.update((byte) (bytes.length >>> 8));
+      digest.update((byte) bytes.length);
+      digest.update(bytes);
+   }
+
+}
@@ -0,0 +1,296 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.hash;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * The Merkle tree of a model resource: the {@linkplain ContentHasher content hash} of every containment subtree of the
+ * model, which covers the hashes of the subtrees below it. Hashes are computed on demand and cached; a change to an
+ * element invalidates the hashes on the path from the element up to the root, so after a change only that path is
+ * hashed again.
+ * <p>
+ * The hash of a reference depends on the ID of its target, which may be derived from the position or the name of the
+ * target or its ancestors. Therefore, a reverse reference index keeps the elements of the model that refer to each
+ * referenced element, together with the ID of the referenced element. After a change that may alter IDs, i.e. a
+ * change of an attribute or of the contents of an element, the IDs of the referenced elements below the changed
+ * element are compared with the recorded ones, and the paths of the referrers of those whose ID changed are
+ * invalidated as well. So a change costs in the order of the number of referenced elements times the depth of the
+ * model, independent of the size of the changed subtree. References from other models are not tracked.
+ * </p>
+ */
+public class ModelHashes extends EContentAdapter {
+
+   private final ContentHasher hasher;
+   // the referenced elements, which are not necessarily part of the model, with their ID and referrers
+   private final Map<EObject, ReferenceTarget> targets = new HashMap<>();
+   private Resource resource;
+
+   /**
+    * Initializes me.
+    *
+    * @param idProvider the ID of an element within its model
+    */
+   public ModelHashes(final Function<EObject, String> idProvider) {
+      this.hasher = new ContentHasher(idProvider);
+   }
+
+   /**
+    * Get the hashes attached to a model resource.
+    *
+    * @param resource the model resource
+    * @return the hashes of the resource, or an empty optional if it has none
+    */
+   public static Optional<ModelHashes> get(final Resource resource) {
+      return Optional.ofNullable((ModelHashes) EcoreUtil.getExistingAdapter(resource, ModelHashes.class));
+   }
+
+   /**
+    * Get the hashes attached to a model resource, attaching new ones if there are none yet.
+    *
+    * @param resource   the model resource
+    * @param idProvider the ID of an element within its model
+    * @return the hashes of the resource
+    */
+   public static ModelHashes getOrCreate(final Resource resource, final Function<EObject, String> idProvider) {
+      synchronized (resource) {
+         return get(resource).orElseGet(() -> {
+            ModelHashes hashes = new ModelHashes(idProvider);
+            resource.eAdapters().add(hashes);
+            return hashes;
+         });
+      }
+   }
+
+   /**
+    * Create a content hasher that takes the hashes of elements from the hashes attached to their resource, if any,
+    * and computes all other hashes.
+    *
+    * @param idProvider the ID of an element within its model
+    * @return the content hasher
+    */
+   public static ContentHasher createHasher(final Function<EObject, String> idProvider) {
+      return new ContentHasher(idProvider) {
+         @Override
+         public byte[] hash(final EObject element) {
+            Optional<ModelHashes> attached = element.eResource() != null ? get(element.eResource())
+               : Optional.empty();
+            return attached.isPresent() ? attached.get().getHash(element) : super.hash(element);
+         }
+      };
+   }
+
+   /**
+    * Get the hash of the containment subtree of an element of the model.
+    *
+    * @param element the element
+    * @return the content hash
+    */
+   public synchronized byte[] getHash(final EObject element) {
+      return hasher.hash(element);
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      // let the contents be adapted first, so that added elements are tracked
+      super.notifyChanged(notification);
+
+      Object notifier = notification.getNotifier();
+      if (notification.isTouch() || !(notifier instanceof EObject)
+         || !(notification.getFeature() instanceof EStructuralFeature)) {
+         return;
+      }
+      EObject element = (EObject) notifier;
+      EStructuralFeature feature = (EStructuralFeature) notification.getFeature();
+      if (!ContentHasher.isHashed(feature)) {
+         return;
+      }
+      synchronized (this) {
+         invalidate(element);
+         if (feature instanceof EAttribute) {
+            // IDs may be derived from attributes, also those of the contents and siblings, e.g. name-based fragments
+            EObject container = element.eContainer();
+            invalidateChangedTargets(Set.of(container != null ? container : element));
+         } else if (((EReference) feature).isContainment()) {
+            // the contents of the element and the removed elements may be identified by their position
+            Set<EObject> changed = new HashSet<>();
+            changed.add(element);
+            forEachElement(notification.getOldValue(), changed::add);
+            invalidateChangedTargets(changed);
+         } else {
+            updateReferrers(element, (EReference) feature, notification);
+         }
+      }
+   }
+
+   /**
+    * Invalidate the hashes of an element and its ancestors. If the hash of an element is not cached, neither are those
+    * of its ancestors, because hashes are always computed from the contents up.
+    */
+   protected void invalidate(final EObject element) {
+      for (EObject next = element; next != null; next = next.eContainer()) {
+         if (!hasher.invalidate(next) && next != element) {
+            break;
+         }
+      }
+   }
+
+   /**
+    * Invalidate the hashes of the referrers of the referenced elements within changed subtrees whose ID has changed.
+    *
+    * @param changed the roots of the changed subtrees
+    */
+   protected void invalidateChangedTargets(final Set<EObject> changed) {
+      for (Map.Entry<EObject, ReferenceTarget> entry : targets.entrySet()) {
+         if (isWithin(entry.getKey(), changed)) {
+            String id = getId(entry.getKey());
+            ReferenceTarget target = entry.getValue();
+            if (!Objects.equals(id, target.id)) {
+               target.id = id;
+               target.referrers.forEach(this::invalidate);
+            }
+         }
+      }
+   }
+
+   private static boolean isWithin(final EObject element, final Set<EObject> subtrees) {
+      for (EObject next = element; next != null; next = next.eContainer()) {
+         if (subtrees.contains(next)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Get the ID of a referenced element as it contributes to the hashes of its referrers.
+    */
+   private String getId(final EObject target) {
+      return !target.eIsProxy() && target.eResource() == resource ? hasher.getIdProvider().apply(target) : null;
+   }
+
+   private void updateReferrers(final EObject element, final EReference reference, final Notification notification) {
+      forEachElement(notification.getOldValue(), target -> {
+         if (!ContentHasher.getValues(element, reference).contains(target)) {
+            removeReferrer(target, element);
+         }
+      });
+      forEachElement(notification.getNewValue(), target -> addReferrer(target, element));
+   }
+
+   private void addReferrer(final EObject target, final EObject source) {
+      targets.computeIfAbsent(target, key -> new ReferenceTarget(getId(key))).referrers.add(source);
+   }
+
+   private void removeReferrer(final EObject target, final EObject source) {
+      targets.computeIfPresent(target, (key, reference) -> {
+         reference.referrers.remove(source);
+         return reference.referrers.isEmpty() ? null : reference;
+      });
+   }
+
+   private static void forEachElement(final Object value, final Consumer<EObject> action) {
+      if (value instanceof EObject) {
+         action.accept((EObject) value);
+      } else if (value instanceof Collection<?>) {
+         for (Object next : (Collection<?>) value) {
+            forEachElement(next, action);
+         }
+      }
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      resource = target;
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      synchronized (this) {
+         hasher.clear();
+         targets.clear();
+      }
+      resource = null;
+   }
+
+   @Override
+   protected void setTarget(final EObject target) {
+      super.setTarget(target);
+      synchronized (this) {
+         forEachReferenced(target, referenced -> addReferrer(referenced, target));
+      }
+   }
+
+   @Override
+   protected void unsetTarget(final EObject target) {
+      super.unsetTarget(target);
+      synchronized (this) {
+         hasher.invalidate(target);
+         forEachReferenced(target, referenced -> removeReferrer(referenced, target));
+      }
+   }
+
+   private static void forEachReferenced(final EObject element, final Consumer<EObject> action) {
+      for (EReference reference : element.eClass().getEAllReferences()) {
+         if (!reference.isContainment() && ContentHasher.isHashed(reference) && element.eIsSet(reference)) {
+            forEachElement(ContentHasher.getValues(element, reference), action);
+         }
+      }
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only hash the model resource, not cross-referenced resources
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelHashes.class;
+   }
+
+   /**
+    * An element of the model or of another model that elements of the model refer to.
+    */
+   private static final class ReferenceTarget {
+      // the ID of the element when the hashes of its referrers were last invalidated
+      private String id;
+      private final Set<EObject> referrers = new HashSet<>();
+
+      ReferenceTarget(final String id) {
+         this.id = id;
+      }
+   }
+
+}
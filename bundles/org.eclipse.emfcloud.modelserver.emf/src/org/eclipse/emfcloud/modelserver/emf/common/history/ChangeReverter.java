@@ -0,0 +1,247 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.history;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+
+/**
+ * Applies the inverse of recorded changes to a copy of a model resource.
+ * <p>
+ * The copy includes the current state of all objects that were detached from the model by the changes to revert, so
+ * that they can be restored. Every inverse change checks the current state of the copy first, so that the changes
+ * recorded for both ends of a bidirectional reference are reverted only once.
+ * </p>
+ */
+class ChangeReverter {
+
+   private final Copier copier = new Copier();
+   private final Resource source;
+   private final Resource target;
+
+   ChangeReverter(final Resource source, final List<ModelRevision> revisionsToRevert) {
+      this.source = source;
+      this.target = new ResourceImpl(source.getURI());
+
+      Collection<EObject> roots = copier.copyAll(source.getContents());
+      copier.copyAll(collectDetachedObjects(revisionsToRevert));
+      copier.copyReferences();
+      target.getContents().addAll(roots);
+   }
+
+   Resource getTarget() { return target; }
+
+   /**
+    * Collect the objects that were removed from the model by the given revisions and are not contained in it any
+    * more. Only the top-most of these objects are returned, as their copies include their contents.
+    */
+   private Collection<EObject> collectDetachedObjects(final List<ModelRevision> revisions) {
+      Set<EObject> detached = new LinkedHashSet<>();
+      for (ModelRevision revision : revisions) {
+         for (Notification change : revision.getChanges()) {
+            if (isContainmentChange(change)) {
+               collectDetachedObjects(change.getOldValue(), detached);
+               collectDetachedObjects(change.getNewValue(), detached);
+            }
+         }
+      }
+      List<EObject> result = new ArrayList<>(detached.size());
+      for (EObject next : detached) {
+         if (!hasAncestorIn(next, detached)) {
+            result.add(next);
+         }
+      }
+      return result;
+   }
+
+   private void collectDetachedObjects(final Object value, final Set<EObject> detached) {
+      if (value instanceof EObject) {
+         EObject eObject = (EObject) value;
+         if (eObject.eResource() != source) {
+            detached.add(eObject);
+         }
+      } else if (value instanceof Collection<?>) {
+         ((Collection<?>) value).forEach(element -> collectDetachedObjects(element, detached));
+      }
+   }
+
+   private static boolean hasAncestorIn(final EObject eObject, final Set<EObject> candidates) {
+      for (EObject container = eObject.eContainer(); container != null; container = container.eContainer()) {
+         if (candidates.contains(container)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private boolean isContainmentChange(final Notification change) {
+      return change.getNotifier() instanceof Resource
+         || change.getFeature() instanceof EReference && ((EReference) change.getFeature()).isContainment();
+   }
+
+   /**
+    * Revert a single recorded change on the copy.
+    *
+    * @param change the change to revert
+    */
+   @SuppressWarnings("unchecked")
+   void revert(final Notification change) {
+      if (change.getNotifier() instanceof Resource) {
+         revertListChange(change, (EList<Object>) (EList<?>) target.getContents());
+         return;
+      }
+
+      EObject owner = copier.get(change.getNotifier());
+      EStructuralFeature feature = (EStructuralFeature) change.getFeature();
+      if (owner == null || isContainerEnd(feature) || !canRevert(change, feature)) {
+         return;
+      }
+      if (feature.isMany()) {
+         revertListChange(change, (EList<Object>) owner.eGet(feature));
+      } else {
+         revertValueChange(change, owner, feature);
+      }
+   }
+
+   /**
+    * The container end of a containment is restored with the containment end.
+    */
+   private static boolean isContainerEnd(final EStructuralFeature feature) {
+      return feature instanceof EReference && ((EReference) feature).getEOpposite() != null
+         && ((EReference) feature).getEOpposite().isContainment();
+   }
+
+   /**
+    * Bidirectional references to objects outside of the copy cannot be reverted without changing the original
+    * objects, which the copy must never do.
+    */
+   private boolean canRevert(final Notification change, final EStructuralFeature feature) {
+      if (!(feature instanceof EReference) || ((EReference) feature).getEOpposite() == null) {
+         return true;
+      }
+      return isCopied(change.getOldValue()) && isCopied(change.getNewValue());
+   }
+
+   private boolean isCopied(final Object value) {
+      if (value instanceof EObject) {
+         return copier.containsKey(value);
+      }
+      if (value instanceof Collection<?>) {
+         return ((Collection<?>) value).stream().allMatch(this::isCopied);
+      }
+      return true;
+   }
+
+   private void revertValueChange(final Notification change, final EObject owner, final EStructuralFeature feature) {
+      switch (change.getEventType()) {
+         case Notification.SET:
+         case Notification.UNSET: {
+            Object oldValue = map(change.getOldValue());
+            if (!change.wasSet() && feature.isUnsettable()) {
+               owner.eUnset(feature);
+            } else if (!Objects.equals(owner.eGet(feature), oldValue)) {
+               owner.eSet(feature, oldValue);
+            }
+            break;
+         }
+         default:
+            break;
+      }
+   }
+
+   @SuppressWarnings("checkstyle:CyclomaticComplexity")
+   private void revertListChange(final Notification change, final EList<Object> list) {
+      int position = change.getPosition();
+      switch (change.getEventType()) {
+         case Notification.ADD:
+            remove(list, position, change.getNewValue());
+            break;
+         case Notification.ADD_MANY: {
+            List<?> added = new ArrayList<>((Collection<?>) change.getNewValue());
+            for (int i = added.size() - 1; i >= 0; i--) {
+               remove(list, position + i, added.get(i));
+            }
+            break;
+         }
+         case Notification.REMOVE:
+            add(list, position, change.getOldValue());
+            break;
+         case Notification.REMOVE_MANY: {
+            List<?> removed = new ArrayList<>((Collection<?>) change.getOldValue());
+            int[] positions = change.getNewValue() instanceof int[] ? (int[]) change.getNewValue() : null;
+            for (int i = 0; i < removed.size(); i++) {
+               add(list, positions != null ? positions[i] : Math.max(position, 0) + i, removed.get(i));
+            }
+            break;
+         }
+         case Notification.SET:
+            if (position >= 0 && position < list.size()) {
+               list.set(position, map(change.getOldValue()));
+            }
+            break;
+         case Notification.MOVE: {
+            int oldPosition = (Integer) change.getOldValue();
+            if (position >= 0 && position < list.size() && oldPosition < list.size()) {
+               list.move(oldPosition, position);
+            }
+            break;
+         }
+         default:
+            break;
+      }
+   }
+
+   private void add(final EList<Object> list, final int position, final Object value) {
+      Object mapped = map(value);
+      int index = Math.min(Math.max(position, 0), list.size());
+      int current = list.indexOf(mapped);
+      if (current < 0) {
+         list.add(index, mapped);
+      } else if (current != index && index < list.size()) {
+         list.move(index, current);
+      }
+   }
+
+   private void remove(final EList<Object> list, final int position, final Object value) {
+      Object mapped = map(value);
+      if (position >= 0 && position < list.size() && list.get(position) == mapped) {
+         list.remove(position);
+      } else {
+         list.remove(mapped);
+      }
+   }
+
+   private Object map(final Object value) {
+      if (value instanceof EObject) {
+         EObject copy = copier.get(value);
+         return copy != null ? copy : value;
+      }
+      return value;
+   }
+
+   @Override
+   public String toString() {
+      return "ChangeReverter [source=" + source.getURI() + ", copies=" + copier.size() + "]";
+   }
+}
@@ -0,0 +1,235 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.history;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * A bounded history of the commands executed on a model. Every command that is executed, undone or redone on the
+ * model's editing domain produces a new {@link ModelRevision}. Past revisions are rebuilt on demand by applying the
+ * inverse of the recorded changes to a copy of the current state of the model, and are cached because they never
+ * change.
+ * <p>
+ * Changes to the model that are not applied by a command cannot be reverted reliably, so they discard the history
+ * recorded so far.
+ * </p>
+ */
+public class ModelHistory extends EContentAdapter {
+
+   /** The default number of revisions kept per model. */
+   public static final int DEFAULT_MAX_REVISIONS = 100;
+
+   /** The number of rebuilt past revisions cached per model. */
+   public static final int MAX_CACHED_REVISIONS = 8;
+
+   private static Logger LOG = Logger.getLogger(ModelHistory.class.getSimpleName());
+
+   private final URI modelURI;
+   private final int maxRevisions;
+   private final Deque<ModelRevision> revisions = new ArrayDeque<>();
+   private final Map<Long, Resource> revisionCache = new LinkedHashMap<>(MAX_CACHED_REVISIONS, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Long, Resource> eldest) {
+         return size() > MAX_CACHED_REVISIONS;
+      }
+   };
+
+   private Resource resource;
+   private long revision;
+   private long oldestRevision;
+   private List<Notification> recording;
+
+   /**
+    * Initializes me.
+    *
+    * @param modelURI     the URI of the model resource whose history I record
+    * @param maxRevisions the maximal number of revisions to keep
+    */
+   public ModelHistory(final URI modelURI, final int maxRevisions) {
+      this.modelURI = modelURI;
+      this.maxRevisions = maxRevisions;
+   }
+
+   public URI getModelURI() { return modelURI; }
+
+   public int getMaxRevisions() { return maxRevisions; }
+
+   /**
+    * Get the current revision of the model.
+    *
+    * @return the current revision number
+    */
+   public synchronized long getRevision() { return revision; }
+
+   /**
+    * Get the oldest revision of the model that can still be rebuilt.
+    *
+    * @return the oldest available revision number
+    */
+   public synchronized long getOldestRevision() { return oldestRevision; }
+
+   /**
+    * Start recording the changes of a new revision. All changes until the next call to {@link #endRevision()} are
+    * tagged with the same revision number.
+    */
+   public synchronized void beginRevision() {
+      if (recording == null) {
+         recording = new ArrayList<>();
+      }
+   }
+
+   /**
+    * Finish recording the current revision. If no change was recorded, the revision number is not incremented.
+    */
+   public synchronized void endRevision() {
+      if (recording == null) {
+         return;
+      }
+      List<Notification> changes = recording;
+      recording = null;
+      if (changes.isEmpty()) {
+         return;
+      }
+      revision++;
+      revisions.addLast(new ModelRevision(revision, changes));
+      while (revisions.size() > maxRevisions) {
+         oldestRevision = revisions.removeFirst().getRevision();
+         revisionCache.remove(oldestRevision - 1);
+      }
+      if (revisions.isEmpty()) {
+         oldestRevision = revision;
+      }
+   }
+
+   /**
+    * Get the model resource in the state that it had at the given {@code revision}. For the current revision, this
+    * is the live model resource, for older revisions a detached copy. Callers must hold the read lock of the model's
+    * editing domain, so that a copy is not rebuilt from a model on which a command is only partially applied.
+    *
+    * @param revision the revision number
+    * @return the resource at the given {@code revision}, or an empty optional if that revision is not available
+    */
+   public synchronized Optional<Resource> getResource(final long revision) {
+      if (resource == null || revision < oldestRevision || revision > this.revision) {
+         return Optional.empty();
+      }
+      if (revision == this.revision) {
+         return Optional.of(resource);
+      }
+      Resource result = revisionCache.get(revision);
+      if (result == null) {
+         result = rebuild(revision);
+         revisionCache.put(revision, result);
+      }
+      return Optional.of(result);
+   }
+
+   /**
+    * Rebuild a past {@code revision} by reverting all younger revisions on a copy of the current model.
+    *
+    * @param revision the revision to rebuild
+    * @return the detached resource holding the rebuilt model
+    */
+   protected Resource rebuild(final long revision) {
+      List<ModelRevision> toRevert = new ArrayList<>();
+      for (Iterator<ModelRevision> iter = revisions.descendingIterator(); iter.hasNext();) {
+         ModelRevision next = iter.next();
+         if (next.getRevision() <= revision) {
+            break;
+         }
+         toRevert.add(next);
+      }
+
+      ChangeReverter reverter = new ChangeReverter(resource, toRevert);
+      for (ModelRevision next : toRevert) {
+         List<Notification> changes = next.getChanges();
+         for (int i = changes.size() - 1; i >= 0; i--) {
+            reverter.revert(changes.get(i));
+         }
+      }
+      LOG.debug(String.format("Rebuilt revision %d of '%s' from revision %d", revision, modelURI, this.revision));
+      return reverter.getTarget();
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      super.notifyChanged(notification);
+
+      if (!isModelChange(notification)) {
+         return;
+      }
+      synchronized (this) {
+         if (recording != null) {
+            recording.add(notification);
+         } else {
+            discardRevisions();
+         }
+      }
+   }
+
+   /**
+    * Discard all recorded revisions, typically because the model was changed outside of a command.
+    */
+   protected synchronized void discardRevisions() {
+      revision++;
+      oldestRevision = revision;
+      revisions.clear();
+      revisionCache.clear();
+   }
+
+   protected boolean isModelChange(final Notification notification) {
+      if (notification.isTouch()) {
+         return false;
+      }
+      Object notifier = notification.getNotifier();
+      if (notifier instanceof Resource) {
+         return notifier == resource
+            && notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS;
+      }
+      return notifier instanceof EObject && notification.getFeature() instanceof EStructuralFeature;
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      if (notifier instanceof Resource) {
+         // only track the model resource, not cross-referenced or temporary command resources
+         if (!modelURI.equals(((Resource) notifier).getURI())) {
+            return;
+         }
+         resource = (Resource) notifier;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelHistory.class;
+   }
+
+}
@@ -0,0 +1,50 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.history;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.notify.Notification;
+
+/**
+ * An entry in the {@link ModelHistory} of a model: the changes applied by one executed, undone or redone command,
+ * tagged with the revision number that the model has after the command.
+ */
+public final class ModelRevision {
+
+   private final long revision;
+   private final List<Notification> changes;
+
+   public ModelRevision(final long revision, final List<Notification> changes) {
+      this.revision = revision;
+      this.changes = Collections.unmodifiableList(changes);
+   }
+
+   /**
+    * Get the revision number of the model after the changes of this entry were applied.
+    *
+    * @return the revision number
+    */
+   public long getRevision() { return revision; }
+
+   /**
+    * Get the changes recorded for this revision, in the order in which they were applied.
+    *
+    * @return the recorded changes
+    */
+   public List<Notification> getChanges() { return changes; }
+
+   @Override
+   public String toString() {
+      return "ModelRevision [revision=" + revision + ", changes=" + changes.size() + "]";
+   }
+}
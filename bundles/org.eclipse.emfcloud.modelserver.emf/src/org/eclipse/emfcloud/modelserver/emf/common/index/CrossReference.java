@@ -0,0 +1,56 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.Objects;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+
+/**
+ * A reference of a source element to another element, as recorded in the {@link CrossReferenceIndex}.
+ */
+public final class CrossReference {
+
+   private final EObject source;
+   private final EReference reference;
+
+   public CrossReference(final EObject source, final EReference reference) {
+      this.source = source;
+      this.reference = reference;
+   }
+
+   public EObject getSource() { return source; }
+
+   public EReference getReference() { return reference; }
+
+   @Override
+   public int hashCode() {
+      return Objects.hash(source, reference);
+   }
+
+   @Override
+   public boolean equals(final Object obj) {
+      if (this == obj) {
+         return true;
+      }
+      if (!(obj instanceof CrossReference)) {
+         return false;
+      }
+      CrossReference other = (CrossReference) obj;
+      return source == other.source && reference == other.reference;
+   }
+
+   @Override
+   public String toString() {
+      return "CrossReference [source=" + source + ", reference=" + reference.getName() + "]";
+   }
+}
@@ -0,0 +1,131 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * An inverse index of the cross-references of all models in the workspace, which answers who references an element
+ * without scanning the models.
+ * <p>
+ * Each model resource that is {@link #attach(Resource) attached} to the index reports the non-containment references
+ * of its elements as they change. References are indexed by the referenced object and, if that object lives in
+ * another resource or is a proxy, also by its URI. As every model is loaded into its own resource set, references
+ * across documents point at a different copy of the referenced element than the one of its own model, which is
+ * found by URI.
+ * </p>
+ */
+public class CrossReferenceIndex {
+
+   private final Map<EObject, Set<CrossReference>> byTarget = new ConcurrentHashMap<>();
+   private final Map<URI, Set<CrossReference>> byTargetURI = new ConcurrentHashMap<>();
+
+   /**
+    * Start indexing the references of the elements of a model resource.
+    *
+    * @param resource the model resource
+    */
+   public void attach(final Resource resource) {
+      synchronized (resource) {
+         if (EcoreUtil.getExistingAdapter(resource, ModelCrossReferencer.class) == null) {
+            resource.eAdapters().add(new ModelCrossReferencer(this));
+         }
+      }
+   }
+
+   /**
+    * Stop indexing the references of the elements of a model resource and forget the references recorded for them.
+    *
+    * @param resource the model resource
+    */
+   public void detach(final Resource resource) {
+      synchronized (resource) {
+         resource.eAdapters().remove(EcoreUtil.getExistingAdapter(resource, ModelCrossReferencer.class));
+      }
+   }
+
+   /**
+    * Forget all recorded references.
+    */
+   public void clear() {
+      byTarget.clear();
+      byTargetURI.clear();
+   }
+
+   /**
+    * Get the references to an element, from its own model as well as from other models.
+    *
+    * @param target the referenced element
+    * @return the references to the element, in no particular order
+    */
+   public Collection<CrossReference> getReferences(final EObject target) {
+      Set<CrossReference> result = new LinkedHashSet<>(byTarget.getOrDefault(target, Collections.emptySet()));
+      if (target.eResource() != null) {
+         result.addAll(byTargetURI.getOrDefault(EcoreUtil.getURI(target), Collections.emptySet()));
+      }
+      return result;
+   }
+
+   /**
+    * Get the references to an element from the model that contains it, or contained it before it was removed.
+    *
+    * @param target the referenced element
+    * @return the references to the element object, in no particular order
+    */
+   public Collection<CrossReference> getLocalReferences(final EObject target) {
+      return Collections.unmodifiableSet(byTarget.getOrDefault(target, Collections.emptySet()));
+   }
+
+   void add(final EObject source, final EReference reference, final EObject target) {
+      CrossReference crossReference = new CrossReference(source, reference);
+      byTarget.computeIfAbsent(target, key -> ConcurrentHashMap.newKeySet()).add(crossReference);
+      if (isExternal(source, target)) {
+         byTargetURI.computeIfAbsent(EcoreUtil.getURI(target), key -> ConcurrentHashMap.newKeySet())
+            .add(crossReference);
+      }
+   }
+
+   void remove(final EObject source, final EReference reference, final EObject target) {
+      CrossReference crossReference = new CrossReference(source, reference);
+      remove(byTarget, target, crossReference);
+      if (isExternal(source, target)) {
+         remove(byTargetURI, EcoreUtil.getURI(target), crossReference);
+      }
+   }
+
+   private static <K> void remove(final Map<K, Set<CrossReference>> map, final K key,
+      final CrossReference crossReference) {
+      map.computeIfPresent(key, (target, references) -> {
+         references.remove(crossReference);
+         return references.isEmpty() ? null : references;
+      });
+   }
+
+   private static boolean isExternal(final EObject source, final EObject target) {
+      return target.eIsProxy() || target.eResource() != null && target.eResource() != source.eResource();
+   }
+
+   @Override
+   public String toString() {
+      return "CrossReferenceIndex [targets=" + byTarget.size() + ", externalTargets=" + byTargetURI.size() + "]";
+   }
+}
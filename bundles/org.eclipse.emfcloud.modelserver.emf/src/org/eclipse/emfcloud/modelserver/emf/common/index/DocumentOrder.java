@@ -0,0 +1,156 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * Orders the elements of a model in the order in which a {@link Resource#getAllContents() tree iterator} visits them,
+ * so that results of index lookups are consistent with the results of a full scan.
+ * <p>
+ * The order is based on the position of an element: the index of its root in the contents of the resource, followed
+ * by the index of the containment feature and the index in the value of that feature for each step down to the
+ * element. An ancestor thus precedes its descendants. The {@link #INSTANCE shared instance} looks up these indexes
+ * anew for every comparison; for sorting many elements, use a {@link #caching() caching} instance instead.
+ * </p>
+ */
+public final class DocumentOrder implements Comparator<EObject> {
+
+   public static final DocumentOrder INSTANCE = new DocumentOrder(false);
+
+   private final Map<Object, Map<Object, Integer>> indexes;
+   private final Map<EObject, int[]> positions;
+
+   private DocumentOrder(final boolean caching) {
+      this.indexes = caching ? new IdentityHashMap<>() : null;
+      this.positions = caching ? new IdentityHashMap<>() : null;
+   }
+
+   /**
+    * Create an order that computes the index of each element among its siblings only once. It must only be used
+    * while the models of the ordered elements do not change, e.g. for one sort.
+    *
+    * @return a new caching order
+    */
+   public static DocumentOrder caching() {
+      return new DocumentOrder(true);
+   }
+
+   @Override
+   public int compare(final EObject left, final EObject right) {
+      if (left == right) {
+         return 0;
+      }
+      return comparePositions(getPosition(left), getPosition(right));
+   }
+
+   /**
+    * Get the position of an element in its model.
+    *
+    * @param element the element
+    * @return the position of the element
+    */
+   public int[] getPosition(final EObject element) {
+      if (positions == null) {
+         return computePosition(element);
+      }
+      int[] result = positions.get(element);
+      if (result == null) {
+         result = computePosition(element);
+         positions.put(element, result);
+      }
+      return result;
+   }
+
+   private int[] computePosition(final EObject element) {
+      List<EObject> path = new ArrayList<>();
+      for (EObject next = element; next != null; next = next.eContainer()) {
+         path.add(next);
+      }
+      Collections.reverse(path);
+      int[] result = new int[2 * path.size() - 1];
+      EObject root = path.get(0);
+      Resource resource = root.eResource();
+      result[0] = resource != null ? indexOf(resource.getContents(), root) : 0;
+      for (int i = 1; i < path.size(); i++) {
+         EObject step = path.get(i);
+         EObject container = path.get(i - 1);
+         EReference feature = step.eContainmentFeature();
+         result[2 * i - 1] = indexOf(container.eClass().getEAllContainments(), feature);
+         result[2 * i] = feature.isMany() ? indexOf((List<?>) container.eGet(feature, false), step) : 0;
+      }
+      return result;
+   }
+
+   private int indexOf(final List<?> list, final Object element) {
+      if (indexes == null) {
+         return list.indexOf(element);
+      }
+      Map<Object, Integer> index = indexes.get(list);
+      if (index == null) {
+         index = new IdentityHashMap<>(list.size());
+         for (int i = 0; i < list.size(); i++) {
+            index.putIfAbsent(list.get(i), i);
+         }
+         indexes.put(list, index);
+      }
+      return index.getOrDefault(element, -1);
+   }
+
+   /**
+    * Compare two positions in a model.
+    *
+    * @param left  a position
+    * @param right another position
+    * @return a negative number, zero or a positive number if the left position precedes, is equal to or follows the
+    *         right position
+    */
+   public static int comparePositions(final int[] left, final int[] right) {
+      int length = Math.min(left.length, right.length);
+      for (int i = 0; i < length; i++) {
+         if (left[i] != right[i]) {
+            return Integer.compare(left[i], right[i]);
+         }
+      }
+      // an ancestor precedes its descendants
+      return Integer.compare(left.length, right.length);
+   }
+
+   /**
+    * Check whether a position is the position of an ancestor of the element at another position, or the same
+    * position.
+    *
+    * @param ancestor a position
+    * @param position another position
+    * @return whether the element at the first position is the element at the second position or contains it
+    */
+   public static boolean contains(final int[] ancestor, final int[] position) {
+      if (ancestor.length > position.length) {
+         return false;
+      }
+      for (int i = 0; i < ancestor.length; i++) {
+         if (ancestor[i] != position[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+}
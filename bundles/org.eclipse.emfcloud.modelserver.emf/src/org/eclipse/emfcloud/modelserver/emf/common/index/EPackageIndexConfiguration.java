@@ -0,0 +1,86 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emfcloud.modelserver.emf.configuration.EPackageConfiguration;
+
+/**
+ * Derives the index configuration of each EClass from the {@link EPackageConfiguration} of its EPackage, matched by
+ * namespace URI. EClasses of EPackages without a configuration are identified by their intrinsic ID attribute and
+ * indexed by their {@code name} feature.
+ * <p>
+ * The configuration is looked up once per EClass and cached, as indexes query it for every indexed element.
+ * </p>
+ */
+public class EPackageIndexConfiguration implements ModelIndexConfiguration {
+
+   private final Set<EPackageConfiguration> configurations;
+   private final Map<EClass, Optional<EAttribute>> idAttributes = new ConcurrentHashMap<>();
+   private final Map<EClass, Boolean> uuidClasses = new ConcurrentHashMap<>();
+   private final Map<EClass, Set<EStructuralFeature>> indexedFeatures = new ConcurrentHashMap<>();
+
+   public EPackageIndexConfiguration(final Set<EPackageConfiguration> configurations) {
+      this.configurations = configurations;
+   }
+
+   @Override
+   public Optional<EAttribute> getIdAttribute(final EClass eClass) {
+      return idAttributes.computeIfAbsent(eClass, key -> getConfiguration(key)
+         .map(configuration -> configuration.getIdAttribute(key))
+         .orElseGet(() -> Optional.ofNullable(key.getEIDAttribute())));
+   }
+
+   @Override
+   public boolean useUUIDs(final EClass eClass) {
+      return uuidClasses.computeIfAbsent(eClass, key -> getConfiguration(key)
+         .map(EPackageConfiguration::useUUIDs)
+         .orElse(false));
+   }
+
+   @Override
+   public Collection<EStructuralFeature> getIndexedFeatures(final EClass eClass) {
+      return indexedFeatures.computeIfAbsent(eClass, key -> {
+         Collection<EStructuralFeature> features = getConfiguration(key)
+            .map(configuration -> configuration.getIndexedFeatures(key))
+            .orElseGet(() -> getDefaultIndexedFeatures(key));
+         return Set.copyOf(features);
+      });
+   }
+
+   /**
+    * Get the features indexed for EClasses of packages without a configuration, by default the {@code name} feature.
+    */
+   protected Collection<EStructuralFeature> getDefaultIndexedFeatures(final EClass eClass) {
+      EStructuralFeature name = eClass.getEStructuralFeature("name");
+      return name != null ? Set.of(name) : Set.of();
+   }
+
+   protected Optional<EPackageConfiguration> getConfiguration(final EClass eClass) {
+      EPackage ePackage = eClass.getEPackage();
+      if (ePackage == null) {
+         return Optional.empty();
+      }
+      return configurations.stream()
+         .filter(configuration -> configuration.getId().equals(ePackage.getNsURI()))
+         .findFirst();
+   }
+
+}
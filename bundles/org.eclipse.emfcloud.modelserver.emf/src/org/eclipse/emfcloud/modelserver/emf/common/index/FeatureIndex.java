@@ -0,0 +1,122 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * A secondary index of the elements of a model by the values of one feature. Multi-valued features index an element
+ * under each of its values. {@code null} values are not indexed.
+ */
+public class FeatureIndex {
+
+   private final EStructuralFeature feature;
+   private final Map<Object, Set<EObject>> valueToElements = new ConcurrentHashMap<>();
+
+   public FeatureIndex(final EStructuralFeature feature) {
+      this.feature = feature;
+   }
+
+   public EStructuralFeature getFeature() { return feature; }
+
+   /**
+    * Get the elements whose feature has the given value.
+    *
+    * @param value the value, not {@code null}
+    * @return the elements, in no particular order
+    */
+   public Set<EObject> getElements(final Object value) {
+      Set<EObject> elements = valueToElements.get(value);
+      return elements != null ? Collections.unmodifiableSet(elements) : Collections.emptySet();
+   }
+
+   /**
+    * Get the number of distinct values of the feature.
+    *
+    * @return the number of indexed values
+    */
+   public int size() {
+      return valueToElements.size();
+   }
+
+   void add(final EObject element) {
+      getValues(element).forEach(value -> add(value, element));
+   }
+
+   void remove(final EObject element) {
+      getValues(element).forEach(value -> remove(value, element));
+   }
+
+   /**
+    * Update the index for a change of the feature of an element.
+    */
+   void update(final EObject element, final Notification notification) {
+      switch (notification.getEventType()) {
+         case Notification.SET:
+         case Notification.UNSET:
+         case Notification.REMOVE:
+         case Notification.REMOVE_MANY:
+            removeIfAbsent(element, notification.getOldValue());
+            add(notification.getNewValue(), element);
+            break;
+         case Notification.ADD:
+         case Notification.ADD_MANY:
+            add(notification.getNewValue(), element);
+            break;
+         default:
+            break;
+      }
+   }
+
+   private Collection<?> getValues(final EObject element) {
+      Object value = element.eGet(feature, false);
+      if (feature.isMany()) {
+         return (Collection<?>) value;
+      }
+      return value != null ? Collections.singleton(value) : Collections.emptySet();
+   }
+
+   private void add(final Object value, final EObject element) {
+      if (value instanceof Collection<?> && feature.isMany()) {
+         ((Collection<?>) value).forEach(next -> add(next, element));
+      } else if (value != null && !(value instanceof int[])) {
+         valueToElements.computeIfAbsent(value, key -> ConcurrentHashMap.newKeySet()).add(element);
+      }
+   }
+
+   private void removeIfAbsent(final EObject element, final Object value) {
+      if (value instanceof Collection<?> && feature.isMany()) {
+         ((Collection<?>) value).forEach(next -> removeIfAbsent(element, next));
+      } else if (value != null && !getValues(element).contains(value)) {
+         remove(value, element);
+      }
+   }
+
+   private void remove(final Object value, final EObject element) {
+      valueToElements.computeIfPresent(value, (key, elements) -> {
+         elements.remove(element);
+         return elements.isEmpty() ? null : elements;
+      });
+   }
+
+   @Override
+   public String toString() {
+      return "FeatureIndex [feature=" + feature.getName() + ", values=" + valueToElements.size() + "]";
+   }
+}
@@ -0,0 +1,42 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.Optional;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+
+/**
+ * A resource set that resolves URIs whose fragment is an element ID via the {@link ModelIndex} of the target
+ * resource, so that references into a model, e.g. the owners of commands, are resolved in constant time. All other
+ * fragments are resolved by the resource as usual.
+ */
+public class IndexedResourceSet extends ResourceSetImpl {
+
+   @Override
+   public EObject getEObject(final URI uri, final boolean loadOnDemand) {
+      String fragment = uri.fragment();
+      if (fragment != null && !fragment.isEmpty() && fragment.charAt(0) != '/') {
+         Resource resource = getResource(uri.trimFragment(), false);
+         Optional<EObject> element = resource == null
+            ? Optional.empty()
+            : ModelIndex.get(resource).flatMap(index -> index.getElement(fragment));
+         if (element.isPresent()) {
+            return element.get();
+         }
+      }
+      return super.getEObject(uri, loadOnDemand);
+   }
+
+}
@@ -0,0 +1,140 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * Reports the non-containment references of the elements of one model resource to the {@link CrossReferenceIndex}
+ * as elements are added, removed or changed. Proxies are not resolved.
+ */
+class ModelCrossReferencer extends EContentAdapter {
+
+   private final CrossReferenceIndex index;
+   private Resource resource;
+
+   ModelCrossReferencer(final CrossReferenceIndex index) {
+      this.index = index;
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      Object notifier = notification.getNotifier();
+      Object feature = notification.getFeature();
+      if (notifier instanceof EObject && feature instanceof EReference && isCrossReference((EReference) feature)
+         && !notification.isTouch()) {
+         update((EObject) notifier, (EReference) feature, notification);
+      }
+      super.notifyChanged(notification);
+   }
+
+   private void update(final EObject source, final EReference reference, final Notification notification) {
+      switch (notification.getEventType()) {
+         case Notification.SET:
+         case Notification.UNSET:
+         case Notification.RESOLVE:
+         case Notification.REMOVE:
+         case Notification.REMOVE_MANY:
+            removeIfAbsent(source, reference, notification.getOldValue());
+            add(source, reference, notification.getNewValue());
+            break;
+         case Notification.ADD:
+         case Notification.ADD_MANY:
+            add(source, reference, notification.getNewValue());
+            break;
+         default:
+            break;
+      }
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      resource = target;
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      resource = null;
+   }
+
+   @Override
+   protected void setTarget(final EObject target) {
+      super.setTarget(target);
+      for (EReference reference : target.eClass().getEAllReferences()) {
+         if (isCrossReference(reference)) {
+            getTargets(target, reference).forEach(value -> index.add(target, reference, (EObject) value));
+         }
+      }
+   }
+
+   @Override
+   protected void unsetTarget(final EObject target) {
+      super.unsetTarget(target);
+      for (EReference reference : target.eClass().getEAllReferences()) {
+         if (isCrossReference(reference)) {
+            getTargets(target, reference).forEach(value -> index.remove(target, reference, (EObject) value));
+         }
+      }
+   }
+
+   private static boolean isCrossReference(final EReference reference) {
+      return !reference.isContainment() && !reference.isContainer() && !reference.isDerived();
+   }
+
+   private static Collection<?> getTargets(final EObject source, final EReference reference) {
+      Object value = source.eGet(reference, false);
+      if (reference.isMany()) {
+         return (Collection<?>) value;
+      }
+      return value != null ? Collections.singleton(value) : Collections.emptySet();
+   }
+
+   private void add(final EObject source, final EReference reference, final Object value) {
+      if (value instanceof Collection<?>) {
+         ((Collection<?>) value).forEach(next -> add(source, reference, next));
+      } else if (value instanceof EObject) {
+         index.add(source, reference, (EObject) value);
+      }
+   }
+
+   private void removeIfAbsent(final EObject source, final EReference reference, final Object value) {
+      if (value instanceof Collection<?>) {
+         ((Collection<?>) value).forEach(next -> removeIfAbsent(source, reference, next));
+      } else if (value instanceof EObject && !getTargets(source, reference).contains(value)) {
+         index.remove(source, reference, (EObject) value);
+      }
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only index the model resource, references of other resources are indexed by their own model
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelCrossReferencer.class;
+   }
+
+}
@@ -0,0 +1,348 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+
+/**
+ * An index of the elements of a model resource by their ID, by their EClass and by the values of their
+ * {@link ModelIndexConfiguration#getIndexedFeatures(EClass) indexed features}. The index is kept up to date
+ * incrementally as elements are added, removed or changed, so that looking up elements takes constant time instead of
+ * a walk of the containment tree.
+ * <p>
+ * The ID of an element is the value of its {@link ModelIndexConfiguration#getIdAttribute(EClass) ID
+ * attribute}, or else its ID in the ID map of an XML resource. Elements of EClasses that
+ * {@link ModelIndexConfiguration#useUUIDs(EClass) use UUIDs} and have neither are assigned a
+ * UUID in the ID map of their XML resource; an element that is removed and added again, e.g. by an undo, gets its
+ * former UUID back.
+ * </p>
+ */
+public class ModelIndex extends EContentAdapter {
+
+   private final ModelIndexConfiguration configuration;
+   private final Map<String, EObject> idToElement = new ConcurrentHashMap<>();
+   // XML resources forget the ID of an element before the removal is notified, so remember it here
+   private final Map<EObject, String> elementToId = new ConcurrentHashMap<>();
+   private final Map<EObject, String> detachedUUIDs = new WeakHashMap<>();
+   private final Map<EClass, Set<EObject>> instances = new ConcurrentHashMap<>();
+   private final Map<EStructuralFeature, FeatureIndex> featureIndexes = new ConcurrentHashMap<>();
+   private Resource resource;
+
+   public ModelIndex(final ModelIndexConfiguration configuration) {
+      this.configuration = configuration;
+   }
+
+   /**
+    * Get the index attached to a model resource.
+    *
+    * @param resource the model resource
+    * @return the index of the resource, or an empty optional if it has none
+    */
+   public static Optional<ModelIndex> get(final Resource resource) {
+      return Optional.ofNullable((ModelIndex) EcoreUtil.getExistingAdapter(resource, ModelIndex.class));
+   }
+
+   /**
+    * Get the index attached to a model resource, attaching a new one if there is none yet.
+    *
+    * @param resource      the model resource
+    * @param configuration the configuration of a new index
+    * @return the index of the resource
+    */
+   public static ModelIndex getOrCreate(final Resource resource, final ModelIndexConfiguration configuration) {
+      synchronized (resource) {
+         return get(resource).orElseGet(() -> {
+            ModelIndex index = new ModelIndex(configuration);
+            resource.eAdapters().add(index);
+            return index;
+         });
+      }
+   }
+
+   public ModelIndexConfiguration getConfiguration() { return configuration; }
+
+   /**
+    * Look up an element of the model by its ID.
+    *
+    * @param id the ID of the element
+    * @return the element, or an empty optional if no element of the model has that ID
+    */
+   public Optional<EObject> getElement(final String id) {
+      return Optional.ofNullable(idToElement.get(id));
+   }
+
+   /**
+    * Get the ID of an element of the model.
+    *
+    * @param element the element
+    * @return the ID, or {@code null} if the element has none
+    */
+   public String getId(final EObject element) {
+      return getId(element, resource, configuration);
+   }
+
+   /**
+    * Get the ID of an element of a resource that is not indexed, e.g. of a copy of an indexed model.
+    *
+    * @param element       the element
+    * @param configuration the configuration that defines the ID attributes
+    * @return the ID, or {@code null} if the element has none
+    */
+   public static String getId(final EObject element, final ModelIndexConfiguration configuration) {
+      return getId(element, element.eResource(), configuration);
+   }
+
+   private static String getId(final EObject element, final Resource resource,
+      final ModelIndexConfiguration configuration) {
+      Optional<EAttribute> idAttribute = configuration.getIdAttribute(element.eClass());
+      if (idAttribute.isPresent()) {
+         Object value = element.eGet(idAttribute.get());
+         return value != null ? EcoreUtil.convertToString(idAttribute.get().getEAttributeType(), value) : null;
+      }
+      return resource instanceof XMLResource ? ((XMLResource) resource).getID(element) : null;
+   }
+
+   /**
+    * Get the elements of the model that are direct instances of an EClass.
+    *
+    * @param eClass the EClass
+    * @return the direct instances, in no particular order
+    */
+   public Set<EObject> getInstances(final EClass eClass) {
+      Set<EObject> result = instances.get(eClass);
+      return result != null ? Collections.unmodifiableSet(result) : Collections.emptySet();
+   }
+
+   /**
+    * Get the EClasses that have direct instances in the model.
+    *
+    * @return the instantiated EClasses
+    */
+   public Set<EClass> getInstantiatedClasses() { return Collections.unmodifiableSet(instances.keySet()); }
+
+   /**
+    * Whether the instances of an EClass are indexed by the values of a feature.
+    *
+    * @param eClass  the EClass
+    * @param feature a feature of the EClass
+    * @return {@code true} if the feature is indexed for the EClass
+    */
+   public boolean isIndexed(final EClass eClass, final EStructuralFeature feature) {
+      return configuration.getIndexedFeatures(eClass).contains(feature);
+   }
+
+   /**
+    * Look up the elements whose feature has a given value. The lookup is only answered if the feature is indexed for
+    * every EClass in the model that has it.
+    *
+    * @param feature the feature
+    * @param value   the value
+    * @return the matching elements in no particular order, or an empty optional if the index cannot answer the lookup
+    */
+   public Optional<Set<EObject>> getElements(final EStructuralFeature feature, final Object value) {
+      if (value == null) {
+         return Optional.empty();
+      }
+      for (EClass eClass : instances.keySet()) {
+         if (eClass.getEAllStructuralFeatures().contains(feature) && !isIndexed(eClass, feature)) {
+            return Optional.empty();
+         }
+      }
+      FeatureIndex index = featureIndexes.get(feature);
+      return Optional.of(index != null ? index.getElements(value) : Collections.emptySet());
+   }
+
+   /**
+    * Look up the elements that have a feature with a given name and value, such as all elements with a certain
+    * {@code name}. The lookup is only answered if the features of that name are indexed for every EClass in the model
+    * that has one.
+    *
+    * @param featureName the name of the feature
+    * @param value       the value
+    * @return the matching elements in {@link DocumentOrder document order}, or an empty optional if the index cannot
+    *         answer the lookup
+    */
+   public Optional<List<EObject>> getElements(final String featureName, final Object value) {
+      if (value == null) {
+         return Optional.empty();
+      }
+      Set<EStructuralFeature> features = new LinkedHashSet<>();
+      for (EClass eClass : instances.keySet()) {
+         EStructuralFeature feature = eClass.getEStructuralFeature(featureName);
+         if (feature != null) {
+            if (!isIndexed(eClass, feature)) {
+               return Optional.empty();
+            }
+            features.add(feature);
+         }
+      }
+      List<EObject> result = new ArrayList<>();
+      for (EStructuralFeature feature : features) {
+         FeatureIndex index = featureIndexes.get(feature);
+         if (index != null) {
+            index.getElements(value).stream()
+               .filter(element -> element.eClass().getEStructuralFeature(featureName) == feature)
+               .forEach(result::add);
+         }
+      }
+      result.sort(DocumentOrder.caching());
+      return Optional.of(result);
+   }
+
+   /**
+    * Get the index of the values of a feature, regardless of whether it is indexed for all EClasses that have it.
+    *
+    * @param feature the feature
+    * @return the index of the feature, or an empty optional if no element is indexed by it
+    */
+   public Optional<FeatureIndex> getFeatureIndex(final EStructuralFeature feature) {
+      return Optional.ofNullable(featureIndexes.get(feature));
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      Object notifier = notification.getNotifier();
+      if (notifier instanceof EObject && !notification.isTouch()
+         && notification.getFeature() instanceof EStructuralFeature) {
+         EObject element = (EObject) notifier;
+         EStructuralFeature feature = (EStructuralFeature) notification.getFeature();
+         Optional<EAttribute> idAttribute = configuration.getIdAttribute(element.eClass());
+         if (idAttribute.isPresent() && feature == idAttribute.get()) {
+            unindexId(element);
+            indexId(element);
+         }
+         if (isIndexed(element.eClass(), feature)) {
+            getOrCreateFeatureIndex(feature).update(element, notification);
+         }
+      }
+      super.notifyChanged(notification);
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      resource = target;
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      idToElement.clear();
+      elementToId.clear();
+      instances.clear();
+      featureIndexes.clear();
+      resource = null;
+   }
+
+   @Override
+   protected void setTarget(final EObject target) {
+      super.setTarget(target);
+      index(target);
+   }
+
+   @Override
+   protected void unsetTarget(final EObject target) {
+      super.unsetTarget(target);
+      unindex(target);
+   }
+
+   protected void index(final EObject element) {
+      indexId(element);
+      instances.computeIfAbsent(element.eClass(), key -> ConcurrentHashMap.newKeySet()).add(element);
+      configuration.getIndexedFeatures(element.eClass())
+         .forEach(feature -> getOrCreateFeatureIndex(feature).add(element));
+   }
+
+   protected void unindex(final EObject element) {
+      unindexId(element);
+      instances.computeIfPresent(element.eClass(), (key, elements) -> {
+         elements.remove(element);
+         return elements.isEmpty() ? null : elements;
+      });
+      configuration.getIndexedFeatures(element.eClass())
+         .forEach(feature -> getOrCreateFeatureIndex(feature).remove(element));
+   }
+
+   protected FeatureIndex getOrCreateFeatureIndex(final EStructuralFeature feature) {
+      return featureIndexes.computeIfAbsent(feature, FeatureIndex::new);
+   }
+
+   protected void indexId(final EObject element) {
+      String id = getId(element);
+      if (id == null && configuration.useUUIDs(element.eClass()) && resource instanceof XMLResource
+         && configuration.getIdAttribute(element.eClass()).isEmpty()) {
+         id = assignUUID((XMLResource) resource, element);
+      }
+      if (id != null) {
+         idToElement.put(id, element);
+         elementToId.put(element, id);
+      }
+   }
+
+   protected void unindexId(final EObject element) {
+      String id = elementToId.remove(element);
+      if (id == null) {
+         return;
+      }
+      idToElement.remove(id, element);
+      if (configuration.useUUIDs(element.eClass()) && configuration.getIdAttribute(element.eClass()).isEmpty()) {
+         synchronized (detachedUUIDs) {
+            detachedUUIDs.put(element, id);
+         }
+      }
+   }
+
+   private String assignUUID(final XMLResource xmlResource, final EObject element) {
+      String uuid;
+      synchronized (detachedUUIDs) {
+         uuid = detachedUUIDs.remove(element);
+      }
+      if (uuid == null) {
+         uuid = EcoreUtil.generateUUID();
+      }
+      xmlResource.setID(element, uuid);
+      return uuid;
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only index the model resource, the index of other resources is their own
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelIndex.class;
+   }
+
+}
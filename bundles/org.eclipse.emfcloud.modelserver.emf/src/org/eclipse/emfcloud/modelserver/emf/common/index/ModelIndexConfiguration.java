@@ -0,0 +1,49 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Tells a {@link ModelIndex} how the elements of a model are identified.
+ */
+public interface ModelIndexConfiguration {
+
+   /**
+    * Get the attribute whose value identifies the instances of an EClass.
+    *
+    * @param eClass the EClass
+    * @return the ID attribute, or an empty optional if instances of the EClass have none
+    */
+   Optional<EAttribute> getIdAttribute(EClass eClass);
+
+   /**
+    * Whether instances of an EClass without an ID attribute shall be assigned a UUID.
+    *
+    * @param eClass the EClass
+    * @return {@code true} to assign UUIDs
+    */
+   boolean useUUIDs(EClass eClass);
+
+   /**
+    * Get the features by whose values the instances of an EClass are indexed.
+    *
+    * @param eClass the EClass
+    * @return the indexed features
+    */
+   Collection<EStructuralFeature> getIndexedFeatures(EClass eClass);
+
+}
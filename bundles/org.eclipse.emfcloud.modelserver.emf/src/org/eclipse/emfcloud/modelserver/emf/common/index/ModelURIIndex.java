@@ -0,0 +1,114 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+import org.eclipse.emf.common.util.URI;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The URIs of the models of the workspace relative to the workspace root, kept sorted as models are added and
+ * removed, so that they can be listed by prefix and in pages without looking at every model.
+ */
+public class ModelURIIndex {
+
+   /** The number of URIs in a page of the listing if not specified otherwise. */
+   public static final int DEFAULT_LIMIT = 1000;
+
+   private final Supplier<URI> workspaceRoot;
+   private final NavigableMap<String, URI> relativeURIs = new ConcurrentSkipListMap<>();
+   // the workspace root may have changed since a model was added, so remember the key of every model
+   private final Map<URI, String> keys = new ConcurrentHashMap<>();
+
+   /**
+    * Initializes me.
+    *
+    * @param workspaceRoot the supplier of the URI of the current workspace root
+    */
+   public ModelURIIndex(final Supplier<URI> workspaceRoot) {
+      this.workspaceRoot = workspaceRoot;
+   }
+
+   /**
+    * Add a model to the index.
+    *
+    * @param modelURI the absolute URI of the model
+    */
+   public void add(final URI modelURI) {
+      String key = modelURI.deresolve(workspaceRoot.get()).toString();
+      String previous = keys.put(modelURI, key);
+      if (previous != null && !previous.equals(key)) {
+         relativeURIs.remove(previous, modelURI);
+      }
+      relativeURIs.put(key, modelURI);
+   }
+
+   /**
+    * Remove a model from the index.
+    *
+    * @param modelURI the absolute URI of the model
+    */
+   public void remove(final URI modelURI) {
+      String key = keys.remove(modelURI);
+      if (key != null) {
+         relativeURIs.remove(key, modelURI);
+      }
+   }
+
+   /**
+    * Remove all models from the index.
+    */
+   public void clear() {
+      relativeURIs.clear();
+      keys.clear();
+   }
+
+   public int size() {
+      return keys.size();
+   }
+
+   /**
+    * List the relative URIs of the models in lexicographical order.
+    *
+    * @param prefix the prefix of the listed URIs, or {@code null} to list all URIs
+    * @param after  the URI after which to start listing, or {@code null} to start with the first URI
+    * @param limit  the maximal number of URIs to list
+    * @return the relative model URIs
+    */
+   public List<String> list(@Nullable final String prefix, @Nullable final String after, final int limit) {
+      String start = prefix != null ? prefix : "";
+      boolean inclusive = true;
+      if (after != null && after.compareTo(start) >= 0) {
+         start = after;
+         inclusive = false;
+      }
+      List<String> result = new ArrayList<>(Math.min(limit, 1024));
+      for (String next : relativeURIs.tailMap(start, inclusive).keySet()) {
+         if (result.size() >= limit || prefix != null && !next.startsWith(prefix)) {
+            break;
+         }
+         result.add(next);
+      }
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      return "ModelURIIndex [models=" + keys.size() + "]";
+   }
+}
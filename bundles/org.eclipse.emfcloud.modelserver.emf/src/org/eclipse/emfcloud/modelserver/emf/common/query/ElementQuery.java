@@ -0,0 +1,108 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.query;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A filter on the elements of models by their EClass and by the values of their attributes.
+ * <p>
+ * The type is given either by the name of an EClass or by its URI, e.g. {@code http://my/package#//Machine}, and
+ * matches instances of that EClass and of all its subclasses. Every attribute predicate compares the literal value
+ * of an attribute with a string; multi-valued attributes match if any of their values does.
+ * </p>
+ */
+public final class ElementQuery {
+
+   private final String type;
+   private final Map<String, String> predicates;
+
+   /**
+    * Initializes me.
+    *
+    * @param type       the name or URI of the EClass that matching elements are instances of, or {@code null} to
+    *                      match elements of all types
+    * @param predicates the literal values of attributes that matching elements have, by attribute name
+    */
+   public ElementQuery(@Nullable final String type, final Map<String, String> predicates) {
+      this.type = type;
+      this.predicates = Collections.unmodifiableMap(new LinkedHashMap<>(predicates));
+   }
+
+   @Nullable
+   public String getType() { return type; }
+
+   public Map<String, String> getPredicates() { return predicates; }
+
+   /**
+    * Whether instances of an EClass match the type of this query.
+    *
+    * @param eClass the EClass
+    * @return {@code true} if the EClass or one of its super types is the queried type
+    */
+   public boolean matchesType(final EClass eClass) {
+      if (type == null || isType(eClass)) {
+         return true;
+      }
+      return eClass.getEAllSuperTypes().stream().anyMatch(this::isType);
+   }
+
+   private boolean isType(final EClass eClass) {
+      return type.equals(eClass.getName()) || type.equals(EcoreUtil.getURI(eClass).toString());
+   }
+
+   /**
+    * Whether an element matches this query.
+    *
+    * @param element the element
+    * @return {@code true} if the element matches the type and all attribute predicates
+    */
+   public boolean matches(final EObject element) {
+      if (!matchesType(element.eClass())) {
+         return false;
+      }
+      for (Map.Entry<String, String> predicate : predicates.entrySet()) {
+         EStructuralFeature feature = element.eClass().getEStructuralFeature(predicate.getKey());
+         if (!(feature instanceof EAttribute) || !hasValue(element, (EAttribute) feature, predicate.getValue())) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static boolean hasValue(final EObject element, final EAttribute attribute, final String literal) {
+      Object value = element.eGet(attribute);
+      if (attribute.isMany()) {
+         return ((Collection<?>) value).stream().anyMatch(next -> isLiteral(attribute, next, literal));
+      }
+      return isLiteral(attribute, value, literal);
+   }
+
+   private static boolean isLiteral(final EAttribute attribute, final Object value, final String literal) {
+      return value != null && Objects.equals(EcoreUtil.convertToString(attribute.getEAttributeType(), value), literal);
+   }
+
+   @Override
+   public String toString() {
+      return "ElementQuery [type=" + type + ", predicates=" + predicates + "]";
+   }
+}
@@ -0,0 +1,342 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emfcloud.modelserver.emf.common.index.DocumentOrder;
+import org.eclipse.emfcloud.modelserver.emf.common.index.FeatureIndex;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelIndex;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Evaluates {@link ElementQuery element queries} on model resources and pages through their results.
+ * <p>
+ * For models with a {@link ModelIndex}, the candidates are taken from the index of the first attribute predicate
+ * that is indexed for all queried EClasses, or else from the instances of the queried EClasses. Models without a
+ * usable index are scanned in document order. In either case, the matches are ordered by model URI and by their
+ * {@link DocumentOrder position in the model}, and a page only evaluates the query as far as it needs to: a scan
+ * stops after the last match of the page, and only the first matches among the candidates of an index are sorted.
+ * </p>
+ * <p>
+ * A cursor identifies the last element of a page by its model URI, its ID, or else its URI fragment, and its
+ * position. The next page continues after the current position of that element, so for models whose elements have
+ * IDs, paging with cursors is not thrown off by elements that are added or removed before that element in the
+ * meantime. If the element itself was removed, the next page continues at the position where it was.
+ * </p>
+ */
+public class ElementQueryEngine {
+
+   /** The number of elements per page if no limit is given. */
+   public static final int DEFAULT_LIMIT = 100;
+
+   private static final char CURSOR_SEPARATOR = '\n';
+   private static final String POSITION_SEPARATOR = ",";
+
+   private final Function<Resource, Optional<ModelIndex>> indexProvider;
+
+   /**
+    * Initializes me.
+    *
+    * @param indexProvider provides the index of a model resource, if it has one
+    */
+   public ElementQueryEngine(final Function<Resource, Optional<ModelIndex>> indexProvider) {
+      this.indexProvider = indexProvider;
+   }
+
+   /**
+    * Get one page of the elements of some models that match a query.
+    *
+    * @param resources the model resources to query
+    * @param query     the query
+    * @param offset    the number of matches to skip, ignored if a {@code cursor} is given
+    * @param limit     the maximal number of matches on the page
+    * @param cursor    the {@link ElementQueryResult#getNextCursor() cursor} of the previous page, or {@code null}
+    * @return the page of matches
+    * @throws IllegalArgumentException if the cursor is malformed
+    */
+   public ElementQueryResult execute(final Collection<Resource> resources, final ElementQuery query,
+      final int offset, final int limit, @Nullable final String cursor) {
+
+      List<Resource> ordered = new ArrayList<>(resources);
+      ordered.sort(Comparator.comparing((Resource resource) -> resource.getURI().toString()));
+      Cursor after = cursor != null ? Cursor.decode(cursor) : null;
+      int skip = after != null ? 0 : Math.max(offset, 0);
+      // one more match than fits on the page tells whether there is a next page
+      int wanted = Math.max(limit, 1) + 1;
+
+      List<EObject> matches = new ArrayList<>();
+      for (Resource resource : ordered) {
+         String modelURI = resource.getURI().toString();
+         int compared = after != null ? modelURI.compareTo(after.modelURI) : 1;
+         if (compared < 0) {
+            continue;
+         }
+         DocumentOrder order = DocumentOrder.caching();
+         Position from = compared == 0 ? getStartPosition(after, resource, order) : null;
+         List<EObject> found = find(resource, query, order, from, skip + wanted - matches.size());
+         int skipped = Math.min(skip, found.size());
+         skip -= skipped;
+         matches.addAll(found.subList(skipped, found.size()));
+         if (matches.size() >= wanted) {
+            break;
+         }
+      }
+
+      List<EObject> page = matches.subList(0, Math.min(wanted - 1, matches.size()));
+      String nextCursor = matches.size() == wanted ? encodeCursor(page.get(page.size() - 1)) : null;
+      List<String> ids = page.stream().map(this::getId).collect(Collectors.toList());
+      return new ElementQueryResult(page, ids, nextCursor);
+   }
+
+   /**
+    * Find the elements of a model that match a query.
+    *
+    * @param resource the model resource
+    * @param query    the query
+    * @return the matching elements in document order
+    */
+   public List<EObject> find(final Resource resource, final ElementQuery query) {
+      Optional<Collection<EObject>> candidates = indexProvider.apply(resource)
+         .flatMap(index -> getCandidates(index, query));
+      if (candidates.isPresent()) {
+         return candidates.get().stream()
+            .filter(query::matches)
+            .sorted(DocumentOrder.caching())
+            .collect(Collectors.toList());
+      }
+      List<EObject> contents = new ArrayList<>();
+      resource.getAllContents().forEachRemaining(contents::add);
+      return contents.parallelStream()
+         .filter(query::matches)
+         .collect(Collectors.toList());
+   }
+
+   /**
+    * Find the first elements of a model that match a query and follow a position.
+    *
+    * @param resource the model resource
+    * @param query    the query
+    * @param order    the order of the elements of the model
+    * @param from     the position to start from, or {@code null} to start at the beginning of the model
+    * @param max      the maximal number of matches to find
+    * @return the matching elements in document order
+    */
+   protected List<EObject> find(final Resource resource, final ElementQuery query, final DocumentOrder order,
+      @Nullable final Position from, final int max) {
+
+      Optional<Collection<EObject>> candidates = indexProvider.apply(resource)
+         .flatMap(index -> getCandidates(index, query));
+      if (candidates.isPresent()) {
+         // keep the first matches in a heap that has the last of them on top
+         PriorityQueue<EObject> first = new PriorityQueue<>(order.reversed());
+         for (EObject candidate : candidates.get()) {
+            if ((from == null || from.precedes(order.getPosition(candidate))) && query.matches(candidate)) {
+               first.add(candidate);
+               if (first.size() > max) {
+                  first.poll();
+               }
+            }
+         }
+         List<EObject> result = new ArrayList<>(first);
+         result.sort(order);
+         return result;
+      }
+
+      List<EObject> result = new ArrayList<>();
+      for (TreeIterator<EObject> iterator = resource.getAllContents(); iterator.hasNext() && result.size() < max;) {
+         EObject element = iterator.next();
+         if (from != null) {
+            int[] position = order.getPosition(element);
+            if (!from.precedes(position)) {
+               if (!DocumentOrder.contains(position, from.position)) {
+                  // neither the element nor its contents follow the start position
+                  iterator.prune();
+               }
+               continue;
+            }
+         }
+         if (query.matches(element)) {
+            result.add(element);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Get the elements of an indexed model that may match a query.
+    *
+    * @return a superset of the matching elements, or an empty optional if the index cannot narrow them down
+    */
+   protected Optional<Collection<EObject>> getCandidates(final ModelIndex index, final ElementQuery query) {
+      Set<EClass> eClasses = index.getInstantiatedClasses().stream()
+         .filter(query::matchesType)
+         .collect(Collectors.toSet());
+      for (Map.Entry<String, String> predicate : query.getPredicates().entrySet()) {
+         Optional<Collection<EObject>> indexed = lookup(index, eClasses, predicate.getKey(), predicate.getValue());
+         if (indexed.isPresent()) {
+            return indexed;
+         }
+      }
+      if (query.getType() == null) {
+         return Optional.empty();
+      }
+      List<EObject> instances = new ArrayList<>();
+      eClasses.forEach(eClass -> instances.addAll(index.getInstances(eClass)));
+      return Optional.of(instances);
+   }
+
+   @SuppressWarnings("checkstyle:IllegalCatch")
+   private Optional<Collection<EObject>> lookup(final ModelIndex index, final Set<EClass> eClasses,
+      final String featureName, final String literal) {
+
+      Set<EAttribute> attributes = new LinkedHashSet<>();
+      for (EClass eClass : eClasses) {
+         EStructuralFeature feature = eClass.getEStructuralFeature(featureName);
+         if (feature instanceof EAttribute) {
+            if (!index.isIndexed(eClass, feature)) {
+               return Optional.empty();
+            }
+            attributes.add((EAttribute) feature);
+         }
+      }
+      Set<EObject> result = new LinkedHashSet<>();
+      for (EAttribute attribute : attributes) {
+         Object value;
+         try {
+            value = EcoreUtil.createFromString(attribute.getEAttributeType(), literal);
+         } catch (RuntimeException e) {
+            // no value of the attribute has this literal
+            continue;
+         }
+         if (value != null) {
+            index.getFeatureIndex(attribute)
+               .map(featureIndex -> featureIndex.getElements(value))
+               .ifPresent(result::addAll);
+         }
+      }
+      return Optional.of(result);
+   }
+
+   /**
+    * Get the ID of an element within its model: the ID assigned by the index of the model, if any, or else its URI
+    * fragment.
+    *
+    * @param element the element
+    * @return the ID of the element
+    */
+   public String getId(final EObject element) {
+      Resource resource = element.eResource();
+      return indexProvider.apply(resource)
+         .map(index -> index.getId(element))
+         .orElseGet(() -> resource.getURIFragment(element));
+   }
+
+   protected EObject getElement(final Resource resource, final String id) {
+      return indexProvider.apply(resource)
+         .flatMap(index -> index.getElement(id))
+         .orElseGet(() -> resource.getEObject(id));
+   }
+
+   private String encodeCursor(final EObject element) {
+      String position = Arrays.stream(DocumentOrder.INSTANCE.getPosition(element))
+         .mapToObj(Integer::toString)
+         .collect(Collectors.joining(POSITION_SEPARATOR));
+      String cursor = element.eResource().getURI().toString() + CURSOR_SEPARATOR + getId(element) + CURSOR_SEPARATOR
+         + position;
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+   }
+
+   /**
+    * A start position in a model.
+    */
+   protected static final class Position {
+
+      private final int[] position;
+      private final boolean inclusive;
+
+      Position(final int[] position, final boolean inclusive) {
+         this.position = position;
+         this.inclusive = inclusive;
+      }
+
+      /**
+       * Check whether an element at a given position comes after this start position.
+       *
+       * @param other the position of an element
+       * @return whether the element is to be included in the results
+       */
+      public boolean precedes(final int[] other) {
+         int compared = DocumentOrder.comparePositions(position, other);
+         return compared < 0 || inclusive && compared == 0;
+      }
+   }
+
+   /**
+    * Get the position after which the next page starts in the model of a cursor: after the current position of the
+    * last element of the previous page or, if that element was removed, at its former position.
+    */
+   private Position getStartPosition(final Cursor cursor, final Resource resource, final DocumentOrder order) {
+      EObject last = getElement(resource, cursor.id);
+      if (last != null && last.eResource() == resource) {
+         return new Position(order.getPosition(last), false);
+      }
+      return new Position(cursor.position, true);
+   }
+
+   /**
+    * The decoded {@link ElementQueryResult#getNextCursor() cursor} of a page.
+    */
+   private static final class Cursor {
+
+      private final String modelURI;
+      private final String id;
+      private final int[] position;
+
+      Cursor(final String modelURI, final String id, final int[] position) {
+         this.modelURI = modelURI;
+         this.id = id;
+         this.position = position;
+      }
+
+      static Cursor decode(final String cursor) {
+         String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+         String[] parts = decoded.split(String.valueOf(CURSOR_SEPARATOR), -1);
+         if (parts.length != 3 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+         }
+         // a malformed position throws a NumberFormatException, which is an IllegalArgumentException
+         int[] position = Arrays.stream(parts[2].split(POSITION_SEPARATOR)).mapToInt(Integer::parseInt).toArray();
+         return new Cursor(parts[0], parts[1], position);
+      }
+   }
+
+}
@@ -0,0 +1,59 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.query;
+
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One page of the elements that match an {@link ElementQuery}.
+ */
+public final class ElementQueryResult {
+
+   private final List<EObject> elements;
+   private final List<String> ids;
+   private final String nextCursor;
+
+   public ElementQueryResult(final List<EObject> elements, final List<String> ids, @Nullable final String nextCursor) {
+      this.elements = List.copyOf(elements);
+      this.ids = List.copyOf(ids);
+      this.nextCursor = nextCursor;
+   }
+
+   /**
+    * Get the matching elements on this page, ordered by model URI and by their position in the model.
+    *
+    * @return the elements of this page
+    */
+   public List<EObject> getElements() { return elements; }
+
+   /**
+    * Get the IDs of the elements on this page within their models, by which they can be fetched individually.
+    *
+    * @return the IDs, in the order of the elements
+    */
+   public List<String> getIds() { return ids; }
+
+   /**
+    * Get the cursor that continues the query after the last element of this page.
+    *
+    * @return the cursor of the next page, or {@code null} if this is the last page
+    */
+   @Nullable
+   public String getNextCursor() { return nextCursor; }
+
+   @Override
+   public String toString() {
+      return "ElementQueryResult [elements=" + elements.size() + ", nextCursor=" + nextCursor + "]";
+   }
+}
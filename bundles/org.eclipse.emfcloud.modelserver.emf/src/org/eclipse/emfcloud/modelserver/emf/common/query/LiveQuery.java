@@ -0,0 +1,227 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * The result set of an {@link ElementQuery} on a model resource that is maintained incrementally from the change
+ * notifications of the model instead of by evaluating the query again.
+ * <p>
+ * Like the alpha network of a Rete matcher, the query is split into a type test, whose outcome is memoized per
+ * EClass, and the attribute predicates. An added element is tested once, a removed element leaves the matches
+ * without any test, and a changed element is only tested again if one of the attributes of the predicates changed.
+ * The changes of the matches are collected until the next {@link #drainDelta() delta} is taken, so that the
+ * intermediate states of a command are never reported.
+ * </p>
+ */
+public class LiveQuery extends EContentAdapter {
+
+   private final ElementQuery query;
+   private final Function<EObject, String> idProvider;
+   private final Map<EClass, Boolean> typeMemory = new ConcurrentHashMap<>();
+   private final Map<EObject, String> matches = new LinkedHashMap<>();
+   private Map<EObject, String> added = new LinkedHashMap<>();
+   private Map<EObject, String> removed = new LinkedHashMap<>();
+   private Map<EObject, String> changed = new LinkedHashMap<>();
+   private Resource resource;
+
+   /**
+    * Initializes me.
+    *
+    * @param query      the query whose matches to maintain
+    * @param idProvider the function that provides the ID of an element by which clients identify it
+    */
+   public LiveQuery(final ElementQuery query, final Function<EObject, String> idProvider) {
+      this.query = query;
+      this.idProvider = idProvider;
+   }
+
+   public ElementQuery getQuery() { return query; }
+
+   public synchronized Resource getResource() { return resource; }
+
+   /**
+    * Start maintaining the matches in a model resource. If I was attached to another resource before, e.g. one that
+    * has been reloaded, its elements leave the matches.
+    *
+    * @param resource the model resource
+    */
+   public void attach(final Resource resource) {
+      Resource previous = getResource();
+      if (previous == resource) {
+         return;
+      }
+      if (previous != null) {
+         previous.eAdapters().remove(this);
+      }
+      resource.eAdapters().add(this);
+   }
+
+   /**
+    * Stop maintaining the matches.
+    */
+   public void dispose() {
+      Resource previous = getResource();
+      if (previous != null) {
+         previous.eAdapters().remove(this);
+      }
+   }
+
+   /**
+    * Get the current matches of the query.
+    *
+    * @return the matching elements with their IDs, in the order in which they started to match
+    */
+   public synchronized Map<EObject, String> getMatches() { return new LinkedHashMap<>(matches); }
+
+   /**
+    * Take the changes of the matches since the previous delta was taken. The first delta reports all initial
+    * matches as added.
+    *
+    * @return the changes of the matches
+    */
+   public synchronized LiveQueryDelta drainDelta() {
+      LiveQueryDelta result = new LiveQueryDelta(added, removed, changed);
+      added = new LinkedHashMap<>();
+      removed = new LinkedHashMap<>();
+      changed = new LinkedHashMap<>();
+      return result;
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      super.notifyChanged(notification);
+
+      Object notifier = notification.getNotifier();
+      if (notifier instanceof EObject && !notification.isTouch()
+         && notification.getFeature() instanceof EStructuralFeature) {
+         EObject element = (EObject) notifier;
+         if (!matchesType(element.eClass())) {
+            return;
+         }
+         String featureName = ((EStructuralFeature) notification.getFeature()).getName();
+         if (query.getPredicates().containsKey(featureName)) {
+            evaluate(element);
+         } else {
+            update(element);
+         }
+      }
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      synchronized (this) {
+         resource = target;
+      }
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      synchronized (this) {
+         resource = null;
+      }
+   }
+
+   @Override
+   protected void setTarget(final EObject target) {
+      super.setTarget(target);
+      if (matchesType(target.eClass()) && query.matches(target)) {
+         add(target);
+      }
+   }
+
+   @Override
+   protected void unsetTarget(final EObject target) {
+      super.unsetTarget(target);
+      remove(target);
+   }
+
+   protected boolean matchesType(final EClass eClass) {
+      return typeMemory.computeIfAbsent(eClass, query::matchesType);
+   }
+
+   protected synchronized void evaluate(final EObject element) {
+      boolean matched = matches.containsKey(element);
+      if (query.matches(element)) {
+         if (matched) {
+            update(element);
+         } else {
+            add(element);
+         }
+      } else if (matched) {
+         remove(element);
+      }
+   }
+
+   protected synchronized void add(final EObject element) {
+      String id = idProvider.apply(element);
+      matches.put(element, id);
+      if (removed.remove(element) != null) {
+         // left and entered the matches again, e.g. by being moved
+         changed.put(element, id);
+      } else {
+         added.put(element, id);
+      }
+   }
+
+   protected synchronized void remove(final EObject element) {
+      String id = matches.remove(element);
+      if (id == null) {
+         return;
+      }
+      changed.remove(element);
+      if (added.remove(element) == null) {
+         removed.put(element, id);
+      }
+   }
+
+   protected synchronized void update(final EObject element) {
+      if (!matches.containsKey(element)) {
+         return;
+      }
+      // the ID may have changed, too
+      String id = idProvider.apply(element);
+      matches.put(element, id);
+      if (added.containsKey(element)) {
+         added.put(element, id);
+      } else {
+         changed.put(element, id);
+      }
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only match the elements of the model resource, not of cross-referenced resources
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public String toString() {
+      return "LiveQuery [query=" + query + ", matches=" + matches.size() + "]";
+   }
+}
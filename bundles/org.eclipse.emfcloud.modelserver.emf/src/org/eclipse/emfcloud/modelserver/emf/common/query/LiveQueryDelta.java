@@ -0,0 +1,62 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.query;
+
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+
+/**
+ * The changes of the matches of a {@link LiveQuery} since the previous delta. Every element is reported together with
+ * its ID, which is remembered for removed elements because they may not have one any more.
+ */
+public final class LiveQueryDelta {
+
+   private final Map<EObject, String> added;
+   private final Map<EObject, String> removed;
+   private final Map<EObject, String> changed;
+
+   public LiveQueryDelta(final Map<EObject, String> added, final Map<EObject, String> removed,
+      final Map<EObject, String> changed) {
+      this.added = added;
+      this.removed = removed;
+      this.changed = changed;
+   }
+
+   /**
+    * Get the elements that match the query now but did not before.
+    *
+    * @return the added matches with their IDs
+    */
+   public Map<EObject, String> getAdded() { return added; }
+
+   /**
+    * Get the elements that matched the query before but do not now, e.g. because they were deleted.
+    *
+    * @return the removed matches with their last IDs
+    */
+   public Map<EObject, String> getRemoved() { return removed; }
+
+   /**
+    * Get the elements that still match the query but were changed.
+    *
+    * @return the changed matches with their IDs
+    */
+   public Map<EObject, String> getChanged() { return changed; }
+
+   public boolean isEmpty() { return added.isEmpty() && removed.isEmpty() && changed.isEmpty(); }
+
+   @Override
+   public String toString() {
+      return "LiveQueryDelta [added=" + added.size() + ", removed=" + removed.size() + ", changed=" + changed.size()
+         + "]";
+   }
+}
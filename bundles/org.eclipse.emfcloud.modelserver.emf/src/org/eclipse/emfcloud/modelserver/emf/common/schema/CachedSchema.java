@@ -0,0 +1,83 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ContentHasher;
+import org.jetbrains.annotations.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A schema together with the entity tag under which it is served, so that clients can revalidate their copy with a
+ * conditional request instead of downloading the schema again. Cached schemas must not be modified.
+ */
+public final class CachedSchema {
+
+   private final JsonNode schema;
+   private final String etag;
+
+   public CachedSchema(final JsonNode schema) {
+      this.schema = schema;
+      this.etag = computeETag(schema);
+   }
+
+   public JsonNode getSchema() { return schema; }
+
+   /**
+    * Get the strong entity tag of the schema, which is derived from its content.
+    *
+    * @return the quoted entity tag
+    */
+   public String getETag() { return etag; }
+
+   /**
+    * Whether the value of an {@code If-None-Match} request header matches the schema, i.e. the client already has it.
+    *
+    * @param ifNoneMatch the header value, a list of entity tags or {@code *}
+    * @return {@code true} if one of the entity tags is that of the schema
+    */
+   public boolean matches(@Nullable final String ifNoneMatch) {
+      if (ifNoneMatch == null) {
+         return false;
+      }
+      for (String tag : ifNoneMatch.split(",")) {
+         String trimmed = tag.trim();
+         // weak comparison, as the schema is the same regardless of how the response is encoded
+         if (trimmed.startsWith("W/")) {
+            trimmed = trimmed.substring(2);
+         }
+         if ("*".equals(trimmed) || etag.equals(trimmed)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static String computeETag(final JsonNode schema) {
+      try {
+         MessageDigest digest = MessageDigest.getInstance(ContentHasher.ALGORITHM);
+         byte[] hash = digest.digest(schema.toString().getBytes(StandardCharsets.UTF_8));
+         return "\"" + ContentHasher.toHex(hash) + "\"";
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "CachedSchema [etag=" + etag + "]";
+   }
+
+}
@@ -0,0 +1,163 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.schema;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emfcloud.modelserver.jsonschema.JsonSchemaConverter;
+import org.jetbrains.annotations.Nullable;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.inject.Inject;
+
+/**
+ * Injectable singleton class that caches the JSON type schemas of registered EPackages and their EClasses. A cached
+ * schema is used as long as its EPackage is the one registered for its namespace URI, so registering another
+ * EPackage for the namespace URI invalidates it.
+ * <p>
+ * The schemas of EPackages and EClasses that are not registered, e.g. of an Ecore model in the workspace, may change
+ * at any time and are therefore generated on every request.
+ * </p>
+ */
+public class TypeSchemaCache {
+
+   private final JsonSchemaConverter converter;
+   private final EPackage.Registry registry;
+   private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+   @Inject
+   public TypeSchemaCache(final JsonSchemaConverter converter) {
+      this(converter, EPackage.Registry.INSTANCE);
+   }
+
+   public TypeSchemaCache(final JsonSchemaConverter converter, final EPackage.Registry registry) {
+      this.converter = converter;
+      this.registry = registry;
+   }
+
+   /**
+    * Get the type schema of a model, which is the schema of the model if it is an EPackage and the schema of its
+    * EClass otherwise.
+    *
+    * @param instance the root of the model
+    * @return the type schema
+    */
+   public CachedSchema getSchema(final EObject instance) {
+      return getSchema(instance, false);
+   }
+
+   /**
+    * Get the type schema of a model, which is the schema of the model if it is an EPackage and the schema of its
+    * EClass otherwise.
+    *
+    * @param instance        the root of the model
+    * @param withDefinitions whether the schema shall define every type once and refer to it, see
+    *                           {@link JsonSchemaConverter#withDefinitions(EObject)}
+    * @return the type schema
+    */
+   public CachedSchema getSchema(final EObject instance, final boolean withDefinitions) {
+      Supplier<JsonNode> generator = withDefinitions ? () -> converter.withDefinitions(instance)
+         : () -> converter.from(instance);
+      if (instance instanceof EPackage) {
+         EPackage ePackage = (EPackage) instance;
+         return isRegistered(ePackage) ? get(getKey(ePackage, null, withDefinitions), ePackage, generator)
+            : new CachedSchema(generator.get());
+      }
+      EClass eClass = instance.eClass();
+      EPackage ePackage = eClass.getEPackage();
+      return ePackage != null && isRegistered(ePackage)
+         ? get(getKey(ePackage, eClass.getName(), withDefinitions), ePackage, generator)
+         : new CachedSchema(generator.get());
+   }
+
+   /**
+    * Get the type schema of a registered EPackage or of one of its EClasses, without loading any model.
+    *
+    * @param nsURI      the namespace URI of the EPackage
+    * @param eClassName the name of the EClass, or {@code null} for the schema of the EPackage
+    * @return the type schema, or an empty optional if no such EPackage or EClass is registered
+    */
+   public Optional<CachedSchema> getSchema(final String nsURI, @Nullable final String eClassName) {
+      return getSchema(nsURI, eClassName, false);
+   }
+
+   /**
+    * Get the type schema of a registered EPackage or of one of its EClasses, without loading any model.
+    *
+    * @param nsURI           the namespace URI of the EPackage
+    * @param eClassName      the name of the EClass, or {@code null} for the schema of the EPackage
+    * @param withDefinitions whether the schema shall define every type once and refer to it, see
+    *                           {@link JsonSchemaConverter#withDefinitions(EObject)}
+    * @return the type schema, or an empty optional if no such EPackage or EClass is registered
+    */
+   public Optional<CachedSchema> getSchema(final String nsURI, @Nullable final String eClassName,
+      final boolean withDefinitions) {
+      EPackage ePackage = registry.getEPackage(nsURI);
+      if (ePackage == null) {
+         return Optional.empty();
+      }
+      if (eClassName == null) {
+         return Optional.of(get(getKey(ePackage, null, withDefinitions), ePackage,
+            withDefinitions ? () -> converter.withDefinitions(ePackage) : () -> converter.from(ePackage)));
+      }
+      EClassifier eClassifier = ePackage.getEClassifier(eClassName);
+      if (!(eClassifier instanceof EClass)) {
+         return Optional.empty();
+      }
+      EClass eClass = (EClass) eClassifier;
+      return Optional.of(get(getKey(ePackage, eClassName, withDefinitions), ePackage,
+         withDefinitions ? () -> converter.withDefinitions(eClass) : () -> converter.from(eClass)));
+   }
+
+   /**
+    * Forget all cached schemas.
+    */
+   public void clear() {
+      entries.clear();
+   }
+
+   protected boolean isRegistered(final EPackage ePackage) {
+      return ePackage.getNsURI() != null && registry.getEPackage(ePackage.getNsURI()) == ePackage;
+   }
+
+   private CachedSchema get(final String key, final EPackage ePackage, final Supplier<JsonNode> generator) {
+      Entry entry = entries.get(key);
+      if (entry == null || entry.ePackage != ePackage) {
+         entry = new Entry(ePackage, new CachedSchema(generator.get()));
+         entries.put(key, entry);
+      }
+      return entry.schema;
+   }
+
+   private static String getKey(final EPackage ePackage, @Nullable final String eClassName,
+      final boolean withDefinitions) {
+      String key = eClassName != null ? ePackage.getNsURI() + "#//" + eClassName : ePackage.getNsURI();
+      return withDefinitions ? key + "?definitions" : key;
+   }
+
+   private static final class Entry {
+      private final EPackage ePackage;
+      private final CachedSchema schema;
+
+      Entry(final EPackage ePackage, final CachedSchema schema) {
+         this.ePackage = ePackage;
+         this.schema = schema;
+      }
+   }
+
+}
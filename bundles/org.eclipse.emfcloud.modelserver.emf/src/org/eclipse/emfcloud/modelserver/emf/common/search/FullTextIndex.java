@@ -0,0 +1,406 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * An in-memory inverted index of the string attributes of all models in the workspace for full-text search.
+ * <p>
+ * Every indexed element is assigned an integer ordinal, and each term maps to a {@link PostingList} of the ordinals of
+ * the elements that contain it. Model resources that are {@link #attach(Resource) attached} to the index update it
+ * as their elements are added, removed or changed, e.g. by executed commands.
+ * </p>
+ * <p>
+ * A search matches the elements that contain all terms of the query, where the last term also matches as a prefix so
+ * that results can be shown while the user types. Matches are ranked by TF-IDF, favouring exact over prefix matches
+ * and short over long texts. The posting lists of the query terms are intersected starting from the rarest term, so
+ * a search costs in the order of its matches rather than of the size of the workspace.
+ * </p>
+ * <p>
+ * The index is guarded by a read/write lock, so that searches run concurrently and only updates are exclusive.
+ * </p>
+ */
+public class FullTextIndex {
+
+   /** The number of results of a search if not specified otherwise. */
+   public static final int DEFAULT_LIMIT = 20;
+
+   /** The maximal number of terms that the last term of a query is expanded to as a prefix. */
+   public static final int MAX_PREFIX_EXPANSIONS = 64;
+
+   private static final double PREFIX_WEIGHT = 0.5;
+
+   private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+   private final Map<EObject, Integer> ordinals = new HashMap<>();
+   private final List<EObject> elements = new ArrayList<>();
+   private final List<Map<String, Integer>> elementTerms = new ArrayList<>();
+   private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+   private int[] lengths = new int[0];
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+   /**
+    * Start indexing the text of the elements of a model resource.
+    *
+    * @param resource the model resource
+    */
+   public void attach(final Resource resource) {
+      synchronized (resource) {
+         if (EcoreUtil.getExistingAdapter(resource, ModelTextIndexer.class) == null) {
+            resource.eAdapters().add(new ModelTextIndexer(this));
+         }
+      }
+   }
+
+   /**
+    * Stop indexing the text of the elements of a model resource and remove them from the index.
+    *
+    * @param resource the model resource
+    */
+   public void detach(final Resource resource) {
+      synchronized (resource) {
+         resource.eAdapters().remove(EcoreUtil.getExistingAdapter(resource, ModelTextIndexer.class));
+      }
+   }
+
+   /**
+    * Remove all elements from the index.
+    */
+   public void clear() {
+      lock.writeLock().lock();
+      try {
+         postings.clear();
+         ordinals.clear();
+         elements.clear();
+         elementTerms.clear();
+         freeOrdinals.clear();
+         lengths = new int[0];
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Get the number of indexed elements that contain any text.
+    *
+    * @return the number of indexed elements
+    */
+   public int size() {
+      lock.readLock().lock();
+      try {
+         return ordinals.size();
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Get the number of distinct indexed terms.
+    *
+    * @return the number of terms
+    */
+   public int getTermCount() {
+      lock.readLock().lock();
+      try {
+         return postings.size();
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Index the current text of an element, replacing the text indexed for it before.
+    *
+    * @param element the element
+    */
+   public void update(final EObject element) {
+      // collect the terms before taking the lock, so that searches wait only for the update of the postings
+      Map<String, Integer> terms = collectTerms(element);
+      lock.writeLock().lock();
+      try {
+         update(element, terms);
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   private void update(final EObject element, final Map<String, Integer> terms) {
+      Integer ordinal = ordinals.get(element);
+      if (ordinal != null) {
+         if (terms.equals(elementTerms.get(ordinal))) {
+            return;
+         }
+         removePostings(ordinal);
+      }
+      if (terms.isEmpty()) {
+         if (ordinal != null) {
+            release(element, ordinal);
+         }
+         return;
+      }
+      int newOrdinal = ordinal != null ? ordinal : allocate(element);
+      elementTerms.set(newOrdinal, terms);
+      int length = 0;
+      for (Map.Entry<String, Integer> term : terms.entrySet()) {
+         postings.computeIfAbsent(term.getKey(), key -> new PostingList()).put(newOrdinal, term.getValue());
+         length += term.getValue();
+      }
+      lengths[newOrdinal] = length;
+   }
+
+   /**
+    * Remove an element from the index.
+    *
+    * @param element the element
+    */
+   public void remove(final EObject element) {
+      lock.writeLock().lock();
+      try {
+         Integer ordinal = ordinals.get(element);
+         if (ordinal != null) {
+            removePostings(ordinal);
+            release(element, ordinal);
+         }
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Search the indexed elements.
+    *
+    * @param query  the search query
+    * @param filter the condition that results have to meet, e.g. being contained in a certain model
+    * @param limit  the maximal number of results
+    * @return the best matching elements, ordered by descending score
+    */
+   public List<SearchHit> search(final String query, final Predicate<EObject> filter, final int limit) {
+      List<String> queryTerms = Tokenizer.tokenizeQuery(query);
+      if (queryTerms.isEmpty()) {
+         return List.of();
+      }
+      lock.readLock().lock();
+      try {
+         List<QueryTerm> terms = new ArrayList<>();
+         for (int i = 0; i < queryTerms.size(); i++) {
+            String term = queryTerms.get(i);
+            QueryTerm queryTerm = new QueryTerm(term,
+               i == queryTerms.size() - 1 ? getPrefixExpansions(term) : getExactMatch(term));
+            if (queryTerm.postingCount == 0) {
+               return List.of();
+            }
+            terms.add(queryTerm);
+         }
+         // start from the rarest term, so that the other terms are only looked up for its elements
+         terms.sort(Comparator.comparingInt(term -> term.postingCount));
+         Map<Integer, Double> scores = new HashMap<>();
+         for (Map.Entry<String, PostingList> expansion : terms.get(0).expansions) {
+            PostingList list = expansion.getValue();
+            double weight = getWeight(terms.get(0), expansion);
+            for (int p = 0; p < list.size(); p++) {
+               scores.merge(list.ordinalAt(p), weight * list.frequencyAt(p), Double::sum);
+            }
+         }
+         for (QueryTerm term : terms.subList(1, terms.size())) {
+            intersect(scores, term);
+            if (scores.isEmpty()) {
+               return List.of();
+            }
+         }
+         return getBestHits(scores, filter, limit);
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Keep only the candidates that contain a term, adding the score of the term to theirs.
+    */
+   private void intersect(final Map<Integer, Double> scores, final QueryTerm term) {
+      for (Iterator<Map.Entry<Integer, Double>> iter = scores.entrySet().iterator(); iter.hasNext();) {
+         Map.Entry<Integer, Double> candidate = iter.next();
+         double score = 0;
+         boolean matched = false;
+         for (Map.Entry<String, PostingList> expansion : term.expansions) {
+            int index = expansion.getValue().indexOf(candidate.getKey());
+            if (index >= 0) {
+               score += getWeight(term, expansion) * expansion.getValue().frequencyAt(index);
+               matched = true;
+            }
+         }
+         if (matched) {
+            candidate.setValue(candidate.getValue() + score);
+         } else {
+            iter.remove();
+         }
+      }
+   }
+
+   private List<SearchHit> getBestHits(final Map<Integer, Double> scores, final Predicate<EObject> filter,
+      final int limit) {
+      // a heap of the best hits so far, with the worst of them on top
+      Comparator<Map.Entry<Integer, Double>> ranking = Comparator
+         .comparingDouble((Map.Entry<Integer, Double> hit) -> hit.getValue()).reversed()
+         .thenComparing(Map.Entry::getKey);
+      PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(ranking.reversed());
+      for (Map.Entry<Integer, Double> candidate : scores.entrySet()) {
+         int ordinal = candidate.getKey();
+         EObject element = elements.get(ordinal);
+         if (element != null && filter.test(element)) {
+            best.add(Map.entry(ordinal, candidate.getValue() / Math.sqrt(lengths[ordinal])));
+            if (best.size() > limit) {
+               best.poll();
+            }
+         }
+      }
+      List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(best);
+      ranked.sort(ranking);
+      List<SearchHit> hits = new ArrayList<>(ranked.size());
+      ranked.forEach(hit -> hits.add(new SearchHit(elements.get(hit.getKey()), hit.getValue())));
+      return hits;
+   }
+
+   /**
+    * Get the weight of a term of the index that matches a term of a query, favouring exact matches and rare terms.
+    */
+   private double getWeight(final QueryTerm term, final Map.Entry<String, PostingList> expansion) {
+      double idf = Math.log(1.0 + (double) ordinals.size() / expansion.getValue().size());
+      return expansion.getKey().equals(term.term) ? idf : PREFIX_WEIGHT * idf;
+   }
+
+   private List<Map.Entry<String, PostingList>> getExactMatch(final String term) {
+      PostingList list = postings.get(term);
+      return list != null ? List.of(Map.entry(term, list)) : List.of();
+   }
+
+   private List<Map.Entry<String, PostingList>> getPrefixExpansions(final String prefix) {
+      List<Map.Entry<String, PostingList>> result = new ArrayList<>();
+      for (Map.Entry<String, PostingList> entry : postings.tailMap(prefix, true).entrySet()) {
+         if (!entry.getKey().startsWith(prefix) || result.size() >= MAX_PREFIX_EXPANSIONS) {
+            break;
+         }
+         result.add(entry);
+      }
+      return result;
+   }
+
+   private int allocate(final EObject element) {
+      int ordinal;
+      if (freeOrdinals.isEmpty()) {
+         ordinal = elements.size();
+         elements.add(element);
+         elementTerms.add(null);
+         if (ordinal >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(16, lengths.length * 2));
+         }
+      } else {
+         ordinal = freeOrdinals.pop();
+         elements.set(ordinal, element);
+      }
+      ordinals.put(element, ordinal);
+      return ordinal;
+   }
+
+   private void release(final EObject element, final int ordinal) {
+      ordinals.remove(element);
+      elements.set(ordinal, null);
+      elementTerms.set(ordinal, null);
+      lengths[ordinal] = 0;
+      freeOrdinals.push(ordinal);
+   }
+
+   private void removePostings(final int ordinal) {
+      Map<String, Integer> terms = elementTerms.get(ordinal);
+      if (terms == null) {
+         return;
+      }
+      for (String term : terms.keySet()) {
+         PostingList list = postings.get(term);
+         if (list != null) {
+            list.remove(ordinal);
+            if (list.size() == 0) {
+               postings.remove(term);
+            }
+         }
+      }
+   }
+
+   /**
+    * Collect the terms of the text attributes of an element with their frequencies.
+    */
+   protected Map<String, Integer> collectTerms(final EObject element) {
+      Map<String, Integer> result = new HashMap<>();
+      for (EAttribute attribute : element.eClass().getEAllAttributes()) {
+         if (!isText(attribute) || !element.eIsSet(attribute)) {
+            continue;
+         }
+         Object value = element.eGet(attribute);
+         Collection<?> values = attribute.isMany() ? (Collection<?>) value : Collections.singletonList(value);
+         for (Object next : values) {
+            if (next instanceof String) {
+               Tokenizer.tokenizeText((String) next).forEach(term -> result.merge(term, 1, Integer::sum));
+            }
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Whether the values of an attribute are indexed.
+    *
+    * @param attribute an attribute
+    * @return {@code true} for string attributes that are not derived
+    */
+   protected boolean isText(final EAttribute attribute) {
+      return !attribute.isDerived() && attribute.getEAttributeType().getInstanceClass() == String.class;
+   }
+
+   @Override
+   public String toString() {
+      return "FullTextIndex [elements=" + ordinals.size() + ", terms=" + postings.size() + "]";
+   }
+
+   /**
+    * A term of a query with the indexed terms that it matches.
+    */
+   private static final class QueryTerm {
+      private final String term;
+      private final List<Map.Entry<String, PostingList>> expansions;
+      private final int postingCount;
+
+      QueryTerm(final String term, final List<Map.Entry<String, PostingList>> expansions) {
+         this.term = term;
+         this.expansions = expansions;
+         this.postingCount = expansions.stream().mapToInt(expansion -> expansion.getValue().size()).sum();
+      }
+   }
+}
@@ -0,0 +1,81 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.search;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * Keeps the {@link FullTextIndex} up to date with the text of the elements of one model resource.
+ */
+class ModelTextIndexer extends EContentAdapter {
+
+   private final FullTextIndex index;
+   private Resource resource;
+
+   ModelTextIndexer(final FullTextIndex index) {
+      this.index = index;
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      Object notifier = notification.getNotifier();
+      Object feature = notification.getFeature();
+      if (notifier instanceof EObject && feature instanceof EAttribute && index.isText((EAttribute) feature)
+         && !notification.isTouch()) {
+         index.update((EObject) notifier);
+      }
+      super.notifyChanged(notification);
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      resource = target;
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      resource = null;
+   }
+
+   @Override
+   protected void setTarget(final EObject target) {
+      super.setTarget(target);
+      index.update(target);
+   }
+
+   @Override
+   protected void unsetTarget(final EObject target) {
+      super.unsetTarget(target);
+      index.remove(target);
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only index the model resource, other resources are indexed by their own model
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelTextIndexer.class;
+   }
+
+}
@@ -0,0 +1,81 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.search;
+
+import java.util.Arrays;
+
+/**
+ * The sorted element ordinals under which a term is indexed, with the frequency of the term in each element. The
+ * postings are kept in primitive arrays, so that scanning them while ranking does not box.
+ */
+final class PostingList {
+
+   private static final int INITIAL_CAPACITY = 4;
+
+   private int[] ordinals = new int[INITIAL_CAPACITY];
+   private int[] frequencies = new int[INITIAL_CAPACITY];
+   private int size;
+
+   int size() {
+      return size;
+   }
+
+   int ordinalAt(final int index) {
+      return ordinals[index];
+   }
+
+   int frequencyAt(final int index) {
+      return frequencies[index];
+   }
+
+   /**
+    * Get the index of an ordinal in this list.
+    *
+    * @param ordinal the ordinal of an element
+    * @return the index of the ordinal, or a negative number if the element does not contain the term
+    */
+   int indexOf(final int ordinal) {
+      return Arrays.binarySearch(ordinals, 0, size, ordinal);
+   }
+
+   void put(final int ordinal, final int frequency) {
+      int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+      if (index >= 0) {
+         frequencies[index] = frequency;
+         return;
+      }
+      index = -index - 1;
+      if (size == ordinals.length) {
+         ordinals = Arrays.copyOf(ordinals, size * 2);
+         frequencies = Arrays.copyOf(frequencies, size * 2);
+      }
+      System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+      System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+      ordinals[index] = ordinal;
+      frequencies[index] = frequency;
+      size++;
+   }
+
+   void remove(final int ordinal) {
+      int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+      if (index < 0) {
+         return;
+      }
+      System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+      System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+      size--;
+   }
+
+   @Override
+   public String toString() {
+      return "PostingList [size=" + size + "]";
+   }
+}
@@ -0,0 +1,36 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.search;
+
+import org.eclipse.emf.ecore.EObject;
+
+/**
+ * An element found by a full-text search, with the score by which the results are ranked.
+ */
+public final class SearchHit {
+
+   private final EObject element;
+   private final double score;
+
+   public SearchHit(final EObject element, final double score) {
+      this.element = element;
+      this.score = score;
+   }
+
+   public EObject getElement() { return element; }
+
+   public double getScore() { return score; }
+
+   @Override
+   public String toString() {
+      return "SearchHit [element=" + element + ", score=" + score + "]";
+   }
+}
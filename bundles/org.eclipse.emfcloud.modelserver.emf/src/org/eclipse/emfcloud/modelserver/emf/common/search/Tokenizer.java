@@ -0,0 +1,87 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-case terms at every character that is neither a letter nor a digit. When indexing, words in
+ * camel case are additionally split into their parts, so that {@code SuperBrewer3000} is found by {@code super},
+ * {@code brewer3000} and {@code superbrewer3000}.
+ */
+public final class Tokenizer {
+
+   private Tokenizer() {}
+
+   /**
+    * Split text that is indexed into terms.
+    *
+    * @param text the text
+    * @return the terms, including duplicates
+    */
+   public static List<String> tokenizeText(final String text) {
+      List<String> result = new ArrayList<>();
+      forEachWord(text, (start, end) -> {
+         int partStart = start;
+         for (int i = start + 1; i < end; i++) {
+            if (Character.isUpperCase(text.charAt(i)) && Character.isLowerCase(text.charAt(i - 1))) {
+               result.add(toTerm(text, partStart, i));
+               partStart = i;
+            }
+         }
+         if (partStart > start) {
+            result.add(toTerm(text, partStart, end));
+         }
+         result.add(toTerm(text, start, end));
+      });
+      return result;
+   }
+
+   /**
+    * Split a search query into terms.
+    *
+    * @param query the query
+    * @return the terms in the order of the query
+    */
+   public static List<String> tokenizeQuery(final String query) {
+      List<String> result = new ArrayList<>();
+      forEachWord(query, (start, end) -> result.add(toTerm(query, start, end)));
+      return result;
+   }
+
+   private static void forEachWord(final String text, final WordConsumer consumer) {
+      int start = -1;
+      for (int i = 0; i < text.length(); i++) {
+         if (Character.isLetterOrDigit(text.charAt(i))) {
+            if (start < 0) {
+               start = i;
+            }
+         } else if (start >= 0) {
+            consumer.accept(start, i);
+            start = -1;
+         }
+      }
+      if (start >= 0) {
+         consumer.accept(start, text.length());
+      }
+   }
+
+   private static String toTerm(final String text, final int start, final int end) {
+      return text.substring(start, end).toLowerCase(Locale.ROOT);
+   }
+
+   @FunctionalInterface
+   private interface WordConsumer {
+      void accept(int start, int end);
+   }
+}
@@ -0,0 +1,395 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.snapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+
+/**
+ * An immutable, compact copy of a model resource. Instead of one EObject per element, with its adapters, settings
+ * and lists, the elements are numbered in document order and kept in flat arrays: the EClass and the container of
+ * every element, and the values of its features indexed by their feature ID. References among the elements are
+ * element numbers, references to other resources are URIs, and equal strings are shared.
+ * <p>
+ * Codecs need EObjects, so a compact model is {@link #inflate() inflated} into a detached copy of the model for
+ * encoding. Models with feature maps cannot be compacted.
+ * </p>
+ */
+public final class CompactModel {
+
+   /** The value of a feature that is set to {@code null}, as opposed to not set at all. */
+   private static final Object NULL = new Object();
+
+   private final URI uri;
+   private final boolean xml;
+   private final EClass[] eClasses;
+   private final int[] containers;
+   private final Object[][] values;
+   private final int[] roots;
+   private final String[] xmlIds;
+
+   private CompactModel(final URI uri, final boolean xml, final EClass[] eClasses, final int[] containers,
+      final Object[][] values, final int[] roots, final String[] xmlIds) {
+      this.uri = uri;
+      this.xml = xml;
+      this.eClasses = eClasses;
+      this.containers = containers;
+      this.values = values;
+      this.roots = roots;
+      this.xmlIds = xmlIds;
+   }
+
+   /**
+    * Compact the current state of a model resource. The caller must ensure that the resource is not changed
+    * meanwhile.
+    *
+    * @param resource the model resource
+    * @param strings  the strings shared among the values, by themselves
+    * @return the compact model, or an empty optional if the model cannot be compacted
+    */
+   static Optional<CompactModel> of(final Resource resource, final Map<String, String> strings) {
+      return new Builder(resource, strings).build();
+   }
+
+   /**
+    * Share equal strings.
+    *
+    * @param value   a value
+    * @param strings the shared strings, by themselves
+    * @return the shared string equal to the value, or the value itself if it is not a string
+    */
+   @SuppressWarnings("unchecked")
+   static <T> T intern(final T value, final Map<String, String> strings) {
+      if (!(value instanceof String)) {
+         return value;
+      }
+      return (T) strings.computeIfAbsent((String) value, string -> string);
+   }
+
+   public URI getURI() { return uri; }
+
+   /**
+    * Get the number of elements of the model.
+    *
+    * @return the number of elements
+    */
+   public int size() {
+      return eClasses.length;
+   }
+
+   /**
+    * Get the EClass of an element.
+    *
+    * @param element the number of the element
+    * @return the EClass
+    */
+   public EClass getEClass(final int element) {
+      return eClasses[element];
+   }
+
+   /**
+    * Get the container of an element.
+    *
+    * @param element the number of the element
+    * @return the number of the container, or {@code -1} for the roots of the model
+    */
+   public int getContainer(final int element) {
+      return containers[element];
+   }
+
+   /**
+    * Get the value of an attribute of an element, as {@link EObject#eGet(EStructuralFeature)} would return it for a
+    * single-valued attribute.
+    *
+    * @param element   the number of the element
+    * @param attribute a single-valued attribute of the element's EClass
+    * @return the value, or the default value of the attribute if it is not set
+    */
+   public Object getAttributeValue(final int element, final EAttribute attribute) {
+      Object value = values[element][eClasses[element].getFeatureID(attribute)];
+      if (value == null) {
+         return attribute.getDefaultValue();
+      }
+      return value == NULL ? null : value;
+   }
+
+   /**
+    * Create a detached copy of the model, in a resource of the same URI.
+    *
+    * @return the copy with its elements by number
+    */
+   InflatedModel inflate() {
+      Resource resource = xml ? new XMIResourceImpl(uri) : new ResourceImpl(uri);
+      EObject[] elements = new EObject[eClasses.length];
+      for (int i = 0; i < elements.length; i++) {
+         elements[i] = EcoreUtil.create(eClasses[i]);
+      }
+      for (int i = 0; i < elements.length; i++) {
+         inflateContents(elements, i);
+      }
+      for (int i = 0; i < elements.length; i++) {
+         inflateReferences(elements, i);
+      }
+      EList<EObject> contents = resource.getContents();
+      for (int root : roots) {
+         contents.add(elements[root]);
+      }
+      if (xmlIds != null) {
+         for (int i = 0; i < elements.length; i++) {
+            if (xmlIds[i] != null) {
+               ((XMLResource) resource).setID(elements[i], xmlIds[i]);
+            }
+         }
+      }
+      return new InflatedModel(resource, elements);
+   }
+
+   @SuppressWarnings("unchecked")
+   private void inflateContents(final EObject[] elements, final int element) {
+      EObject eObject = elements[element];
+      Object[] featureValues = values[element];
+      for (int featureID = 0; featureID < featureValues.length; featureID++) {
+         Object value = featureValues[featureID];
+         EStructuralFeature feature = eClasses[element].getEStructuralFeature(featureID);
+         if (value == null || feature instanceof EReference && !((EReference) feature).isContainment()) {
+            continue;
+         }
+         if (value == NULL) {
+            eObject.eSet(feature, null);
+         } else if (feature instanceof EAttribute) {
+            if (feature.isMany()) {
+               ((InternalEList<Object>) eObject.eGet(feature)).addAllUnique(Arrays.asList((Object[]) value));
+            } else {
+               eObject.eSet(feature, value);
+            }
+         } else if (feature.isMany()) {
+            InternalEList<EObject> children = (InternalEList<EObject>) eObject.eGet(feature);
+            for (int child : (int[]) value) {
+               children.addUnique(elements[child]);
+            }
+         } else {
+            eObject.eSet(feature, elements[(Integer) value]);
+         }
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private void inflateReferences(final EObject[] elements, final int element) {
+      EObject eObject = elements[element];
+      Object[] featureValues = values[element];
+      for (int featureID = 0; featureID < featureValues.length; featureID++) {
+         Object value = featureValues[featureID];
+         EStructuralFeature feature = eClasses[element].getEStructuralFeature(featureID);
+         if (value == null || !(feature instanceof EReference) || ((EReference) feature).isContainment()) {
+            continue;
+         }
+         if (value == NULL) {
+            eObject.eSet(feature, null);
+         } else if (feature.isMany()) {
+            InternalEList<EObject> targets = (InternalEList<EObject>) eObject.eGet(feature, false);
+            boolean bidirectional = ((EReference) feature).getEOpposite() != null;
+            int index = 0;
+            for (Object target : asList(value)) {
+               EObject inflated = inflateTarget(elements, target);
+               // like the EcoreUtil.Copier, keep the order of bidirectional references that the opposite set up
+               int position = bidirectional ? targets.basicIndexOf(inflated) : -1;
+               if (position == -1) {
+                  targets.addUnique(index, inflated);
+               } else if (position != index) {
+                  targets.move(index, inflated);
+               }
+               index++;
+            }
+         } else {
+            eObject.eSet(feature, inflateTarget(elements, value));
+         }
+      }
+   }
+
+   private static List<Object> asList(final Object value) {
+      if (value instanceof int[]) {
+         int[] targets = (int[]) value;
+         List<Object> result = new ArrayList<>(targets.length);
+         for (int target : targets) {
+            result.add(target);
+         }
+         return result;
+      }
+      return Arrays.asList((Object[]) value);
+   }
+
+   private static EObject inflateTarget(final EObject[] elements, final Object target) {
+      if (target instanceof Integer) {
+         return elements[(Integer) target];
+      }
+      if (target instanceof EObject) {
+         return (EObject) target;
+      }
+      ExternalReference external = (ExternalReference) target;
+      InternalEObject proxy = (InternalEObject) EcoreUtil.create(external.eClass);
+      proxy.eSetProxyURI(external.uri);
+      return proxy;
+   }
+
+   @Override
+   public String toString() {
+      return "CompactModel [uri=" + uri + ", elements=" + eClasses.length + "]";
+   }
+
+   /**
+    * A reference to an element of another resource, inflated as a proxy.
+    */
+   private static final class ExternalReference {
+      private final EClass eClass;
+      private final URI uri;
+
+      ExternalReference(final EClass eClass, final URI uri) {
+         this.eClass = eClass;
+         this.uri = uri;
+      }
+   }
+
+   /**
+    * Compacts the elements of a model resource.
+    */
+   private static final class Builder {
+      private final Resource resource;
+      private final Map<String, String> strings;
+      private final Map<EObject, Integer> numbers = new IdentityHashMap<>();
+      private final List<EObject> elements = new ArrayList<>();
+
+      Builder(final Resource resource, final Map<String, String> strings) {
+         this.resource = resource;
+         this.strings = strings;
+      }
+
+      Optional<CompactModel> build() {
+         for (TreeIterator<EObject> iter = resource.getAllContents(); iter.hasNext();) {
+            EObject next = iter.next();
+            if (hasFeatureMap(next.eClass())) {
+               return Optional.empty();
+            }
+            numbers.put(next, elements.size());
+            elements.add(next);
+         }
+         int size = elements.size();
+         EClass[] eClasses = new EClass[size];
+         int[] containers = new int[size];
+         Object[][] values = new Object[size][];
+         String[] xmlIds = resource instanceof XMLResource ? new String[size] : null;
+         for (int i = 0; i < size; i++) {
+            EObject element = elements.get(i);
+            eClasses[i] = element.eClass();
+            Integer container = numbers.get(element.eContainer());
+            containers[i] = container != null ? container : -1;
+            values[i] = compact(element);
+            if (xmlIds != null) {
+               xmlIds[i] = intern(((XMLResource) resource).getID(element));
+            }
+         }
+         int[] roots = resource.getContents().stream().mapToInt(numbers::get).toArray();
+         return Optional.of(new CompactModel(resource.getURI(), xmlIds != null, eClasses, containers, values, roots,
+            xmlIds));
+      }
+
+      private static boolean hasFeatureMap(final EClass eClass) {
+         return eClass.getEAllStructuralFeatures().stream().anyMatch(FeatureMapUtil::isFeatureMap);
+      }
+
+      private Object[] compact(final EObject element) {
+         EClass eClass = element.eClass();
+         Object[] result = new Object[eClass.getFeatureCount()];
+         for (int featureID = 0; featureID < result.length; featureID++) {
+            EStructuralFeature feature = eClass.getEStructuralFeature(featureID);
+            // the same features as the EcoreUtil.Copier, the container end is set up by the containment
+            if (!feature.isChangeable() || feature.isDerived() || !element.eIsSet(feature)
+               || feature instanceof EReference && ((EReference) feature).isContainer()) {
+               continue;
+            }
+            Object value = element.eGet(feature, false);
+            if (value == null) {
+               result[featureID] = NULL;
+            } else if (feature instanceof EReference && !feature.isMany()) {
+               result[featureID] = compactTarget((EReference) feature, (EObject) value);
+            } else if (feature instanceof EAttribute) {
+               result[featureID] = feature.isMany() ? ((Collection<?>) value).stream().map(this::intern).toArray()
+                  : intern(value);
+            } else {
+               result[featureID] = compactTargets((EReference) feature, (Collection<?>) value);
+            }
+         }
+         return result;
+      }
+
+      private Object compactTargets(final EReference reference, final Collection<?> targets) {
+         List<Object> compacted = new ArrayList<>(targets.size());
+         boolean internal = true;
+         for (Object target : targets) {
+            Object next = compactTarget(reference, (EObject) target);
+            if (next != null) {
+               compacted.add(next);
+               internal &= next instanceof Integer;
+            }
+         }
+         Object[] result = compacted.toArray();
+         if (!internal) {
+            return result;
+         }
+         int[] numbered = new int[result.length];
+         for (int i = 0; i < numbered.length; i++) {
+            numbered[i] = (Integer) result[i];
+         }
+         return numbered;
+      }
+
+      private Object compactTarget(final EReference reference, final EObject target) {
+         Integer number = numbers.get(target);
+         if (number != null) {
+            return number;
+         }
+         // like the EcoreUtil.Copier, which cannot set the opposite end of an element outside of the copy
+         if (reference.getEOpposite() != null) {
+            return null;
+         }
+         // like the EcoreUtil.Copier, refer to the original of an element that no resource can resolve
+         if (target.eResource() == null && !target.eIsProxy()) {
+            return target;
+         }
+         return new ExternalReference(target.eClass(), EcoreUtil.getURI(target));
+      }
+
+      private <T> T intern(final T value) {
+         return CompactModel.intern(value, strings);
+      }
+   }
+}
@@ -0,0 +1,38 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.snapshot;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * A detached copy of a model resource with its elements in document order.
+ */
+final class InflatedModel {
+
+   private final Resource resource;
+   private final EObject[] elements;
+
+   InflatedModel(final Resource resource, final EObject[] elements) {
+      this.resource = resource;
+      this.elements = elements;
+   }
+
+   Resource getResource() { return resource; }
+
+   EObject getElement(final int element) {
+      return elements[element];
+   }
+
+   int size() {
+      return elements.length;
+   }
+}
@@ -0,0 +1,238 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.snapshot;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emfcloud.modelserver.common.codecs.DetachedCopy;
+
+/**
+ * The state of a model resource at one version. Snapshots are never changed, so any number of threads can read and
+ * encode them while commands change the model.
+ * <p>
+ * A snapshot keeps the model as a {@link CompactModel} and inflates it into a detached copy of EObjects only for the
+ * readers that need them, such as codecs. Every reader of the whole {@link #getModel() model} gets a copy of its own,
+ * which codecs take over instead of copying it again. Readers of single elements share a copy that is held softly,
+ * so that it does not keep the heap of a full copy of every model that was read once. The copies are held by a
+ * resource of the same URI, and of the same kind as far as IDs are concerned, so that their elements are encoded
+ * exactly like the elements of the model.
+ * </p>
+ */
+public final class ModelSnapshot {
+
+   private static Logger LOG = Logger.getLogger(ModelSnapshot.class.getSimpleName());
+
+   private final long version;
+   private final String[] ids;
+   private final CompactModel compactModel;
+   private final InflatedModel copy;
+   private volatile SoftReference<InflatedModel> inflatedModel;
+   private volatile Map<String, Integer> elementsById;
+
+   private ModelSnapshot(final long version, final String[] ids, final CompactModel compactModel,
+      final InflatedModel copy) {
+      this.version = version;
+      this.ids = ids;
+      this.compactModel = compactModel;
+      this.copy = copy;
+   }
+
+   /**
+    * Take a snapshot of the current state of a model resource. The caller must ensure that the resource is not
+    * changed meanwhile.
+    *
+    * @param version    the version of the model
+    * @param resource   the model resource
+    * @param idProvider the function that provides the ID of an element by which clients identify it
+    * @return the snapshot
+    */
+   static ModelSnapshot of(final long version, final Resource resource, final Function<EObject, String> idProvider) {
+      Map<String, String> strings = new HashMap<>();
+      List<String> ids = new ArrayList<>();
+      for (TreeIterator<EObject> iter = resource.getAllContents(); iter.hasNext();) {
+         ids.add(CompactModel.intern(idProvider.apply(iter.next()), strings));
+      }
+      Optional<CompactModel> compactModel = CompactModel.of(resource, strings);
+      return new ModelSnapshot(version, ids.toArray(new String[0]), compactModel.orElse(null),
+         compactModel.isPresent() ? null : copy(resource));
+   }
+
+   private static InflatedModel copy(final Resource source) {
+      Resource target = source instanceof XMLResource ? new XMIResourceImpl(source.getURI())
+         : new ResourceImpl(source.getURI());
+      Copier copier = new Copier();
+      target.getContents().addAll(copier.copyAll(source.getContents()));
+      copier.copyReferences();
+      List<EObject> elements = new ArrayList<>();
+      for (TreeIterator<EObject> iter = source.getAllContents(); iter.hasNext();) {
+         EObject original = iter.next();
+         EObject element = copier.get(original);
+         elements.add(element);
+         if (source instanceof XMLResource) {
+            String id = ((XMLResource) source).getID(original);
+            if (id != null) {
+               ((XMLResource) target).setID(element, id);
+            }
+         }
+      }
+      return new InflatedModel(target, elements.toArray(new EObject[0]));
+   }
+
+   /**
+    * Get the version of the model that this is a snapshot of.
+    *
+    * @return the version
+    */
+   public long getVersion() { return version; }
+
+   /**
+    * Get the compact representation of the model.
+    *
+    * @return the compact model, or an empty optional if the model could not be compacted
+    */
+   public Optional<CompactModel> getCompactModel() { return Optional.ofNullable(compactModel); }
+
+   /**
+    * Get the number of elements of the model.
+    *
+    * @return the number of elements
+    */
+   public int size() {
+      return ids.length;
+   }
+
+   /**
+    * Get the detached resource holding the EObjects of the snapshot that are shared by the readers of single
+    * elements.
+    *
+    * @return the snapshot resource
+    */
+   public Resource getResource() { return getInflatedModel().getResource(); }
+
+   /**
+    * Get the root element of a copy of the snapshot that is not shared with other readers, so that codecs can take
+    * it over without copying it.
+    *
+    * @return the root element, or an empty optional if the model was empty
+    */
+   public Optional<EObject> getModel() {
+      Resource resource;
+      if (compactModel != null) {
+         resource = compactModel.inflate().getResource();
+         DetachedCopy.mark(resource);
+      } else {
+         resource = copy.getResource();
+      }
+      List<EObject> contents = resource.getContents();
+      return contents.isEmpty() ? Optional.empty() : Optional.of(contents.get(0));
+   }
+
+   /**
+    * Get an element of the snapshot by the ID that clients know it by, or else by its URI fragment.
+    *
+    * @param id the ID or URI fragment of the element
+    * @return the element, or an empty optional if the model had no such element at this version
+    */
+   @SuppressWarnings("checkstyle:IllegalCatch")
+   public Optional<EObject> getElement(final String id) {
+      Integer element = getElementsById().get(id);
+      if (element != null) {
+         return Optional.of(getInflatedModel().getElement(element));
+      }
+      try {
+         return Optional.ofNullable(getResource().getEObject(id));
+      } catch (Exception e) {
+         LOG.debug("Could not resolve URI fragment: " + id);
+         return Optional.empty();
+      }
+   }
+
+   /**
+    * Get the first element of the snapshot, in document order, whose {@code name} is the given name.
+    *
+    * @param name the name
+    * @return the element, or an empty optional if no element of the model had that name at this version
+    */
+   public Optional<EObject> getElementByName(final String name) {
+      for (int element = 0; element < ids.length; element++) {
+         EClass eClass = compactModel != null ? compactModel.getEClass(element)
+            : copy.getElement(element).eClass();
+         EStructuralFeature feature = eClass.getEStructuralFeature("name");
+         if (!(feature instanceof EAttribute) || feature.isMany()) {
+            continue;
+         }
+         // search the compact model, so that only the found element needs to be inflated
+         Object value = compactModel != null ? compactModel.getAttributeValue(element, (EAttribute) feature)
+            : copy.getElement(element).eGet(feature);
+         if (name.equals(value)) {
+            return Optional.of(getInflatedModel().getElement(element));
+         }
+      }
+      return Optional.empty();
+   }
+
+   private Map<String, Integer> getElementsById() {
+      Map<String, Integer> result = elementsById;
+      if (result == null) {
+         result = new HashMap<>();
+         for (int element = ids.length - 1; element >= 0; element--) {
+            // the first element of an ID wins
+            if (ids[element] != null) {
+               result.put(ids[element], element);
+            }
+         }
+         elementsById = result;
+      }
+      return result;
+   }
+
+   private InflatedModel getInflatedModel() {
+      if (copy != null) {
+         return copy;
+      }
+      SoftReference<InflatedModel> reference = inflatedModel;
+      InflatedModel result = reference != null ? reference.get() : null;
+      if (result == null) {
+         synchronized (this) {
+            reference = inflatedModel;
+            result = reference != null ? reference.get() : null;
+            if (result == null) {
+               result = compactModel.inflate();
+               inflatedModel = new SoftReference<>(result);
+            }
+         }
+      }
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      return "ModelSnapshot [version=" + version + ", elements=" + ids.length + ", compact=" + (compactModel != null)
+         + "]";
+   }
+}
@@ -0,0 +1,169 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.snapshot;
+
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Provides consistent {@link ModelSnapshot snapshots} of a model resource to readers. Every change of the model
+ * starts a new version. The snapshot of a version is taken once, by the first reader that asks for it, while holding
+ * the read lock of the model's editing domain, so that commands do not pay for snapshots that nobody reads. Commands
+ * hold the write lock, so a snapshot never contains a half-applied command. Readers never block writers while they
+ * encode a snapshot.
+ */
+public class ModelSnapshots extends EContentAdapter {
+
+   private final ReadWriteLock lock;
+   private final Function<EObject, String> idProvider;
+   private volatile long version;
+   private volatile ModelSnapshot snapshot;
+   private Resource resource;
+
+   /**
+    * Initializes me.
+    *
+    * @param lock       the lock that writers of the model hold while they change it
+    * @param idProvider the function that provides the ID of an element by which clients identify it
+    */
+   public ModelSnapshots(final ReadWriteLock lock, final Function<EObject, String> idProvider) {
+      this.lock = lock;
+      this.idProvider = idProvider;
+   }
+
+   /**
+    * Get the snapshots of a model resource.
+    *
+    * @param resource the model resource
+    * @return the snapshots of the resource, or an empty optional if it has none
+    */
+   public static Optional<ModelSnapshots> get(final Resource resource) {
+      return Optional.ofNullable((ModelSnapshots) EcoreUtil.getExistingAdapter(resource, ModelSnapshots.class));
+   }
+
+   /**
+    * Get the snapshots of a model resource, attaching a new provider if there is none yet.
+    *
+    * @param resource   the model resource
+    * @param lock       the lock that writers of the model hold while they change it
+    * @param idProvider the function that provides the ID of an element by which clients identify it
+    * @return the snapshots of the resource
+    */
+   public static ModelSnapshots getOrCreate(final Resource resource, final ReadWriteLock lock,
+      final Function<EObject, String> idProvider) {
+      synchronized (resource) {
+         return get(resource).orElseGet(() -> {
+            ModelSnapshots snapshots = new ModelSnapshots(lock, idProvider);
+            resource.eAdapters().add(snapshots);
+            return snapshots;
+         });
+      }
+   }
+
+   /**
+    * Get the current version of the model, which changes with every change of the model.
+    *
+    * @return the version number
+    */
+   public long getVersion() { return version; }
+
+   /**
+    * Get a snapshot of the current version of the model.
+    *
+    * @return the snapshot
+    */
+   public ModelSnapshot getSnapshot() {
+      ModelSnapshot current = snapshot;
+      if (current != null && current.getVersion() == version) {
+         return current;
+      }
+      Lock readLock = lock.readLock();
+      readLock.lock();
+      try {
+         synchronized (this) {
+            // another reader may have taken this version while we waited
+            current = snapshot;
+            if (current == null || current.getVersion() != version) {
+               current = takeSnapshot();
+            }
+            return current;
+         }
+      } finally {
+         readLock.unlock();
+      }
+   }
+
+   private ModelSnapshot takeSnapshot() {
+      ModelSnapshot result = ModelSnapshot.of(version, resource, idProvider);
+      snapshot = result;
+      return result;
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      super.notifyChanged(notification);
+
+      if (isModelChange(notification)) {
+         version++;
+         // drop the outdated copy right away instead of keeping it alive until the next read
+         snapshot = null;
+      }
+   }
+
+   protected boolean isModelChange(final Notification notification) {
+      if (notification.isTouch()) {
+         return false;
+      }
+      Object notifier = notification.getNotifier();
+      if (notifier instanceof Resource) {
+         return notifier == resource && notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS;
+      }
+      return notifier instanceof EObject && notification.getFeature() instanceof EStructuralFeature;
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      resource = target;
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      resource = null;
+      snapshot = null;
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only observe the model resource, not cross-referenced resources
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelSnapshots.class;
+   }
+
+}
@@ -0,0 +1,114 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.statistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EClass;
+
+/**
+ * A snapshot of the statistics of one model, or the totals of several models.
+ */
+public final class ModelStatistics {
+
+   private final int modelCount;
+   private final int elementCount;
+   private final int maxDepth;
+   private final long referenceCount;
+   private final long estimatedSize;
+   private final Map<EClass, Integer> instanceCounts;
+
+   public ModelStatistics(final int modelCount, final int elementCount, final int maxDepth, final long referenceCount,
+      final long estimatedSize, final Map<EClass, Integer> instanceCounts) {
+      this.modelCount = modelCount;
+      this.elementCount = elementCount;
+      this.maxDepth = maxDepth;
+      this.referenceCount = referenceCount;
+      this.estimatedSize = estimatedSize;
+      this.instanceCounts = Collections.unmodifiableMap(instanceCounts);
+   }
+
+   /**
+    * Sum up the statistics of several models.
+    *
+    * @param statistics the statistics of the models
+    * @return the totals, with the maximal depth of all models
+    */
+   public static ModelStatistics sum(final Collection<ModelStatistics> statistics) {
+      int modelCount = 0;
+      int elementCount = 0;
+      int maxDepth = 0;
+      long referenceCount = 0;
+      long estimatedSize = 0;
+      Map<EClass, Integer> instanceCounts = new HashMap<>();
+      for (ModelStatistics next : statistics) {
+         modelCount += next.modelCount;
+         elementCount += next.elementCount;
+         maxDepth = Math.max(maxDepth, next.maxDepth);
+         referenceCount += next.referenceCount;
+         estimatedSize += next.estimatedSize;
+         next.instanceCounts.forEach((eClass, count) -> instanceCounts.merge(eClass, count, Integer::sum));
+      }
+      return new ModelStatistics(modelCount, elementCount, maxDepth, referenceCount, estimatedSize, instanceCounts);
+   }
+
+   /**
+    * Get the number of models that these statistics cover.
+    *
+    * @return the number of models
+    */
+   public int getModelCount() { return modelCount; }
+
+   /**
+    * Get the number of elements of the models.
+    *
+    * @return the number of elements
+    */
+   public int getElementCount() { return elementCount; }
+
+   /**
+    * Get the depth of the containment tree, where root elements have depth 1.
+    *
+    * @return the maximal depth of an element, or 0 if the models are empty
+    */
+   public int getMaxDepth() { return maxDepth; }
+
+   /**
+    * Get the number of non-containment references between elements, counting every value of a many-valued
+    * reference.
+    *
+    * @return the number of references
+    */
+   public long getReferenceCount() { return referenceCount; }
+
+   /**
+    * Get an estimate of the size of the models serialized as XMI, in bytes.
+    *
+    * @return the estimated size
+    */
+   public long getEstimatedSize() { return estimatedSize; }
+
+   /**
+    * Get the number of direct instances of every EClass in the models.
+    *
+    * @return the numbers of instances by EClass
+    */
+   public Map<EClass, Integer> getInstanceCounts() { return instanceCounts; }
+
+   @Override
+   public String toString() {
+      return "ModelStatistics [models=" + modelCount + ", elements=" + elementCount + ", maxDepth=" + maxDepth
+         + ", references=" + referenceCount + ", estimatedSize=" + estimatedSize + "]";
+   }
+}
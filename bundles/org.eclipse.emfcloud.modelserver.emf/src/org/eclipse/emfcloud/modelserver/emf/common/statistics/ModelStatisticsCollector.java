@@ -0,0 +1,256 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Keeps the statistics of one model resource up to date as its elements are added, removed or changed. The metrics of
+ * every element are remembered, so that a change only has to measure the changed element again.
+ */
+class ModelStatisticsCollector extends EContentAdapter {
+
+   // rough sizes of the XMI markup of an element and of a feature value
+   private static final int ELEMENT_OVERHEAD = 24;
+   private static final int FEATURE_OVERHEAD = 4;
+   private static final int REFERENCE_SIZE = 24;
+
+   private final Map<EObject, ElementMetrics> metrics = new HashMap<>();
+   private final Map<EClass, Integer> instanceCounts = new HashMap<>();
+   private int[] depthCounts = new int[16];
+   private long referenceCount;
+   private long estimatedSize;
+   private Resource resource;
+
+   synchronized ModelStatistics getStatistics() {
+      int maxDepth = depthCounts.length - 1;
+      while (maxDepth > 0 && depthCounts[maxDepth] == 0) {
+         maxDepth--;
+      }
+      return new ModelStatistics(1, metrics.size(), maxDepth, referenceCount, estimatedSize,
+         new HashMap<>(instanceCounts));
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      Object notifier = notification.getNotifier();
+      Object feature = notification.getFeature();
+      if (notifier instanceof EObject && feature instanceof EStructuralFeature && !notification.isTouch()
+         && !isContainment((EStructuralFeature) feature)) {
+         update((EObject) notifier);
+      }
+      // elements moved within the model keep this adapter, so they are not removed and added again
+      List<EObject> moved = isContainmentChange(notification) ? getMeasured(notification.getNewValue())
+         : Collections.emptyList();
+      super.notifyChanged(notification);
+      moved.forEach(this::measureAgain);
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      resource = target;
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      resource = null;
+   }
+
+   @Override
+   protected void setTarget(final EObject target) {
+      // measure the container first, so that its contents know their depth
+      add(target);
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final EObject target) {
+      super.unsetTarget(target);
+      remove(target);
+   }
+
+   protected synchronized void add(final EObject element) {
+      if (metrics.containsKey(element)) {
+         return;
+      }
+      ElementMetrics containerMetrics = metrics.get(element.eContainer());
+      ElementMetrics elementMetrics = new ElementMetrics(containerMetrics != null ? containerMetrics.depth + 1 : 1,
+         countReferences(element), estimateSize(element));
+      metrics.put(element, elementMetrics);
+      instanceCounts.merge(element.eClass(), 1, Integer::sum);
+      if (elementMetrics.depth >= depthCounts.length) {
+         depthCounts = Arrays.copyOf(depthCounts, Math.max(elementMetrics.depth + 1, depthCounts.length * 2));
+      }
+      depthCounts[elementMetrics.depth]++;
+      referenceCount += elementMetrics.references;
+      estimatedSize += elementMetrics.size;
+   }
+
+   protected synchronized void remove(final EObject element) {
+      ElementMetrics elementMetrics = metrics.remove(element);
+      if (elementMetrics == null) {
+         return;
+      }
+      instanceCounts.computeIfPresent(element.eClass(), (eClass, count) -> count > 1 ? count - 1 : null);
+      depthCounts[elementMetrics.depth]--;
+      referenceCount -= elementMetrics.references;
+      estimatedSize -= elementMetrics.size;
+   }
+
+   protected synchronized void update(final EObject element) {
+      ElementMetrics elementMetrics = metrics.get(element);
+      if (elementMetrics == null) {
+         return;
+      }
+      int references = countReferences(element);
+      int size = estimateSize(element);
+      referenceCount += references - elementMetrics.references;
+      estimatedSize += size - elementMetrics.size;
+      elementMetrics.references = references;
+      elementMetrics.size = size;
+   }
+
+   /**
+    * Measure a moved element and its contents again, as their depth and containing feature may have changed.
+    */
+   protected synchronized void measureAgain(final EObject element) {
+      remove(element);
+      add(element);
+      for (Iterator<EObject> contents = element.eAllContents(); contents.hasNext();) {
+         EObject next = contents.next();
+         remove(next);
+         add(next);
+      }
+   }
+
+   private static boolean isContainmentChange(final Notification notification) {
+      switch (notification.getEventType()) {
+         case Notification.ADD:
+         case Notification.ADD_MANY:
+         case Notification.SET:
+            break;
+         default:
+            return false;
+      }
+      if (notification.getNotifier() instanceof Resource) {
+         return notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS;
+      }
+      Object feature = notification.getFeature();
+      return feature instanceof EReference && ((EReference) feature).isContainment();
+   }
+
+   private synchronized List<EObject> getMeasured(final Object value) {
+      List<EObject> result = new ArrayList<>();
+      for (Object next : value instanceof Collection<?> ? (Collection<?>) value : Collections.singletonList(value)) {
+         if (next instanceof EObject && metrics.containsKey(next)) {
+            result.add((EObject) next);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Count the values of the non-containment references of an element.
+    */
+   protected int countReferences(final EObject element) {
+      int result = 0;
+      for (EReference reference : element.eClass().getEAllReferences()) {
+         if (!isContainment(reference) && !reference.isDerived()) {
+            result += getValues(element, reference).size();
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Estimate the size of the XMI serialization of an element, excluding its contents.
+    */
+   protected int estimateSize(final EObject element) {
+      EStructuralFeature containingFeature = element.eContainingFeature();
+      int result = ELEMENT_OVERHEAD + element.eClass().getName().length()
+         + (containingFeature != null ? 2 * containingFeature.getName().length() : 0);
+      for (EStructuralFeature feature : element.eClass().getEAllStructuralFeatures()) {
+         if (feature.isDerived() || feature.isTransient() || isContainment(feature) || !element.eIsSet(feature)) {
+            continue;
+         }
+         int featureSize = FEATURE_OVERHEAD + feature.getName().length();
+         for (Object value : getValues(element, feature)) {
+            if (feature instanceof EAttribute) {
+               String literal = EcoreUtil.convertToString(((EAttribute) feature).getEAttributeType(), value);
+               result += featureSize + (literal != null ? literal.length() : 0);
+            } else {
+               result += featureSize + REFERENCE_SIZE;
+            }
+         }
+      }
+      return result;
+   }
+
+   private static boolean isContainment(final EStructuralFeature feature) {
+      return feature instanceof EReference
+         && (((EReference) feature).isContainment() || ((EReference) feature).isContainer());
+   }
+
+   private static Collection<?> getValues(final EObject element, final EStructuralFeature feature) {
+      Object value = element.eGet(feature, false);
+      if (feature.isMany()) {
+         return (Collection<?>) value;
+      }
+      return value != null ? Collections.singletonList(value) : Collections.emptyList();
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only measure the model resource, other resources are measured by their own model
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelStatisticsCollector.class;
+   }
+
+   private static final class ElementMetrics {
+      private final int depth;
+      private int references;
+      private int size;
+
+      ElementMetrics(final int depth, final int references, final int size) {
+         this.depth = depth;
+         this.references = references;
+         this.size = size;
+      }
+   }
+
+}
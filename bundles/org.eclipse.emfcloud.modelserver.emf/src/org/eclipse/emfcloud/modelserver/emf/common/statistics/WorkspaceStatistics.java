@@ -0,0 +1,111 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.statistics;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * The statistics of the models of the workspace, such as the number of instances of every EClass, the depth of the
+ * containment trees, the number of references and an estimate of the serialized size.
+ * <p>
+ * The statistics of every {@link #attach(Resource) attached} model resource are maintained incrementally as its
+ * elements are added, removed or changed, so that reading them never walks the models.
+ * </p>
+ */
+public class WorkspaceStatistics {
+
+   private final Set<ModelStatisticsCollector> collectors = ConcurrentHashMap.newKeySet();
+
+   /**
+    * Compute the statistics of a model resource that is not attached, by walking the model once.
+    *
+    * @param resource the model resource
+    * @return the statistics of the model
+    */
+   public static ModelStatistics compute(final Resource resource) {
+      ModelStatisticsCollector collector = new ModelStatisticsCollector();
+      resource.getAllContents().forEachRemaining(collector::add);
+      return collector.getStatistics();
+   }
+
+   /**
+    * Start maintaining the statistics of a model resource.
+    *
+    * @param resource the model resource
+    */
+   public void attach(final Resource resource) {
+      synchronized (resource) {
+         if (getCollector(resource).isEmpty()) {
+            ModelStatisticsCollector collector = new ModelStatisticsCollector();
+            resource.eAdapters().add(collector);
+            collectors.add(collector);
+         }
+      }
+   }
+
+   /**
+    * Stop maintaining the statistics of a model resource and remove them from the totals.
+    *
+    * @param resource the model resource
+    */
+   public void detach(final Resource resource) {
+      synchronized (resource) {
+         getCollector(resource).ifPresent(collector -> {
+            resource.eAdapters().remove(collector);
+            collectors.remove(collector);
+         });
+      }
+   }
+
+   /**
+    * Forget the statistics of all models.
+    */
+   public void clear() {
+      collectors.clear();
+   }
+
+   /**
+    * Get the statistics of an attached model resource.
+    *
+    * @param resource the model resource
+    * @return the statistics, or an empty optional if the resource is not attached
+    */
+   public Optional<ModelStatistics> getStatistics(final Resource resource) {
+      return getCollector(resource).map(ModelStatisticsCollector::getStatistics);
+   }
+
+   /**
+    * Get the totals of the statistics of all attached models.
+    *
+    * @return the totals
+    */
+   public ModelStatistics getTotals() {
+      return ModelStatistics.sum(collectors.stream()
+         .map(ModelStatisticsCollector::getStatistics)
+         .collect(Collectors.toList()));
+   }
+
+   private static Optional<ModelStatisticsCollector> getCollector(final Resource resource) {
+      return Optional.ofNullable(
+         (ModelStatisticsCollector) EcoreUtil.getExistingAdapter(resource, ModelStatisticsCollector.class));
+   }
+
+   @Override
+   public String toString() {
+      return "WorkspaceStatistics [models=" + collectors.size() + "]";
+   }
+}
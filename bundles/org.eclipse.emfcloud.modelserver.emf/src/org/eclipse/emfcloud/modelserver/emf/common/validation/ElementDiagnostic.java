@@ -0,0 +1,100 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.validation;
+
+import java.util.Objects;
+
+import org.eclipse.emf.common.util.Diagnostic;
+
+/**
+ * A problem that the validation of a model reported for one of its elements. Unlike a {@link Diagnostic}, it does not
+ * reference the element or the data of the problem, so it can be compared with the problems of an earlier validation
+ * and be kept after the element changed.
+ */
+public final class ElementDiagnostic {
+
+   private final int severity;
+   private final String source;
+   private final int code;
+   private final String message;
+
+   public ElementDiagnostic(final int severity, final String source, final int code, final String message) {
+      this.severity = severity;
+      this.source = source;
+      this.code = code;
+      this.message = message;
+   }
+
+   /**
+    * Create an element diagnostic from a diagnostic of the EMF validation framework.
+    *
+    * @param diagnostic the diagnostic
+    * @return the element diagnostic
+    */
+   public static ElementDiagnostic of(final Diagnostic diagnostic) {
+      return new ElementDiagnostic(diagnostic.getSeverity(), diagnostic.getSource(), diagnostic.getCode(),
+         diagnostic.getMessage());
+   }
+
+   /**
+    * Get the severity, one of the severity constants of {@link Diagnostic}.
+    *
+    * @return the severity
+    */
+   public int getSeverity() { return severity; }
+
+   /**
+    * Get the name of the severity, as sent to clients.
+    *
+    * @return {@code error}, {@code warning}, {@code info} or {@code cancel}
+    */
+   public String getSeverityName() {
+      switch (severity) {
+         case Diagnostic.ERROR:
+            return "error";
+         case Diagnostic.WARNING:
+            return "warning";
+         case Diagnostic.CANCEL:
+            return "cancel";
+         default:
+            return "info";
+      }
+   }
+
+   public String getSource() { return source; }
+
+   public int getCode() { return code; }
+
+   public String getMessage() { return message; }
+
+   @Override
+   public boolean equals(final Object obj) {
+      if (this == obj) {
+         return true;
+      }
+      if (!(obj instanceof ElementDiagnostic)) {
+         return false;
+      }
+      ElementDiagnostic other = (ElementDiagnostic) obj;
+      return severity == other.severity && code == other.code && Objects.equals(source, other.source)
+         && Objects.equals(message, other.message);
+   }
+
+   @Override
+   public int hashCode() {
+      return Objects.hash(severity, source, code, message);
+   }
+
+   @Override
+   public String toString() {
+      return getSeverityName() + " [" + source + ":" + code + "] " + message;
+   }
+}
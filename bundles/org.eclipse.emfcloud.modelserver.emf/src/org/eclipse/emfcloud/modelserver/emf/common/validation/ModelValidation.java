@@ -0,0 +1,375 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.validation;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.BasicDiagnostic;
+import org.eclipse.emf.common.util.Diagnostic;
+import org.eclipse.emf.common.util.DiagnosticChain;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.Diagnostician;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * The diagnostics of the EMF constraints of a model resource, kept up to date incrementally. Instead of validating
+ * the whole model after every change, only the elements that were added or changed since the previous validation,
+ * and the containers of changed elements, are validated again, each one without its contents. The diagnostics are
+ * cached per element, so that a validation pass only reports the elements whose diagnostics actually changed.
+ * <p>
+ * Validation passes run on a background executor, one at a time, and deliver their {@link ValidationDelta deltas} to
+ * the subscribers. A pass holds the read lock of the model while it validates, so that commands do not change the
+ * model meanwhile; elements changed by a later command are validated again by the next pass. Constraints that depend
+ * on elements other than the validated one and its contents may miss changes of those elements until the model is
+ * {@link #revalidate() validated as a whole}.
+ * </p>
+ */
+public class ModelValidation extends EContentAdapter {
+
+   private static Logger LOG = Logger.getLogger(ModelValidation.class.getSimpleName());
+
+   private final Function<EObject, String> idProvider;
+   private final ReadWriteLock lock;
+   private final Executor executor;
+   private final Diagnostician diagnostician = new ElementDiagnostician();
+   private final Object passLock = new Object();
+   private final List<Consumer<ValidationDelta>> subscribers = new CopyOnWriteArrayList<>();
+   private final Set<EObject> dirty = new LinkedHashSet<>();
+   private final Map<EObject, ValidatedElement> validated = new LinkedHashMap<>();
+   private Map<String, List<ElementDiagnostic>> pending = new LinkedHashMap<>();
+   private Resource resource;
+
+   /**
+    * Initializes me.
+    *
+    * @param idProvider the function that provides the ID of an element by which clients identify it
+    * @param lock       the lock that writers of the model hold while they change it
+    * @param executor   the executor that runs the validation passes
+    */
+   public ModelValidation(final Function<EObject, String> idProvider, final ReadWriteLock lock,
+      final Executor executor) {
+      this.idProvider = idProvider;
+      this.lock = lock;
+      this.executor = executor;
+   }
+
+   /**
+    * Get the validation attached to a model resource.
+    *
+    * @param resource the model resource
+    * @return the validation of the resource, or an empty optional if it has none
+    */
+   public static Optional<ModelValidation> get(final Resource resource) {
+      return Optional.ofNullable((ModelValidation) EcoreUtil.getExistingAdapter(resource, ModelValidation.class));
+   }
+
+   /**
+    * Get the validation attached to a model resource, attaching a new one if there is none yet. A new validation
+    * considers all elements of the model as changed.
+    *
+    * @param resource   the model resource
+    * @param lock       the lock that writers of the model hold while they change it
+    * @param idProvider the function that provides the ID of an element by which clients identify it
+    * @param executor   the executor that runs the validation passes
+    * @return the validation of the resource
+    */
+   public static ModelValidation getOrCreate(final Resource resource, final ReadWriteLock lock,
+      final Function<EObject, String> idProvider, final Executor executor) {
+      synchronized (resource) {
+         return get(resource).orElseGet(() -> {
+            ModelValidation validation = new ModelValidation(idProvider, lock, executor);
+            resource.eAdapters().add(validation);
+            return validation;
+         });
+      }
+   }
+
+   /**
+    * Subscribe to the changes of the diagnostics. The subscriber first receives all current diagnostics of the
+    * model, then the delta of every validation pass that changed them. Subscribers are called on the executor.
+    *
+    * @param subscriber the subscriber
+    * @return a future that completes once the subscriber received the current diagnostics
+    */
+   public CompletableFuture<Void> subscribe(final Consumer<ValidationDelta> subscriber) {
+      return CompletableFuture.runAsync(() -> {
+         synchronized (passLock) {
+            validateChangedElements();
+            subscriber.accept(new ValidationDelta(getDiagnostics()));
+            subscribers.add(subscriber);
+         }
+      }, executor);
+   }
+
+   /**
+    * Stop delivering the deltas of the validation to a subscriber.
+    *
+    * @param subscriber the subscriber
+    */
+   public void unsubscribe(final Consumer<ValidationDelta> subscriber) {
+      subscribers.remove(subscriber);
+   }
+
+   public boolean hasSubscribers() {
+      return !subscribers.isEmpty();
+   }
+
+   /**
+    * Validate the elements that changed since the previous validation pass in the background.
+    *
+    * @return the changes of the diagnostics, which have also been delivered to the subscribers
+    */
+   public CompletableFuture<ValidationDelta> validate() {
+      return CompletableFuture.supplyAsync(this::validateChangedElements, executor);
+   }
+
+   /**
+    * Validate all elements of the model in the background, e.g. to catch up on constraints that span several
+    * elements.
+    *
+    * @return the changes of the diagnostics, which have also been delivered to the subscribers
+    */
+   public CompletableFuture<ValidationDelta> revalidate() {
+      Lock readLock = lock.readLock();
+      readLock.lock();
+      try {
+         synchronized (this) {
+            if (resource != null) {
+               for (TreeIterator<EObject> iter = resource.getAllContents(); iter.hasNext();) {
+                  dirty.add(iter.next());
+               }
+            }
+         }
+      } finally {
+         readLock.unlock();
+      }
+      return validate();
+   }
+
+   /**
+    * Get the diagnostics of the last validation of every element that has any.
+    *
+    * @return the diagnostics by element ID
+    */
+   public synchronized Map<String, List<ElementDiagnostic>> getDiagnostics() {
+      Map<String, List<ElementDiagnostic>> result = new LinkedHashMap<>();
+      validated.values().stream()
+         .filter(element -> !element.diagnostics.isEmpty())
+         .forEach(element -> result.put(element.id, element.diagnostics));
+      return result;
+   }
+
+   /**
+    * Get the number of elements that changed since the previous validation pass.
+    *
+    * @return the number of elements that await validation
+    */
+   public synchronized int getPendingCount() { return dirty.size(); }
+
+   /**
+    * Run a validation pass on the calling thread.
+    *
+    * @return the changes of the diagnostics
+    */
+   protected ValidationDelta validateChangedElements() {
+      synchronized (passLock) {
+         Lock readLock = lock.readLock();
+         readLock.lock();
+         try {
+            List<EObject> elements;
+            synchronized (this) {
+               elements = new ArrayList<>(dirty);
+               dirty.clear();
+            }
+            for (EObject element : elements) {
+               try {
+                  record(element, validateElement(element));
+               } catch (RuntimeException e) {
+                  // a constraint failed on the element, try again with the next pass
+                  LOG.debug("Deferred validation of " + EcoreUtil.getURI(element) + ": " + e);
+                  markChanged(element);
+               }
+            }
+         } finally {
+            readLock.unlock();
+         }
+         ValidationDelta delta;
+         synchronized (this) {
+            delta = new ValidationDelta(pending);
+            pending = new LinkedHashMap<>();
+         }
+         if (!delta.isEmpty()) {
+            subscribers.forEach(subscriber -> subscriber.accept(delta));
+         }
+         return delta;
+      }
+   }
+
+   /**
+    * Validate the constraints of a single element, without its contents.
+    *
+    * @param element the element
+    * @return the problems of the element
+    */
+   protected List<ElementDiagnostic> validateElement(final EObject element) {
+      BasicDiagnostic diagnostics = new BasicDiagnostic();
+      diagnostician.validate(element.eClass(), element, diagnostics, diagnostician.createDefaultContext());
+      return diagnostics.getChildren().stream()
+         .filter(diagnostic -> diagnostic.getSeverity() != Diagnostic.OK)
+         .map(ElementDiagnostic::of)
+         .collect(toList());
+   }
+
+   protected synchronized void record(final EObject element, final List<ElementDiagnostic> diagnostics) {
+      if (element.eResource() != resource) {
+         // removed while it was validated
+         return;
+      }
+      String id = idProvider.apply(element);
+      ValidatedElement previous = validated.put(element, new ValidatedElement(id, diagnostics));
+      List<ElementDiagnostic> reported = Collections.emptyList();
+      if (previous != null && Objects.equals(previous.id, id)) {
+         reported = previous.diagnostics;
+      } else if (previous != null && !previous.diagnostics.isEmpty()) {
+         // the ID of the element changed, clear the diagnostics reported under its former ID
+         pending.put(previous.id, Collections.emptyList());
+      }
+      if (!reported.equals(diagnostics)) {
+         pending.put(id, diagnostics);
+      }
+   }
+
+   protected synchronized void markChanged(final EObject element) {
+      if (element != null && element.eResource() == resource) {
+         dirty.add(element);
+      }
+   }
+
+   @Override
+   public void notifyChanged(final Notification notification) {
+      super.notifyChanged(notification);
+
+      Object notifier = notification.getNotifier();
+      if (notifier instanceof EObject && !notification.isTouch()
+         && notification.getFeature() instanceof EStructuralFeature) {
+         EObject element = (EObject) notifier;
+         markChanged(element);
+         // constraints among siblings, such as unique names, are checked on their container
+         markChanged(element.eContainer());
+      }
+   }
+
+   @Override
+   protected void setTarget(final Resource target) {
+      synchronized (this) {
+         resource = target;
+      }
+      super.setTarget(target);
+   }
+
+   @Override
+   protected void unsetTarget(final Resource target) {
+      super.unsetTarget(target);
+      synchronized (this) {
+         validated.values().stream()
+            .filter(element -> !element.diagnostics.isEmpty())
+            .forEach(element -> pending.put(element.id, Collections.emptyList()));
+         validated.clear();
+         dirty.clear();
+         resource = null;
+      }
+   }
+
+   @Override
+   protected void setTarget(final EObject target) {
+      super.setTarget(target);
+      markChanged(target);
+   }
+
+   @Override
+   protected void unsetTarget(final EObject target) {
+      super.unsetTarget(target);
+      synchronized (this) {
+         dirty.remove(target);
+         ValidatedElement previous = validated.remove(target);
+         if (previous != null && !previous.diagnostics.isEmpty()) {
+            pending.put(previous.id, Collections.emptyList());
+         }
+      }
+   }
+
+   @Override
+   protected void addAdapter(final Notifier notifier) {
+      // only validate the model resource, not cross-referenced resources
+      if (notifier instanceof Resource && resource != null && notifier != resource) {
+         return;
+      }
+      super.addAdapter(notifier);
+   }
+
+   @Override
+   public boolean isAdapterForType(final Object type) {
+      return type == ModelValidation.class;
+   }
+
+   @Override
+   public String toString() {
+      return "ModelValidation [validated=" + validated.size() + ", pending=" + dirty.size() + "]";
+   }
+
+   /**
+    * The diagnostics of an element, together with the ID under which they were reported.
+    */
+   private static final class ValidatedElement {
+      private final String id;
+      private final List<ElementDiagnostic> diagnostics;
+
+      ValidatedElement(final String id, final List<ElementDiagnostic> diagnostics) {
+         this.id = id;
+         this.diagnostics = diagnostics;
+      }
+   }
+
+   /**
+    * Validates a single element. The contents of the element are validated on their own when they change.
+    */
+   private static final class ElementDiagnostician extends Diagnostician {
+      @Override
+      protected boolean doValidateContents(final EObject eObject, final DiagnosticChain diagnostics,
+         final Map<Object, Object> context) {
+         return true;
+      }
+   }
+}
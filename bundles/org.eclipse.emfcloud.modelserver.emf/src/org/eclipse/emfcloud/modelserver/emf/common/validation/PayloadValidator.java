@@ -0,0 +1,350 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.validation;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.FeatureMapUtil;
+import org.eclipse.emfcloud.modelserver.jsonschema.Types;
+import org.jetbrains.annotations.Nullable;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.inject.Inject;
+
+/**
+ * Injectable singleton class that checks JSON payloads against the metamodel before they are decoded into EObjects,
+ * so that malformed payloads are rejected in a single pass over their tokens without creating any EObject.
+ * <p>
+ * The rules of an EClass are compiled once from the same metamodel information that the JSON type schemas are
+ * generated from: every feature of an object must be a feature of its EClass, with a value of the kind of JSON value
+ * that the feature is encoded as. The EClass of an object is given by its {@code eClass} field, or else by the
+ * containment it is the value of. Unknown fields are only rejected if the {@code eClass} field comes first, as
+ * otherwise the object may be an instance of a subclass. Objects of EClasses that are not registered are not
+ * checked at all, and neither are missing required features, which are not encoded if they have their default value.
+ * </p>
+ */
+public class PayloadValidator {
+
+   /** The field that holds the URI of the EClass of an object. */
+   public static final String TYPE_FIELD = "eClass";
+
+   private static final Set<String> RESERVED_FIELDS = Set.of(TYPE_FIELD, "$ref", "$id", "@id", "_id");
+
+   private final EPackage.Registry registry;
+   private final Map<EClass, Map<String, FeatureRule>> compiledClasses = new ConcurrentHashMap<>();
+
+   @Inject
+   public PayloadValidator() {
+      this(EPackage.Registry.INSTANCE);
+   }
+
+   public PayloadValidator(final EPackage.Registry registry) {
+      this.registry = registry;
+   }
+
+   /**
+    * Check a JSON payload.
+    *
+    * @param payload the JSON object encoding an EObject
+    * @return a description of the first problem found, or an empty optional if the payload is valid
+    */
+   public Optional<String> validate(final JsonNode payload) {
+      try {
+         return validate(payload.traverse());
+      } catch (IOException e) {
+         return Optional.of(e.getMessage());
+      }
+   }
+
+   /**
+    * Check the next JSON value read from a parser, which must be an object encoding an EObject.
+    *
+    * @param parser the parser positioned before the payload
+    * @return a description of the first problem found, or an empty optional if the payload is valid
+    * @throws IOException if the payload cannot be read
+    */
+   public Optional<String> validate(final JsonParser parser) throws IOException {
+      try {
+         if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new InvalidPayloadException(parser, "expected an object");
+         }
+         validateObject(parser, null);
+         return Optional.empty();
+      } catch (InvalidPayloadException e) {
+         return Optional.of(e.getMessage());
+      }
+   }
+
+   /**
+    * Validate an object, starting after its {@link JsonToken#START_OBJECT} token up to its
+    * {@link JsonToken#END_OBJECT} token.
+    */
+   protected void validateObject(final JsonParser parser, @Nullable final EClass declaredType)
+      throws IOException, InvalidPayloadException {
+      EClass eClass = declaredType;
+      boolean strict = false;
+      JsonToken token = parser.nextToken();
+      if (token == JsonToken.FIELD_NAME && TYPE_FIELD.equals(parser.getCurrentName())) {
+         if (parser.nextToken() != JsonToken.VALUE_STRING) {
+            throw new InvalidPayloadException(parser, "expected the URI of an EClass");
+         }
+         eClass = resolveEClass(parser.getText()).orElse(null);
+         strict = eClass != null;
+         token = parser.nextToken();
+      }
+      Map<String, FeatureRule> rules = eClass != null ? compile(eClass) : Map.of();
+      for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+         String name = parser.getCurrentName();
+         JsonToken value = parser.nextToken();
+         FeatureRule rule = rules.get(name);
+         if (rule != null) {
+            rule.validate(this, parser, value);
+         } else if (strict && !RESERVED_FIELDS.contains(name)) {
+            throw new InvalidPayloadException(parser,
+               String.format("'%s' is not a feature of EClass '%s'", name, eClass.getName()));
+         } else {
+            parser.skipChildren();
+         }
+      }
+   }
+
+   protected Optional<EClass> resolveEClass(final String uri) {
+      URI eClassURI;
+      try {
+         eClassURI = URI.createURI(uri);
+      } catch (IllegalArgumentException e) {
+         return Optional.empty();
+      }
+      String fragment = eClassURI.fragment();
+      EPackage ePackage = registry.getEPackage(eClassURI.trimFragment().toString());
+      if (ePackage == null || fragment == null || !fragment.startsWith("//")) {
+         return Optional.empty();
+      }
+      EClassifier eClassifier = ePackage.getEClassifier(fragment.substring(2));
+      return eClassifier instanceof EClass ? Optional.of((EClass) eClassifier) : Optional.empty();
+   }
+
+   /**
+    * Get the compiled rules of the features of an EClass by their name.
+    */
+   protected Map<String, FeatureRule> compile(final EClass eClass) {
+      return compiledClasses.computeIfAbsent(eClass, key -> {
+         Map<String, FeatureRule> rules = new HashMap<>();
+         for (EStructuralFeature feature : key.getEAllStructuralFeatures()) {
+            rules.put(feature.getName(), compileRule(feature));
+         }
+         return rules;
+      });
+   }
+
+   private static FeatureRule compileRule(final EStructuralFeature feature) {
+      EClassifier type = feature.getEType();
+      if (feature instanceof EReference) {
+         EReference reference = (EReference) feature;
+         if (type != null && type.getInstanceClass() == Map.Entry.class) {
+            // maps are encoded as objects with a field per entry
+            return new FeatureRule(ValueKind.ANY, false, null, null);
+         }
+         return new FeatureRule(reference.isContainment() ? ValueKind.OBJECT : ValueKind.REFERENCE, feature.isMany(),
+            null, reference.getEReferenceType());
+      }
+      if (type instanceof EEnum) {
+         Set<String> literals = ((EEnum) type).getELiterals().stream().map(EEnumLiteral::getLiteral)
+            .collect(Collectors.toSet());
+         return new FeatureRule(ValueKind.ENUM, feature.isMany(), literals, null);
+      }
+      if (FeatureMapUtil.isFeatureMap(feature) || !(type instanceof EDataType) || type.getInstanceClass() == null) {
+         return new FeatureRule(ValueKind.ANY, false, null, null);
+      }
+      return new FeatureRule(getValueKind((EAttribute) feature), feature.isMany(), null, null);
+   }
+
+   private static ValueKind getValueKind(final EAttribute attribute) {
+      EDataType type = attribute.getEAttributeType();
+      Class<?> instanceClass = type.getInstanceClass();
+      if (instanceClass == char.class || instanceClass == Character.class) {
+         return ValueKind.SCALAR;
+      }
+      if (Types.isBoolean(type)) {
+         return ValueKind.BOOLEAN;
+      }
+      if (Types.isInteger(type)) {
+         return ValueKind.INTEGER;
+      }
+      if (Types.isNumber(type)) {
+         return ValueKind.NUMBER;
+      }
+      if (Types.isString(type) || Types.isDate(type)) {
+         return ValueKind.SCALAR;
+      }
+      // other data types are encoded by their own conversion
+      return ValueKind.ANY;
+   }
+
+   /**
+    * The kinds of JSON values that features are encoded as.
+    */
+   protected enum ValueKind {
+      BOOLEAN("a boolean"),
+      INTEGER("an integer"),
+      NUMBER("a number"),
+      SCALAR("a string"),
+      ENUM("an enumeration literal"),
+      OBJECT("an object"),
+      REFERENCE("a reference"),
+      ANY("any value");
+
+      private final String description;
+
+      ValueKind(final String description) {
+         this.description = description;
+      }
+
+      @Override
+      public String toString() {
+         return description;
+      }
+   }
+
+   /**
+    * The compiled rule for the values of a feature.
+    */
+   protected static final class FeatureRule {
+      private final ValueKind kind;
+      private final boolean many;
+      private final Set<String> literals;
+      private final EClass type;
+
+      FeatureRule(final ValueKind kind, final boolean many, @Nullable final Set<String> literals,
+         @Nullable final EClass type) {
+         this.kind = kind;
+         this.many = many;
+         this.literals = literals;
+         this.type = type;
+      }
+
+      void validate(final PayloadValidator validator, final JsonParser parser, final JsonToken token)
+         throws IOException, InvalidPayloadException {
+         if (token == JsonToken.VALUE_NULL || kind == ValueKind.ANY) {
+            parser.skipChildren();
+            return;
+         }
+         if (!many) {
+            validateValue(validator, parser, token);
+            return;
+         }
+         if (token != JsonToken.START_ARRAY) {
+            throw new InvalidPayloadException(parser, "expected an array");
+         }
+         for (JsonToken next = parser.nextToken(); next != JsonToken.END_ARRAY; next = parser.nextToken()) {
+            if (next != JsonToken.VALUE_NULL) {
+               validateValue(validator, parser, next);
+            }
+         }
+      }
+
+      private void validateValue(final PayloadValidator validator, final JsonParser parser, final JsonToken token)
+         throws IOException, InvalidPayloadException {
+         boolean valid;
+         switch (kind) {
+            case BOOLEAN:
+               valid = token.isBoolean() || token == JsonToken.VALUE_STRING
+                  && ("true".equals(parser.getText()) || "false".equals(parser.getText()));
+               break;
+            case INTEGER:
+               valid = token == JsonToken.VALUE_NUMBER_INT
+                  || token == JsonToken.VALUE_STRING && isInteger(parser.getText());
+               break;
+            case NUMBER:
+               valid = token.isNumeric() || token == JsonToken.VALUE_STRING && isNumber(parser.getText());
+               break;
+            case SCALAR:
+               valid = token.isScalarValue();
+               break;
+            case ENUM:
+               valid = token == JsonToken.VALUE_STRING && literals.contains(parser.getText());
+               break;
+            case OBJECT:
+               valid = token == JsonToken.START_OBJECT;
+               if (valid) {
+                  validator.validateObject(parser, type);
+               }
+               break;
+            case REFERENCE:
+               valid = token == JsonToken.START_OBJECT || token == JsonToken.VALUE_STRING;
+               parser.skipChildren();
+               break;
+            default:
+               valid = true;
+               parser.skipChildren();
+               break;
+         }
+         if (!valid) {
+            throw new InvalidPayloadException(parser, "expected " + kind);
+         }
+      }
+
+      private static boolean isInteger(final String text) {
+         try {
+            new BigInteger(text.trim());
+            return true;
+         } catch (NumberFormatException e) {
+            return false;
+         }
+      }
+
+      private static boolean isNumber(final String text) {
+         try {
+            new BigDecimal(text.trim());
+            return true;
+         } catch (NumberFormatException e) {
+            return "NaN".equals(text) || "Infinity".equals(text) || "-Infinity".equals(text);
+         }
+      }
+   }
+
+   /**
+    * Signals the first problem found in a payload, together with the JSON pointer to the invalid value.
+    */
+   protected static final class InvalidPayloadException extends Exception {
+      private static final long serialVersionUID = 1L;
+
+      InvalidPayloadException(final JsonParser parser, final String message) {
+         super(getPointer(parser) + ": " + message);
+      }
+
+      private static String getPointer(final JsonParser parser) {
+         String pointer = parser.getParsingContext().pathAsPointer().toString();
+         return pointer.isEmpty() ? "/" : pointer;
+      }
+   }
+
+}
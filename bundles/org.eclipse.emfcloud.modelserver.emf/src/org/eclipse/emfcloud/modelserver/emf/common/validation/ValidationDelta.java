@@ -0,0 +1,57 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.validation;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes of the diagnostics of a model since the previous delta, by the ID of the element they belong to. An
+ * element whose diagnostics changed is reported with all of its current diagnostics, so clients simply replace what
+ * they know about it; an empty list means that the element has no problems any more, or left the model.
+ */
+public final class ValidationDelta {
+
+   private final Map<String, List<ElementDiagnostic>> diagnostics;
+
+   public ValidationDelta(final Map<String, List<ElementDiagnostic>> diagnostics) {
+      this.diagnostics = Collections.unmodifiableMap(diagnostics);
+   }
+
+   /**
+    * Create a delta that clears the diagnostics of some elements.
+    *
+    * @param ids the IDs of the elements
+    * @return the delta
+    */
+   public static ValidationDelta cleared(final Collection<String> ids) {
+      Map<String, List<ElementDiagnostic>> result = new LinkedHashMap<>();
+      ids.forEach(id -> result.put(id, Collections.emptyList()));
+      return new ValidationDelta(result);
+   }
+
+   /**
+    * Get the current diagnostics of the elements whose diagnostics changed.
+    *
+    * @return the diagnostics by element ID
+    */
+   public Map<String, List<ElementDiagnostic>> getDiagnostics() { return diagnostics; }
+
+   public boolean isEmpty() { return diagnostics.isEmpty(); }
+
+   @Override
+   public String toString() {
+      return "ValidationDelta " + diagnostics;
+   }
+}
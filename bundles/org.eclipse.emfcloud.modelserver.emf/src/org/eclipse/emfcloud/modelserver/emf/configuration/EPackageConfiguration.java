@@ -11,8 +11,12 @@
 package org.eclipse.emfcloud.modelserver.emf.configuration;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 
 public interface EPackageConfiguration {
@@ -48,4 +52,37 @@ public interface EPackageConfiguration {
    default Optional<Resource.Factory> getResourceFactory(final String extension) {
       return Optional.empty();
    }
+
+   /**
+    * Optional attribute whose value identifies the instances of an EClass of this EPackage, so that they can be
+    * looked up by that value in constant time.
+    *
+    * @param eClass an EClass of this EPackage
+    * @return the ID attribute, by default the {@link EClass#getEIDAttribute() intrinsic ID attribute} of the EClass
+    */
+   default Optional<EAttribute> getIdAttribute(final EClass eClass) {
+      return Optional.ofNullable(eClass.getEIDAttribute());
+   }
+
+   /**
+    * Whether instances of this EPackage without an ID attribute shall be assigned a UUID. The UUIDs are kept in the
+    * ID map of XML and XMI resources and saved with the model, so that they are stable across reorders and restarts.
+    *
+    * @return {@code true} to assign UUIDs, {@code false} by default
+    */
+   default boolean useUUIDs() {
+      return false;
+   }
+
+   /**
+    * Features by whose values the instances of an EClass of this EPackage are indexed, so that they can be looked up
+    * by these values in constant time. The indexes are kept up to date as the model changes.
+    *
+    * @param eClass an EClass of this EPackage
+    * @return the indexed features, by default the {@code name} feature of the EClass if it has one
+    */
+   default Collection<EStructuralFeature> getIndexedFeatures(final EClass eClass) {
+      EStructuralFeature name = eClass.getEStructuralFeature("name");
+      return name != null ? List.of(name) : List.of();
+   }
 }
@@ -26,6 +26,8 @@ import java.util.stream.Stream;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.emfcloud.modelserver.emf.common.admission.AdmissionControl;
+import org.eclipse.emfcloud.modelserver.emf.common.history.ModelHistory;
 import org.eclipse.emfcloud.modelserver.emf.launch.ModelServerLauncher;
 
 /**
@@ -38,6 +40,14 @@ public class ServerConfiguration {
    private URI uiSchemaFolderURI = URI.createURI("");
    private static Logger LOG = Logger.getLogger(ServerConfiguration.class);
    private int serverPort = ModelServerLauncher.DEFAULT_JAVALIN_PORT;
+   private int historySize = ModelHistory.DEFAULT_MAX_REVISIONS;
+   private boolean validatePayloads;
+   private boolean virtualThreads;
+   private int maxConcurrentRequests = AdmissionControl.DEFAULT_MAX_CONCURRENT_REQUESTS;
+   private int maxQueuedRequests = AdmissionControl.DEFAULT_MAX_QUEUED_REQUESTS;
+   private int maxRequests = AdmissionControl.DEFAULT_MAX_REQUESTS;
+   private long queueTimeout = AdmissionControl.DEFAULT_QUEUE_TIMEOUT;
+   private double clientRequestRate;
 
    public URI getWorkspaceRootURI() { return workspaceRootURI; }
 
@@ -89,10 +99,93 @@ public class ServerConfiguration {
 
    public void setServerPort(final int serverPort) { this.serverPort = serverPort; }
 
+   /**
+    * Get the number of revisions of each model that are kept to read past revisions of the model.
+    *
+    * @return the number of revisions kept per model, {@code 0} if no history is recorded
+    */
+   public int getHistorySize() { return historySize; }
+
+   public void setHistorySize(final int historySize) { this.historySize = historySize; }
+
+   /**
+    * Whether JSON payloads are checked against the metamodel before they are decoded, so that malformed payloads are
+    * rejected early.
+    *
+    * @return {@code true} if payloads are validated before decoding
+    */
+   public boolean isValidatePayloads() { return validatePayloads; }
+
+   public void setValidatePayloads(final boolean validatePayloads) { this.validatePayloads = validatePayloads; }
+
+   /**
+    * Whether HTTP handlers and websocket callbacks run on virtual threads instead of a bounded thread pool. This needs
+    * Java 21 or later and only takes effect when the server is started.
+    *
+    * @return {@code true} if handlers run on virtual threads
+    */
+   public boolean isVirtualThreads() { return virtualThreads; }
+
+   public void setVirtualThreads(final boolean virtualThreads) { this.virtualThreads = virtualThreads; }
+
+   /**
+    * Get the number of requests per HTTP route that are handled at the same time. Further requests wait in the queue
+    * of the route. This only takes effect when the server is started.
+    *
+    * @return the number of concurrent requests per route, {@code 0} if it is not limited
+    */
+   public int getMaxConcurrentRequests() { return maxConcurrentRequests; }
+
+   public void setMaxConcurrentRequests(final int maxConcurrentRequests) {
+      this.maxConcurrentRequests = maxConcurrentRequests;
+   }
+
+   /**
+    * Get the number of requests per HTTP route that wait to be handled. Further requests are rejected with status
+    * {@code 503}.
+    *
+    * @return the depth of the queue of each route
+    */
+   public int getMaxQueuedRequests() { return maxQueuedRequests; }
+
+   public void setMaxQueuedRequests(final int maxQueuedRequests) { this.maxQueuedRequests = maxQueuedRequests; }
+
+   /**
+    * Get the number of HTTP requests that are handled or wait to be handled in the whole server. Further requests are
+    * rejected with status {@code 503} right away. This only takes effect when the server is started.
+    *
+    * @return the number of requests in the server, {@code 0} if it is not limited
+    */
+   public int getMaxRequests() { return maxRequests; }
+
+   public void setMaxRequests(final int maxRequests) { this.maxRequests = maxRequests; }
+
+   /**
+    * Get the time that a request waits in the queue of its route before it is rejected with status {@code 503}.
+    *
+    * @return the queue timeout in milliseconds
+    */
+   public long getQueueTimeout() { return queueTimeout; }
+
+   public void setQueueTimeout(final long queueTimeout) { this.queueTimeout = queueTimeout; }
+
+   /**
+    * Get the number of HTTP requests per second that every client may send. Further requests are rejected with status
+    * {@code 429}. This only takes effect when the server is started.
+    *
+    * @return the requests per second per client, {@code 0} if the rate is not limited
+    */
+   public double getClientRequestRate() { return clientRequestRate; }
+
+   public void setClientRequestRate(final double clientRequestRate) { this.clientRequestRate = clientRequestRate; }
+
    @Override
    public String toString() {
       return "ServerConfiguration [workspaceRootURI=" + workspaceRootURI + ", uiSchemaFolderURI=" + uiSchemaFolderURI
-         + ", serverPort=" + serverPort + "]";
+         + ", serverPort=" + serverPort + ", historySize=" + historySize + ", validatePayloads=" + validatePayloads
+         + ", virtualThreads=" + virtualThreads + ", maxConcurrentRequests=" + maxConcurrentRequests
+         + ", maxQueuedRequests=" + maxQueuedRequests + ", maxRequests=" + maxRequests + ", queueTimeout="
+         + queueTimeout + ", clientRequestRate=" + clientRequestRate + "]";
    }
 
    public static boolean isValidFileURI(final String fileUrl) {
@@ -28,18 +28,27 @@ import org.eclipse.emfcloud.modelserver.emf.common.ModelServerRouting;
 import org.eclipse.emfcloud.modelserver.emf.common.SchemaController;
 import org.eclipse.emfcloud.modelserver.emf.common.SchemaRepository;
 import org.eclipse.emfcloud.modelserver.emf.common.SessionController;
+import org.eclipse.emfcloud.modelserver.emf.common.admission.AdmissionControl;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.Codecs;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.CodecsManager;
+import org.eclipse.emfcloud.modelserver.emf.common.schema.TypeSchemaCache;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.PayloadValidator;
 import org.eclipse.emfcloud.modelserver.emf.configuration.CommandPackageConfiguration;
 import org.eclipse.emfcloud.modelserver.emf.configuration.EPackageConfiguration;
 import org.eclipse.emfcloud.modelserver.emf.configuration.EcorePackageConfiguration;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 import org.eclipse.emfcloud.modelserver.emf.launch.ModelServerEntryPoint;
 import org.eclipse.emfcloud.modelserver.emf.launch.ModelServerStartup;
+import org.eclipse.emfcloud.modelserver.emf.launch.ModelServerThreadPool;
 import org.eclipse.emfcloud.modelserver.jsonschema.JsonSchemaConverter;
+import org.eclipse.jetty.server.LowResourceMonitor;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.handler.StatisticsHandler;
+import org.eclipse.jetty.util.thread.ThreadPool;
 
 import com.google.common.collect.Lists;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.MapBinder;
 import com.google.inject.multibindings.Multibinder;
@@ -71,7 +80,10 @@ public abstract class ModelServerModule extends AbstractModule {
       bind(JsonSchemaConverter.class).in(Singleton.class);
       bind(SchemaController.class).in(Singleton.class);
       bind(SchemaRepository.class).in(Singleton.class);
+      bind(TypeSchemaCache.class).in(Singleton.class);
+      bind(PayloadValidator.class).in(Singleton.class);
       bind(SessionController.class).in(Singleton.class);
+      bind(AdmissionControl.class).in(Singleton.class);
       Multibinder.newSetBinder(binder(), Routing.class).addBinding().to(ModelServerRouting.class).in(Singleton.class);
       MapBinder.newMapBinder(binder(), EntryPointType.class, AppEntryPoint.class).addBinding(EntryPointType.REST)
          .to(ModelServerEntryPoint.class);
@@ -92,7 +104,10 @@ public abstract class ModelServerModule extends AbstractModule {
    }
 
    protected Javalin bindJavalin() {
+      // the configuration is only read when the server starts, after the command line is parsed
+      Provider<ServerConfiguration> configuration = getProvider(ServerConfiguration.class);
       return Javalin.create(config -> {
+         config.server(() -> createServer(new ModelServerThreadPool(() -> configuration.get().isVirtualThreads())));
          config.enableCorsForAllOrigins();
          config.requestLogger((ctx, ms) -> {
             LOG.info(ctx.method() + " " + ctx.path() + " -> Status: " + ctx.status() + " (took " + ms + " ms)");
@@ -106,6 +121,21 @@ public abstract class ModelServerModule extends AbstractModule {
       });
    }
 
+   /**
+    * Create the Jetty server of Javalin, set up like Javalin's default server but with the given thread pool.
+    *
+    * @param threadPool the thread pool that runs the HTTP handlers and websocket callbacks
+    * @return the server
+    */
+   protected Server createServer(final ThreadPool threadPool) {
+      Server server = new Server(threadPool);
+      server.addBean(new LowResourceMonitor(server));
+      server.insertHandler(new StatisticsHandler());
+      // let Javalin stop the server if it fails to start, as it does for its default server
+      server.setAttribute("is-default-server", true);
+      return server;
+   }
+
    protected abstract AdapterFactory bindAdapterFactory();
 
    protected abstract Class<? extends CommandCodec> bindCommandCodec();
@@ -93,6 +93,29 @@ public final class CLIParser {
       return Optional.empty();
    }
 
+   /**
+    * Parses and validates a non-negative number argument.
+    *
+    * @param identifier the identifier of the option
+    * @return the parsed number if the option is present, an empty optional otherwise
+    * @throws ParseException is thrown if the parsed argument is not a non-negative number
+    */
+   public Optional<Double> parseNonNegativeNumber(final String identifier) throws ParseException {
+      String numberArg = cmd.getOptionValue(identifier);
+      if (numberArg == null) {
+         return Optional.empty();
+      }
+      try {
+         double number = Double.parseDouble(numberArg);
+         if (number >= 0 && Double.isFinite(number)) {
+            return Optional.of(number);
+         }
+      } catch (NumberFormatException e) {
+         // reported below
+      }
+      throw new ParseException(String.format("'%s' is not a valid value for option '%s'!", numberArg, identifier));
+   }
+
    public void printHelp() {
       CLIParser.printHelp(this.processName, this.options);
    }
@@ -109,6 +132,16 @@ public final class CLIParser {
       options.addOption("r", "root", true, "Set workspace root");
       options.addOption("u", "uiSchemaUri", true, "Set UI schema folder uri");
       options.addOption("e", "errorsOnly", false, "Only log errors");
+      options.addOption("v", "validatePayloads", false, "Reject malformed JSON payloads before decoding them");
+      options.addOption("t", "virtualThreads", false, "Run request handlers on virtual threads (Java 21 or later)");
+      options.addOption("c", "maxConcurrentRequests", true,
+         "Set the number of requests per route handled at the same time, 0 for no limit (default 32)");
+      options.addOption("q", "maxQueuedRequests", true,
+         "Set the number of requests per route waiting to be handled (default 64)");
+      options.addOption("m", "maxRequests", true,
+         "Set the number of requests handled or waiting in the whole server, 0 for no limit (default 200)");
+      options.addOption("l", "clientRequestRate", true,
+         "Set the number of requests per second allowed for every client, 0 for no limit (default 0)");
       return options;
    }
 }
@@ -88,6 +88,12 @@ public class ModelServerLauncher {
          if (parser.optionExists("e")) {
             Logger.getRootLogger().setLevel(Level.ERROR);
          }
+         configuration.setValidatePayloads(parser.optionExists("v"));
+         configuration.setVirtualThreads(parser.optionExists("t"));
+         parser.parseNonNegativeNumber("c").ifPresent(max -> configuration.setMaxConcurrentRequests(max.intValue()));
+         parser.parseNonNegativeNumber("q").ifPresent(max -> configuration.setMaxQueuedRequests(max.intValue()));
+         parser.parseNonNegativeNumber("m").ifPresent(max -> configuration.setMaxRequests(max.intValue()));
+         parser.parseNonNegativeNumber("l").ifPresent(configuration::setClientRequestRate);
          configuration.setServerPort(parser.parsePort());
          parser.parseWorkspaceRoot().ifPresent(configuration::setWorkspaceRoot);
          parser.parseUiSchemaFolder().ifPresent(configuration::setUiSchemaFolder);
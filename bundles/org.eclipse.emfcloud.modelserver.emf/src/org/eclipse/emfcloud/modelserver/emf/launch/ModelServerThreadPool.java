@@ -0,0 +1,172 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.launch;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.apache.log4j.Logger;
+import org.eclipse.jetty.util.component.ContainerLifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+/**
+ * The thread pool of the model server's Jetty server, which runs the HTTP handlers and the websocket callbacks.
+ * <p>
+ * Whether they run on virtual threads is only decided when the server starts, because the command line is parsed
+ * after the server is configured. Virtual threads need Java 21 or later; on older runtimes, and by default, the pool
+ * delegates to a {@link QueuedThreadPool} of the same size as Javalin's default pool.
+ * </p>
+ */
+public class ModelServerThreadPool extends ContainerLifeCycle implements ThreadPool {
+
+   public static final int DEFAULT_MAX_THREADS = 250;
+   public static final int DEFAULT_MIN_THREADS = 8;
+   public static final int DEFAULT_IDLE_TIMEOUT = 60_000;
+
+   private static Logger LOG = Logger.getLogger(ModelServerThreadPool.class.getSimpleName());
+
+   private final BooleanSupplier useVirtualThreads;
+   private final AtomicInteger virtualThreadCount = new AtomicInteger();
+   private volatile ExecutorService virtualThreads;
+   private volatile QueuedThreadPool threadPool;
+
+   /**
+    * Initializes me.
+    *
+    * @param useVirtualThreads whether to run tasks on virtual threads, asked when the pool is started
+    */
+   public ModelServerThreadPool(final BooleanSupplier useVirtualThreads) {
+      this.useVirtualThreads = useVirtualThreads;
+   }
+
+   /**
+    * Create an executor that starts a new virtual thread for every task.
+    *
+    * @return the executor, or an empty optional if the Java runtime has no virtual threads
+    */
+   public static Optional<ExecutorService> newVirtualThreadExecutor() {
+      try {
+         // the execution environment is Java 11, so look up the Java 21 API reflectively
+         Object executor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+         return Optional.of((ExecutorService) executor);
+      } catch (ReflectiveOperationException e) {
+         return Optional.empty();
+      }
+   }
+
+   /**
+    * Whether the pool runs its tasks on virtual threads. This is only known once the pool is started.
+    *
+    * @return {@code true} if tasks run on virtual threads
+    */
+   public boolean isVirtualThreads() { return virtualThreads != null; }
+
+   @Override
+   protected void doStart() throws Exception {
+      if (useVirtualThreads.getAsBoolean()) {
+         virtualThreads = newVirtualThreadExecutor().orElse(null);
+         if (virtualThreads == null) {
+            LOG.warn("Virtual threads need Java 21 or later, falling back to a thread pool");
+         }
+      }
+      if (virtualThreads == null) {
+         threadPool = new QueuedThreadPool(DEFAULT_MAX_THREADS, DEFAULT_MIN_THREADS, DEFAULT_IDLE_TIMEOUT);
+         addBean(threadPool, true);
+      }
+      super.doStart();
+   }
+
+   @Override
+   protected void doStop() throws Exception {
+      super.doStop();
+      ExecutorService executor = virtualThreads;
+      if (executor != null) {
+         executor.shutdown();
+         if (!executor.awaitTermination(Math.max(getStopTimeout(), 1), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+         }
+         virtualThreads = null;
+      }
+      if (threadPool != null) {
+         removeBean(threadPool);
+         threadPool = null;
+      }
+   }
+
+   @Override
+   public void execute(final Runnable task) {
+      ExecutorService executor = virtualThreads;
+      if (executor != null) {
+         virtualThreadCount.incrementAndGet();
+         try {
+            executor.execute(() -> {
+               try {
+                  task.run();
+               } finally {
+                  virtualThreadCount.decrementAndGet();
+               }
+            });
+         } catch (RejectedExecutionException e) {
+            virtualThreadCount.decrementAndGet();
+            throw e;
+         }
+         return;
+      }
+      QueuedThreadPool pool = threadPool;
+      if (pool == null) {
+         throw new RejectedExecutionException("Thread pool is not started");
+      }
+      pool.execute(task);
+   }
+
+   @Override
+   public void join() throws InterruptedException {
+      ExecutorService executor = virtualThreads;
+      if (executor != null) {
+         executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      } else if (threadPool != null) {
+         threadPool.join();
+      }
+   }
+
+   @Override
+   public int getThreads() {
+      if (virtualThreads != null) {
+         return virtualThreadCount.get();
+      }
+      QueuedThreadPool pool = threadPool;
+      return pool != null ? pool.getThreads() : 0;
+   }
+
+   @Override
+   public int getIdleThreads() {
+      // virtual threads are not pooled, so none of them is ever idle
+      QueuedThreadPool pool = threadPool;
+      return pool != null ? pool.getIdleThreads() : 0;
+   }
+
+   @Override
+   public boolean isLowOnThreads() {
+      QueuedThreadPool pool = threadPool;
+      return pool != null && pool.isLowOnThreads();
+   }
+
+   @Override
+   public String toString() {
+      return "ModelServerThreadPool [virtualThreads=" + isVirtualThreads() + ", threads=" + getThreads() + "]";
+   }
+}
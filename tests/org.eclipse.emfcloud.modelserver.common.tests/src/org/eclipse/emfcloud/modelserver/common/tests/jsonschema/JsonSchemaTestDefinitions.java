@@ -0,0 +1,171 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.common.tests.jsonschema;
+
+import static org.eclipse.emfcloud.modelserver.jsonschema.Json.prop;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+import org.eclipse.emfcloud.modelserver.jsonschema.JsonSchemaConverter;
+import org.eclipse.emfcloud.modelserver.tests.util.EcoreTestUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Unit tests for the schemas with definitions created by the {@link JsonSchemaConverter} class.
+ */
+public class JsonSchemaTestDefinitions extends JsonSchemaTestHelper {
+
+   private static final String DEFINITIONS = "definitions";
+
+   private EPackage ePackage;
+   private EClass nodeClass;
+   private EEnum kindEEnum;
+
+   private JsonSchemaConverter jsonSchemaCreator;
+
+   @Before
+   public void before() {
+      jsonSchemaCreator = new JsonSchemaConverter();
+
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("tree");
+      ePackage.setNsURI("http://www.eclipsesource.com/modelserver/example/tree");
+
+      nodeClass = EcoreFactory.eINSTANCE.createEClass();
+      nodeClass.setName("Node");
+      EReference children = EcoreTestUtil.eReference("children", 0, -1, nodeClass);
+      children.setContainment(true);
+      nodeClass.getEStructuralFeatures().add(children);
+
+      kindEEnum = EcoreTestUtil.createEENum("Kind", Arrays.asList("leaf", "inner"));
+      nodeClass.getEStructuralFeatures().add(EcoreTestUtil.createEAttribute("kind", 0, 1, kindEEnum));
+
+      ePackage.getEClassifiers().add(nodeClass);
+      ePackage.getEClassifiers().add(kindEEnum);
+   }
+
+   @Test
+   public void createJsonSchemaFromEClassWithCyclicContainment() {
+      final JsonNode actual = jsonSchemaCreator.from(nodeClass);
+
+      // the cyclic containment is referenced instead of being inlined again
+      assertEquals(Json.object(prop("$ref", Json.text(getRefHelper(nodeClass)))),
+         actual.at("/properties/children/items"));
+   }
+
+   @Test
+   public void createJsonSchemaWithDefinitionsFromEClassWithCyclicContainment() {
+      final JsonNode actual = jsonSchemaCreator.withDefinitions(nodeClass);
+
+      assertEquals(getQualifiedRef(nodeClass), actual.get("$ref").asText());
+      assertEquals(Json.object(prop("$ref", Json.text(getQualifiedRef(nodeClass)))),
+         actual.at("/definitions/tree.node/properties/children/items"));
+      assertEquals(Json.object(prop("$ref", Json.text(getQualifiedRef(kindEEnum)))),
+         actual.at("/definitions/tree.node/properties/kind"));
+      assertDefinitions(actual, nodeClass, kindEEnum);
+      assertResolvableRefs(actual);
+   }
+
+   @Test
+   public void createJsonSchemaWithDefinitionsFromEPackageWithForeignEClass() {
+      EPackage otherPackage = EcoreFactory.eINSTANCE.createEPackage();
+      otherPackage.setName("other");
+      otherPackage.setNsURI("http://www.eclipsesource.com/modelserver/example/other");
+      EClass labelClass = EcoreFactory.eINSTANCE.createEClass();
+      labelClass.setName("Label");
+      otherPackage.getEClassifiers().add(labelClass);
+      nodeClass.getEStructuralFeatures().add(EcoreTestUtil.eReference("label", 0, 1, labelClass));
+
+      final JsonNode actual = jsonSchemaCreator.withDefinitions(ePackage);
+
+      assertEquals(getIdHelper(ePackage), actual.get("$id").asText());
+      assertDefinitions(actual, nodeClass, kindEEnum, labelClass);
+      assertEquals(getEClassPropertyHelper(labelClass), actual.at("/definitions/other.label/properties/eClass"));
+      assertResolvableRefs(actual);
+   }
+
+   @Test
+   public void createJsonSchemaWithDefinitionsFromEPackageWithForeignEClassOfSameName() {
+      EPackage otherPackage = EcoreFactory.eINSTANCE.createEPackage();
+      otherPackage.setName("other");
+      otherPackage.setNsURI("http://www.eclipsesource.com/modelserver/example/other");
+      EClass otherNodeClass = EcoreFactory.eINSTANCE.createEClass();
+      otherNodeClass.setName("Node");
+      otherPackage.getEClassifiers().add(otherNodeClass);
+      nodeClass.getEStructuralFeatures().add(EcoreTestUtil.eReference("other", 0, 1, otherNodeClass));
+
+      final JsonNode actual = jsonSchemaCreator.withDefinitions(ePackage);
+
+      // both EClasses named Node are defined
+      assertDefinitions(actual, nodeClass, kindEEnum, otherNodeClass);
+      assertEquals(Json.object(prop("$ref", Json.text(getQualifiedRef(otherNodeClass)))),
+         actual.at("/definitions/tree.node/properties/other"));
+      assertResolvableRefs(actual);
+   }
+
+   @Test
+   public void createJsonSchemaWithDefinitionsFromEcore() {
+      final JsonNode actual = jsonSchemaCreator.withDefinitions(EcorePackage.Literals.EPACKAGE);
+
+      assertEquals(getQualifiedRef(EcorePackage.Literals.EPACKAGE), actual.get("$ref").asText());
+      assertTrue(actual.get(DEFINITIONS).has(getQualifiedName(EcorePackage.Literals.EGENERIC_TYPE)));
+      assertTrue(actual.get(DEFINITIONS).has(getQualifiedName(EcorePackage.Literals.EANNOTATION)));
+      assertResolvableRefs(actual);
+   }
+
+   private void assertDefinitions(final JsonNode schema, final EClassifier... expected) {
+      Set<String> names = new HashSet<>();
+      schema.get(DEFINITIONS).fieldNames().forEachRemaining(names::add);
+      Set<String> expectedNames = new HashSet<>();
+      Arrays.stream(expected).map(JsonSchemaTestDefinitions::getQualifiedName).forEach(expectedNames::add);
+      assertEquals(expectedNames, names);
+   }
+
+   private static String getQualifiedName(final EClassifier eClassifier) {
+      return (eClassifier.getEPackage().getName() + "." + eClassifier.getName()).toLowerCase();
+   }
+
+   private static String getQualifiedRef(final EClassifier eClassifier) {
+      return "#/" + DEFINITIONS + "/" + getQualifiedName(eClassifier);
+   }
+
+   private static void assertResolvableRefs(final JsonNode schema) {
+      assertResolvableRefs(schema, schema);
+   }
+
+   private static void assertResolvableRefs(final JsonNode root, final JsonNode node) {
+      if (node.has("$ref")) {
+         String ref = node.get("$ref").asText();
+         assertFalse("Unresolvable " + ref, root.at(ref.substring(1)).isMissingNode());
+      }
+      for (Iterator<JsonNode> iter = node.elements(); iter.hasNext();) {
+         assertResolvableRefs(root, iter.next());
+      }
+   }
+
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.eclipse.emf.common.command.Command;
@@ -38,6 +39,7 @@ import org.eclipse.emfcloud.modelserver.common.codecs.DecodingException;
 import org.eclipse.emfcloud.modelserver.edit.CommandCodec;
 import org.eclipse.emfcloud.modelserver.emf.common.DefaultModelResourceManager;
 import org.eclipse.emfcloud.modelserver.emf.common.ModelResourceManager;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelURIIndex;
 import org.eclipse.emfcloud.modelserver.emf.configuration.CommandPackageConfiguration;
 import org.eclipse.emfcloud.modelserver.emf.configuration.EPackageConfiguration;
 import org.eclipse.emfcloud.modelserver.emf.configuration.EcorePackageConfiguration;
@@ -162,6 +164,17 @@ public class ModelResourceManagerTest extends AbstractResourceTest {
       assertFalse(modelResourceManager.isResourceLoaded(adaptModelUri("Test2.json").toString()));
    }
 
+   @Test
+   public void removeResource_removesFromModelURIIndex() throws IOException {
+      String modelUri = adaptModelUri("Test3.json");
+      modelResourceManager.addResource(modelUri, EcoreFactory.eINSTANCE.createEClass());
+      ModelURIIndex index = modelResourceManager.getModelURIIndex().get();
+      assertEquals(List.of("Test3.json"), index.list("Test3", null, ModelURIIndex.DEFAULT_LIMIT));
+
+      modelResourceManager.removeResource(modelUri);
+      assertEquals(List.of(), index.list("Test3", null, ModelURIIndex.DEFAULT_LIMIT));
+   }
+
    @Test
    public void hasResource() {
       assertTrue(modelResourceManager.isResourceLoaded(adaptModelUri("Coffee.ecore").toString()));
@@ -17,7 +17,9 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -30,12 +32,15 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcoreFactory;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
@@ -50,6 +55,7 @@ import org.eclipse.emfcloud.modelserver.common.codecs.XmiCodec;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.Codecs;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.CodecsManager;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.JsonCodec;
+import org.eclipse.emfcloud.modelserver.emf.common.validation.PayloadValidator;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 import org.eclipse.emfcloud.modelserver.jsonschema.Json;
 import org.emfjson.jackson.resource.JsonResource;
@@ -61,6 +67,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.javalin.http.Context;
 
@@ -89,7 +96,8 @@ public class ModelControllerTest {
    public void before() {
       when(serverConfiguration.getWorkspaceRootURI()).thenReturn(URI.createFileURI("/home/modelserver/workspace/"));
       codecs = new Codecs(Map.of(ModelServerPathParameters.FORMAT_XMI, new XmiCodec()));
-      modelController = new ModelController(modelRepository, sessionController, serverConfiguration, codecs);
+      modelController = new ModelController(modelRepository, sessionController, serverConfiguration, codecs,
+         new PayloadValidator());
    }
 
    @Test
@@ -105,7 +113,7 @@ public class ModelControllerTest {
       queryParams.put(ModelServerPathParameters.FORMAT,
          Collections.singletonList(ModelServerPathParameters.FORMAT_XMI));
       when(context.queryParamMap()).thenReturn(queryParams);
-      when(modelRepository.getModel("test")).thenReturn(Optional.of(brewingUnit));
+      when(modelRepository.getModelSnapshot("test")).thenReturn(Optional.of(brewingUnit));
 
       modelController.getOne(context, "test");
 
@@ -135,6 +143,66 @@ public class ModelControllerTest {
             Json.prop("test", new XmiCodec().encode(brewingUnit))))));
    }
 
+   @Test
+   public void getAllAsyncXmiFormat() throws Exception {
+      final AtomicReference<CompletableFuture<?>> response = new AtomicReference<>();
+      final EClass brewingUnit = EcoreFactory.eINSTANCE.createEClass();
+      Answer<Void> answer = invocation -> {
+         response.set(invocation.getArgument(0));
+         return null;
+      };
+      doAnswer(answer).when(context).json(any(CompletableFuture.class));
+      final LinkedHashMap<String, List<String>> queryParams = new LinkedHashMap<>();
+      queryParams.put(ModelServerPathParameters.FORMAT,
+         Collections.singletonList(ModelServerPathParameters.FORMAT_XMI));
+      when(context.queryParamMap()).thenReturn(queryParams);
+      final Map<URI, EObject> allModels = Collections.singletonMap(URI.createURI("test"), brewingUnit);
+      when(modelRepository.getAllModels()).thenReturn(allModels);
+
+      modelController.getAllAsync(context);
+
+      JsonNode json = (JsonNode) response.get().get(10, TimeUnit.SECONDS);
+      assertThat(json.get(JsonResponseMember.DATA), is(equalTo(
+         Json.object(
+            Json.prop("test", new XmiCodec().encode(brewingUnit))))));
+   }
+
+   @Test
+   public void getOneAsyncSmallModelIsSynchronous() throws EncodingException {
+      final AtomicReference<JsonNode> response = new AtomicReference<>();
+      final EClass brewingUnit = EcoreFactory.eINSTANCE.createEClass();
+      Answer<Void> answer = invocation -> {
+         response.set(invocation.getArgument(0));
+         return null;
+      };
+      doAnswer(answer).when(context).json(any(JsonNode.class));
+      when(modelRepository.getElementCount("test")).thenReturn(Optional.of(1));
+      when(modelRepository.getModelSnapshot("test")).thenReturn(Optional.of(brewingUnit));
+
+      modelController.getOneAsync(context, "test");
+
+      assertThat(response.get().get(JsonResponseMember.DATA), is(equalTo(new JsonCodec().encode(brewingUnit))));
+      verify(context, never()).json(any(CompletableFuture.class));
+   }
+
+   @Test
+   public void saveAsyncFailure() throws Exception {
+      final AtomicReference<CompletableFuture<?>> response = new AtomicReference<>();
+      Answer<Void> answer = invocation -> {
+         response.set(invocation.getArgument(0));
+         return null;
+      };
+      doAnswer(answer).when(context).json(any(CompletableFuture.class));
+      when(modelRepository.saveModel("test")).thenReturn(false);
+
+      modelController.saveAsync(context, "test");
+
+      JsonNode json = (JsonNode) response.get().get(10, TimeUnit.SECONDS);
+      assertThat(json.get(JsonResponseMember.TYPE).asText(), is(equalTo(JsonResponseType.ERROR)));
+      verify(context).status(500);
+      verify(sessionController, never()).modelSaved("test");
+   }
+
    @Test
    public void getOneJsonFormat() throws EncodingException {
       final AtomicReference<JsonNode> response = new AtomicReference<>();
@@ -144,7 +212,7 @@ public class ModelControllerTest {
          return null;
       };
       doAnswer(answer).when(context).json(any(JsonNode.class));
-      when(modelRepository.getModel("test")).thenReturn(Optional.of(brewingUnit));
+      when(modelRepository.getModelSnapshot("test")).thenReturn(Optional.of(brewingUnit));
 
       modelController.getOne(context, "test");
 
@@ -245,7 +313,8 @@ public class ModelControllerTest {
    public void getModelelementByIdJsonFormat() throws EncodingException {
       final EClass simpleWorkflow = EcoreFactory.eINSTANCE.createEClass();
       simpleWorkflow.setName("SimpleWorkflow");
-      when(modelRepository.getModelElementById("test", "//@workflows.0")).thenReturn(Optional.of(simpleWorkflow));
+      when(modelRepository.getModelElementSnapshotById("test", "//@workflows.0"))
+         .thenReturn(Optional.of(simpleWorkflow));
 
       modelController.getModelElementById(context, "test", "//@workflows.0");
 
@@ -266,7 +335,8 @@ public class ModelControllerTest {
       queryParams.put(ModelServerPathParameters.FORMAT,
          Collections.singletonList(ModelServerPathParameters.FORMAT_XMI));
       when(context.queryParamMap()).thenReturn(queryParams);
-      when(modelRepository.getModelElementById("test", "//@workflows.0")).thenReturn(Optional.of(simpleWorkflow));
+      when(modelRepository.getModelElementSnapshotById("test", "//@workflows.0"))
+         .thenReturn(Optional.of(simpleWorkflow));
 
       modelController.getModelElementById(context, "test", "//@workflows.0");
 
@@ -278,11 +348,72 @@ public class ModelControllerTest {
       verify(context).json(expectedResponse);
    }
 
+   @Test
+   public void getContainmentSlice() {
+      final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      for (String name : List.of("A", "B", "C")) {
+         EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+         eClass.setName(name);
+         ePackage.getEClassifiers().add(eClass);
+      }
+      readDirectly();
+      when(modelRepository.getModelElementById("test", "/")).thenReturn(Optional.of(ePackage));
+      when(modelRepository.getElementId(any(EObject.class)))
+         .thenAnswer(invocation -> ((EClass) invocation.getArgument(0)).getName());
+      when(context.queryParam(ModelServerPathParameters.OFFSET)).thenReturn("1");
+      when(context.queryParam(ModelServerPathParameters.LIMIT)).thenReturn("5");
+
+      modelController.getContainmentSlice(context, "test", "/", "eClassifiers");
+
+      ObjectNode expectedSlice = Json.object(prop("elements", Json.array(
+         Json.object(prop("id", Json.text("B")), prop("element", Json.object(
+            prop("eClass", Json.text("http://www.eclipse.org/emf/2002/Ecore#//EClass")),
+            prop("name", Json.text("B"))))),
+         Json.object(prop("id", Json.text("C")), prop("element", Json.object(
+            prop("eClass", Json.text("http://www.eclipse.org/emf/2002/Ecore#//EClass")),
+            prop("name", Json.text("C"))))))));
+      expectedSlice.put("feature", "eClassifiers");
+      expectedSlice.put("offset", 1);
+      expectedSlice.put("total", 3);
+      JsonNode expectedResponse = Json.object(
+         prop(JsonResponseMember.TYPE, Json.text(JsonResponseType.SUCCESS)),
+         prop(JsonResponseMember.DATA, expectedSlice));
+
+      verify(context).json(expectedResponse);
+   }
+
+   @Test
+   public void getContainmentSliceOfInvalidFeature() {
+      final EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      readDirectly();
+      when(modelRepository.getModelElementById("test", "/")).thenReturn(Optional.of(ePackage));
+      when(context.status(400)).thenReturn(context);
+
+      modelController.getContainmentSlice(context, "test", "/", "eSuperPackage");
+
+      verify(context).status(400);
+   }
+
+   @Test
+   public void createWithInvalidPayload() throws IOException {
+      when(serverConfiguration.isValidatePayloads()).thenReturn(true);
+      when(context.body()).thenReturn(Json.object(prop(JsonResponseMember.DATA, Json.object(
+         prop("eClass", Json.text("http://www.eclipse.org/emf/2002/Ecore#//EClass")),
+         prop("name", Json.text("PreHeat")),
+         prop("abstract", Json.text("maybe"))))).toString());
+      when(context.status(400)).thenReturn(context);
+
+      modelController.create(context, "test");
+
+      verify(context, atLeastOnce()).status(400);
+      verify(modelRepository, never()).addModel(any(), any());
+   }
+
    @Test
    public void getModelelementByNameJsonFormat() throws EncodingException {
       final EClass preHeatTask = EcoreFactory.eINSTANCE.createEClass();
       preHeatTask.setName("PreHeat");
-      when(modelRepository.getModelElementById("test", "PreHeat")).thenReturn(Optional.of(preHeatTask));
+      when(modelRepository.getModelElementSnapshotById("test", "PreHeat")).thenReturn(Optional.of(preHeatTask));
 
       modelController.getModelElementById(context, "test", "PreHeat");
 
@@ -303,7 +434,7 @@ public class ModelControllerTest {
       queryParams.put(ModelServerPathParameters.FORMAT,
          Collections.singletonList(ModelServerPathParameters.FORMAT_XMI));
       when(context.queryParamMap()).thenReturn(queryParams);
-      when(modelRepository.getModelElementById("test", "PreHeat")).thenReturn(Optional.of(preHeatTask));
+      when(modelRepository.getModelElementSnapshotById("test", "PreHeat")).thenReturn(Optional.of(preHeatTask));
 
       modelController.getModelElementById(context, "test", "PreHeat");
 
@@ -315,4 +446,12 @@ public class ModelControllerTest {
       verify(context).json(expectedResponse);
    }
 
+   private void readDirectly() {
+      // the mocked repository does not lock the models
+      doAnswer(invocation -> {
+         invocation.<Runnable> getArgument(1).run();
+         return null;
+      }).when(modelRepository).readLocked(any(), any(Runnable.class));
+   }
+
 }
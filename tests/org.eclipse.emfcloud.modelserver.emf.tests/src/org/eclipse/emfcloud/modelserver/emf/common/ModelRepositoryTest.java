@@ -10,6 +10,8 @@
  ********************************************************************************/
 package org.eclipse.emfcloud.modelserver.emf.common;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -19,16 +21,30 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.emf.common.command.Command;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
 import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.edit.command.AddCommand;
+import org.eclipse.emf.edit.command.SetCommand;
+import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
 import org.eclipse.emfcloud.modelserver.common.codecs.DecodingException;
 import org.eclipse.emfcloud.modelserver.edit.CommandCodec;
 import org.eclipse.emfcloud.modelserver.emf.AbstractResourceTest;
+import org.eclipse.emfcloud.modelserver.emf.common.history.ModelHistory;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 import org.junit.Before;
 import org.junit.Test;
@@ -112,6 +128,63 @@ public class ModelRepositoryTest extends AbstractResourceTest {
          () -> assertTrue("Model not found in repository", false));
    }
 
+   @Test
+   public void getModel_pastRevisionWhileCommandRuns() throws Exception {
+      String modelUri = "test.ecore";
+      ResourceSet resourceSet = new ResourceSetImpl();
+      Resource resource = new ResourceImpl(URI.createURI(modelUri));
+      resourceSet.getResources().add(resource);
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("A");
+      resource.getContents().add(ePackage);
+      ModelHistory history = new ModelHistory(resource.getURI(), 10);
+      ModelServerEditingDomain domain = new ModelServerEditingDomain(new ComposedAdapterFactory(), resourceSet,
+         history);
+      when(modelResourceManager.getResourceSet(modelUri)).thenReturn(resourceSet);
+      when(modelResourceManager.getEditingDomain(resourceSet)).thenReturn(domain);
+      when(modelResourceManager.loadResource(modelUri)).thenReturn(Optional.of(resource));
+      when(modelResourceManager.loadResource(modelUri, 0L)).thenAnswer(invocation -> history.getResource(0L));
+
+      domain.execute(new SetCommand(domain, ePackage, EcorePackage.Literals.ENAMED_ELEMENT__NAME, "B"));
+
+      // a command that is interrupted after it added a class, but before it completed
+      CountDownLatch applied = new CountDownLatch(1);
+      CountDownLatch complete = new CountDownLatch(1);
+      AddCommand addClass = new AddCommand(domain, ePackage, EcorePackage.Literals.EPACKAGE__ECLASSIFIERS,
+         EcoreFactory.eINSTANCE.createEClass()) {
+         @Override
+         public void doExecute() {
+            super.doExecute();
+            applied.countDown();
+            try {
+               complete.await();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      };
+
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+         Future<?> command = executor.submit(() -> domain.execute(addClass));
+         assertTrue(applied.await(5, TimeUnit.SECONDS));
+         Future<Optional<EObject>> read = executor.submit(() -> repository.getModel(modelUri, 0L));
+
+         // the past revision must not be rebuilt from the half-applied command
+         Thread.sleep(100);
+         assertFalse(read.isDone());
+         complete.countDown();
+         command.get(5, TimeUnit.SECONDS);
+
+         EPackage revision0 = (EPackage) read.get(5, TimeUnit.SECONDS).get();
+         assertEquals("A", revision0.getName());
+         assertTrue(revision0.getEClassifiers().isEmpty());
+         assertEquals(2, history.getRevision());
+      } finally {
+         executor.shutdownNow();
+      }
+   }
+
    //
    // Test framework
    //
@@ -13,6 +13,8 @@ package org.eclipse.emfcloud.modelserver.emf.common;
 import static org.eclipse.emfcloud.modelserver.jsonschema.Json.prop;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -20,8 +22,12 @@ import java.util.Optional;
 
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
 import org.eclipse.emfcloud.modelserver.common.ModelServerPathParameters;
+import org.eclipse.emfcloud.modelserver.emf.common.schema.CachedSchema;
+import org.eclipse.emfcloud.modelserver.emf.common.schema.TypeSchemaCache;
 import org.eclipse.emfcloud.modelserver.jsonschema.Json;
 import org.eclipse.emfcloud.modelserver.jsonschema.JsonSchemaConverter;
 import org.junit.Before;
@@ -45,6 +51,7 @@ public class SchemaControllerTest {
    private ModelRepository modelRepository;
    private SchemaRepository schemaRepository;
    private JsonSchemaConverter jsonSchemaConverter;
+   private EPackage.Registry registry;
 
    @Before
    public void before() {
@@ -52,7 +59,9 @@ public class SchemaControllerTest {
       modelRepository = mock(ModelRepository.class);
       schemaRepository = mock(SchemaRepository.class);
       jsonSchemaConverter = mock(JsonSchemaConverter.class);
-      schemaController = new SchemaController(modelRepository, schemaRepository, jsonSchemaConverter);
+      registry = new EPackageRegistryImpl();
+      schemaController = new SchemaController(modelRepository, schemaRepository,
+         new TypeSchemaCache(jsonSchemaConverter, registry));
    }
 
    @Test
@@ -95,6 +104,89 @@ public class SchemaControllerTest {
       verify(context).json(expectedResponse);
    }
 
+   @Test
+   public void getTypeSchema_notModified() {
+      final EClass machine = EcoreFactory.eINSTANCE.createEClass();
+      machine.setName("CoffeeMachine");
+      JsonNode machineTypeSchema = Json.object(prop("title", Json.text(machine.getName())));
+      String etag = new CachedSchema(machineTypeSchema).getETag();
+
+      when(modelRepository.getModel("SuperBrewer3000.json")).thenReturn(Optional.of(machine));
+      when(jsonSchemaConverter.from(any(EObject.class))).thenReturn(machineTypeSchema);
+      when(context.header("If-None-Match")).thenReturn("\"other\", " + etag);
+
+      schemaController.getTypeSchema(context, "SuperBrewer3000.json");
+
+      verify(context).header("ETag", etag);
+      verify(context).status(304);
+      verify(context, never()).json(any(JsonNode.class));
+   }
+
+   @Test
+   public void getTypeSchema_registeredEClass() {
+      EPackage coffee = EcoreFactory.eINSTANCE.createEPackage();
+      coffee.setNsURI("http://www.eclipsesource.com/modelserver/example/coffeemodel");
+      EClass machine = EcoreFactory.eINSTANCE.createEClass();
+      machine.setName("Machine");
+      coffee.getEClassifiers().add(machine);
+      registry.put(coffee.getNsURI(), coffee);
+      JsonNode machineTypeSchema = Json.object(prop("title", Json.text(machine.getName())));
+
+      when(jsonSchemaConverter.from(machine)).thenReturn(machineTypeSchema);
+
+      schemaController.getTypeSchema(context, coffee.getNsURI(), "Machine");
+      schemaController.getTypeSchema(context, coffee.getNsURI(), "Machine");
+
+      JsonNode expectedResponse = Json.object(
+         prop(JsonResponseMember.TYPE, Json.text(JsonResponseType.SUCCESS)),
+         prop(JsonResponseMember.DATA, machineTypeSchema));
+
+      verify(context, times(2)).json(expectedResponse);
+      // the schema of a registered EClass is generated only once
+      verify(jsonSchemaConverter).from(machine);
+   }
+
+   @Test
+   public void getTypeSchema_registeredEClassWithDefinitions() {
+      EPackage coffee = EcoreFactory.eINSTANCE.createEPackage();
+      coffee.setNsURI("http://www.eclipsesource.com/modelserver/example/coffeemodel");
+      EClass machine = EcoreFactory.eINSTANCE.createEClass();
+      machine.setName("Machine");
+      coffee.getEClassifiers().add(machine);
+      registry.put(coffee.getNsURI(), coffee);
+      JsonNode machineTypeSchema = Json.object(prop("title", Json.text(machine.getName())));
+      JsonNode machineDefinitionsSchema = Json.object(prop("$ref", Json.text("#/definitions/coffee.machine")));
+
+      when(jsonSchemaConverter.from(machine)).thenReturn(machineTypeSchema);
+      when(jsonSchemaConverter.withDefinitions(machine)).thenReturn(machineDefinitionsSchema);
+
+      schemaController.getTypeSchema(context, coffee.getNsURI(), "Machine");
+      schemaController.getTypeSchema(context, coffee.getNsURI(), "Machine", true);
+
+      // both kinds of schemas are cached side by side
+      verify(context).json(Json.object(
+         prop(JsonResponseMember.TYPE, Json.text(JsonResponseType.SUCCESS)),
+         prop(JsonResponseMember.DATA, machineTypeSchema)));
+      verify(context).json(Json.object(
+         prop(JsonResponseMember.TYPE, Json.text(JsonResponseType.SUCCESS)),
+         prop(JsonResponseMember.DATA, machineDefinitionsSchema)));
+   }
+
+   @Test
+   public void getTypeSchema_unknownEClass() {
+      EPackage coffee = EcoreFactory.eINSTANCE.createEPackage();
+      coffee.setNsURI("http://www.eclipsesource.com/modelserver/example/coffeemodel");
+      registry.put(coffee.getNsURI(), coffee);
+
+      schemaController.getTypeSchema(context, coffee.getNsURI(), "Brewer");
+
+      verify(context).status(404);
+      verify(context).json(Json.object(
+         prop(JsonResponseMember.TYPE, Json.text(JsonResponseType.ERROR)),
+         prop(JsonResponseMember.DATA, Json.text(String.format("Type schema for EClass 'Brewer' of '%s' not found!",
+            coffee.getNsURI())))));
+   }
+
    @Test
    public void getUiSchema_schemaAvailable() {
       final JsonNode machineUiSchema = Json.object(
@@ -108,7 +200,7 @@ public class SchemaControllerTest {
                prop("label", Json.text("Name")),
                prop("scope", Json.text("#/properties/name"))))));
 
-      when(schemaRepository.loadUiSchema("machine")).thenReturn(Optional.of(machineUiSchema));
+      when(schemaRepository.getUiSchema("machine")).thenReturn(Optional.of(new CachedSchema(machineUiSchema)));
 
       schemaController.getUiSchema(context, "machine");
 
@@ -122,7 +214,7 @@ public class SchemaControllerTest {
    @Test
    public void getUiSchema_schemaUnavailable() {
       when(context.queryParam(ModelServerPathParameters.SCHEMA_NAME)).thenReturn("brewing");
-      when(schemaRepository.loadUiSchema("brewing")).thenReturn(Optional.empty());
+      when(schemaRepository.getUiSchema("brewing")).thenReturn(Optional.empty());
 
       schemaController.getUiSchema(context, "brewing");
 
@@ -12,17 +12,24 @@ package org.eclipse.emfcloud.modelserver.emf.common;
 
 import static org.eclipse.emfcloud.modelserver.jsonschema.Json.prop;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emfcloud.modelserver.emf.common.schema.CachedSchema;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +43,9 @@ import com.fasterxml.jackson.databind.JsonNode;
 @RunWith(MockitoJUnitRunner.class)
 public class SchemaRepositoryTest {
 
+   // the watch service of some platforms polls the file system only every few seconds
+   private static final long WATCH_TIMEOUT_MILLIS = 30_000;
+
    private SchemaRepository schemaRepository;
    private ServerConfiguration serverConfiguration;
 
@@ -47,6 +57,11 @@ public class SchemaRepositoryTest {
       schemaRepository = new SchemaRepository(serverConfiguration);
    }
 
+   @After
+   public void after() {
+      schemaRepository.dispose();
+   }
+
    @Test
    public void loadUiSchema_schemaAvailable() throws IOException {
       final JsonNode expectedUiSchema = Json.object(
@@ -71,10 +86,76 @@ public class SchemaRepositoryTest {
       assertTrue(schemaRepository.loadUiSchema("machine2").isEmpty());
    }
 
+   @Test
+   public void getUiSchema_cached() throws IOException {
+      Path folder = createUiSchemaFolder();
+      Files.writeString(folder.resolve("machine.json"), "{\"type\": \"VerticalLayout\"}");
+
+      CachedSchema first = schemaRepository.getUiSchema("machine").get();
+      CachedSchema second = schemaRepository.getUiSchema("machine").get();
+
+      assertSame(first, second);
+      assertEquals("VerticalLayout", first.getSchema().get("type").asText());
+   }
+
+   @Test
+   public void getUiSchema_invalidatedOnChange() throws IOException, InterruptedException {
+      Path folder = createUiSchemaFolder();
+      Files.writeString(folder.resolve("machine.json"), "{\"type\": \"VerticalLayout\"}");
+      CachedSchema original = schemaRepository.getUiSchema("machine").get();
+
+      Files.writeString(folder.resolve("machine.json"), "{\"type\": \"HorizontalLayout\"}");
+
+      CachedSchema changed = awaitChange("machine", original);
+      assertEquals("HorizontalLayout", changed.getSchema().get("type").asText());
+      assertNotEquals(original.getETag(), changed.getETag());
+   }
+
+   @Test
+   public void getUiSchema_invalidatedOnDelete() throws IOException, InterruptedException {
+      Path folder = createUiSchemaFolder();
+      Files.writeString(folder.resolve("machine.json"), "{\"type\": \"VerticalLayout\"}");
+      CachedSchema original = schemaRepository.getUiSchema("machine").get();
+
+      Files.delete(folder.resolve("machine.json"));
+
+      long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+      while (schemaRepository.getUiSchema("machine").isPresent() && System.currentTimeMillis() < deadline) {
+         Thread.sleep(50);
+      }
+      assertFalse(schemaRepository.getUiSchema("machine").isPresent());
+      assertEquals("VerticalLayout", original.getSchema().get("type").asText());
+   }
+
+   @Test
+   public void getUiSchema_missing() throws IOException {
+      createUiSchemaFolder();
+
+      assertFalse(schemaRepository.getUiSchema("brewing").isPresent());
+   }
+
    //
    // Test framework
    //
 
    static File getCWD() { return new File(System.getProperty("user.dir")); }
 
+   private Path createUiSchemaFolder() throws IOException {
+      Path folder = Files.createTempDirectory("uischema");
+      when(serverConfiguration.getUiSchemaFolderURI()).thenReturn(URI.createFileURI(folder + "/"));
+      return folder;
+   }
+
+   private CachedSchema awaitChange(final String schemaname, final CachedSchema original)
+      throws InterruptedException {
+      long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+      Optional<CachedSchema> current = schemaRepository.getUiSchema(schemaname);
+      // the file may be read while it is being written
+      while ((current.isEmpty() || current.get() == original) && System.currentTimeMillis() < deadline) {
+         Thread.sleep(50);
+         current = schemaRepository.getUiSchema(schemaname);
+      }
+      return current.get();
+   }
+
 }
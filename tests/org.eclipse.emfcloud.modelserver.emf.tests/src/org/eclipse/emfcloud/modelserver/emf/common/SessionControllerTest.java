@@ -13,6 +13,8 @@ package org.eclipse.emfcloud.modelserver.emf.common;
 import static org.eclipse.emfcloud.modelserver.jsonschema.Json.prop;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
@@ -24,13 +26,19 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
 import org.eclipse.emfcloud.modelserver.command.CCommand;
 import org.eclipse.emfcloud.modelserver.command.CCommandFactory;
 import org.eclipse.emfcloud.modelserver.command.CommandKind;
 import org.eclipse.emfcloud.modelserver.common.ModelServerPathParameters;
 import org.eclipse.emfcloud.modelserver.edit.CommandCodec;
 import org.eclipse.emfcloud.modelserver.emf.common.codecs.CodecsManager;
+import org.eclipse.emfcloud.modelserver.emf.common.query.LiveQuery;
 import org.eclipse.emfcloud.modelserver.emf.configuration.ServerConfiguration;
 import org.eclipse.emfcloud.modelserver.jsonschema.Json;
 import org.eclipse.jetty.websocket.api.Session;
@@ -203,6 +211,53 @@ public class SessionControllerTest {
             "(?i)\"type\":\"keepAlive\",\"data\":\"" + sessionId + " stayin' alive!\""))));
    }
 
+   @Test
+   @SuppressWarnings({ "checkstyle:ThrowsCount" })
+   public void testSubscribeQuery() throws NoSuchFieldException, SecurityException {
+      String sessionId = UUID.randomUUID().toString();
+      String modelUri = "fancytesturi";
+      initializeWsMessageContext(sessionId);
+      when(session.isOpen()).thenReturn(true);
+
+      Resource resource = new ResourceImpl(URI.createURI(modelUri));
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.getEClassifiers().add(createEClass("A"));
+      ePackage.getEClassifiers().add(EcoreFactory.eINSTANCE.createEDataType());
+      resource.getContents().add(ePackage);
+      when(repository.createLiveQuery(eq(modelUri), any())).thenAnswer(invocation -> {
+         LiveQuery liveQuery = new LiveQuery(invocation.getArgument(1), element -> ((EClass) element).getName());
+         liveQuery.attach(resource);
+         return Optional.of(liveQuery);
+      });
+      when(repository.getModelSnapshot(modelUri)).thenReturn(Optional.of(ePackage));
+
+      assertTrue(sessionController.subscribe(messageClientCtx,
+         messageClientCtx.pathParam(ModelServerPathParameters.MODEL_URI)));
+      when(messageClientCtx.message())
+         .thenReturn("{\"type\":\"subscribeQuery\",\"data\":{\"id\":\"q1\",\"type\":\"EClass\"}}");
+      assertTrue(sessionController.handleMessage(messageClientCtx));
+      verify(messageClientCtx).send(argThat(jsonNodeThat(
+         containsRegex(".\"type\":\"queryUpdate\",\"data\":\\{\"id\":\"q1\",\"added\":\\[\\{\"id\":\"A\"[^\\]]*\\],"
+            + "\"removed\":\\[\\],\"changed\":\\[\\]"))));
+
+      ePackage.getEClassifiers().add(createEClass("B"));
+      ePackage.getEClassifiers().remove(0);
+      sessionController.modelChanged(modelUri);
+      verify(messageClientCtx).send(argThat(jsonNodeThat(
+         containsRegex(".\"type\":\"queryUpdate\",\"data\":\\{\"id\":\"q1\",\"added\":\\[\\{\"id\":\"B\"[^\\]]*\\],"
+            + "\"removed\":\\[\\{\"id\":\"A\"\\}\\],\"changed\":\\[\\]"))));
+
+      when(messageClientCtx.message()).thenReturn("{\"type\":\"unsubscribeQuery\",\"data\":\"q1\"}");
+      assertTrue(sessionController.handleMessage(messageClientCtx));
+      assertFalse(resource.eAdapters().stream().anyMatch(LiveQuery.class::isInstance));
+   }
+
+   private static EClass createEClass(final String name) {
+      EClass result = EcoreFactory.eINSTANCE.createEClass();
+      result.setName(name);
+      return result;
+   }
+
    //
    // Test framework
    //
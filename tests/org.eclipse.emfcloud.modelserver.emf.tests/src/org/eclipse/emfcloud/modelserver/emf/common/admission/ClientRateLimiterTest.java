@@ -0,0 +1,78 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.admission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ClientRateLimiter} class.
+ */
+public class ClientRateLimiterTest {
+
+   private final AtomicLong clock = new AtomicLong();
+
+   @Test
+   public void tryAcquire_allowsBurstOfOneSecond() {
+      ClientRateLimiter limiter = new ClientRateLimiter(3, clock::get);
+
+      assertEquals(0, limiter.tryAcquire("client"));
+      assertEquals(0, limiter.tryAcquire("client"));
+      assertEquals(0, limiter.tryAcquire("client"));
+      long wait = limiter.tryAcquire("client");
+
+      assertTrue(wait > 0);
+      assertTrue(wait <= TimeUnit.MILLISECONDS.toNanos(334));
+   }
+
+   @Test
+   public void tryAcquire_refillsOverTime() {
+      ClientRateLimiter limiter = new ClientRateLimiter(2, clock::get);
+      limiter.tryAcquire("client");
+      limiter.tryAcquire("client");
+      assertTrue(limiter.tryAcquire("client") > 0);
+
+      clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+
+      assertEquals(0, limiter.tryAcquire("client"));
+      assertTrue(limiter.tryAcquire("client") > 0);
+   }
+
+   @Test
+   public void tryAcquire_limitsClientsSeparately() {
+      ClientRateLimiter limiter = new ClientRateLimiter(1, clock::get);
+
+      assertEquals(0, limiter.tryAcquire("a"));
+      assertTrue(limiter.tryAcquire("a") > 0);
+      assertEquals(0, limiter.tryAcquire("b"));
+      assertEquals(2, limiter.getTrackedClients());
+   }
+
+   @Test
+   public void tryAcquire_forgetsIdleClients() {
+      ClientRateLimiter limiter = new ClientRateLimiter(1, clock::get);
+      for (int i = 0; i < ClientRateLimiter.MAX_TRACKED_CLIENTS; i++) {
+         limiter.tryAcquire("client" + i);
+      }
+      assertEquals(ClientRateLimiter.MAX_TRACKED_CLIENTS, limiter.getTrackedClients());
+
+      clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+      assertEquals(0, limiter.tryAcquire("other"));
+      assertEquals(1, limiter.getTrackedClients());
+   }
+
+}
@@ -0,0 +1,87 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.admission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link RouteLimiter} class.
+ */
+public class RouteLimiterTest {
+
+   @Test
+   public void acquire_rejectsBeyondQueue() throws InterruptedException {
+      RouteLimiter limiter = new RouteLimiter("GET /api/v1/models", 2, 0);
+
+      assertTrue(limiter.acquire(1, TimeUnit.SECONDS));
+      assertTrue(limiter.acquire(1, TimeUnit.SECONDS));
+      assertFalse(limiter.acquire(1, TimeUnit.SECONDS));
+
+      assertEquals(2, limiter.getActive());
+      assertEquals(2, limiter.getAdmitted());
+      assertEquals(1, limiter.getRejectedSaturated());
+      assertEquals(0, limiter.getQueued());
+   }
+
+   @Test
+   public void acquire_rejectsAfterTimeout() throws InterruptedException {
+      RouteLimiter limiter = new RouteLimiter("GET /api/v1/models", 1, 1);
+
+      assertTrue(limiter.acquire(1, TimeUnit.SECONDS));
+      assertFalse(limiter.acquire(10, TimeUnit.MILLISECONDS));
+
+      assertEquals(1, limiter.getRejectedSaturated());
+      assertEquals(0, limiter.getQueued());
+   }
+
+   @Test
+   public void acquire_admitsQueuedRequestOnRelease() throws Exception {
+      RouteLimiter limiter = new RouteLimiter("GET /api/v1/models", 1, 1);
+      assertTrue(limiter.acquire(1, TimeUnit.SECONDS));
+
+      CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+         try {
+            return limiter.acquire(10, TimeUnit.SECONDS);
+         } catch (InterruptedException e) {
+            return false;
+         }
+      });
+      while (limiter.getQueued() == 0) {
+         Thread.sleep(1);
+      }
+      limiter.release();
+
+      assertTrue(queued.get(10, TimeUnit.SECONDS));
+      assertEquals(1, limiter.getActive());
+      assertEquals(2, limiter.getAdmitted());
+      assertEquals(1, limiter.getAdmittedAfterWaiting());
+      assertEquals(0, limiter.getRejectedSaturated());
+   }
+
+   @Test
+   public void release_freesPermit() throws InterruptedException {
+      RouteLimiter limiter = new RouteLimiter("GET /api/v1/models", 1, 0);
+
+      assertTrue(limiter.acquire(1, TimeUnit.SECONDS));
+      limiter.release();
+
+      assertEquals(0, limiter.getActive());
+      assertTrue(limiter.acquire(1, TimeUnit.SECONDS));
+   }
+
+}
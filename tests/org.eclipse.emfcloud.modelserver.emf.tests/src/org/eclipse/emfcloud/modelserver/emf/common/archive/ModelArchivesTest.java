@@ -0,0 +1,184 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelArchives}, {@link ModelArchiveImporter} and {@link ModelArchiveExporter} classes.
+ */
+public class ModelArchivesTest {
+
+   private static final String LONG_NAME = "folder/" + "a".repeat(120) + ".json";
+
+   @Test
+   public void readEntries_zip() throws IOException {
+      Map<String, String> entries = readEntries(zip(Map.of("Coffee.ecore", "ecore", "sub/", "")));
+
+      assertEquals(Map.of("Coffee.ecore", "ecore"), entries);
+   }
+
+   @Test
+   public void readEntries_tar() throws IOException {
+      Map<String, String> expected = new LinkedHashMap<>();
+      expected.put("Coffee.ecore", "ecore");
+      expected.put(LONG_NAME, "x".repeat(1000));
+
+      assertEquals(expected, readEntries(tar(expected)));
+   }
+
+   @Test
+   public void readEntries_tarGz() throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+         gzip.write(tar(Map.of("SuperBrewer3000.coffee", "coffee")));
+      }
+
+      assertEquals(Map.of("SuperBrewer3000.coffee", "coffee"), readEntries(bytes.toByteArray()));
+   }
+
+   @Test
+   public void importEntries_rejectsEntriesOutsideOfTarget() throws IOException {
+      Path target = Files.createTempDirectory("import");
+      Map<String, String> entries = new LinkedHashMap<>();
+      entries.put("model.json", "{}");
+      entries.put("../escaped.json", "{}");
+
+      List<ArchiveEntryResult> results = new ModelArchiveImporter(target, false)
+         .importEntries(new ByteArrayInputStream(zip(entries)));
+
+      assertEquals(2, results.size());
+      assertEquals(ArchiveEntryResult.Status.WRITTEN, results.get(0).getStatus());
+      assertEquals("{}", Files.readString(target.resolve("model.json")));
+      assertEquals(ArchiveEntryResult.Status.FAILED, results.get(1).getStatus());
+      assertFalse(Files.exists(target.resolveSibling("escaped.json")));
+   }
+
+   @Test
+   public void importEntries_keepsExistingFiles() throws IOException {
+      Path target = Files.createTempDirectory("import");
+      Files.writeString(target.resolve("model.json"), "existing");
+
+      List<ArchiveEntryResult> results = new ModelArchiveImporter(target, false)
+         .importEntries(new ByteArrayInputStream(zip(Map.of("model.json", "imported"))));
+      assertEquals(ArchiveEntryResult.Status.FAILED, results.get(0).getStatus());
+      assertEquals("existing", Files.readString(target.resolve("model.json")));
+
+      results = new ModelArchiveImporter(target, true)
+         .importEntries(new ByteArrayInputStream(zip(Map.of("model.json", "imported"))));
+      assertEquals(ArchiveEntryResult.Status.WRITTEN, results.get(0).getStatus());
+      assertEquals("imported", Files.readString(target.resolve("model.json")));
+      try (Stream<Path> files = Files.list(target)) {
+         assertTrue(files.allMatch(file -> file.getFileName().toString().equals("model.json")));
+      }
+   }
+
+   @Test
+   public void exportModels_nativeAndConvertedFormat() throws IOException {
+      Resource resource = new XMIResourceImpl(URI.createFileURI("/workspace/test.ecore"));
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("exported");
+      resource.getContents().add(ePackage);
+      Path file = Files.createTempFile("export", ".txt");
+      Files.writeString(file, "plain");
+
+      ByteArrayOutputStream nativeArchive = new ByteArrayOutputStream();
+      try (ModelArchiveExporter exporter = new ModelArchiveExporter(nativeArchive, null)) {
+         exporter.addModel("test.ecore", resource);
+         exporter.addFile("notes.txt", file);
+         assertEquals(2, exporter.getEntryCount());
+      }
+      Map<String, String> entries = readEntries(nativeArchive.toByteArray());
+      assertEquals(List.of("test.ecore", "notes.txt"), List.copyOf(entries.keySet()));
+      assertTrue(entries.get("test.ecore").contains("ecore:EPackage"));
+      assertEquals("plain", entries.get("notes.txt"));
+
+      ByteArrayOutputStream jsonArchive = new ByteArrayOutputStream();
+      try (ModelArchiveExporter exporter = new ModelArchiveExporter(jsonArchive, "json")) {
+         exporter.addModel("test.ecore", resource);
+      }
+      entries = readEntries(jsonArchive.toByteArray());
+      assertTrue(entries.get("test.ecore.json").contains("\"exported\""));
+      assertEquals(1, resource.getContents().size());
+   }
+
+   private static Map<String, String> readEntries(final byte[] archive) throws IOException {
+      Map<String, String> result = new LinkedHashMap<>();
+      ModelArchives.readEntries(new ByteArrayInputStream(archive), (name, content) -> result.put(name,
+         new String(content.readAllBytes(), StandardCharsets.UTF_8)));
+      return result;
+   }
+
+   private static byte[] zip(final Map<String, String> entries) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+         for (Map.Entry<String, String> entry : entries.entrySet()) {
+            zip.putNextEntry(new ZipEntry(entry.getKey()));
+            zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+         }
+      }
+      return bytes.toByteArray();
+   }
+
+   private static byte[] tar(final Map<String, String> entries) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      for (Map.Entry<String, String> entry : entries.entrySet()) {
+         byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+         if (name.length > 100) {
+            writeTarEntry(bytes, "././@LongLink", 'L', name);
+         }
+         writeTarEntry(bytes, entry.getKey(), '0', entry.getValue().getBytes(StandardCharsets.UTF_8));
+      }
+      bytes.write(new byte[2 * TarReader.BLOCK_SIZE]);
+      return bytes.toByteArray();
+   }
+
+   private static void writeTarEntry(final ByteArrayOutputStream out, final String name, final char type,
+      final byte[] content) throws IOException {
+      byte[] header = new byte[TarReader.BLOCK_SIZE];
+      byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+      System.arraycopy(nameBytes, 0, header, 0, Math.min(nameBytes.length, 100));
+      byte[] size = String.format("%011o", content.length).getBytes(StandardCharsets.US_ASCII);
+      System.arraycopy(size, 0, header, 124, size.length);
+      header[156] = (byte) type;
+      byte[] magic = "ustar".getBytes(StandardCharsets.US_ASCII);
+      System.arraycopy(magic, 0, header, 257, magic.length);
+      out.write(header);
+      out.write(content);
+      int padding = (TarReader.BLOCK_SIZE - content.length % TarReader.BLOCK_SIZE) % TarReader.BLOCK_SIZE;
+      out.write(new byte[padding]);
+   }
+
+}
@@ -0,0 +1,131 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.codecs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emfcloud.modelserver.common.codecs.DefaultJsonCodec;
+import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Unit tests for the {@link Projection} class.
+ */
+public class ProjectionTest {
+
+   private EPackage ePackage;
+   private EClass eClass;
+   private EAttribute eAttribute;
+
+   @Before
+   public void before() {
+      Resource resource = new ResourceImpl(URI.createFileURI("/workspace/models/test.ecore"));
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("test");
+      eClass = EcoreFactory.eINSTANCE.createEClass();
+      eClass.setName("A");
+      eClass.setAbstract(true);
+      eAttribute = EcoreFactory.eINSTANCE.createEAttribute();
+      eAttribute.setName("x");
+      eClass.getEStructuralFeatures().add(eAttribute);
+      ePackage.getEClassifiers().add(eClass);
+      resource.getContents().add(ePackage);
+   }
+
+   @Test
+   public void of_parsesFieldsAndDepth() {
+      Projection projection = Projection.of(Map.of(
+         "fields", List.of("name, eClassifiers", "nsURI"),
+         "depth", List.of("2"))).get();
+
+      assertEquals(Set.of("name", "eClassifiers", "nsURI"), projection.getFields());
+      assertEquals(2, projection.getDepth());
+   }
+
+   @Test
+   public void of_withoutParameters() {
+      assertFalse(Projection.of(Map.of()).isPresent());
+      assertFalse(Projection.of(Map.of("depth", List.of("deep"))).isPresent());
+   }
+
+   @Test
+   public void copy_depth() {
+      EPackage copy = (EPackage) new Projection(null, 0).copy(ePackage);
+      assertEquals("test", copy.getName());
+      assertTrue(copy.getEClassifiers().isEmpty());
+
+      copy = (EPackage) new Projection(null, 1).copy(ePackage);
+      EClass classCopy = (EClass) copy.getEClassifiers().get(0);
+      assertEquals("A", classCopy.getName());
+      assertTrue(classCopy.getEStructuralFeatures().isEmpty());
+
+      // the original is untouched
+      assertEquals(1, eClass.getEStructuralFeatures().size());
+   }
+
+   @Test
+   public void copy_fields() {
+      Projection projection = new Projection(Set.of("name", "eClassifiers"), Projection.UNLIMITED_DEPTH);
+      EPackage copy = (EPackage) projection.copy(ePackage);
+
+      EClass classCopy = (EClass) copy.getEClassifiers().get(0);
+      assertEquals("A", classCopy.getName());
+      assertFalse(classCopy.isAbstract());
+      assertTrue(classCopy.getEStructuralFeatures().isEmpty());
+   }
+
+   @Test
+   public void encode_referencesBeyondDepth() throws EncodingException {
+      JsonNode result = new Projection(Set.of("name", "eClassifiers", "eStructuralFeatures"), 1)
+         .encode(new DefaultJsonCodec(), ePackage);
+
+      JsonNode classNode = result.get("eClassifiers").get(0);
+      assertEquals("A", classNode.get("name").asText());
+      assertNull(classNode.get("abstract"));
+      JsonNode reference = classNode.get("eStructuralFeatures").get(0);
+      assertEquals(EcoreUtil.getURI(EcorePackage.Literals.EATTRIBUTE).toString(), reference.get("eClass").asText());
+      assertEquals("file:/workspace/models/test.ecore", reference.get("modeluri").asText());
+      assertEquals("//A/x", reference.get("id").asText());
+      assertNull(reference.get("name"));
+   }
+
+   @Test
+   public void encode_referencesByIdInWorkspace() throws EncodingException {
+      JsonNode result = new Projection(null, 1)
+         .withIds(element -> "id-" + ((ENamedElement) element).getName(), URI.createFileURI("/workspace/"))
+         .encode(new DefaultJsonCodec(), ePackage);
+
+      JsonNode reference = result.get("eClassifiers").get(0).get("eStructuralFeatures").get(0);
+      assertEquals("models/test.ecore", reference.get("modeluri").asText());
+      assertEquals("id-x", reference.get("id").asText());
+   }
+
+}
@@ -0,0 +1,182 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.diff;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emfcloud.modelserver.common.codecs.DefaultJsonCodec;
+import org.eclipse.emfcloud.modelserver.common.codecs.EncodingException;
+import org.eclipse.emfcloud.modelserver.emf.common.hash.ContentHasher;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Unit tests for the {@link ModelDiff} class.
+ */
+public class ModelDiffTest {
+
+   private EPackage source;
+   private EPackage target;
+   private ContentHasher hasher;
+
+   @Before
+   public void before() {
+      source = EcoreFactory.eINSTANCE.createEPackage();
+      source.setName("test");
+      source.setNsURI("http://test");
+      Arrays.asList("A", "B", "C").forEach(name -> source.getEClassifiers().add(createEClass(name)));
+      addToResource(source, "source.ecore");
+      target = EcoreUtil.copy(source);
+      addToResource(target, "target.ecore");
+      hasher = new ContentHasher(element -> ((ENamedElement) element).getName());
+   }
+
+   @Test
+   public void hash_equalCopies() {
+      assertArrayEquals(hasher.hash(source), hasher.hash(target));
+      assertFalse(Arrays.equals(hasher.hash(source.getEClassifiers().get(0)),
+         hasher.hash(source.getEClassifiers().get(1))));
+   }
+
+   @Test
+   public void diff_equalModels() throws EncodingException {
+      assertEquals(Json.array(), diff());
+   }
+
+   @Test
+   public void diff_attributes() throws EncodingException {
+      target.setNsURI("http://test/2");
+      ((EClass) target.getEClassifiers().get(1)).setAbstract(true);
+
+      ArrayNode expected = Json.array(
+         operation("replace", "/nsURI", Json.text("http://test/2")),
+         operation("add", "/eClassifiers/1/abstract", Json.bool(true)));
+      assertEquals(expected, diff());
+   }
+
+   @Test
+   public void diff_containmentList() throws EncodingException {
+      EClass classD = createEClass("D");
+      target.getEClassifiers().remove(1);
+      target.getEClassifiers().move(0, 1);
+      target.getEClassifiers().add(classD);
+
+      ArrayNode patch = diff();
+
+      assertEquals(3, patch.size());
+      assertEquals(operation("remove", "/eClassifiers/1", null), patch.get(0));
+      assertEquals(Json.object(
+         Json.prop("op", Json.text("move")),
+         Json.prop("from", Json.text("/eClassifiers/1")),
+         Json.prop("path", Json.text("/eClassifiers/0"))), patch.get(1));
+      assertEquals(operation("add", "/eClassifiers/2", new DefaultJsonCodec().encode(classD)), patch.get(2));
+   }
+
+   @Test
+   public void diff_containmentListWithPositionalIds() throws EncodingException {
+      EClass nodeClass = createEClass("Node");
+      EAttribute name = EcoreFactory.eINSTANCE.createEAttribute();
+      name.setName("name");
+      name.setEType(EcorePackage.Literals.ESTRING);
+      EReference children = EcoreFactory.eINSTANCE.createEReference();
+      children.setName("children");
+      children.setEType(nodeClass);
+      children.setContainment(true);
+      children.setUpperBound(-1);
+      nodeClass.getEStructuralFeatures().addAll(Arrays.asList(name, children));
+      EPackage graph = EcoreFactory.eINSTANCE.createEPackage();
+      graph.setName("graph");
+      graph.setNsURI("http://graph");
+      graph.getEClassifiers().add(nodeClass);
+
+      EObject sourceRoot = EcoreUtil.create(nodeClass);
+      for (String next : Arrays.asList("a", "b", "c")) {
+         EObject child = EcoreUtil.create(nodeClass);
+         child.eSet(name, next);
+         getChildren(sourceRoot, children).add(child);
+      }
+      addToResource(sourceRoot, "source.xmi");
+      EObject targetRoot = EcoreUtil.copy(sourceRoot);
+      addToResource(targetRoot, "target.xmi");
+      getChildren(targetRoot, children).remove(1);
+      getChildren(targetRoot, children).move(0, 1);
+
+      // the URI fragments, e.g. "//@children.1", do not identify the children, so they are matched by their content
+      ContentHasher fragments = new ContentHasher(element -> element.eResource().getURIFragment(element));
+      ArrayNode patch = new ModelDiff(fragments, new DefaultJsonCodec()).diff(sourceRoot, targetRoot);
+
+      assertEquals(Json.array(
+         operation("remove", "/children/1", null),
+         Json.object(
+            Json.prop("op", Json.text("move")),
+            Json.prop("from", Json.text("/children/1")),
+            Json.prop("path", Json.text("/children/0")))),
+         patch);
+   }
+
+   @Test
+   public void diff_emptyList() throws EncodingException {
+      target.getEClassifiers().clear();
+
+      assertEquals(Json.array(operation("remove", "/eClassifiers", null)), diff());
+   }
+
+   private ArrayNode diff() throws EncodingException {
+      return new ModelDiff(hasher, new DefaultJsonCodec()).diff(source, target);
+   }
+
+   private static JsonNode operation(final String op, final String path, final JsonNode value) {
+      ObjectNode result = Json.object(Json.prop("op", Json.text(op)), Json.prop("path", Json.text(path)));
+      if (value != null) {
+         result.set("value", value);
+      }
+      return result;
+   }
+
+   @SuppressWarnings("unchecked")
+   private static List<EObject> getChildren(final EObject node, final EReference children) {
+      return (List<EObject>) node.eGet(children);
+   }
+
+   private static EClass createEClass(final String name) {
+      EClass result = EcoreFactory.eINSTANCE.createEClass();
+      result.setName(name);
+      return result;
+   }
+
+   private static void addToResource(final EObject root, final String uri) {
+      Resource resource = new ResourceImpl(URI.createURI(uri));
+      resource.getContents().add(root);
+   }
+
+}
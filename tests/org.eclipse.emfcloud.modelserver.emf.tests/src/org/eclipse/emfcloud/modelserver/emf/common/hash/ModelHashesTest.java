@@ -0,0 +1,175 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.hash;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelHashes} class.
+ */
+public class ModelHashesTest {
+
+   private static final Function<EObject, String> FRAGMENTS = element -> element.eResource().getURIFragment(element);
+
+   private EClass nodeClass;
+   private EAttribute nameAttribute;
+   private EReference childrenReference;
+   private EReference targetReference;
+
+   private Resource resource;
+   private EObject root;
+   private ModelHashes hashes;
+
+   @Before
+   public void before() {
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("graph");
+      ePackage.setNsURI("http://graph");
+      nodeClass = EcoreFactory.eINSTANCE.createEClass();
+      nodeClass.setName("Node");
+      nameAttribute = EcoreFactory.eINSTANCE.createEAttribute();
+      nameAttribute.setName("name");
+      nameAttribute.setEType(EcorePackage.Literals.ESTRING);
+      childrenReference = EcoreFactory.eINSTANCE.createEReference();
+      childrenReference.setName("children");
+      childrenReference.setEType(nodeClass);
+      childrenReference.setContainment(true);
+      childrenReference.setUpperBound(-1);
+      targetReference = EcoreFactory.eINSTANCE.createEReference();
+      targetReference.setName("target");
+      targetReference.setEType(nodeClass);
+      nodeClass.getEStructuralFeatures().addAll(Arrays.asList(nameAttribute, childrenReference, targetReference));
+      ePackage.getEClassifiers().add(nodeClass);
+
+      resource = new ResourceImpl(URI.createURI("graph.xmi"));
+      root = createNode("root");
+      resource.getContents().add(root);
+      getChildren(root).addAll(Arrays.asList(createNode("a"), createNode("b"), createNode("c")));
+      getChildren(root).get(2).eSet(targetReference, getChildren(root).get(1));
+
+      hashes = ModelHashes.getOrCreate(resource, FRAGMENTS);
+   }
+
+   @Test
+   public void getOrCreate_attachesOnce() {
+      assertSame(hashes, ModelHashes.getOrCreate(resource, FRAGMENTS));
+   }
+
+   @Test
+   public void getHash_equalToComputedHash() {
+      assertHashes();
+   }
+
+   @Test
+   public void getHash_attributeChange() {
+      byte[] before = hashes.getHash(root);
+      byte[] unchanged = hashes.getHash(getChildren(root).get(0));
+
+      getChildren(root).get(1).eSet(nameAttribute, "renamed");
+
+      assertFalse(Arrays.equals(before, hashes.getHash(root)));
+      assertArrayEquals(unchanged, hashes.getHash(getChildren(root).get(0)));
+      assertHashes();
+   }
+
+   @Test
+   public void getHash_shiftedReferenceTarget() {
+      EObject referrer = getChildren(root).get(2);
+      byte[] before = hashes.getHash(referrer);
+
+      // the target of the reference moves from "//@children.1" to "//@children.2"
+      getChildren(root).add(0, createNode("first"));
+
+      assertFalse(Arrays.equals(before, hashes.getHash(referrer)));
+      assertHashes();
+   }
+
+   @Test
+   public void getHash_referrerKeptIfTargetIdUnchanged() {
+      AtomicInteger idLookups = new AtomicInteger();
+      Resource other = new ResourceImpl(URI.createURI("other.xmi"));
+      other.getContents().add(EcoreUtil.copy(root));
+      EObject referrer = getChildren(other.getContents().get(0)).get(2);
+      ModelHashes counting = ModelHashes.getOrCreate(other, element -> {
+         idLookups.incrementAndGet();
+         return FRAGMENTS.apply(element);
+      });
+      byte[] before = counting.getHash(referrer);
+
+      // the positional ID of the reference target does not depend on the name of its sibling
+      getChildren(other.getContents().get(0)).get(0).eSet(nameAttribute, "renamed");
+      idLookups.set(0);
+
+      assertArrayEquals(before, counting.getHash(referrer));
+      assertEquals(0, idLookups.get());
+   }
+
+   @Test
+   public void getHash_removedAndRestored() {
+      hashes.getHash(root);
+      EObject removed = getChildren(root).remove(0);
+      assertHashes();
+
+      getChildren(root).add(0, removed);
+      assertHashes();
+   }
+
+   @Test
+   public void createHasher_hashesCopiesEqually() {
+      ContentHasher hasher = ModelHashes.createHasher(FRAGMENTS);
+      EObject copy = EcoreUtil.copy(root);
+      new ResourceImpl(URI.createURI("graph.xmi")).getContents().add(copy);
+
+      assertArrayEquals(hashes.getHash(root), hasher.hash(copy));
+   }
+
+   private void assertHashes() {
+      ContentHasher fresh = new ContentHasher(FRAGMENTS);
+      assertArrayEquals(fresh.hash(root), hashes.getHash(root));
+      for (EObject child : getChildren(root)) {
+         assertArrayEquals(fresh.hash(child), hashes.getHash(child));
+      }
+   }
+
+   private EObject createNode(final String name) {
+      EObject result = EcoreUtil.create(nodeClass);
+      result.eSet(nameAttribute, name);
+      return result;
+   }
+
+   @SuppressWarnings("unchecked")
+   private List<EObject> getChildren(final EObject node) {
+      return (List<EObject>) node.eGet(childrenReference);
+   }
+
+}
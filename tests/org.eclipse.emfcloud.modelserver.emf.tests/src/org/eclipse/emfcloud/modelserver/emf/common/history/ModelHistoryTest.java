@@ -0,0 +1,171 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.edit.command.AddCommand;
+import org.eclipse.emf.edit.command.RemoveCommand;
+import org.eclipse.emf.edit.command.SetCommand;
+import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
+import org.eclipse.emfcloud.modelserver.emf.common.ModelServerEditingDomain;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelHistory} class.
+ */
+public class ModelHistoryTest {
+
+   private static final URI MODEL_URI = URI.createURI("test.ecore");
+
+   private Resource resource;
+   private EPackage ePackage;
+   private EClass eClassA;
+
+   @Before
+   public void before() {
+      ResourceSet resourceSet = new ResourceSetImpl();
+      resource = new ResourceImpl(MODEL_URI);
+      resourceSet.getResources().add(resource);
+
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("test");
+      eClassA = createEClass("A");
+      ePackage.getEClassifiers().add(eClassA);
+      resource.getContents().add(ePackage);
+   }
+
+   @Test
+   public void getResource_pastRevisions() {
+      ModelHistory history = new ModelHistory(MODEL_URI, 10);
+      ModelServerEditingDomain domain = createEditingDomain(history);
+      List<EObject> revision0 = copyContents();
+
+      domain.execute(new SetCommand(domain, eClassA, EcorePackage.Literals.ENAMED_ELEMENT__NAME, "B"));
+      List<EObject> revision1 = copyContents();
+      domain.execute(new AddCommand(domain, ePackage, EcorePackage.Literals.EPACKAGE__ECLASSIFIERS,
+         createEClass("C")));
+      List<EObject> revision2 = copyContents();
+      domain.execute(new RemoveCommand(domain, ePackage, EcorePackage.Literals.EPACKAGE__ECLASSIFIERS, eClassA));
+
+      assertEquals(3, history.getRevision());
+      assertSame(resource, history.getResource(3).get());
+      assertContents(revision2, history.getResource(2).get());
+      assertContents(revision1, history.getResource(1).get());
+      assertContents(revision0, history.getResource(0).get());
+      assertFalse(history.getResource(4).isPresent());
+
+      // rebuilding past revisions must not touch the live model
+      assertEquals(1, ePackage.getEClassifiers().size());
+      assertEquals("C", ePackage.getEClassifiers().get(0).getName());
+      assertNull(eClassA.eContainer());
+   }
+
+   @Test
+   public void getResource_undoAndRedoAreRevisions() {
+      ModelHistory history = new ModelHistory(MODEL_URI, 10);
+      ModelServerEditingDomain domain = createEditingDomain(history);
+
+      domain.execute(new SetCommand(domain, eClassA, EcorePackage.Literals.ENAMED_ELEMENT__NAME, "B"));
+      domain.undo();
+      domain.redo();
+
+      assertEquals(3, history.getRevision());
+      assertEquals("A", getFirstClassName(history.getResource(0).get()));
+      assertEquals("B", getFirstClassName(history.getResource(1).get()));
+      assertEquals("A", getFirstClassName(history.getResource(2).get()));
+      assertEquals("B", getFirstClassName(history.getResource(3).get()));
+   }
+
+   @Test
+   public void getResource_boundedHistory() {
+      ModelHistory history = new ModelHistory(MODEL_URI, 2);
+      ModelServerEditingDomain domain = createEditingDomain(history);
+
+      domain.execute(new SetCommand(domain, eClassA, EcorePackage.Literals.ENAMED_ELEMENT__NAME, "B"));
+      domain.execute(new SetCommand(domain, eClassA, EcorePackage.Literals.ENAMED_ELEMENT__NAME, "C"));
+      domain.execute(new SetCommand(domain, eClassA, EcorePackage.Literals.ENAMED_ELEMENT__NAME, "D"));
+
+      assertEquals(1, history.getOldestRevision());
+      assertFalse(history.getResource(0).isPresent());
+      assertEquals("B", getFirstClassName(history.getResource(1).get()));
+      assertEquals("C", getFirstClassName(history.getResource(2).get()));
+   }
+
+   @Test
+   public void getResource_changeOutsideOfCommandDiscardsHistory() {
+      ModelHistory history = new ModelHistory(MODEL_URI, 10);
+      ModelServerEditingDomain domain = createEditingDomain(history);
+
+      domain.execute(new SetCommand(domain, eClassA, EcorePackage.Literals.ENAMED_ELEMENT__NAME, "B"));
+      eClassA.setName("C");
+
+      assertEquals(2, history.getRevision());
+      assertEquals(2, history.getOldestRevision());
+      assertFalse(history.getResource(1).isPresent());
+      assertSame(resource, history.getResource(2).get());
+   }
+
+   @Test
+   public void getResource_ignoresOtherResources() {
+      ModelHistory history = new ModelHistory(MODEL_URI, 10);
+      ModelServerEditingDomain domain = createEditingDomain(history);
+      Resource other = new ResourceImpl(URI.createURI("other.ecore"));
+      domain.getResourceSet().getResources().add(other);
+
+      other.getContents().add(createEClass("X"));
+
+      assertEquals(0, history.getRevision());
+      assertSame(resource, history.getResource(0).get());
+   }
+
+   private ModelServerEditingDomain createEditingDomain(final ModelHistory history) {
+      return new ModelServerEditingDomain(new ComposedAdapterFactory(), resource.getResourceSet(), history);
+   }
+
+   private static EClass createEClass(final String name) {
+      EClass result = EcoreFactory.eINSTANCE.createEClass();
+      result.setName(name);
+      return result;
+   }
+
+   private static String getFirstClassName(final Resource revision) {
+      return ((EPackage) revision.getContents().get(0)).getEClassifiers().get(0).getName();
+   }
+
+   private List<EObject> copyContents() {
+      return new ArrayList<>(EcoreUtil.copyAll(resource.getContents()));
+   }
+
+   private static void assertContents(final List<EObject> expected, final Resource actual) {
+      assertTrue(EcoreUtil.equals(expected, actual.getContents()));
+   }
+
+}
@@ -0,0 +1,212 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emf.edit.command.DeleteCommand;
+import org.eclipse.emf.edit.command.RemoveCommand;
+import org.eclipse.emf.edit.provider.ComposedAdapterFactory;
+import org.eclipse.emfcloud.modelserver.emf.common.ModelServerEditingDomain;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CrossReferenceIndex} class.
+ */
+public class CrossReferenceIndexTest {
+
+   private EClass node;
+   private EAttribute nodeId;
+   private EReference children;
+   private EReference links;
+   private EReference target;
+
+   private CrossReferenceIndex index;
+
+   @Before
+   public void before() {
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("xref");
+      ePackage.setNsURI("http://www.eclipse.org/emfcloud/modelserver/test/xref");
+
+      node = EcoreFactory.eINSTANCE.createEClass();
+      node.setName("Node");
+      nodeId = EcoreFactory.eINSTANCE.createEAttribute();
+      nodeId.setName("id");
+      nodeId.setEType(EcorePackage.Literals.ESTRING);
+      nodeId.setID(true);
+      node.getEStructuralFeatures().add(nodeId);
+      children = createReference("children", true, -1);
+      links = createReference("links", false, -1);
+      target = createReference("target", false, 1);
+      ePackage.getEClassifiers().add(node);
+
+      index = new CrossReferenceIndex();
+   }
+
+   @Test
+   public void getReferences_incrementalUpdates() {
+      Resource resource = createModel(new ResourceSetImpl(), "a.xmi");
+      EObject root = resource.getContents().get(0);
+      EObject x = createNode("x");
+      EObject y = createNode("y");
+      children(root).addAll(List.of(x, y));
+      index.attach(resource);
+
+      links(y).add(x);
+      y.eSet(target, x);
+      assertEquals(Set.of(new CrossReference(y, links), new CrossReference(y, target)),
+         Set.copyOf(index.getReferences(x)));
+
+      y.eSet(target, root);
+      assertEquals(Set.of(new CrossReference(y, links)), Set.copyOf(index.getReferences(x)));
+      assertEquals(Set.of(new CrossReference(y, target)), Set.copyOf(index.getReferences(root)));
+
+      // references of removed elements are forgotten
+      children(root).remove(y);
+      assertTrue(index.getReferences(x).isEmpty());
+      assertTrue(index.getReferences(root).isEmpty());
+   }
+
+   @Test
+   public void getReferences_acrossModels() {
+      Resource modelA = createModel(new ResourceSetImpl(), "a.xmi");
+      EObject a = createNode("a");
+      children(modelA.getContents().get(0)).add(a);
+
+      // the model B references a copy of model A in its own resource set
+      ResourceSet resourceSetB = new ResourceSetImpl();
+      Resource modelB = createModel(resourceSetB, "b.xmi");
+      Resource copyOfA = new XMIResourceImpl(modelA.getURI());
+      resourceSetB.getResources().add(copyOfA);
+      copyOfA.getContents().addAll(EcoreUtil.copyAll(modelA.getContents()));
+      EObject b = createNode("b");
+      children(modelB.getContents().get(0)).add(b);
+      links(b).add(copyOfA.getEObject("a"));
+
+      index.attach(modelA);
+      index.attach(modelB);
+
+      assertEquals(List.of(new CrossReference(b, links)), List.copyOf(index.getReferences(a)));
+      assertTrue(index.getLocalReferences(a).isEmpty());
+
+      index.detach(modelB);
+      assertTrue(index.getReferences(a).isEmpty());
+   }
+
+   @Test
+   public void deleteCommand_removesReferencesToDeletedElements() {
+      ResourceSet resourceSet = new ResourceSetImpl();
+      Resource resource = createModel(resourceSet, "a.xmi");
+      EObject root = resource.getContents().get(0);
+      EObject x = createNode("x");
+      EObject xChild = createNode("xChild");
+      EObject y = createNode("y");
+      children(x).add(xChild);
+      children(root).addAll(List.of(x, y));
+      links(y).addAll(List.of(x, root));
+      y.eSet(target, xChild);
+      // references within the deleted subtree are kept
+      x.eSet(target, xChild);
+      index.attach(resource);
+      ModelServerEditingDomain domain = new ModelServerEditingDomain(new ComposedAdapterFactory(), resourceSet,
+         null, index);
+
+      domain.execute(DeleteCommand.create(domain, x));
+
+      assertEquals(List.of(y), children(root));
+      assertEquals(List.of(root), links(y));
+      assertNull(y.eGet(target));
+      assertSame(xChild, x.eGet(target));
+
+      domain.undo();
+
+      assertEquals(List.of(x, y), children(root));
+      assertEquals(List.of(x, root), links(y));
+      assertSame(xChild, y.eGet(target));
+   }
+
+   @Test
+   public void removeCommand_keepsReferencesToRemovedElements() {
+      ResourceSet resourceSet = new ResourceSetImpl();
+      Resource resource = createModel(resourceSet, "a.xmi");
+      EObject root = resource.getContents().get(0);
+      EObject x = createNode("x");
+      EObject y = createNode("y");
+      children(root).addAll(List.of(x, y));
+      links(y).add(x);
+      y.eSet(target, x);
+      index.attach(resource);
+      ModelServerEditingDomain domain = new ModelServerEditingDomain(new ComposedAdapterFactory(), resourceSet,
+         null, index);
+
+      // the first half of a move from root to y
+      domain.execute(RemoveCommand.create(domain, root, children, x));
+
+      assertEquals(List.of(y), children(root));
+      assertEquals(List.of(x), links(y));
+      assertSame(x, y.eGet(target));
+   }
+
+   private Resource createModel(final ResourceSet resourceSet, final String name) {
+      Resource resource = new XMIResourceImpl(URI.createURI("file:/workspace/" + name));
+      resourceSet.getResources().add(resource);
+      resource.getContents().add(createNode(name));
+      return resource;
+   }
+
+   private EObject createNode(final String id) {
+      EObject result = EcoreUtil.create(node);
+      result.eSet(nodeId, id);
+      return result;
+   }
+
+   private EReference createReference(final String name, final boolean containment, final int upperBound) {
+      EReference result = EcoreFactory.eINSTANCE.createEReference();
+      result.setName(name);
+      result.setEType(node);
+      result.setContainment(containment);
+      result.setUpperBound(upperBound);
+      node.getEStructuralFeatures().add(result);
+      return result;
+   }
+
+   @SuppressWarnings("unchecked")
+   private List<EObject> children(final EObject parent) {
+      return (List<EObject>) parent.eGet(children);
+   }
+
+   @SuppressWarnings("unchecked")
+   private List<EObject> links(final EObject source) {
+      return (List<EObject>) source.eGet(links);
+   }
+
+}
@@ -0,0 +1,253 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emfcloud.modelserver.emf.configuration.EPackageConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelIndex} class.
+ */
+public class ModelIndexTest {
+
+   private static final String NS_URI = "http://www.eclipse.org/emfcloud/modelserver/test/index";
+
+   private EPackage ePackage;
+   private EClass node;
+   private EClass note;
+   private EAttribute nodeId;
+   private EAttribute nodeName;
+   private EReference children;
+   private EReference notes;
+
+   @Before
+   public void before() {
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("index");
+      ePackage.setNsURI(NS_URI);
+
+      node = EcoreFactory.eINSTANCE.createEClass();
+      node.setName("Node");
+      nodeId = EcoreFactory.eINSTANCE.createEAttribute();
+      nodeId.setName("id");
+      nodeId.setEType(EcorePackage.Literals.ESTRING);
+      nodeId.setID(true);
+      node.getEStructuralFeatures().add(nodeId);
+      nodeName = EcoreFactory.eINSTANCE.createEAttribute();
+      nodeName.setName("name");
+      nodeName.setEType(EcorePackage.Literals.ESTRING);
+      node.getEStructuralFeatures().add(nodeName);
+      children = createContainment("children", node);
+      node.getEStructuralFeatures().add(children);
+
+      note = EcoreFactory.eINSTANCE.createEClass();
+      note.setName("Note");
+      notes = createContainment("notes", note);
+      node.getEStructuralFeatures().add(notes);
+
+      ePackage.getEClassifiers().add(node);
+      ePackage.getEClassifiers().add(note);
+   }
+
+   @Test
+   public void getElement_idAttribute() {
+      Resource resource = new XMIResourceImpl(URI.createURI("test.xmi"));
+      EObject root = createNode("root");
+      EObject child = createNode("child");
+      resource.getContents().add(root);
+      ModelIndex index = ModelIndex.getOrCreate(resource, new EPackageIndexConfiguration(Collections.emptySet()));
+
+      assertSame(root, index.getElement("root").get());
+      assertFalse(index.getElement("child").isPresent());
+
+      children(root).add(child);
+      assertSame(child, index.getElement("child").get());
+
+      child.eSet(nodeId, "renamed");
+      assertFalse(index.getElement("child").isPresent());
+      assertSame(child, index.getElement("renamed").get());
+
+      children(root).remove(child);
+      assertFalse(index.getElement("renamed").isPresent());
+      assertSame(index, ModelIndex.get(resource).get());
+   }
+
+   @Test
+   public void getElement_uuids() {
+      Resource resource = new XMIResourceImpl(URI.createURI("test.xmi"));
+      EObject root = createNode("root");
+      EObject noteObject = EcoreUtil.create(note);
+      notes(root).add(noteObject);
+      resource.getContents().add(root);
+      ModelIndex index = ModelIndex.getOrCreate(resource, new EPackageIndexConfiguration(Set.of(uuidConfiguration())));
+
+      String uuid = ((XMLResource) resource).getID(noteObject);
+      assertNotNull(uuid);
+      assertSame(noteObject, index.getElement(uuid).get());
+      // elements with an ID attribute keep their ID
+      assertEquals("root", index.getId(root));
+
+      notes(root).remove(noteObject);
+      assertFalse(index.getElement(uuid).isPresent());
+      notes(root).add(noteObject);
+      assertEquals(uuid, ((XMLResource) resource).getID(noteObject));
+      assertSame(noteObject, index.getElement(uuid).get());
+   }
+
+   @Test
+   public void getEObject_indexedResourceSet() {
+      ResourceSet resourceSet = new IndexedResourceSet();
+      Resource resource = new XMIResourceImpl(URI.createURI("test.xmi"));
+      resourceSet.getResources().add(resource);
+      EObject root = createNode("root");
+      EObject child = createNode("child");
+      children(root).add(child);
+      resource.getContents().add(root);
+      ModelIndex.getOrCreate(resource, new EPackageIndexConfiguration(Collections.emptySet()));
+
+      assertSame(child, resourceSet.getEObject(URI.createURI("test.xmi#child"), false));
+      assertSame(child, resourceSet.getEObject(URI.createURI("test.xmi#//@children.0"), false));
+   }
+
+   @Test
+   public void getElements_name() {
+      Resource resource = new XMIResourceImpl(URI.createURI("test.xmi"));
+      EObject root = createNode("root");
+      EObject first = createNode("first", "x");
+      EObject second = createNode("second", "y");
+      EObject third = createNode("third", "x");
+      children(root).addAll(List.of(first, second));
+      children(second).add(third);
+      resource.getContents().add(root);
+      ModelIndex index = ModelIndex.getOrCreate(resource, new EPackageIndexConfiguration(Collections.emptySet()));
+
+      assertEquals(List.of(first, third), index.getElements("name", "x").get());
+      assertEquals(Set.of(first, second, third, root), index.getInstances(node));
+
+      children(root).move(0, 1);
+      assertEquals(List.of(third, first), index.getElements("name", "x").get());
+
+      first.eSet(nodeName, "y");
+      assertEquals(List.of(third), index.getElements("name", "x").get());
+      assertEquals(Set.of(first, second), index.getElements(nodeName, "y").get());
+
+      children(root).remove(second);
+      assertEquals(List.of(first), index.getElements("name", "y").get());
+      assertTrue(index.getElements("name", "x").get().isEmpty());
+      assertEquals(Set.of(first, root), index.getInstances(node));
+   }
+
+   @Test
+   public void getElements_notIndexed() {
+      Resource resource = new XMIResourceImpl(URI.createURI("test.xmi"));
+      resource.getContents().add(createNode("root", "x"));
+      ModelIndex index = ModelIndex.getOrCreate(resource,
+         new EPackageIndexConfiguration(Set.of(noIndexConfiguration())));
+
+      assertFalse(index.getElements("name", "x").isPresent());
+      assertFalse(index.getElements(nodeName, "x").isPresent());
+      assertTrue(index.getElements("unknown", "x").get().isEmpty());
+   }
+
+   private EObject createNode(final String id, final String name) {
+      EObject result = createNode(id);
+      result.eSet(nodeName, name);
+      return result;
+   }
+
+   private EObject createNode(final String id) {
+      EObject result = EcoreUtil.create(node);
+      result.eSet(nodeId, id);
+      return result;
+   }
+
+   @SuppressWarnings("unchecked")
+   private List<EObject> children(final EObject parent) {
+      return (List<EObject>) parent.eGet(children);
+   }
+
+   @SuppressWarnings("unchecked")
+   private List<EObject> notes(final EObject parent) {
+      return (List<EObject>) parent.eGet(notes);
+   }
+
+   private static EReference createContainment(final String name, final EClass type) {
+      EReference result = EcoreFactory.eINSTANCE.createEReference();
+      result.setName(name);
+      result.setEType(type);
+      result.setContainment(true);
+      result.setUpperBound(-1);
+      return result;
+   }
+
+   private static EPackageConfiguration uuidConfiguration() {
+      return new EPackageConfiguration() {
+         @Override
+         public String getId() { return NS_URI; }
+
+         @Override
+         public Collection<String> getFileExtensions() { return Collections.emptyList(); }
+
+         @Override
+         public void registerEPackage() {}
+
+         @Override
+         public boolean useUUIDs() {
+            return true;
+         }
+      };
+   }
+
+   private static EPackageConfiguration noIndexConfiguration() {
+      return new EPackageConfiguration() {
+         @Override
+         public String getId() { return NS_URI; }
+
+         @Override
+         public Collection<String> getFileExtensions() { return Collections.emptyList(); }
+
+         @Override
+         public void registerEPackage() {}
+
+         @Override
+         public Collection<EStructuralFeature> getIndexedFeatures(final EClass eClass) {
+            return Collections.emptyList();
+         }
+      };
+   }
+
+}
@@ -0,0 +1,71 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.index;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelURIIndex} class.
+ */
+public class ModelURIIndexTest {
+
+   private URI workspaceRoot = URI.createFileURI("/workspace/");
+   private ModelURIIndex index;
+
+   @Before
+   public void before() {
+      index = new ModelURIIndex(() -> workspaceRoot);
+      for (String path : List.of("b/machine.ecore", "a/coffee.ecore", "b/brewer.ecore", "a/b/tea.ecore", "c.ecore")) {
+         index.add(workspaceRoot.appendSegments(path.split("/")));
+      }
+   }
+
+   @Test
+   public void list() {
+      assertEquals(List.of("a/b/tea.ecore", "a/coffee.ecore", "b/brewer.ecore", "b/machine.ecore", "c.ecore"),
+         index.list(null, null, Integer.MAX_VALUE));
+      assertEquals(List.of("a/b/tea.ecore", "a/coffee.ecore"), index.list(null, null, 2));
+   }
+
+   @Test
+   public void list_prefix() {
+      assertEquals(List.of("a/b/tea.ecore", "a/coffee.ecore"), index.list("a/", null, Integer.MAX_VALUE));
+      assertEquals(List.of("b/brewer.ecore", "b/machine.ecore"), index.list("b", null, Integer.MAX_VALUE));
+      assertEquals(List.of(), index.list("d", null, Integer.MAX_VALUE));
+   }
+
+   @Test
+   public void list_pages() {
+      assertEquals(List.of("a/coffee.ecore", "b/brewer.ecore"), index.list(null, "a/b/tea.ecore", 2));
+      assertEquals(List.of("b/machine.ecore"), index.list("b/", "b/brewer.ecore", 2));
+      // a cursor before the prefix starts at the prefix
+      assertEquals(List.of("b/brewer.ecore"), index.list("b/", "a/coffee.ecore", 1));
+      // a cursor of a model that has been removed in the meantime still works
+      index.remove(workspaceRoot.appendSegments(new String[] { "b", "brewer.ecore" }));
+      assertEquals(List.of("b/machine.ecore"), index.list("b/", "b/brewer.ecore", 2));
+   }
+
+   @Test
+   public void remove_afterWorkspaceRootChanged() {
+      URI model = workspaceRoot.appendSegment("c.ecore");
+      workspaceRoot = URI.createFileURI("/other/");
+      index.remove(model);
+      assertEquals(4, index.size());
+      assertEquals(List.of(), index.list("c", null, Integer.MAX_VALUE));
+   }
+
+}
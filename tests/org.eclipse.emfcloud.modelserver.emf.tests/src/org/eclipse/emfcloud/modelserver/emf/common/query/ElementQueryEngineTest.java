@@ -0,0 +1,195 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emfcloud.modelserver.emf.common.index.EPackageIndexConfiguration;
+import org.eclipse.emfcloud.modelserver.emf.common.index.ModelIndex;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ElementQueryEngine} class.
+ */
+public class ElementQueryEngineTest {
+
+   private EClass node;
+   private EClass task;
+   private EAttribute nodeId;
+   private EAttribute nodeName;
+   private EAttribute taskPriority;
+   private EReference children;
+
+   private Resource resource;
+   private EObject root;
+
+   @Before
+   public void before() {
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("query");
+      ePackage.setNsURI("http://www.eclipse.org/emfcloud/modelserver/test/query");
+
+      node = EcoreFactory.eINSTANCE.createEClass();
+      node.setName("Node");
+      nodeId = EcoreFactory.eINSTANCE.createEAttribute();
+      nodeId.setName("id");
+      nodeId.setEType(EcorePackage.Literals.ESTRING);
+      nodeId.setID(true);
+      node.getEStructuralFeatures().add(nodeId);
+      nodeName = EcoreFactory.eINSTANCE.createEAttribute();
+      nodeName.setName("name");
+      nodeName.setEType(EcorePackage.Literals.ESTRING);
+      node.getEStructuralFeatures().add(nodeName);
+      children = EcoreFactory.eINSTANCE.createEReference();
+      children.setName("children");
+      children.setEType(node);
+      children.setContainment(true);
+      children.setUpperBound(-1);
+      node.getEStructuralFeatures().add(children);
+
+      task = EcoreFactory.eINSTANCE.createEClass();
+      task.setName("Task");
+      task.getESuperTypes().add(node);
+      taskPriority = EcoreFactory.eINSTANCE.createEAttribute();
+      taskPriority.setName("priority");
+      taskPriority.setEType(EcorePackage.Literals.EINT);
+      task.getEStructuralFeatures().add(taskPriority);
+
+      ePackage.getEClassifiers().add(node);
+      ePackage.getEClassifiers().add(task);
+
+      resource = new XMIResourceImpl(URI.createURI("file:/workspace/test.xmi"));
+      root = create(node, "root", null);
+      resource.getContents().add(root);
+      EObject a = create(task, "a", 1);
+      EObject b = create(node, "b", null);
+      children(root).addAll(List.of(a, b));
+      children(b).add(create(task, "c", 2));
+      children(b).add(create(task, "a", 2));
+   }
+
+   @Test
+   public void find_indexedAndScannedAgree() {
+      ElementQueryEngine scanning = new ElementQueryEngine(res -> Optional.empty());
+      ModelIndex index = ModelIndex.getOrCreate(resource, new EPackageIndexConfiguration(Collections.emptySet()));
+      ElementQueryEngine indexed = new ElementQueryEngine(res -> Optional.of(index));
+
+      for (ElementQuery query : List.of(
+         new ElementQuery("Task", Map.of()),
+         new ElementQuery("Node", Map.of("name", "a")),
+         new ElementQuery(null, Map.of("name", "a", "priority", "2")),
+         new ElementQuery(EcoreUtil.getURI(task).toString(), Map.of("priority", "2")),
+         new ElementQuery("Task", Map.of("priority", "high")))) {
+         assertEquals(query.toString(), scanning.find(resource, query), indexed.find(resource, query));
+      }
+      assertEquals(List.of("a", "c", "a"), names(scanning.find(resource, new ElementQuery("Task", Map.of()))));
+      assertEquals(List.of("c", "a"), names(indexed.find(resource, new ElementQuery(null, Map.of("priority", "2")))));
+   }
+
+   @Test
+   public void execute_pagesWithOffsetAndCursor() {
+      // cursors identify elements by their ID, which is stable across changes of the model
+      ElementQueryEngine engine = new ElementQueryEngine(res -> Optional.empty());
+      ElementQuery query = new ElementQuery("Node", Map.of());
+
+      ElementQueryResult first = engine.execute(List.of(resource), query, 0, 2, null);
+      assertEquals(List.of("root", "a"), names(first.getElements()));
+      assertNotNull(first.getNextCursor());
+
+      ElementQueryResult byOffset = engine.execute(List.of(resource), query, 2, 2, null);
+      assertEquals(List.of("b", "c"), names(byOffset.getElements()));
+
+      // elements added before the cursor do not shift the next page
+      children(root).add(0, create(node, "new", null));
+      ElementQueryResult second = engine.execute(List.of(resource), query, 0, 2, first.getNextCursor());
+      assertEquals(List.of("b", "c"), names(second.getElements()));
+
+      ElementQueryResult last = engine.execute(List.of(resource), query, 0, 2, second.getNextCursor());
+      assertEquals(List.of("a"), names(last.getElements()));
+      assertNull(last.getNextCursor());
+   }
+
+   @Test
+   public void execute_cursorOfDeletedElement() {
+      ModelIndex index = ModelIndex.getOrCreate(resource, new EPackageIndexConfiguration(Collections.emptySet()));
+      ElementQueryEngine engine = new ElementQueryEngine(res -> Optional.of(index));
+      ElementQuery query = new ElementQuery("Node", Map.of());
+      ElementQueryResult first = engine.execute(List.of(resource), query, 0, 2, null);
+      assertEquals(List.of("root", "a"), names(first.getElements()));
+
+      // the next page continues where the deleted element was
+      children(root).remove(0);
+      ElementQueryResult second = engine.execute(List.of(resource), query, 0, 2, first.getNextCursor());
+      assertEquals(List.of("b", "c"), names(second.getElements()));
+   }
+
+   @Test
+   public void execute_indexedAndScannedPagesAgree() {
+      ModelIndex index = ModelIndex.getOrCreate(resource, new EPackageIndexConfiguration(Collections.emptySet()));
+      ElementQueryEngine scanning = new ElementQueryEngine(res -> Optional.empty());
+      ElementQueryEngine indexed = new ElementQueryEngine(res -> Optional.of(index));
+      ElementQuery query = new ElementQuery("Task", Map.of());
+
+      ElementQueryResult scanned = scanning.execute(List.of(resource), query, 1, 1, null);
+      assertEquals(List.of("c"), names(scanned.getElements()));
+      assertEquals(scanned.getElements(), indexed.execute(List.of(resource), query, 1, 1, null).getElements());
+
+      scanned = scanning.execute(List.of(resource), query, 0, 1, scanned.getNextCursor());
+      assertEquals(List.of("a"), names(scanned.getElements()));
+      assertNull(scanned.getNextCursor());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void execute_invalidCursor() {
+      ElementQueryEngine engine = new ElementQueryEngine(res -> Optional.empty());
+      engine.execute(List.of(resource), new ElementQuery("Node", Map.of()), 0, 2, "bm8gY3Vyc29y");
+   }
+
+   private EObject create(final EClass eClass, final String name, final Integer priority) {
+      EObject result = EcoreUtil.create(eClass);
+      result.eSet(nodeId, EcoreUtil.generateUUID());
+      result.eSet(nodeName, name);
+      if (priority != null) {
+         result.eSet(taskPriority, priority);
+      }
+      return result;
+   }
+
+   @SuppressWarnings("unchecked")
+   private List<EObject> children(final EObject parent) {
+      return (List<EObject>) parent.eGet(children);
+   }
+
+   private List<String> names(final List<EObject> elements) {
+      return elements.stream().map(element -> (String) element.eGet(nodeName)).collect(Collectors.toList());
+   }
+
+}
@@ -0,0 +1,137 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link LiveQuery} class.
+ */
+public class LiveQueryTest {
+
+   private Resource resource;
+   private EPackage ePackage;
+   private EClass machine;
+   private EClass brewer;
+   private LiveQuery liveQuery;
+
+   @Before
+   public void before() {
+      resource = new ResourceImpl(URI.createURI("coffee.ecore"));
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      machine = createEClass("Machine", true);
+      brewer = createEClass("Brewer", false);
+      ePackage.getEClassifiers().addAll(List.of(machine, brewer, EcoreFactory.eINSTANCE.createEDataType()));
+      resource.getContents().add(ePackage);
+
+      liveQuery = new LiveQuery(new ElementQuery("EClass", Map.of("abstract", "true")),
+         element -> ((EClass) element).getName());
+      liveQuery.attach(resource);
+   }
+
+   @Test
+   public void drainDelta_initialMatches() {
+      assertDelta(List.of(machine), List.of(), List.of());
+      assertTrue(liveQuery.drainDelta().isEmpty());
+      assertEquals(Map.of(machine, "Machine"), liveQuery.getMatches());
+   }
+
+   @Test
+   public void drainDelta_predicateChanges() {
+      liveQuery.drainDelta();
+
+      brewer.setAbstract(true);
+      machine.setAbstract(false);
+      assertDelta(List.of(brewer), List.of(machine), List.of());
+
+      // entering and leaving the matches between two deltas is not reported
+      machine.setAbstract(true);
+      machine.setAbstract(false);
+      assertTrue(liveQuery.drainDelta().isEmpty());
+   }
+
+   @Test
+   public void drainDelta_changedMatches() {
+      liveQuery.drainDelta();
+
+      machine.setName("CoffeeMachine");
+      brewer.setName("TeaBrewer");
+      ePackage.getEClassifiers().move(0, 1);
+      assertDelta(List.of(), List.of(), List.of(machine));
+      assertEquals("CoffeeMachine", liveQuery.getMatches().get(machine));
+   }
+
+   @Test
+   public void drainDelta_containmentChanges() {
+      liveQuery.drainDelta();
+
+      EClass grinder = createEClass("Grinder", true);
+      ePackage.getEClassifiers().add(grinder);
+      ePackage.getEClassifiers().remove(machine);
+      assertDelta(List.of(grinder), List.of(machine), List.of());
+
+      // a removed and re-added element still matches
+      ePackage.getEClassifiers().remove(grinder);
+      ePackage.getEClassifiers().add(grinder);
+      assertDelta(List.of(), List.of(), List.of(grinder));
+   }
+
+   @Test
+   public void attach_reloadedResource() {
+      liveQuery.drainDelta();
+
+      Resource reloaded = new ResourceImpl(resource.getURI());
+      EPackage reloadedPackage = EcoreFactory.eINSTANCE.createEPackage();
+      EClass reloadedMachine = createEClass("Machine", true);
+      reloadedPackage.getEClassifiers().add(reloadedMachine);
+      reloaded.getContents().add(reloadedPackage);
+
+      liveQuery.attach(reloaded);
+      assertDelta(List.of(reloadedMachine), List.of(machine), List.of());
+
+      // the former resource is not observed any more
+      brewer.setAbstract(true);
+      assertTrue(liveQuery.drainDelta().isEmpty());
+
+      liveQuery.dispose();
+      reloadedMachine.setName("Grinder");
+      assertTrue(liveQuery.drainDelta().isEmpty());
+   }
+
+   private void assertDelta(final List<EObject> added, final List<EObject> removed, final List<EObject> changed) {
+      LiveQueryDelta delta = liveQuery.drainDelta();
+      assertEquals(added, List.copyOf(delta.getAdded().keySet()));
+      assertEquals(removed, List.copyOf(delta.getRemoved().keySet()));
+      assertEquals(changed, List.copyOf(delta.getChanged().keySet()));
+   }
+
+   private static EClass createEClass(final String name, final boolean isAbstract) {
+      EClass result = EcoreFactory.eINSTANCE.createEClass();
+      result.setName(name);
+      result.setAbstract(isAbstract);
+      return result;
+   }
+
+}
@@ -0,0 +1,141 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link FullTextIndex} class.
+ */
+public class FullTextIndexTest {
+
+   private Resource resource;
+   private EPackage ePackage;
+   private FullTextIndex index;
+
+   @Before
+   public void before() {
+      resource = new ResourceImpl(URI.createURI("coffee.ecore"));
+      new ResourceSetImpl().getResources().add(resource);
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("coffee");
+      ePackage.getEClassifiers().add(createEClass("BrewingUnit"));
+      ePackage.getEClassifiers().add(createEClass("WaterTank"));
+      ePackage.getEClassifiers().add(createEClass("Brewer3000"));
+      resource.getContents().add(ePackage);
+
+      index = new FullTextIndex();
+      index.attach(resource);
+   }
+
+   @Test
+   public void tokenizeText() {
+      assertEquals(List.of("brewing", "unit", "brewingunit", "water", "tank"),
+         Tokenizer.tokenizeText("BrewingUnit, water-tank"));
+      assertEquals(List.of("brewingunit"), Tokenizer.tokenizeQuery("BrewingUnit"));
+   }
+
+   @Test
+   public void search() {
+      assertEquals(List.of("BrewingUnit"), search("unit"));
+      assertEquals(List.of("BrewingUnit"), search("BREWINGUNIT"));
+      assertEquals(List.of(), search("unit tank"));
+      assertEquals(List.of(), search(""));
+   }
+
+   @Test
+   public void search_prefix() {
+      assertEquals(List.of("BrewingUnit", "Brewer3000"), search("brew"));
+      assertEquals(List.of("WaterTank"), search("water ta"));
+      // only the last term of the query is a prefix
+      assertEquals(List.of(), search("wat tank"));
+   }
+
+   @Test
+   public void search_ranking() {
+      ePackage.getEClassifiers().add(createEClass("BrewingUnitTest"));
+      ePackage.getEClassifiers().add(createEClass("Tanker"));
+
+      // the shorter text matches better
+      assertEquals(List.of("BrewingUnit", "BrewingUnitTest"), search("brewing unit"));
+      // exact matches rank above prefix matches
+      assertEquals(List.of("WaterTank", "Tanker"), search("tank"));
+   }
+
+   @Test
+   public void search_incrementalUpdates() {
+      EClass waterTank = (EClass) ePackage.getEClassifier("WaterTank");
+      waterTank.setName("MilkTank");
+      assertEquals(List.of(), search("water"));
+      assertEquals(List.of("MilkTank"), search("milk"));
+
+      ePackage.getEClassifiers().remove(waterTank);
+      assertEquals(List.of(), search("milk"));
+
+      ePackage.getEClassifiers().add(createEClass("Grinder"));
+      assertEquals(List.of("Grinder"), search("grinder"));
+   }
+
+   @Test
+   public void search_filterAndLimit() {
+      List<SearchHit> hits = index.search("brew", element -> element != ePackage.getEClassifier("BrewingUnit"), 10);
+      assertEquals(1, hits.size());
+      assertEquals(1, index.search("brew", element -> true, 1).size());
+   }
+
+   @Test
+   public void detach() {
+      // the package and its classes
+      assertEquals(4, index.size());
+
+      index.detach(resource);
+      assertEquals(0, index.size());
+      assertEquals(0, index.getTermCount());
+      assertTrue(search("brew").isEmpty());
+
+      // changes after detaching are ignored
+      ePackage.getEClassifiers().add(createEClass("Grinder"));
+      assertTrue(search("grinder").isEmpty());
+   }
+
+   private List<String> search(final String query) {
+      return index.search(query, element -> true, FullTextIndex.DEFAULT_LIMIT).stream()
+         .map(SearchHit::getElement)
+         .map(FullTextIndexTest::getName)
+         .collect(Collectors.toList());
+   }
+
+   private static String getName(final EObject element) {
+      return element instanceof EClass ? ((EClass) element).getName() : ((EPackage) element).getName();
+   }
+
+   private static EClass createEClass(final String name) {
+      EClass result = EcoreFactory.eINSTANCE.createEClass();
+      result.setName(name);
+      return result;
+   }
+
+}
@@ -0,0 +1,123 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CompactModel} class.
+ */
+public class CompactModelTest {
+
+   private XMLResource resource;
+   private EPackage ePackage;
+   private EClass eClassA;
+   private EClass eClassB;
+
+   @Before
+   public void before() {
+      resource = new XMIResourceImpl(URI.createURI("test.ecore"));
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("test");
+      eClassA = createEClass("A");
+      eClassB = createEClass("B");
+      eClassA.getESuperTypes().add(eClassB);
+      ePackage.getEClassifiers().add(eClassA);
+      ePackage.getEClassifiers().add(eClassB);
+      resource.getContents().add(ePackage);
+   }
+
+   @Test
+   public void inflate_equalDetachedCopy() {
+      CompactModel compactModel = CompactModel.of(resource, new HashMap<>()).get();
+      InflatedModel inflated = compactModel.inflate();
+
+      assertEquals(3, compactModel.size());
+      assertEquals(resource.getURI(), inflated.getResource().getURI());
+      assertTrue(EcoreUtil.equals(resource.getContents(), inflated.getResource().getContents()));
+      EClass copyA = (EClass) inflated.getElement(1);
+      assertNotSame(eClassA, copyA);
+      assertSame(inflated.getElement(2), copyA.getESuperTypes().get(0));
+      assertSame(inflated.getElement(0), copyA.eContainer());
+      assertEquals(0, compactModel.getContainer(1));
+   }
+
+   @Test
+   public void of_sharesEqualStrings() {
+      EAttribute attributeA = createEAttribute(new String("name"));
+      EAttribute attributeB = createEAttribute(new String("name"));
+      eClassA.getEStructuralFeatures().add(attributeA);
+      eClassB.getEStructuralFeatures().add(attributeB);
+
+      CompactModel compactModel = CompactModel.of(resource, new HashMap<>()).get();
+
+      // document order: test, A, A.name, B, B.name
+      assertSame(EcorePackage.Literals.EATTRIBUTE, compactModel.getEClass(2));
+      Object nameA = compactModel.getAttributeValue(2, EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+      Object nameB = compactModel.getAttributeValue(4, EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+      assertEquals("name", nameA);
+      assertSame(nameA, nameB);
+   }
+
+   @Test
+   public void inflate_externalReferencesAreProxies() {
+      EAttribute attribute = createEAttribute("name");
+      attribute.setEType(EcorePackage.Literals.ESTRING);
+      eClassA.getEStructuralFeatures().add(attribute);
+
+      InflatedModel inflated = CompactModel.of(resource, new HashMap<>()).get().inflate();
+
+      EObject eType = (EObject) inflated.getElement(2).eGet(EcorePackage.Literals.ETYPED_ELEMENT__ETYPE, false);
+      assertTrue(eType.eIsProxy());
+      assertEquals(EcoreUtil.getURI(EcorePackage.Literals.ESTRING), EcoreUtil.getURI(eType));
+   }
+
+   @Test
+   public void inflate_keepsXMLIds() {
+      resource.setID(eClassB, "class-b");
+
+      InflatedModel inflated = CompactModel.of(resource, new HashMap<>()).get().inflate();
+
+      assertEquals("class-b", ((XMLResource) inflated.getResource()).getID(inflated.getElement(2)));
+      assertSame(inflated.getElement(2), inflated.getResource().getEObject("class-b"));
+   }
+
+   private static EClass createEClass(final String name) {
+      EClass result = EcoreFactory.eINSTANCE.createEClass();
+      result.setName(name);
+      return result;
+   }
+
+   private static EAttribute createEAttribute(final String name) {
+      EAttribute result = EcoreFactory.eINSTANCE.createEAttribute();
+      result.setName(name);
+      return result;
+   }
+
+}
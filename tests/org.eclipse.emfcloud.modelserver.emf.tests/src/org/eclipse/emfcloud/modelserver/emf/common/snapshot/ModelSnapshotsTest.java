@@ -0,0 +1,156 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.emfcloud.modelserver.common.codecs.DetachedCopy;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelSnapshots} class.
+ */
+public class ModelSnapshotsTest {
+
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+   private XMLResource resource;
+   private EPackage ePackage;
+   private EClass eClass;
+   private ModelSnapshots snapshots;
+
+   @Before
+   public void before() {
+      resource = new XMIResourceImpl(URI.createURI("test.ecore"));
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("test");
+      eClass = EcoreFactory.eINSTANCE.createEClass();
+      eClass.setName("A");
+      ePackage.getEClassifiers().add(eClass);
+      resource.getContents().add(ePackage);
+      resource.setID(eClass, "class-a");
+      snapshots = ModelSnapshots.getOrCreate(resource, lock, resource::getID);
+   }
+
+   @Test
+   public void getSnapshot_detachedCopy() {
+      ModelSnapshot snapshot = snapshots.getSnapshot();
+
+      EPackage copy = (EPackage) snapshot.getModel().get();
+      assertNotSame(ePackage, copy);
+      assertEquals("test", copy.getName());
+      assertEquals("A", copy.getEClassifiers().get(0).getName());
+      assertSame(snapshot.getElement("class-a").get(), snapshot.getElementByName("A").get());
+      assertNotSame(eClass, snapshot.getElement("class-a").get());
+      assertEquals(resource.getURI(), snapshot.getResource().getURI());
+      assertEquals("class-a", snapshot.getResource().getURIFragment(snapshot.getElement("class-a").get()));
+      assertTrue(snapshot.getCompactModel().isPresent());
+      assertEquals(2, snapshot.size());
+   }
+
+   @Test
+   public void getSnapshot_sameVersionIsShared() {
+      assertSame(snapshots.getSnapshot(), snapshots.getSnapshot());
+   }
+
+   @Test
+   public void getSnapshot_unchangedByLaterChanges() {
+      ModelSnapshot snapshot = snapshots.getSnapshot();
+      long version = snapshots.getVersion();
+
+      eClass.setName("B");
+      EClass added = EcoreFactory.eINSTANCE.createEClass();
+      ePackage.getEClassifiers().add(added);
+      resource.setID(added, "class-x");
+
+      assertEquals("A", ((EClass) snapshot.getElement("class-a").get()).getName());
+      assertFalse(snapshot.getElement("class-x").isPresent());
+      assertFalse(snapshot.getElementByName("B").isPresent());
+      assertEquals(version + 2, snapshots.getVersion());
+
+      ModelSnapshot current = snapshots.getSnapshot();
+      assertNotSame(snapshot, current);
+      assertEquals("B", ((EClass) current.getElement("class-a").get()).getName());
+      assertTrue(current.getElement("class-x").isPresent());
+   }
+
+   @Test
+   public void getModel_copyOfItsOwn() {
+      ModelSnapshot snapshot = snapshots.getSnapshot();
+
+      EObject first = snapshot.getModel().get();
+      EObject second = snapshot.getModel().get();
+
+      assertNotSame(first, second);
+      assertTrue(DetachedCopy.isDetachedCopy(first));
+      assertFalse(DetachedCopy.isDetachedCopy(snapshot.getElement("class-a").get()));
+      assertTrue(EcoreUtil.equals(first, second));
+   }
+
+   @Test
+   public void getSnapshot_notTakenByWriters() {
+      ModelSnapshot snapshot = snapshots.getSnapshot();
+
+      lock.writeLock().lock();
+      try {
+         eClass.setName("B");
+      } finally {
+         lock.writeLock().unlock();
+      }
+
+      ModelSnapshot current = snapshots.getSnapshot();
+      assertNotSame(snapshot, current);
+      assertEquals(snapshots.getVersion(), current.getVersion());
+      assertSame(current, snapshots.getSnapshot());
+      assertEquals("B", ((EClass) current.getElement("class-a").get()).getName());
+   }
+
+   @Test
+   public void getSnapshot_waitsForWriter() throws InterruptedException, ExecutionException, TimeoutException {
+      CompletableFuture<ModelSnapshot> reader;
+      lock.writeLock().lock();
+      try {
+         eClass.setName("B");
+         reader = CompletableFuture.supplyAsync(snapshots::getSnapshot);
+         try {
+            reader.get(100, TimeUnit.MILLISECONDS);
+         } catch (TimeoutException expected) {
+            // the reader must not see the half-applied change
+         }
+         assertFalse(reader.isDone());
+         eClass.setName("C");
+      } finally {
+         lock.writeLock().unlock();
+      }
+
+      assertEquals("C", ((EClass) reader.get(10, TimeUnit.SECONDS).getElement("class-a").get()).getName());
+   }
+
+}
@@ -0,0 +1,126 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link WorkspaceStatistics} class.
+ */
+public class WorkspaceStatisticsTest {
+
+   private Resource resource;
+   private EPackage ePackage;
+   private EClass machine;
+   private WorkspaceStatistics statistics;
+
+   @Before
+   public void before() {
+      resource = createResource("coffee.ecore");
+      ePackage = (EPackage) resource.getContents().get(0);
+      machine = (EClass) ePackage.getEClassifiers().get(0);
+
+      statistics = new WorkspaceStatistics();
+      statistics.attach(resource);
+   }
+
+   @Test
+   public void getStatistics() {
+      ModelStatistics result = statistics.getStatistics(resource).get();
+      assertEquals(1, result.getModelCount());
+      assertEquals(3, result.getElementCount());
+      assertEquals(3, result.getMaxDepth());
+      assertEquals(Map.of(EcorePackage.Literals.EPACKAGE, 1, EcorePackage.Literals.ECLASS, 1,
+         EcorePackage.Literals.EATTRIBUTE, 1), result.getInstanceCounts());
+   }
+
+   @Test
+   public void getStatistics_incrementalUpdates() {
+      long size = statistics.getStatistics(resource).get().getEstimatedSize();
+      machine.setName("CoffeeMachine");
+      assertEquals(size + "Coffee".length(), statistics.getStatistics(resource).get().getEstimatedSize());
+      assertUpToDate();
+
+      EClass brewer = EcoreFactory.eINSTANCE.createEClass();
+      brewer.setName("Brewer");
+      brewer.getESuperTypes().add(machine);
+      ePackage.getEClassifiers().add(brewer);
+      assertUpToDate();
+
+      EPackage subpackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.getESubpackages().add(subpackage);
+      subpackage.getEClassifiers().add(machine);
+      assertEquals(4, statistics.getStatistics(resource).get().getMaxDepth());
+      assertUpToDate();
+
+      // the generic super type of the brewer is the deepest element now
+      ePackage.getESubpackages().remove(subpackage);
+      assertEquals(3, statistics.getStatistics(resource).get().getMaxDepth());
+      assertUpToDate();
+   }
+
+   @Test
+   public void getTotals() {
+      Resource other = createResource("tea.ecore");
+      statistics.attach(other);
+
+      ModelStatistics totals = statistics.getTotals();
+      assertEquals(2, totals.getModelCount());
+      assertEquals(6, totals.getElementCount());
+      assertEquals(3, totals.getMaxDepth());
+      assertEquals(2, totals.getInstanceCounts().get(EcorePackage.Literals.ECLASS).intValue());
+
+      statistics.detach(other);
+      assertEquals(1, statistics.getTotals().getModelCount());
+      assertFalse(statistics.getStatistics(other).isPresent());
+   }
+
+   private void assertUpToDate() {
+      ModelStatistics expected = WorkspaceStatistics.compute(resource);
+      ModelStatistics actual = statistics.getStatistics(resource).get();
+      assertEquals(expected.getElementCount(), actual.getElementCount());
+      assertEquals(expected.getMaxDepth(), actual.getMaxDepth());
+      assertEquals(expected.getReferenceCount(), actual.getReferenceCount());
+      assertEquals(expected.getEstimatedSize(), actual.getEstimatedSize());
+      assertEquals(expected.getInstanceCounts(), actual.getInstanceCounts());
+   }
+
+   private static Resource createResource(final String uri) {
+      Resource result = new ResourceImpl(URI.createURI(uri));
+      new ResourceSetImpl().getResources().add(result);
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("coffee");
+      EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+      eClass.setName("Machine");
+      EAttribute attribute = EcoreFactory.eINSTANCE.createEAttribute();
+      attribute.setName("serial");
+      eClass.getEStructuralFeatures().add(attribute);
+      ePackage.getEClassifiers().add(eClass);
+      result.getContents().add(ePackage);
+      return result;
+   }
+
+}
@@ -0,0 +1,186 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelValidation} class.
+ */
+public class ModelValidationTest {
+
+   private final Map<EObject, String> ids = new IdentityHashMap<>();
+   private final List<EObject> validatedElements = new ArrayList<>();
+   private final List<ValidationDelta> deltas = new ArrayList<>();
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+   private Resource resource;
+   private EPackage ePackage;
+   private EClass validClass;
+   private EClass invalidClass;
+   private ModelValidation validation;
+
+   @Before
+   public void before() {
+      resource = new ResourceImpl(URI.createURI("test.ecore"));
+      ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("test");
+      ePackage.setNsURI("http://www.eclipse.org/emfcloud/test");
+      ePackage.setNsPrefix("test");
+      validClass = createEClass("A");
+      invalidClass = createEClass("1B");
+      ePackage.getEClassifiers().add(validClass);
+      ePackage.getEClassifiers().add(invalidClass);
+      resource.getContents().add(ePackage);
+
+      // validate synchronously on the calling thread
+      validation = new ModelValidation(this::getId, lock, Runnable::run) {
+         @Override
+         protected List<ElementDiagnostic> validateElement(final EObject element) {
+            validatedElements.add(element);
+            return super.validateElement(element);
+         }
+      };
+      resource.eAdapters().add(validation);
+      validation.subscribe(deltas::add).join();
+      validatedElements.clear();
+   }
+
+   @Test
+   public void subscribe_reportsCurrentDiagnostics() {
+      assertEquals(1, deltas.size());
+      Map<String, List<ElementDiagnostic>> diagnostics = deltas.get(0).getDiagnostics();
+      assertEquals(1, diagnostics.size());
+      assertFalse(diagnostics.get(getId(invalidClass)).isEmpty());
+      assertEquals(diagnostics, validation.getDiagnostics());
+   }
+
+   @Test
+   public void validate_onlyChangedElementsAndTheirContainer() {
+      validClass.setName("C");
+
+      ValidationDelta delta = validation.validate().join();
+
+      assertEquals(2, validatedElements.size());
+      assertTrue(validatedElements.contains(validClass));
+      assertTrue(validatedElements.contains(ePackage));
+      assertTrue(delta.isEmpty());
+      assertEquals(1, deltas.size());
+   }
+
+   @Test
+   public void validate_reportsFixedElement() {
+      invalidClass.setName("B");
+
+      ValidationDelta delta = validation.validate().join();
+
+      assertEquals(1, delta.getDiagnostics().size());
+      assertTrue(delta.getDiagnostics().get(getId(invalidClass)).isEmpty());
+      assertTrue(validation.getDiagnostics().isEmpty());
+      assertEquals(2, deltas.size());
+   }
+
+   @Test
+   public void validate_reportsNewProblem() {
+      EClass added = createEClass("2C");
+      ePackage.getEClassifiers().add(added);
+
+      ValidationDelta delta = validation.validate().join();
+
+      assertFalse(delta.getDiagnostics().get(getId(added)).isEmpty());
+      assertEquals(2, validation.getDiagnostics().size());
+   }
+
+   @Test
+   public void validate_clearsRemovedElement() {
+      ePackage.getEClassifiers().remove(invalidClass);
+
+      ValidationDelta delta = validation.validate().join();
+
+      assertTrue(delta.getDiagnostics().get(getId(invalidClass)).isEmpty());
+      assertFalse(validatedElements.contains(invalidClass));
+      assertTrue(validation.getDiagnostics().isEmpty());
+   }
+
+   @Test
+   public void validate_withoutChanges() {
+      ValidationDelta delta = validation.validate().join();
+
+      assertTrue(delta.isEmpty());
+      assertTrue(validatedElements.isEmpty());
+      assertEquals(1, deltas.size());
+   }
+
+   @Test
+   public void validate_waitsForWriters() throws Exception {
+      invalidClass.setName("B");
+      CompletableFuture<ValidationDelta> pass;
+      lock.writeLock().lock();
+      try {
+         pass = CompletableFuture.supplyAsync(() -> validation.validate().join());
+         Thread.sleep(100);
+         assertFalse(pass.isDone());
+      } finally {
+         lock.writeLock().unlock();
+      }
+
+      ValidationDelta delta = pass.get(5, TimeUnit.SECONDS);
+
+      assertTrue(delta.getDiagnostics().get(getId(invalidClass)).isEmpty());
+   }
+
+   @Test
+   public void unsubscribe_stopsDeltas() {
+      List<ValidationDelta> received = new ArrayList<>();
+      Consumer<ValidationDelta> subscriber = received::add;
+      validation.subscribe(subscriber).join();
+      validation.unsubscribe(subscriber);
+
+      invalidClass.setName("B");
+      validation.validate().join();
+
+      assertEquals(1, received.size());
+      assertEquals(2, deltas.size());
+   }
+
+   private String getId(final EObject element) {
+      return ids.computeIfAbsent(element, key -> "id" + ids.size());
+   }
+
+   private static EClass createEClass(final String name) {
+      EClass result = EcoreFactory.eINSTANCE.createEClass();
+      result.setName(name);
+      return result;
+   }
+
+}
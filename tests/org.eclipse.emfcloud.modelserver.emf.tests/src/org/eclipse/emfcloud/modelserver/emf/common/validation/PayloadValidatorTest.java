@@ -0,0 +1,160 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.common.validation;
+
+import static org.eclipse.emfcloud.modelserver.jsonschema.Json.prop;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Optional;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.impl.EPackageRegistryImpl;
+import org.eclipse.emfcloud.modelserver.jsonschema.Json;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+
+/**
+ * Unit tests for the {@link PayloadValidator} class.
+ */
+public class PayloadValidatorTest {
+
+   private static final String NS_URI = "http://www.eclipsesource.com/modelserver/example/machines";
+   private static final String MACHINE = NS_URI + "#//Machine";
+   private static final String PART = NS_URI + "#//Part";
+
+   private PayloadValidator validator;
+
+   @Before
+   public void before() {
+      EPackage ePackage = EcoreFactory.eINSTANCE.createEPackage();
+      ePackage.setName("machines");
+      ePackage.setNsURI(NS_URI);
+
+      EEnum kind = EcoreFactory.eINSTANCE.createEEnum();
+      kind.setName("Kind");
+      kind.getELiterals().add(createLiteral("espresso", 0));
+      kind.getELiterals().add(createLiteral("filter", 1));
+      ePackage.getEClassifiers().add(kind);
+
+      EClass part = EcoreFactory.eINSTANCE.createEClass();
+      part.setName("Part");
+      part.getEStructuralFeatures().add(createAttribute("weight", EcorePackage.Literals.EDOUBLE));
+      ePackage.getEClassifiers().add(part);
+
+      EClass machine = EcoreFactory.eINSTANCE.createEClass();
+      machine.setName("Machine");
+      machine.getEStructuralFeatures().add(createAttribute("name", EcorePackage.Literals.ESTRING));
+      machine.getEStructuralFeatures().add(createAttribute("cores", EcorePackage.Literals.EINT));
+      machine.getEStructuralFeatures().add(createAttribute("kind", kind));
+      EReference parts = EcoreFactory.eINSTANCE.createEReference();
+      parts.setName("parts");
+      parts.setEType(part);
+      parts.setContainment(true);
+      parts.setUpperBound(-1);
+      machine.getEStructuralFeatures().add(parts);
+      EReference spare = EcoreFactory.eINSTANCE.createEReference();
+      spare.setName("spare");
+      spare.setEType(part);
+      machine.getEStructuralFeatures().add(spare);
+      ePackage.getEClassifiers().add(machine);
+
+      EPackage.Registry registry = new EPackageRegistryImpl();
+      registry.put(NS_URI, ePackage);
+      validator = new PayloadValidator(registry);
+   }
+
+   @Test
+   public void validate_validPayload() {
+      JsonNode payload = Json.object(
+         prop("eClass", Json.text(MACHINE)),
+         prop("name", Json.text("SuperBrewer3000")),
+         prop("cores", IntNode.valueOf(4)),
+         prop("kind", Json.text("espresso")),
+         prop("spare", Json.object(prop("eClass", Json.text(PART)), prop("$ref", Json.text("//@parts.0")))),
+         prop("parts", Json.array(
+            Json.object(prop("eClass", Json.text(PART)), prop("weight", Json.text("1.5"))),
+            Json.object(prop("weight", IntNode.valueOf(2))))));
+
+      assertFalse(validator.validate(payload).isPresent());
+   }
+
+   @Test
+   public void validate_unknownFeature() {
+      JsonNode payload = Json.object(
+         prop("eClass", Json.text(MACHINE)),
+         prop("parts", Json.array(
+            Json.object(prop("eClass", Json.text(PART)), prop("color", Json.text("red"))))));
+
+      assertEquals(Optional.of("/parts/0/color: 'color' is not a feature of EClass 'Part'"),
+         validator.validate(payload));
+   }
+
+   @Test
+   public void validate_unknownFeatureWithoutLeadingEClass() {
+      // the object may be an instance of a subclass of Part, which is only known after reading its eClass
+      JsonNode payload = Json.object(
+         prop("eClass", Json.text(MACHINE)),
+         prop("parts", Json.array(
+            Json.object(prop("color", Json.text("red")), prop("eClass", Json.text(PART))))));
+
+      assertFalse(validator.validate(payload).isPresent());
+   }
+
+   @Test
+   public void validate_invalidValues() {
+      assertEquals(Optional.of("/cores: expected an integer"),
+         validator.validate(Json.object(prop("eClass", Json.text(MACHINE)), prop("cores", Json.text("four")))));
+      assertEquals(Optional.of("/kind: expected an enumeration literal"),
+         validator.validate(Json.object(prop("eClass", Json.text(MACHINE)), prop("kind", Json.text("latte")))));
+      assertEquals(Optional.of("/parts: expected an array"),
+         validator.validate(Json.object(prop("eClass", Json.text(MACHINE)), prop("parts", Json.object()))));
+      assertEquals(Optional.of("/name: expected a string"),
+         validator.validate(Json.object(prop("eClass", Json.text(MACHINE)), prop("name", Json.array()))));
+      assertEquals(Optional.of("/: expected an object"), validator.validate(Json.array()));
+   }
+
+   @Test
+   public void validate_unregisteredEClass() {
+      JsonNode payload = Json.object(
+         prop("eClass", Json.text("http://www.eclipsesource.com/modelserver/example/unknown#//Machine")),
+         prop("cores", Json.text("four")));
+
+      assertFalse(validator.validate(payload).isPresent());
+   }
+
+   private static EAttribute createAttribute(final String name, final EClassifier type) {
+      EAttribute result = EcoreFactory.eINSTANCE.createEAttribute();
+      result.setName(name);
+      result.setEType(type);
+      return result;
+   }
+
+   private static EEnumLiteral createLiteral(final String literal, final int value) {
+      EEnumLiteral result = EcoreFactory.eINSTANCE.createEEnumLiteral();
+      result.setName(literal);
+      result.setLiteral(literal);
+      result.setValue(value);
+      return result;
+   }
+
+}
@@ -0,0 +1,116 @@
+/********************************************************************************
+ * Copyright (c) 2021 EclipseSource and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0, or the MIT License which is
+ * available at https://opensource.org/licenses/MIT.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR MIT
+ ********************************************************************************/
+package org.eclipse.emfcloud.modelserver.emf.launch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ModelServerThreadPool} class.
+ */
+public class ModelServerThreadPoolTest {
+
+   private static final int BLOCKING_TASKS = 4 * ModelServerThreadPool.DEFAULT_MAX_THREADS;
+
+   private ModelServerThreadPool threadPool;
+   private final CountDownLatch release = new CountDownLatch(1);
+
+   @After
+   public void after() throws Exception {
+      release.countDown();
+      if (threadPool != null) {
+         threadPool.stop();
+      }
+   }
+
+   @Test
+   public void execute_threadPoolByDefault() throws Exception {
+      threadPool = new ModelServerThreadPool(() -> false);
+      threadPool.start();
+
+      CountDownLatch done = new CountDownLatch(1);
+      threadPool.execute(done::countDown);
+
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+      assertFalse(threadPool.isVirtualThreads());
+      assertTrue(threadPool.getThreads() > 0);
+   }
+
+   @Test
+   public void execute_threadPoolBoundsBlockingTasks() throws Exception {
+      threadPool = new ModelServerThreadPool(() -> false);
+      threadPool.start();
+
+      CountDownLatch started = executeBlockingTasks();
+
+      // the pool runs at most its maximal number of threads, the other tasks are queued
+      assertFalse(started.await(500, TimeUnit.MILLISECONDS));
+      assertTrue(started.getCount() >= BLOCKING_TASKS - ModelServerThreadPool.DEFAULT_MAX_THREADS);
+   }
+
+   @Test
+   public void execute_virtualThreadsRunAllBlockingTasks() throws Exception {
+      Optional<ExecutorService> virtualThreads = ModelServerThreadPool.newVirtualThreadExecutor();
+      assumeTrue("Virtual threads need Java 21 or later", virtualThreads.isPresent());
+      virtualThreads.get().shutdown();
+      threadPool = new ModelServerThreadPool(() -> true);
+      threadPool.start();
+
+      CountDownLatch started = executeBlockingTasks();
+
+      assertTrue(threadPool.isVirtualThreads());
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+      assertEquals(BLOCKING_TASKS, threadPool.getThreads());
+   }
+
+   @Test
+   public void start_fallsBackWithoutVirtualThreads() throws Exception {
+      assumeTrue(ModelServerThreadPool.newVirtualThreadExecutor().isEmpty());
+      threadPool = new ModelServerThreadPool(() -> true);
+      threadPool.start();
+
+      assertFalse(threadPool.isVirtualThreads());
+      CountDownLatch done = new CountDownLatch(1);
+      threadPool.execute(done::countDown);
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+   }
+
+   /**
+    * Execute tasks that block like handlers waiting for I/O, until the test is over.
+    *
+    * @return the latch counting down the tasks that started
+    */
+   private CountDownLatch executeBlockingTasks() {
+      CountDownLatch started = new CountDownLatch(BLOCKING_TASKS);
+      for (int i = 0; i < BLOCKING_TASKS; i++) {
+         threadPool.execute(() -> {
+            started.countDown();
+            try {
+               release.await();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         });
+      }
+      return started;
+   }
+
+}